@@ -0,0 +1,127 @@
+package org.wordpress.android.fluxc.benchmark;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.wellsql.generated.PostModelTable;
+import com.yarolegovich.wellsql.SelectQuery;
+import com.yarolegovich.wellsql.WellSql;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.persistence.FullTextSearchUtils;
+import org.wordpress.android.fluxc.persistence.PostSqlUtils;
+import org.wordpress.android.fluxc.persistence.WellSqlConfig;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.Random;
+
+import static android.support.test.InstrumentationRegistry.getInstrumentation;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the latency of a search-as-you-type post search on a site with 20k posts, through the 'LIKE' filter of
+ * {@link PostSqlUtils#getLocalPostsForFilter} and through the full-text search table.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FullTextSearchBenchmark {
+    private static final int POST_COUNT = 20000;
+    private static final int VOCABULARY_SIZE = 2000;
+    private static final int WORDS_PER_TITLE = 6;
+    private static final int WORDS_PER_CONTENT = 300;
+    private static final int REPETITIONS = 5;
+
+    private final Random mRandom = new Random(42);
+    private final SiteModel mSite = new SiteModel();
+    private String[] mVocabulary;
+
+    @Before
+    public void setUp() {
+        Context appContext = getInstrumentation().getTargetContext().getApplicationContext();
+        WellSqlConfig config = new WellSqlConfig(appContext);
+        WellSql.init(config);
+        config.reset();
+        mSite.setId(1);
+
+        mVocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            mVocabulary[i] = randomWord();
+        }
+
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        db.beginTransaction();
+        SQLiteStatement statement = db.compileStatement("INSERT INTO PostModel (LOCAL_SITE_ID, REMOTE_POST_ID, "
+                                                        + "IS_LOCAL_DRAFT, IS_PAGE, TITLE, CONTENT) "
+                                                        + "VALUES (?, ?, 1, 0, ?, ?)");
+        try {
+            for (int i = 0; i < POST_COUNT; i++) {
+                statement.bindLong(1, mSite.getId());
+                statement.bindLong(2, i + 1);
+                statement.bindString(3, randomText(WORDS_PER_TITLE));
+                statement.bindString(4, "<!-- wp:paragraph --><p>" + randomText(WORDS_PER_CONTENT)
+                                        + "</p><!-- /wp:paragraph -->");
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            statement.close();
+            db.endTransaction();
+        }
+    }
+
+    @Test
+    public void testSearchAsYouTypeLatency() {
+        long likeNs = 0;
+        long fullTextNs = 0;
+        int searchCount = 0;
+        for (int i = 0; i < REPETITIONS; i++) {
+            String word = mVocabulary[mRandom.nextInt(VOCABULARY_SIZE)];
+            // One search per keystroke, from the second one
+            for (int length = 2; length <= word.length(); length++) {
+                String query = word.substring(0, length);
+
+                long start = System.nanoTime();
+                assertFalse(PostSqlUtils.getLocalPostsForFilter(mSite, false, query, PostModelTable.DATE_CREATED,
+                        SelectQuery.ORDER_DESCENDING).isEmpty());
+                likeNs += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                assertFalse(PostSqlUtils.searchPostsForSite(mSite, query, false,
+                        FullTextSearchUtils.DEFAULT_RESULT_LIMIT).isEmpty());
+                fullTextNs += System.nanoTime() - start;
+
+                searchCount++;
+            }
+        }
+
+        AppLog.i(T.TESTS, "Post search: " + likeNs / searchCount / 1000 + "us with LIKE, "
+                          + fullTextNs / searchCount / 1000 + "us with full-text search");
+        assertTrue(fullTextNs < likeNs);
+    }
+
+    private String randomWord() {
+        StringBuilder word = new StringBuilder();
+        int length = 4 + mRandom.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + mRandom.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private String randomText(int wordCount) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(mVocabulary[mRandom.nextInt(VOCABULARY_SIZE)]);
+        }
+        return text.toString();
+    }
+}
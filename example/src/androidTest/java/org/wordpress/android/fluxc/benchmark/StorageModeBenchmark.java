@@ -0,0 +1,121 @@
+package org.wordpress.android.fluxc.benchmark;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.yarolegovich.wellsql.WellSql;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wordpress.android.fluxc.persistence.PostSqlUtils;
+import org.wordpress.android.fluxc.persistence.WellSqlConfig;
+import org.wordpress.android.fluxc.persistence.WellSqlConfig.StorageMode;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static android.support.test.InstrumentationRegistry.getInstrumentation;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the latency of post lookups made while another thread writes posts in large transactions (as a post list
+ * sync does), with the rollback journal and with write-ahead logging.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StorageModeBenchmark {
+    private static final int SITE_COUNT = 10;
+    private static final int INITIAL_POST_COUNT = 20000;
+    private static final int WRITE_TRANSACTION_COUNT = 20;
+    private static final int POSTS_PER_TRANSACTION = 2000;
+
+    private static class ReadStats {
+        private int mCount;
+        private long mTotalNs;
+        private long mMaxNs;
+    }
+
+    private final Random mRandom = new Random(42);
+
+    @Test
+    public void testReadLatencyDuringWrites() throws InterruptedException {
+        ReadStats rollbackStats = runWithStorageMode(StorageMode.ROLLBACK_JOURNAL);
+        ReadStats walStats = runWithStorageMode(StorageMode.WRITE_AHEAD_LOGGING);
+
+        logStats("Rollback journal", rollbackStats);
+        logStats("Write-ahead logging", walStats);
+        assertTrue(walStats.mMaxNs < rollbackStats.mMaxNs);
+    }
+
+    private ReadStats runWithStorageMode(final StorageMode storageMode) throws InterruptedException {
+        Context appContext = getInstrumentation().getTargetContext().getApplicationContext();
+        // Keep each mode in its own file, the journal mode of a DB is persistent
+        WellSqlConfig config = new WellSqlConfig(appContext, storageMode) {
+            @Override
+            public String getDbName() {
+                return "benchmark-storage-" + storageMode.name();
+            }
+        };
+        WellSql.init(config);
+        config.reset();
+        insertPosts(0, INITIAL_POST_COUNT);
+
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < WRITE_TRANSACTION_COUNT; i++) {
+                        insertPosts(INITIAL_POST_COUNT + i * POSTS_PER_TRANSACTION, POSTS_PER_TRANSACTION);
+                    }
+                } finally {
+                    writing.set(false);
+                }
+            }
+        });
+        writer.start();
+
+        ReadStats stats = new ReadStats();
+        while (writing.get()) {
+            int remoteId = mRandom.nextInt(INITIAL_POST_COUNT);
+            long start = System.nanoTime();
+            assertEquals(1, PostSqlUtils.getPostsByRemoteIds(
+                    Collections.singletonList((long) remoteId + 1), remoteId % SITE_COUNT + 1).size());
+            long elapsed = System.nanoTime() - start;
+            stats.mCount++;
+            stats.mTotalNs += elapsed;
+            stats.mMaxNs = Math.max(stats.mMaxNs, elapsed);
+        }
+        writer.join();
+        return stats;
+    }
+
+    private void insertPosts(int firstIndex, int count) {
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        db.beginTransaction();
+        SQLiteStatement statement =
+                db.compileStatement("INSERT INTO PostModel (LOCAL_SITE_ID, REMOTE_POST_ID) VALUES (?, ?)");
+        try {
+            for (int i = firstIndex; i < firstIndex + count; i++) {
+                statement.bindLong(1, i % SITE_COUNT + 1);
+                statement.bindLong(2, i + 1);
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            statement.close();
+            db.endTransaction();
+        }
+    }
+
+    private void logStats(String storageMode, ReadStats stats) {
+        AppLog.i(T.TESTS, storageMode + ": " + stats.mCount + " reads, "
+                          + stats.mTotalNs / Math.max(stats.mCount, 1) / 1000 + "us average, "
+                          + stats.mMaxNs / 1000 + "us max");
+    }
+}
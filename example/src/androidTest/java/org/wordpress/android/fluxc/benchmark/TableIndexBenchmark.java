@@ -0,0 +1,115 @@
+package org.wordpress.android.fluxc.benchmark;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.yarolegovich.wellsql.WellSql;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.persistence.MediaSqlUtils;
+import org.wordpress.android.fluxc.persistence.PostSqlUtils;
+import org.wordpress.android.fluxc.persistence.WellSqlConfig;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.Collections;
+import java.util.Random;
+
+import static android.support.test.InstrumentationRegistry.getInstrumentation;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the latency of the post and media lookups by remote id, with and without the indexes declared with
+ * {@code @TableIndexes}, on 50k posts and 100k media spread over 10 sites.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TableIndexBenchmark {
+    private static final int SITE_COUNT = 10;
+    private static final int POST_COUNT = 50000;
+    private static final int MEDIA_COUNT = 100000;
+    private static final int LOOKUP_COUNT = 200;
+
+    private static final String POST_INDEX = "index_PostModel_LOCAL_SITE_ID_REMOTE_POST_ID";
+    private static final String MEDIA_INDEX = "index_MediaModel_LOCAL_SITE_ID_MEDIA_ID";
+
+    private final Random mRandom = new Random(42);
+
+    @Before
+    public void setUp() {
+        Context appContext = getInstrumentation().getTargetContext().getApplicationContext();
+        WellSqlConfig config = new WellSqlConfig(appContext);
+        WellSql.init(config);
+        config.reset();
+
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        db.beginTransaction();
+        try {
+            insertRows(db, "INSERT INTO PostModel (LOCAL_SITE_ID, REMOTE_POST_ID) VALUES (?, ?)", POST_COUNT);
+            insertRows(db, "INSERT INTO MediaModel (LOCAL_SITE_ID, MEDIA_ID) VALUES (?, ?)", MEDIA_COUNT);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Test
+    public void testLookupLatency() {
+        long indexedPostsNs = timePostLookups();
+        long indexedMediaNs = timeMediaLookups();
+
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        db.execSQL("DROP INDEX " + POST_INDEX);
+        db.execSQL("DROP INDEX " + MEDIA_INDEX);
+
+        long scannedPostsNs = timePostLookups();
+        long scannedMediaNs = timeMediaLookups();
+
+        AppLog.i(T.TESTS, "Post lookup: " + scannedPostsNs / LOOKUP_COUNT / 1000 + "us without index, "
+                          + indexedPostsNs / LOOKUP_COUNT / 1000 + "us with index");
+        AppLog.i(T.TESTS, "Media lookup: " + scannedMediaNs / LOOKUP_COUNT / 1000 + "us without index, "
+                          + indexedMediaNs / LOOKUP_COUNT / 1000 + "us with index");
+        assertTrue(indexedPostsNs < scannedPostsNs);
+        assertTrue(indexedMediaNs < scannedMediaNs);
+    }
+
+    private void insertRows(SQLiteDatabase db, String sql, int count) {
+        SQLiteStatement statement = db.compileStatement(sql);
+        try {
+            for (int i = 0; i < count; i++) {
+                statement.bindLong(1, i % SITE_COUNT + 1);
+                statement.bindLong(2, i + 1);
+                statement.executeInsert();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    private long timePostLookups() {
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            int remoteId = mRandom.nextInt(POST_COUNT);
+            int localSiteId = remoteId % SITE_COUNT + 1;
+            assertEquals(1, PostSqlUtils.getPostsByRemoteIds(
+                    Collections.singletonList((long) remoteId + 1), localSiteId).size());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long timeMediaLookups() {
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            int mediaId = mRandom.nextInt(MEDIA_COUNT);
+            SiteModel site = new SiteModel();
+            site.setId(mediaId % SITE_COUNT + 1);
+            assertEquals(1, MediaSqlUtils.getSiteMediaWithId(site, mediaId + 1).size());
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -14,6 +14,7 @@ import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.discovery.DiscoveryWPAPIRestClient;
 import org.wordpress.android.fluxc.network.discovery.DiscoveryXMLRPCClient;
 import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder;
+import org.wordpress.android.fluxc.network.rest.OkHttpGsonRequestExecutor;
 import org.wordpress.android.fluxc.network.rest.wpcom.account.AccountRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AccessToken;
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AppSecrets;
@@ -72,6 +73,12 @@ public class MockedNetworkModule {
         return Volley.newRequestQueue(appContext, new OkHttpStack(okHttpClientBuilder));
     }
 
+    @Singleton
+    @Provides
+    public OkHttpGsonRequestExecutor provideOkHttpGsonRequestExecutor(OkHttpClient.Builder okHttpClientBuilder) {
+        return new OkHttpGsonRequestExecutor(new OkHttpStack(okHttpClientBuilder));
+    }
+
     @Singleton
     @Provides
     public Authenticator provideAuthenticator(Context appContext, Dispatcher dispatcher, AppSecrets appSecrets,
@@ -8,8 +8,10 @@ import dagger.android.DispatchingAndroidInjector
 import dagger.android.HasActivityInjector
 import org.wordpress.android.fluxc.example.di.AppComponent
 import org.wordpress.android.fluxc.example.di.DaggerAppComponent
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
 import org.wordpress.android.fluxc.persistence.WellSqlConfig
 import javax.inject.Inject
+import kotlin.concurrent.thread
 
 open class ExampleApp : Application(), HasActivityInjector {
     @Inject lateinit var activityInjector: DispatchingAndroidInjector<Activity>
@@ -25,6 +27,9 @@ open class ExampleApp : Application(), HasActivityInjector {
         component.inject(this)
         val wellSqlConfig = WellSqlConfig(applicationContext, WellSqlConfig.ADDON_WOOCOMMERCE)
         WellSql.init(wellSqlConfig)
+        thread(name = "gson-warm-up", isDaemon = true, priority = Thread.MIN_PRIORITY) {
+            WPComGsonRequest.warmUpStartupResponses()
+        }
     }
 
     override fun activityInjector(): AndroidInjector<Activity> = activityInjector
@@ -3,7 +3,9 @@ package org.wordpress.android.fluxc.example.di;
 import android.content.Context;
 import android.text.TextUtils;
 
+import org.wordpress.android.fluxc.annotations.ActionRoutingIndex;
 import org.wordpress.android.fluxc.example.BuildConfig;
+import org.wordpress.android.fluxc.example.ExampleAppIndex;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AppSecrets;
 import org.wordpress.android.util.AppLog;
@@ -13,6 +15,7 @@ import java.lang.reflect.Field;
 
 import dagger.Module;
 import dagger.Provides;
+import dagger.multibindings.IntoSet;
 
 @Module
 public class AppConfigModule {
@@ -40,4 +43,10 @@ public class AppConfigModule {
     public UserAgent provideUserAgent(Context appContext) {
         return new UserAgent(appContext, "fluxc-example-android");
     }
+
+    @Provides
+    @IntoSet
+    public ActionRoutingIndex provideExampleAppIndex() {
+        return new ExampleAppIndex();
+    }
 }
@@ -0,0 +1,64 @@
+package org.wordpress.android.fluxc
+
+import org.greenrobot.eventbus.ThreadMode
+import org.junit.Test
+import org.wordpress.android.fluxc.action.AccountAction
+import org.wordpress.android.fluxc.action.AuthenticationAction
+import org.wordpress.android.fluxc.action.SiteAction
+import org.wordpress.android.fluxc.action.WCOrderAction
+import org.wordpress.android.fluxc.generated.FluxCIndex
+import org.wordpress.android.fluxc.generated.WooCommerceIndex
+import org.wordpress.android.fluxc.model.list.PagedListWrapper
+import org.wordpress.android.fluxc.store.AccountStore
+import org.wordpress.android.fluxc.store.JetpackStore
+import org.wordpress.android.fluxc.store.QuickStartStore
+import org.wordpress.android.fluxc.store.SiteStore
+import org.wordpress.android.fluxc.store.SiteStore.OnSiteChanged
+import org.wordpress.android.fluxc.store.WCOrderStore
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class FluxCIndexTest {
+    private val fluxCIndex = FluxCIndex()
+    private val wooCommerceIndex = WooCommerceIndex()
+
+    @Test
+    fun testHandledActionsAreIndexed() {
+        assertEquals(listOf(SiteAction::class.java), fluxCIndex.getHandledActions(SiteStore::class.java).toList())
+        assertEquals(listOf(AccountAction::class.java, AuthenticationAction::class.java),
+                fluxCIndex.getHandledActions(AccountStore::class.java).toList())
+        assertEquals(listOf(WCOrderAction::class.java),
+                wooCommerceIndex.getHandledActions(WCOrderStore::class.java).toList())
+    }
+
+    @Test
+    fun testStoreWithNoHandledActionsIsIndexed() {
+        assertTrue(fluxCIndex.getHandledActions(QuickStartStore::class.java).isEmpty())
+    }
+
+    @Test
+    fun testClassesFromOtherModulesAreNotIndexed() {
+        assertNull(fluxCIndex.getHandledActions(WCOrderStore::class.java))
+        assertNull(wooCommerceIndex.getHandledActions(SiteStore::class.java))
+    }
+
+    @Test
+    fun testSubscriberMethodsAreIndexed() {
+        val jetpackStoreInfo = fluxCIndex.getSubscriberInfo(JetpackStore::class.java)
+        assertNotNull(jetpackStoreInfo)
+        val methods = jetpackStoreInfo!!.subscriberMethods
+        assertEquals(1, methods.size)
+        assertEquals("onSiteChanged", methods[0].method.name)
+        assertEquals(OnSiteChanged::class.java, methods[0].eventType)
+        assertEquals(ThreadMode.ASYNC, methods[0].threadMode)
+
+        assertNotNull(fluxCIndex.getSubscriberInfo(PagedListWrapper::class.java))
+    }
+
+    @Test
+    fun testStoresWithoutSubscriberMethodsHaveNoSubscriberInfo() {
+        assertNull(fluxCIndex.getSubscriberInfo(SiteStore::class.java))
+    }
+}
@@ -8,6 +8,10 @@ import com.yarolegovich.wellsql.WellTableManager;
 import com.yarolegovich.wellsql.core.Identifiable;
 import com.yarolegovich.wellsql.core.TableClass;
 
+import org.wordpress.android.fluxc.persistence.FullTextSearchUtils;
+import org.wordpress.android.fluxc.persistence.HTTPAuthSqlUtils;
+import org.wordpress.android.fluxc.persistence.SiteSqlUtils;
+import org.wordpress.android.fluxc.persistence.TableIndexUtils;
 import org.wordpress.android.fluxc.persistence.WellSqlConfig;
 
 import java.util.ArrayList;
@@ -44,6 +48,8 @@ public class SingleStoreWellSqlConfigForTests extends WellSqlConfig {
     public void onCreate(SQLiteDatabase db, WellTableManager helper) {
         for (Class<? extends Identifiable> clazz : mStoreClassList) {
             helper.createTable(clazz);
+            TableIndexUtils.createIndexes(db, clazz, getTable(clazz));
+            FullTextSearchUtils.createSearchTable(db, clazz, getTable(clazz));
         }
     }
 
@@ -56,6 +62,10 @@ public class SingleStoreWellSqlConfigForTests extends WellSqlConfig {
             TableClass table = getTable(clazz);
             db.execSQL("DROP TABLE " + table.getTableName());
             db.execSQL(table.createStatement());
+            TableIndexUtils.createIndexes(db, clazz, table);
+            FullTextSearchUtils.createSearchTable(db, clazz, table);
         }
+        SiteSqlUtils.getSiteCache().invalidate();
+        HTTPAuthSqlUtils.getAuthModelCache().invalidate();
     }
 }
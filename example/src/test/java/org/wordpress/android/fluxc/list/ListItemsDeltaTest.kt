@@ -0,0 +1,35 @@
+package org.wordpress.android.fluxc.list
+
+import org.junit.Test
+import org.wordpress.android.fluxc.model.list.ListItemsDelta
+import kotlin.test.assertEquals
+
+class ListItemsDeltaTest {
+    private val remoteItemIds = listOf(1L, 2L, 3L, 4L)
+
+    @Test
+    fun testUnchangedKeepsTheList() {
+        assertEquals(remoteItemIds, ListItemsDelta.Unchanged.applyTo(remoteItemIds))
+    }
+
+    @Test
+    fun testResetReplacesTheList() {
+        val delta = ListItemsDelta.Reset(listOf(3L, 5L, 1L, 5L))
+
+        assertEquals(listOf(3L, 5L, 1L), delta.applyTo(remoteItemIds))
+    }
+
+    @Test
+    fun testInsertedAppendsOnlyNewIds() {
+        val delta = ListItemsDelta.Inserted(listOf(5L, 2L, 6L, 5L))
+
+        assertEquals(listOf(1L, 2L, 3L, 4L, 5L, 6L), delta.applyTo(remoteItemIds))
+    }
+
+    @Test
+    fun testRemovedKeepsTheOrderOfTheRemainingIds() {
+        val delta = ListItemsDelta.Removed(setOf(2L, 4L, 7L))
+
+        assertEquals(listOf(1L, 3L), delta.applyTo(remoteItemIds))
+    }
+}
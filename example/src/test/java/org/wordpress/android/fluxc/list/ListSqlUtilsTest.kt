@@ -13,6 +13,7 @@ import org.wordpress.android.fluxc.model.list.ListModel
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForRestSite
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForXmlRpcSite
 import org.wordpress.android.fluxc.persistence.ListSqlUtils
+import kotlin.test.assertEquals
 import kotlin.test.assertNotEquals
 import kotlin.test.assertNotNull
 import kotlin.test.assertNull
@@ -77,8 +78,9 @@ class ListSqlUtilsTest {
          * 3. Verify that all of them are deleted correctly
          */
         listDescriptors.forEach { insertOrUpdateAndThenAssertList(it) }
-        listSqlUtils.deleteAllLists()
+        val removedLists = listSqlUtils.deleteAllLists()
         listDescriptors.forEach { assertNull(listSqlUtils.getList(it)) }
+        assertEquals(listDescriptors.map { it.uniqueIdentifier }.toSet(), removedLists.toSet())
     }
 
     @Test
@@ -98,9 +100,10 @@ class ListSqlUtilsTest {
         Thread.sleep(sleepDuration)
         listDescriptors2.forEach { insertOrUpdateAndThenAssertList(it) }
 
-        listSqlUtils.deleteExpiredLists(expirationDuration)
+        val removedLists = listSqlUtils.deleteExpiredLists(expirationDuration)
 
         listDescriptors1.forEach { assertNull(listSqlUtils.getList(it)) }
+        assertEquals(listDescriptors1.map { it.uniqueIdentifier }.toSet(), removedLists.toSet())
         listDescriptors2.forEach { assertNotNull(listSqlUtils.getList(it)) }
     }
 
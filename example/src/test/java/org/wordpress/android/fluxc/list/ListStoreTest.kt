@@ -0,0 +1,55 @@
+package org.wordpress.android.fluxc.list
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mock
+import org.mockito.junit.MockitoJUnitRunner
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.generated.ListActionBuilder
+import org.wordpress.android.fluxc.model.list.ListDescriptorUniqueIdentifier
+import org.wordpress.android.fluxc.persistence.ListItemSqlUtils
+import org.wordpress.android.fluxc.persistence.ListSqlUtils
+import org.wordpress.android.fluxc.store.ListStore
+import org.wordpress.android.fluxc.store.ListStore.OnListsRemoved
+import org.wordpress.android.fluxc.store.ListStore.RemoveExpiredListsPayload
+import kotlin.test.assertEquals
+
+@RunWith(MockitoJUnitRunner::class)
+class ListStoreTest {
+    @Mock lateinit var listSqlUtils: ListSqlUtils
+    @Mock lateinit var listItemSqlUtils: ListItemSqlUtils
+    @Mock lateinit var dispatcher: Dispatcher
+    private lateinit var listStore: ListStore
+
+    @Before
+    fun setUp() {
+        listStore = ListStore(listSqlUtils, listItemSqlUtils, dispatcher)
+    }
+
+    @Test
+    fun testRemoveAllListsEmitsTheRemovedLists() {
+        val removedLists = listOf(ListDescriptorUniqueIdentifier(1), ListDescriptorUniqueIdentifier(2))
+        whenever(listSqlUtils.deleteAllLists()).thenReturn(removedLists)
+
+        listStore.onAction(ListActionBuilder.newRemoveAllListsAction())
+
+        val captor = argumentCaptor<OnListsRemoved>()
+        verify(dispatcher).emitChange(captor.capture())
+        assertEquals(removedLists.toSet(), captor.firstValue.uniqueIdentifiers)
+    }
+
+    @Test
+    fun testRemoveExpiredListsEmitsNothingWhenNoListIsRemoved() {
+        whenever(listSqlUtils.deleteExpiredLists(any())).thenReturn(emptyList())
+
+        listStore.onAction(ListActionBuilder.newRemoveExpiredListsAction(RemoveExpiredListsPayload()))
+
+        verify(dispatcher, never()).emitChange(any())
+    }
+}
@@ -0,0 +1,68 @@
+package org.wordpress.android.fluxc.list
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mock
+import org.mockito.junit.MockitoJUnitRunner
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForRestSite
+import org.wordpress.android.fluxc.model.list.datastore.PostListDataStore
+import org.wordpress.android.fluxc.store.PostStore
+
+@RunWith(MockitoJUnitRunner::class)
+class PostListDataStoreTest {
+    @Mock lateinit var dispatcher: Dispatcher
+    @Mock lateinit var postStore: PostStore
+    private val site = SiteModel().apply { id = 1 }
+    private val listDescriptor = PostListDescriptorForRestSite(site)
+    private lateinit var dataStore: PostListDataStore
+
+    @Before
+    fun setUp() {
+        dataStore = PostListDataStore(dispatcher, postStore, site)
+    }
+
+    @Test
+    fun testItemsAreLookedUpWithASingleQuery() {
+        val remoteIds = listOf(1L, 2L, 3L)
+        val posts = mapOf(1L to createPost(1L), 3L to createPost(3L))
+        whenever(postStore.getPostsByRemotePostIds(remoteIds, site)).thenReturn(posts)
+
+        val items = dataStore.getItemsByRemoteIds(listDescriptor, remoteIds)
+
+        assertThat(items).isEqualTo(posts)
+        verify(postStore, times(1)).getPostsByRemotePostIds(any(), any())
+    }
+
+    @Test
+    fun testItemsAlreadyBeingFetchedAreNotFetchedAgain() {
+        dataStore.fetchItems(listDescriptor, listOf(1L, 2L))
+        dataStore.fetchItems(listDescriptor, listOf(1L, 2L, 3L))
+
+        verify(dispatcher, times(3)).dispatch(any())
+    }
+
+    @Test
+    fun testItemsAreFetchedAgainOnceTheyAreAvailable() {
+        whenever(postStore.getPostsByRemotePostIds(listOf(1L), site)).thenReturn(mapOf(1L to createPost(1L)))
+
+        dataStore.fetchItems(listDescriptor, listOf(1L))
+        dataStore.getItemsByRemoteIds(listDescriptor, listOf(1L))
+        dataStore.fetchItems(listDescriptor, listOf(1L))
+
+        verify(dispatcher, times(2)).dispatch(any())
+    }
+
+    private fun createPost(remotePostId: Long) = PostModel().apply {
+        this.remotePostId = remotePostId
+        localSiteId = site.id
+    }
+}
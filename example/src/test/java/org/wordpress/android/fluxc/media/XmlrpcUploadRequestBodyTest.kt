@@ -0,0 +1,98 @@
+package org.wordpress.android.fluxc.media
+
+import okio.Buffer
+import okio.ByteString
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.model.MediaModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.network.BaseUploadRequestBody.ProgressListener
+import org.wordpress.android.fluxc.network.xmlrpc.media.XmlrpcUploadRequestBody
+import java.io.File
+import java.util.Random
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class XmlrpcUploadRequestBodyTest {
+    private lateinit var file: File
+    private val progress = mutableListOf<Float>()
+    private val listener = ProgressListener { _, value -> progress.add(value) }
+
+    @Before
+    fun setUp() {
+        file = File.createTempFile("upload", ".jpg")
+    }
+
+    @After
+    fun tearDown() {
+        file.delete()
+    }
+
+    @Test
+    fun testContentLengthMatchesWrittenBytesForEveryPaddingLength() {
+        // File sizes that need 0, 2 and 1 padding characters, around the encoding chunk size
+        listOf(0, 1, 2, 3, 12287, 12288, 12289, 1000000).forEach { size ->
+            val bytes = writeRandomFile(size)
+            val body = XmlrpcUploadRequestBody(generateMedia(), listener, generateSite())
+
+            val buffer = Buffer()
+            body.writeTo(buffer)
+
+            assertEquals(body.contentLength(), buffer.size())
+            assertEquals(ByteString.of(*bytes), decodeBits(buffer.readUtf8()))
+        }
+    }
+
+    @Test
+    fun testContentLengthCountsMultiByteCharacters() {
+        writeRandomFile(100)
+        val site = generateSite().apply { username = "usér ☃" }
+        val body = XmlrpcUploadRequestBody(generateMedia(), listener, site)
+
+        val buffer = Buffer()
+        body.writeTo(buffer)
+
+        assertEquals(body.contentLength(), buffer.size())
+    }
+
+    @Test
+    fun testProgressReachesTheWholeBody() {
+        writeRandomFile(100000)
+        val body = XmlrpcUploadRequestBody(generateMedia(), listener, generateSite())
+
+        body.writeTo(Buffer())
+
+        assertTrue(progress.isNotEmpty())
+        assertTrue(progress.all { it in 0f..1f })
+    }
+
+    private fun writeRandomFile(size: Int): ByteArray {
+        val bytes = ByteArray(size)
+        Random(size.toLong()).nextBytes(bytes)
+        file.writeBytes(bytes)
+        return bytes
+    }
+
+    private fun decodeBits(body: String): ByteString? {
+        val start = body.indexOf("<base64>") + "<base64>".length
+        val end = body.indexOf("</base64>")
+        return ByteString.decodeBase64(body.substring(start, end))
+    }
+
+    private fun generateMedia() = MediaModel().apply {
+        filePath = file.path
+        fileName = file.name
+        mimeType = "image/jpeg"
+        postId = 5
+    }
+
+    private fun generateSite() = SiteModel().apply {
+        selfHostedSiteId = 1
+        username = "user"
+        password = "pass<word>"
+    }
+}
@@ -0,0 +1,61 @@
+package org.wordpress.android.fluxc.network
+
+import android.util.Base64
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+@RunWith(RobolectricTestRunner::class)
+class HTTPAuthManagerTest {
+    private val httpAuthManager = HTTPAuthManager()
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+
+        val config = SingleStoreWellSqlConfigForTests(appContext, HTTPAuthModel::class.java)
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testCredentialsMatchUrlsUnderRootUrl() {
+        httpAuthManager.addHTTPAuthCredentials("user", "pass", "https://example.com/blog/xmlrpc.php", null)
+
+        assertEquals("user", httpAuthManager.getHTTPAuthModel("https://example.com/blog/xmlrpc.php")!!.username)
+        // The 'xmlrpc.php' ending is ignored
+        assertEquals("user", httpAuthManager.getHTTPAuthModel("https://example.com/blog/wp-json/")!!.username)
+        assertNull(httpAuthManager.getHTTPAuthModel("https://example.com/other/xmlrpc.php"))
+        assertNull(httpAuthManager.getHTTPAuthModel("https://example.org/blog/xmlrpc.php"))
+    }
+
+    @Test
+    fun testFirstAddedCredentialsWin() {
+        httpAuthManager.addHTTPAuthCredentials("user1", "pass1", "https://example.com/blog", null)
+        httpAuthManager.addHTTPAuthCredentials("user2", "pass2", "https://example.com", null)
+
+        assertEquals("user1", httpAuthManager.getHTTPAuthModel("https://example.com/blog/xmlrpc.php")!!.username)
+        assertEquals("user2", httpAuthManager.getHTTPAuthModel("https://example.com/xmlrpc.php")!!.username)
+    }
+
+    @Test
+    fun testAuthorizationHeaderFollowsUpdates() {
+        val url = "https://example.com/xmlrpc.php"
+        httpAuthManager.addHTTPAuthCredentials("user", "pass", url, null)
+        assertEquals(basicAuthHeader("user:pass"), httpAuthManager.getAuthorizationHeader(url))
+
+        httpAuthManager.addHTTPAuthCredentials("user", "newpass", url, "realm")
+
+        assertEquals(basicAuthHeader("user:newpass"), httpAuthManager.getAuthorizationHeader(url))
+        assertNull(httpAuthManager.getAuthorizationHeader("https://example.org/xmlrpc.php"))
+    }
+
+    private fun basicAuthHeader(credentials: String) =
+            "Basic " + Base64.encodeToString(credentials.toByteArray(), Base64.NO_WRAP)
+}
@@ -0,0 +1,172 @@
+package org.wordpress.android.fluxc.network
+
+import com.android.volley.NetworkResponse
+import com.android.volley.ParseError
+import com.android.volley.Request.Method
+import com.android.volley.Response
+import com.android.volley.Response.Listener
+import com.nhaarman.mockitokotlin2.mock
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.network.BaseRequest.BaseErrorListener
+import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError
+import org.wordpress.android.fluxc.network.rest.GsonRequest
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
+import java.io.IOException
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertNotSame
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class OkHttpStackTest {
+    private lateinit var server: MockWebServer
+    private lateinit var stack: OkHttpStack
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.start()
+        stack = OkHttpStack(OkHttpClient.Builder())
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun testClientIsReusedForSameTimeout() {
+        val first = stack.getClientForTimeout(BaseRequest.DEFAULT_REQUEST_TIMEOUT)
+        val second = stack.getClientForTimeout(BaseRequest.DEFAULT_REQUEST_TIMEOUT)
+
+        assertSame(first, second)
+        assertEquals(BaseRequest.DEFAULT_REQUEST_TIMEOUT, first.connectTimeoutMillis())
+        assertEquals(BaseRequest.DEFAULT_REQUEST_TIMEOUT, first.readTimeoutMillis())
+        assertEquals(BaseRequest.DEFAULT_REQUEST_TIMEOUT, first.writeTimeoutMillis())
+    }
+
+    @Test
+    fun testClientsWithDifferentTimeoutsShareConnectionPoolAndDispatcher() {
+        val regular = stack.getClientForTimeout(BaseRequest.DEFAULT_REQUEST_TIMEOUT)
+        val upload = stack.getClientForTimeout(BaseRequest.UPLOAD_REQUEST_READ_TIMEOUT)
+
+        assertNotSame(regular, upload)
+        assertEquals(BaseRequest.UPLOAD_REQUEST_READ_TIMEOUT, upload.readTimeoutMillis())
+        assertSame(regular.connectionPool(), upload.connectionPool())
+        assertSame(regular.dispatcher(), upload.dispatcher())
+    }
+
+    @Test
+    fun testRequestsReuseConnection() {
+        val requestCount = 20
+        for (i in 0 until requestCount) {
+            server.enqueue(MockResponse().setBody("{}"))
+        }
+
+        for (i in 0 until requestCount) {
+            val request = WPComGsonRequest.buildGetRequest(server.url("/sites/").toString(), null,
+                    Any::class.java, mock<Listener<Any>>(), mock())
+            val response = stack.performRequest(request, emptyMap())
+            assertEquals(200, response.statusLine.statusCode)
+            response.entity.content.close()
+        }
+
+        assertEquals(requestCount, server.requestCount)
+        // All requests went through the same pooled connection
+        assertEquals(1, stack.getClientForTimeout(BaseRequest.DEFAULT_REQUEST_TIMEOUT).connectionPool()
+                .connectionCount())
+    }
+
+    @Test
+    fun testSuccessfulResponseIsParsedWhileStreamed() {
+        val siteCount = 5000
+        val json = (0 until siteCount).joinToString(",", "{\"sites\":[", "]}") { id ->
+            "{\"ID\":$id,\"name\":\"Site $id\",\"description\":\"${"x".repeat(500)}\"}"
+        }
+        server.enqueue(MockResponse().setBody(json).setHeader("Content-Type", "application/json; charset=UTF-8"))
+        val request = TestGsonRequest(server.url("/me/sites/").toString(), SitesResponse::class.java)
+
+        val response = stack.performRequest(request, emptyMap())
+        val parsed = request.parse(NetworkResponse(200, ByteArray(0), emptyMap(), false))
+
+        // The body was consumed by the request, Volley only gets an empty entity to copy
+        assertEquals(0L, response.entity.contentLength)
+        assertEquals(-1, response.entity.content.read())
+        assertTrue(parsed.isSuccess)
+        assertEquals(siteCount, parsed.result.sites!!.size)
+        assertEquals("Site 4999", parsed.result.sites!![4999].name)
+    }
+
+    @Test
+    fun testMalformedStreamedResponseIsAParseError() {
+        server.enqueue(MockResponse().setBody("{\"sites\":[{\"ID\":"))
+        val request = TestGsonRequest(server.url("/me/sites/").toString(), SitesResponse::class.java)
+
+        stack.performRequest(request, emptyMap())
+        val parsed = request.parse(NetworkResponse(200, ByteArray(0), emptyMap(), false))
+
+        assertFalse(parsed.isSuccess)
+        assertTrue(parsed.error is ParseError)
+    }
+
+    @Test
+    fun testConnectionDroppedWhileStreamedIsANetworkError() {
+        val json = (0 until 1000).joinToString(",", "{\"sites\":[", "]}") { id -> "{\"ID\":$id}" }
+        server.enqueue(MockResponse().setBody(json).setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY))
+        val request = TestGsonRequest(server.url("/me/sites/").toString(), SitesResponse::class.java)
+
+        // Thrown as an IOException, which Volley retries or reports as a network error instead of a ParseError
+        assertFailsWith<IOException> { stack.performRequest(request, emptyMap()) }
+    }
+
+    @Test
+    fun testErrorResponseIsNotStreamed() {
+        val json = "{\"error\":\"unknown_site\",\"message\":\"Unknown site\"}"
+        server.enqueue(MockResponse().setResponseCode(404).setBody(json))
+        val request = TestGsonRequest(server.url("/sites/1/").toString(), SitesResponse::class.java)
+
+        val response = stack.performRequest(request, emptyMap())
+
+        assertEquals(404, response.statusLine.statusCode)
+        assertEquals(json, response.entity.content.bufferedReader().use { it.readText() })
+    }
+
+    @Test
+    fun testCachedRequestIsNotStreamed() {
+        server.enqueue(MockResponse().setBody("{\"sites\":[]}"))
+        val request = TestGsonRequest(server.url("/me/sites/").toString(), SitesResponse::class.java)
+        request.enableCaching(BaseRequest.DEFAULT_CACHE_LIFETIME)
+
+        val response = stack.performRequest(request, emptyMap())
+
+        assertEquals("{\"sites\":[]}", response.entity.content.bufferedReader().use { it.readText() })
+    }
+
+    class SitesResponse {
+        var sites: List<Site>? = null
+
+        class Site {
+            var ID: Long = 0
+            var name: String? = null
+            var description: String? = null
+        }
+    }
+
+    private class TestGsonRequest<T>(url: String, clazz: Class<T>) : GsonRequest<T>(
+            Method.GET, null, null, url, clazz, null, Listener<T> { }, BaseErrorListener { }
+    ) {
+        fun parse(response: NetworkResponse): Response<T> = parseNetworkResponse(response)
+
+        override fun deliverBaseNetworkError(error: BaseNetworkError) = error
+    }
+}
@@ -0,0 +1,173 @@
+package org.wordpress.android.fluxc.network
+
+import com.android.volley.Response.Listener
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.generated.endpoint.XMLRPC
+import org.wordpress.android.fluxc.network.BaseRequest.BaseErrorListener
+import org.wordpress.android.fluxc.network.rest.OkHttpGsonRequestExecutor
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComErrorListener
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCRequest
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class RequestCoalescerTest {
+    private lateinit var server: MockWebServer
+    private lateinit var executor: OkHttpGsonRequestExecutor
+    private lateinit var coalescer: RequestCoalescer
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.start()
+        executor = OkHttpGsonRequestExecutor(OkHttpStack(OkHttpClient.Builder()))
+        coalescer = RequestCoalescer()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun testIdenticalRequestsShareOneResponse() {
+        server.enqueue(MockResponse().setBody("{\"ID\":1}").setBodyDelay(300, TimeUnit.MILLISECONDS))
+        val requestCount = 5
+        val latch = CountDownLatch(requestCount)
+        val results = CopyOnWriteArrayList<SiteResponse>()
+
+        for (i in 0 until requestCount) {
+            send(buildGetRequest("token", Listener {
+                results.add(it)
+                latch.countDown()
+            }))
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS))
+        assertEquals(1, server.requestCount)
+        assertEquals(requestCount, results.size)
+        assertTrue(results.all { it.ID == 1L })
+        assertEquals(1L, coalescer.sentRequestCount)
+        assertEquals(4L, coalescer.coalescedRequestCount)
+    }
+
+    @Test
+    fun testRequestsWithDifferentCredentialsAreNotCoalesced() {
+        server.enqueue(MockResponse().setBody("{\"ID\":1}"))
+        server.enqueue(MockResponse().setBody("{\"ID\":2}"))
+        val latch = CountDownLatch(2)
+
+        send(buildGetRequest("token", Listener<SiteResponse> { latch.countDown() }))
+        send(buildGetRequest("other-token", Listener<SiteResponse> { latch.countDown() }))
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS))
+        assertEquals(2, server.requestCount)
+        assertEquals(0L, coalescer.coalescedRequestCount)
+    }
+
+    @Test
+    fun testRequestSentAfterTheFirstOneCompletedIsNotCoalesced() {
+        server.enqueue(MockResponse().setBody("{\"ID\":1}"))
+        server.enqueue(MockResponse().setBody("{\"ID\":2}"))
+        val firstLatch = CountDownLatch(1)
+        val secondLatch = CountDownLatch(1)
+        var result: SiteResponse? = null
+
+        send(buildGetRequest("token", Listener<SiteResponse> { firstLatch.countDown() }))
+        assertTrue(firstLatch.await(5, TimeUnit.SECONDS))
+        send(buildGetRequest("token", Listener {
+            result = it
+            secondLatch.countDown()
+        }))
+
+        assertTrue(secondLatch.await(5, TimeUnit.SECONDS))
+        assertEquals(2L, result!!.ID)
+        assertEquals(2, server.requestCount)
+    }
+
+    @Test
+    fun testErrorIsDeliveredToCoalescedRequests() {
+        server.enqueue(MockResponse().setResponseCode(404).setBodyDelay(300, TimeUnit.MILLISECONDS)
+                .setBody("{\"error\":\"unknown_blog\",\"message\":\"Unknown blog\"}"))
+        val latch = CountDownLatch(2)
+        val errors = CopyOnWriteArrayList<String>()
+        val errorListener = WPComErrorListener {
+            errors.add(it.apiError)
+            latch.countDown()
+        }
+
+        send(buildGetRequest("token", Listener<SiteResponse> { }, errorListener))
+        send(buildGetRequest("token", Listener<SiteResponse> { }, errorListener))
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS))
+        assertEquals(listOf("unknown_blog", "unknown_blog"), errors)
+        assertEquals(1, server.requestCount)
+    }
+
+    @Test
+    fun testCancelledRequestKeepsRunningForCoalescedRequests() {
+        server.enqueue(MockResponse().setBody("{\"ID\":1}").setBodyDelay(500, TimeUnit.MILLISECONDS))
+        val firstLatch = CountDownLatch(1)
+        val secondLatch = CountDownLatch(1)
+
+        val first = send(buildGetRequest("token", Listener<SiteResponse> { firstLatch.countDown() }))
+        send(buildGetRequest("token", Listener<SiteResponse> { secondLatch.countDown() }))
+        first.cancel()
+
+        assertTrue(secondLatch.await(5, TimeUnit.SECONDS))
+        assertFalse(firstLatch.await(200, TimeUnit.MILLISECONDS))
+    }
+
+    @Test
+    fun testOnlyReadRequestsCanBeCoalesced() {
+        val url = server.url("/sites/1/").toString()
+        val post = WPComGsonRequest.buildPostRequest(url, mapOf<String, Any>(), SiteResponse::class.java,
+                Listener<SiteResponse> { }, WPComErrorListener { })
+        val cachedGet = buildGetRequest("token", Listener<SiteResponse> { })
+        cachedGet.enableCaching(BaseRequest.DEFAULT_CACHE_LIFETIME)
+        val xmlrpcUrl = server.url("/xmlrpc.php").toString()
+        val params = listOf<Any>(1, "username", "password", 12)
+        val getPost = XMLRPCRequest(xmlrpcUrl, XMLRPC.GET_POST, params, Listener<Any> { },
+                BaseErrorListener { })
+        val deletePost = XMLRPCRequest(xmlrpcUrl, XMLRPC.DELETE_POST, params, Listener<Any> { },
+                BaseErrorListener { })
+
+        assertNotNull(buildGetRequest("token", Listener<SiteResponse> { }).coalescingKey)
+        assertNull(post.coalescingKey)
+        assertNull(cachedGet.coalescingKey)
+        assertNotNull(getPost.coalescingKey)
+        assertNull(deletePost.coalescingKey)
+    }
+
+    private fun send(request: WPComGsonRequest<SiteResponse>): OkHttpGsonRequestExecutor.ExecutingRequest {
+        if (coalescer.coalesce(request)) {
+            return OkHttpGsonRequestExecutor.ExecutingRequest(request)
+        }
+        return executor.enqueue(request)
+    }
+
+    private fun buildGetRequest(
+        token: String,
+        listener: Listener<SiteResponse>,
+        errorListener: WPComErrorListener = WPComErrorListener { throw AssertionError("Unexpected error") }
+    ) = WPComGsonRequest.buildGetRequest(server.url("/sites/1/").toString(), null, SiteResponse::class.java,
+            listener, errorListener).apply { setAccessToken(token) }
+
+    class SiteResponse {
+        var ID: Long = 0
+    }
+}
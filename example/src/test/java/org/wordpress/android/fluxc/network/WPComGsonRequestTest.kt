@@ -9,11 +9,16 @@ import org.junit.runner.RunWith
 import org.robolectric.RobolectricTestRunner
 import org.wordpress.android.fluxc.generated.endpoint.WPCOMREST
 import org.wordpress.android.fluxc.generated.endpoint.WPCOMV2
+import org.wordpress.android.fluxc.module.ReleaseNetworkModule
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError
 import org.wordpress.android.fluxc.network.BaseRequest.GenericErrorType
+import org.wordpress.android.fluxc.network.rest.GsonRequest
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComGsonNetworkError
+import org.wordpress.android.fluxc.network.rest.wpcom.post.PostWPComRestResponse
 import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertSame
 
 @RunWith(RobolectricTestRunner::class)
 class WPComGsonRequestTest {
@@ -52,6 +57,25 @@ class WPComGsonRequestTest {
         assertEquals("A name from which to derive username suggestions is required.", augmentedError.message)
     }
 
+    @Test
+    fun testRequestsShareTheProvidedGson() {
+        assertSame(ReleaseNetworkModule().provideGson(), GsonRequest.getSharedGson())
+    }
+
+    @Test
+    fun testSharedGsonHandlesObjectOrFalseResponses() {
+        GsonRequest.warmUp(PostWPComRestResponse::class.java)
+        val gson = GsonRequest.getSharedGson()
+
+        val withParent = gson.fromJson("{\"ID\":1,\"parent\":{\"ID\":2,\"title\":\"Parent\"}}",
+                PostWPComRestResponse::class.java)
+        val withoutParent = gson.fromJson("{\"ID\":1,\"parent\":false}", PostWPComRestResponse::class.java)
+
+        assertEquals(2L, withParent.parent.ID)
+        assertEquals("Parent", withParent.parent.title)
+        assertNull(withoutParent.parent)
+    }
+
     private fun buildErrorResponseObject(responseJson: String, errorCode: Int): BaseNetworkError {
         val networkResponse = NetworkResponse(errorCode, responseJson.toByteArray(), mapOf(), true)
         return BaseNetworkError(VolleyError(networkResponse))
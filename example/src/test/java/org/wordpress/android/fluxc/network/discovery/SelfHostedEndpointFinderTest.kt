@@ -0,0 +1,139 @@
+package org.wordpress.android.fluxc.network.discovery
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.timeout
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.annotations.action.Action
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryError
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryException
+import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder.DiscoveryResultPayload
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class SelfHostedEndpointFinderTest {
+    companion object {
+        private const val SITE_URL = "example.com"
+        private const val HTTPS_XMLRPC_URL = "https://example.com/xmlrpc.php"
+        private const val HTTP_XMLRPC_URL = "http://example.com/xmlrpc.php"
+        private const val DISPATCH_TIMEOUT_MS = 5000L
+
+        private val VALID_METHODS = arrayOf<Any>("wp.getProfile", "wp.getUsersBlogs", "wp.getPage",
+                "wp.getCommentStatusList", "wp.newComment", "wp.editComment", "wp.deleteComment", "wp.getComments",
+                "wp.getComment", "wp.getOptions", "wp.uploadFile", "wp.newCategory", "wp.getTags", "wp.getCategories",
+                "wp.editPage", "wp.deletePage", "wp.newPage", "wp.getPages")
+    }
+
+    private val dispatcher = mock<Dispatcher>()
+    private val xmlrpcClient = mock<DiscoveryXMLRPCClient>()
+    private val wpApiClient = mock<DiscoveryWPAPIRestClient>()
+    private lateinit var endpointFinder: SelfHostedEndpointFinder
+
+    @Before
+    fun setUp() {
+        endpointFinder = SelfHostedEndpointFinder(dispatcher, xmlrpcClient, wpApiClient)
+    }
+
+    @Test
+    fun testHigherPriorityEndpointWins() {
+        whenever(xmlrpcClient.listMethods(HTTPS_XMLRPC_URL)).thenAnswer {
+            Thread.sleep(300)
+            VALID_METHODS
+        }
+        whenever(xmlrpcClient.listMethods(HTTP_XMLRPC_URL)).thenReturn(VALID_METHODS)
+
+        endpointFinder.findEndpoint(SITE_URL)
+
+        assertEquals(HTTPS_XMLRPC_URL, awaitResults(1).last().xmlRpcEndpoint)
+    }
+
+    @Test
+    fun testSlowCandidatesDontDelayTheWinner() {
+        val startTime = System.currentTimeMillis()
+        whenever(xmlrpcClient.listMethods(any())).thenAnswer {
+            Thread.sleep(30000)
+            null
+        }
+        whenever(xmlrpcClient.getResponse(any())).thenAnswer {
+            Thread.sleep(30000)
+            null
+        }
+        doReturn(VALID_METHODS).whenever(xmlrpcClient).listMethods(HTTPS_XMLRPC_URL)
+
+        endpointFinder.findEndpoint(SITE_URL)
+
+        assertEquals(HTTPS_XMLRPC_URL, awaitResults(1).last().xmlRpcEndpoint)
+        assertTrue(System.currentTimeMillis() - startTime < DISPATCH_TIMEOUT_MS)
+    }
+
+    @Test
+    fun testErrorRequiringUserInteractionStopsDiscovery() {
+        whenever(xmlrpcClient.listMethods(HTTPS_XMLRPC_URL))
+                .thenThrow(DiscoveryException(DiscoveryError.HTTP_AUTH_REQUIRED, HTTPS_XMLRPC_URL))
+        whenever(xmlrpcClient.listMethods(HTTP_XMLRPC_URL)).thenReturn(VALID_METHODS)
+
+        endpointFinder.findEndpoint(SITE_URL)
+
+        assertEquals(DiscoveryError.HTTP_AUTH_REQUIRED, awaitResults(1).last().error)
+
+        // Not cached, the user may enter their credentials
+        endpointFinder.findEndpoint(SITE_URL)
+        awaitResults(2)
+        verify(xmlrpcClient, times(2)).listMethods(HTTPS_XMLRPC_URL)
+    }
+
+    @Test
+    fun testResultIsCached() {
+        whenever(xmlrpcClient.listMethods(HTTPS_XMLRPC_URL)).thenReturn(VALID_METHODS)
+
+        endpointFinder.findEndpoint(SITE_URL)
+        awaitResults(1)
+        endpointFinder.findEndpoint(SITE_URL)
+
+        assertEquals(HTTPS_XMLRPC_URL, awaitResults(2).last().xmlRpcEndpoint)
+        verify(xmlrpcClient, times(1)).listMethods(HTTPS_XMLRPC_URL)
+    }
+
+    @Test
+    fun testMissingSiteIsCached() {
+        // The site replies, but isn't a WordPress site
+        whenever(xmlrpcClient.getResponse(any())).thenReturn("<html><body>Hello</body></html>")
+
+        endpointFinder.findEndpoint(SITE_URL)
+        assertEquals(DiscoveryError.NO_SITE_ERROR, awaitResults(1).last().error)
+
+        endpointFinder.findEndpoint(SITE_URL)
+
+        assertEquals(DiscoveryError.NO_SITE_ERROR, awaitResults(2).last().error)
+        verify(xmlrpcClient, times(1)).listMethods(HTTPS_XMLRPC_URL)
+    }
+
+    @Test
+    fun testUnreachableSiteIsNotCached() {
+        // No reply at all, e.g. the device is offline
+        endpointFinder.findEndpoint(SITE_URL)
+        assertEquals(DiscoveryError.NO_SITE_ERROR, awaitResults(1).last().error)
+
+        // Once reconnected, the discovery runs again
+        whenever(xmlrpcClient.listMethods(HTTPS_XMLRPC_URL)).thenReturn(VALID_METHODS)
+        endpointFinder.findEndpoint(SITE_URL)
+
+        assertEquals(HTTPS_XMLRPC_URL, awaitResults(2).last().xmlRpcEndpoint)
+    }
+
+    private fun awaitResults(count: Int): List<DiscoveryResultPayload> {
+        val captor = argumentCaptor<Action<*>>()
+        verify(dispatcher, timeout(DISPATCH_TIMEOUT_MS).times(count)).dispatch(captor.capture())
+        return captor.allValues.map { it.payload as DiscoveryResultPayload }
+    }
+}
@@ -0,0 +1,120 @@
+package org.wordpress.android.fluxc.network.rest
+
+import com.android.volley.DefaultRetryPolicy
+import com.android.volley.Response.Listener
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.network.OkHttpStack
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComErrorListener
+import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComGsonNetworkError
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class OkHttpGsonRequestExecutorTest {
+    private lateinit var server: MockWebServer
+    private lateinit var executor: OkHttpGsonRequestExecutor
+
+    @Before
+    fun setUp() {
+        server = MockWebServer()
+        server.start()
+        executor = OkHttpGsonRequestExecutor(OkHttpStack(OkHttpClient.Builder()))
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun testRequestsRunConcurrently() {
+        val requestCount = 20
+        for (i in 0 until requestCount) {
+            server.enqueue(MockResponse().setBody("{\"ID\":$i}").setBodyDelay(200, TimeUnit.MILLISECONDS))
+        }
+        val latch = CountDownLatch(requestCount)
+        val results = CopyOnWriteArrayList<SiteResponse>()
+
+        for (i in 0 until requestCount) {
+            executor.enqueue(buildGetRequest(Listener {
+                results.add(it)
+                latch.countDown()
+            }, WPComErrorListener { throw AssertionError("Unexpected error: ${it.message}") }))
+        }
+
+        // Running one after the other would take at least 4 seconds
+        assertTrue(latch.await(3, TimeUnit.SECONDS))
+        assertEquals((0L until requestCount).toSet(), results.map { it.ID }.toSet())
+    }
+
+    @Test
+    fun testErrorResponseIsParsed() {
+        val json = "{\"error\":\"unknown_blog\",\"message\":\"Unknown blog\"}"
+        server.enqueue(MockResponse().setResponseCode(404).setBody(json))
+        val latch = CountDownLatch(1)
+        var error: WPComGsonNetworkError? = null
+
+        executor.enqueue(buildGetRequest(Listener { throw AssertionError("Unexpected success") }, WPComErrorListener {
+            error = it
+            latch.countDown()
+        }))
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS))
+        assertEquals("unknown_blog", error!!.apiError)
+        assertEquals("Unknown blog", error!!.message)
+    }
+
+    @Test
+    fun testCancelledRequestIsNotDelivered() {
+        server.enqueue(MockResponse().setBody("{\"ID\":1}").setBodyDelay(1, TimeUnit.SECONDS))
+        val latch = CountDownLatch(1)
+
+        val executingRequest = executor.enqueue(buildGetRequest(Listener { latch.countDown() },
+                WPComErrorListener { latch.countDown() }))
+        server.takeRequest()
+        executingRequest.cancel()
+
+        assertTrue(executingRequest.isCanceled)
+        assertFalse(latch.await(2, TimeUnit.SECONDS))
+    }
+
+    @Test
+    fun testTimeoutIsRetried() {
+        server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE))
+        server.enqueue(MockResponse().setBody("{\"ID\":2}"))
+        val latch = CountDownLatch(1)
+        var result: SiteResponse? = null
+        val request = buildGetRequest(Listener {
+            result = it
+            latch.countDown()
+        }, WPComErrorListener { throw AssertionError("Unexpected error: ${it.message}") })
+        request.retryPolicy = DefaultRetryPolicy(300, 1, 1f)
+
+        executor.enqueue(request)
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS))
+        assertEquals(2L, result!!.ID)
+        assertEquals(2, server.requestCount)
+    }
+
+    private fun buildGetRequest(listener: Listener<SiteResponse>, errorListener: WPComErrorListener) =
+            WPComGsonRequest.buildGetRequest(server.url("/sites/1/").toString(), null, SiteResponse::class.java,
+                    listener, errorListener)
+
+    class SiteResponse {
+        var ID: Long = 0
+    }
+}
@@ -0,0 +1,98 @@
+package org.wordpress.android.fluxc.persistance
+
+import com.wellsql.generated.PostModelTable
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.model.PostTermModel
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.persistence.FullTextSearchUtils
+import org.wordpress.android.fluxc.persistence.PostSqlUtils
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class FullTextSearchUtilsTest {
+    private val site = SiteModel().apply { id = 1 }
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+
+        val config = SingleStoreWellSqlConfigForTests(appContext,
+                listOf(PostModel::class.java, PostTermModel::class.java))
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testMatchQueryUsesPrefixesOfEveryWord() {
+        assertEquals("\"hello*\" \"wor*\"", FullTextSearchUtils.toMatchQuery(" hello, wor"))
+        assertEquals("\"don*\" \"t*\"", FullTextSearchUtils.toMatchQuery("don't \"*"))
+        assertEquals("", FullTextSearchUtils.toMatchQuery(" -*"))
+    }
+
+    @Test
+    fun testSearchMatchesPrefixesAndRanksTitlesFirst() {
+        insertPost(1, "Weekly recap", "Nothing new about gardening")
+        insertPost(2, "Gardening tips", "<p>Water your plants</p>")
+        insertPost(3, "Cooking", "Pasta with garlic")
+        insertPost(4, "Gardening tips", "A page", isPage = true)
+        insertPost(5, "Gardening tips", "Another site", localSiteId = 2)
+
+        assertEquals(listOf(2L, 1L), searchRemotePostIds("gard"))
+        assertEquals(listOf(2L), searchRemotePostIds("GARDEN wat"))
+        assertEquals(listOf(4L), PostSqlUtils.searchPostsForSite(site, "gard", true, 10).map { it.remotePostId })
+        assertTrue(searchRemotePostIds("gardens").isEmpty())
+        assertTrue(searchRemotePostIds("  ").isEmpty())
+    }
+
+    @Test
+    fun testSearchFollowsUpdatesAndDeletes() {
+        val post = insertPost(1, "Gardening tips", "Water your plants")
+        insertPost(2, "Cooking", "Pasta")
+
+        post.title = "Baking tips"
+        PostSqlUtils.insertOrUpdatePostOverwritingLocalChanges(post)
+        assertTrue(searchRemotePostIds("gardening").isEmpty())
+        assertEquals(listOf(1L), searchRemotePostIds("baking"))
+
+        WellSql.delete(PostModel::class.java).where().equals(PostModelTable.REMOTE_POST_ID, 2).endWhere().execute()
+        assertTrue(searchRemotePostIds("pasta").isEmpty())
+    }
+
+    @Test
+    fun testSearchRespectsLimit() {
+        for (i in 1..5L) {
+            insertPost(i, "Post $i", "Gardening")
+        }
+
+        assertEquals(3, PostSqlUtils.searchPostsForSite(site, "gardening", false, 3).size)
+    }
+
+    private fun insertPost(
+        remotePostId: Long,
+        title: String,
+        content: String,
+        isPage: Boolean = false,
+        localSiteId: Int = site.id
+    ): PostModel {
+        val post = PostModel().apply {
+            this.localSiteId = localSiteId
+            this.remotePostId = remotePostId
+            this.title = title
+            this.content = content
+            setIsPage(isPage)
+        }
+        PostSqlUtils.insertOrUpdatePostOverwritingLocalChanges(post)
+        return post
+    }
+
+    private fun searchRemotePostIds(query: String) =
+            PostSqlUtils.searchPostsForSite(site, query, false, 10).map { it.remotePostId }
+}
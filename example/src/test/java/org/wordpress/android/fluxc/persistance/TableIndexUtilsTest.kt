@@ -0,0 +1,63 @@
+package org.wordpress.android.fluxc.persistance
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import com.yarolegovich.wellsql.WellSql
+import com.yarolegovich.wellsql.core.TableClass
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.model.MediaModel
+import org.wordpress.android.fluxc.model.PostModel
+import org.wordpress.android.fluxc.persistence.TableIndexUtils
+import kotlin.test.assertEquals
+
+@RunWith(RobolectricTestRunner::class)
+class TableIndexUtilsTest {
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+
+        val config = SingleStoreWellSqlConfigForTests(appContext, listOf(PostModel::class.java, MediaModel::class.java))
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testDeclaredIndexesAreCreated() {
+        assertEquals(setOf("index_PostModel_LOCAL_SITE_ID_REMOTE_POST_ID", "index_MediaModel_LOCAL_SITE_ID_MEDIA_ID"),
+                getIndexNames())
+    }
+
+    @Test
+    fun testSyncDropsUndeclaredIndexes() {
+        val db = WellSql.giveMeWritableDb()
+        db.execSQL("DROP INDEX index_PostModel_LOCAL_SITE_ID_REMOTE_POST_ID")
+        db.execSQL("CREATE INDEX index_PostModel_TITLE ON PostModel (TITLE)")
+        // Not managed by TableIndexUtils
+        db.execSQL("CREATE INDEX PostModel_STATUS ON PostModel (STATUS)")
+
+        TableIndexUtils.syncIndexes(db, mapOf(PostModel::class.java to tableClass("PostModel"),
+                MediaModel::class.java to tableClass("MediaModel")))
+
+        assertEquals(setOf("index_PostModel_LOCAL_SITE_ID_REMOTE_POST_ID", "index_MediaModel_LOCAL_SITE_ID_MEDIA_ID",
+                "PostModel_STATUS"), getIndexNames())
+    }
+
+    private fun tableClass(tableName: String): TableClass {
+        val table = mock<TableClass>()
+        whenever(table.tableName).thenReturn(tableName)
+        return table
+    }
+
+    private fun getIndexNames(): Set<String> {
+        val cursor = WellSql.giveMeReadableDb()
+                .rawQuery("SELECT name FROM sqlite_master WHERE type = 'index' AND sql IS NOT NULL", null)
+        return cursor.use {
+            generateSequence { if (it.moveToNext()) it.getString(0) else null }.toSet()
+        }
+    }
+}
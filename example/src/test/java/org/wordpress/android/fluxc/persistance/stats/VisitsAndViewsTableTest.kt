@@ -0,0 +1,114 @@
+package org.wordpress.android.fluxc.persistance.stats
+
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.stats.time.VisitsAndViewsModel
+import org.wordpress.android.fluxc.model.stats.time.VisitsAndViewsModel.PeriodData
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.DAY
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.MONTH
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.WEEK
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.YEAR
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.VisitsAndViewsBuilder
+import java.text.SimpleDateFormat
+import java.util.Calendar
+import java.util.Locale
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+private const val YEAR_OF_DAYS = 365
+
+@RunWith(RobolectricTestRunner::class)
+class VisitsAndViewsTableTest {
+    private val site = SiteModel().apply { id = 1 }
+    private lateinit var statsSqlUtils: StatsSqlUtils
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+        val config = SingleStoreWellSqlConfigForTests(appContext, VisitsAndViewsBuilder::class.java)
+        WellSql.init(config)
+        config.reset()
+
+        statsSqlUtils = StatsSqlUtils()
+    }
+
+    @Test
+    fun testInsertAndSelectAYearOfDailyStats() {
+        val model = VisitsAndViewsModel("2018-12-31", generatePeriods(YEAR_OF_DAYS))
+
+        statsSqlUtils.insertVisitsAndViews(site, DAY, model, model.period)
+
+        assertEquals(model, statsSqlUtils.selectVisitsAndViews(site, DAY, model.period))
+        assertNull(statsSqlUtils.selectVisitsAndViews(site, WEEK, model.period))
+        assertNull(statsSqlUtils.selectVisitsAndViews(SiteModel().apply { id = 2 }, DAY, model.period))
+    }
+
+    @Test
+    fun testInsertReplacesThePreviousFetchForTheSameDate() {
+        val periods = generatePeriods(10)
+        statsSqlUtils.insertVisitsAndViews(site, DAY, VisitsAndViewsModel("2018-01-10", periods), "2018-01-10")
+        val updatedPeriods = periods.take(5).map { it.copy(views = it.views + 1) }
+        val updatedModel = VisitsAndViewsModel("2018-01-10", updatedPeriods)
+
+        statsSqlUtils.insertVisitsAndViews(site, DAY, updatedModel, "2018-01-10")
+
+        assertEquals(updatedModel, statsSqlUtils.selectVisitsAndViews(site, DAY, "2018-01-10"))
+    }
+
+    @Test
+    fun testSelectPeriodsInRangeAcrossFetches() {
+        val periods = generatePeriods(YEAR_OF_DAYS)
+        // Store the year as monthly sized fetches, the way the stats screen pages through it
+        periods.chunked(30).forEach { chunk ->
+            val date = chunk.last().period
+            statsSqlUtils.insertVisitsAndViews(site, DAY, VisitsAndViewsModel(date, chunk), date)
+        }
+        // A later fetch overlapping the first one has the most recent values
+        val refreshed = periods.take(3).map { it.copy(views = 1000) }
+        statsSqlUtils.insertVisitsAndViews(site, DAY, VisitsAndViewsModel("2018-01-03", refreshed), "2018-01-03")
+
+        val result = statsSqlUtils.selectVisitsAndViewsPeriods(site, DAY, "2018-01-01", "2018-12-31")
+
+        assertEquals(refreshed + periods.drop(3), result)
+        val february = statsSqlUtils.selectVisitsAndViewsPeriods(site, DAY, "2018-02-01", "2018-02-28")
+        assertEquals(periods.subList(31, 59), february)
+    }
+
+    @Test
+    fun testSelectWeeksMonthsAndYearsOverlappingRange() {
+        val weeks = listOf("2018W10W01", "2018W10W08", "2018W10W15", "2018W10W22").map { periodData(it) }
+        statsSqlUtils.insertVisitsAndViews(site, WEEK, VisitsAndViewsModel("2018-10-22", weeks), "2018-10-22")
+        val months = listOf("2018-09-01", "2018-10-01", "2018-11-01").map { periodData(it) }
+        statsSqlUtils.insertVisitsAndViews(site, MONTH, VisitsAndViewsModel("2018-11-01", months), "2018-11-01")
+        val years = listOf("2017-01-01", "2018-01-01").map { periodData(it) }
+        statsSqlUtils.insertVisitsAndViews(site, YEAR, VisitsAndViewsModel("2018-01-01", years), "2018-01-01")
+
+        // The week of Oct 8 ends on Oct 14, the week of Oct 22 starts after the range
+        assertEquals(weeks.subList(1, 3), statsSqlUtils.selectVisitsAndViewsPeriods(site, WEEK, "2018-10-10",
+                "2018-10-16"))
+        assertEquals(months.subList(1, 2), statsSqlUtils.selectVisitsAndViewsPeriods(site, MONTH, "2018-10-15",
+                "2018-10-31"))
+        assertEquals(years.subList(1, 2), statsSqlUtils.selectVisitsAndViewsPeriods(site, YEAR, "2018-06-01",
+                "2018-06-01"))
+    }
+
+    private fun periodData(period: String) = PeriodData(period, 10, 5, 1, 0, 2, 1)
+
+    private fun generatePeriods(count: Int): List<PeriodData> {
+        val format = SimpleDateFormat("yyyy-MM-dd", Locale.US)
+        val calendar = Calendar.getInstance()
+        calendar.set(2018, Calendar.JANUARY, 1)
+        return (0 until count).map { index ->
+            val period = PeriodData(format.format(calendar.time), index * 10L, index * 5L, index.toLong(), 0, 2, 1)
+            calendar.add(Calendar.DAY_OF_YEAR, 1)
+            period
+        }
+    }
+}
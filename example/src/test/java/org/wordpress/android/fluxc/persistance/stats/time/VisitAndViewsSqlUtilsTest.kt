@@ -10,24 +10,24 @@ import org.mockito.Mock
 import org.mockito.junit.MockitoJUnitRunner
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.StatsUtils
-import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.VisitAndViewsRestClient.VisitsAndViewsResponse
 import org.wordpress.android.fluxc.network.utils.StatsGranularity.DAYS
 import org.wordpress.android.fluxc.network.utils.StatsGranularity.MONTHS
 import org.wordpress.android.fluxc.network.utils.StatsGranularity.WEEKS
 import org.wordpress.android.fluxc.network.utils.StatsGranularity.YEARS
 import org.wordpress.android.fluxc.persistence.StatsSqlUtils
-import org.wordpress.android.fluxc.persistence.StatsSqlUtils.BlockType.VISITS_AND_VIEWS
 import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.DAY
 import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.MONTH
 import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.WEEK
 import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.YEAR
 import org.wordpress.android.fluxc.persistence.TimeStatsSqlUtils
-import org.wordpress.android.fluxc.store.stats.time.VISITS_AND_VIEWS_RESPONSE
+import org.wordpress.android.fluxc.store.stats.time.VISITS_AND_VIEWS_MODEL
 import java.util.Date
 import kotlin.test.assertEquals
 
 private val DATE = Date(0)
 private const val DATE_VALUE = "2018-10-10"
+private val END_DATE = Date(1000)
+private const val END_DATE_VALUE = "2018-10-20"
 
 @RunWith(MockitoJUnitRunner::class)
 class VisitAndViewsSqlUtilsTest {
@@ -47,31 +47,33 @@ class VisitAndViewsSqlUtilsTest {
     fun `returns data from stats utils`() {
         mappedTypes.forEach { statsType, dbGranularity ->
 
-            whenever(
-                    statsSqlUtils.select(
-                            site,
-                            VISITS_AND_VIEWS,
-                            statsType,
-                            VisitsAndViewsResponse::class.java,
-                            DATE_VALUE
-                    )
-            )
-                    .thenReturn(
-                            VISITS_AND_VIEWS_RESPONSE
-                    )
+            whenever(statsSqlUtils.selectVisitsAndViews(site, statsType, DATE_VALUE)).thenReturn(VISITS_AND_VIEWS_MODEL)
 
             val result = timeStatsSqlUtils.selectVisitsAndViews(site, dbGranularity, DATE)
 
-            assertEquals(result, VISITS_AND_VIEWS_RESPONSE)
+            assertEquals(result, VISITS_AND_VIEWS_MODEL)
+        }
+    }
+
+    @Test
+    fun `returns periods in range from stats utils`() {
+        mappedTypes.forEach { statsType, dbGranularity ->
+            whenever(statsUtils.getFormattedDate(eq(site), eq(END_DATE))).thenReturn(END_DATE_VALUE)
+            whenever(statsSqlUtils.selectVisitsAndViewsPeriods(site, statsType, DATE_VALUE, END_DATE_VALUE))
+                    .thenReturn(VISITS_AND_VIEWS_MODEL.dates)
+
+            val result = timeStatsSqlUtils.selectVisitsAndViews(site, dbGranularity, DATE, END_DATE)
+
+            assertEquals(result, VISITS_AND_VIEWS_MODEL.dates)
         }
     }
 
     @Test
     fun `inserts data to stats utils`() {
         mappedTypes.forEach { statsType, dbGranularity ->
-            timeStatsSqlUtils.insert(site, VISITS_AND_VIEWS_RESPONSE, dbGranularity, DATE)
+            timeStatsSqlUtils.insert(site, VISITS_AND_VIEWS_MODEL, dbGranularity, DATE)
 
-            verify(statsSqlUtils).insert(site, VISITS_AND_VIEWS, statsType, VISITS_AND_VIEWS_RESPONSE, DATE_VALUE)
+            verify(statsSqlUtils).insertVisitsAndViews(site, statsType, VISITS_AND_VIEWS_MODEL, DATE_VALUE)
         }
     }
 }
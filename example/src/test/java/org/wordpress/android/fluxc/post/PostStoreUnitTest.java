@@ -2,6 +2,8 @@ package org.wordpress.android.fluxc.post;
 
 import android.content.Context;
 
+import com.wellsql.generated.PostModelTable;
+import com.yarolegovich.wellsql.SelectQuery;
 import com.yarolegovich.wellsql.WellSql;
 import com.yarolegovich.wellsql.core.Identifiable;
 
@@ -14,7 +16,10 @@ import org.robolectric.RuntimeEnvironment;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests;
 import org.wordpress.android.fluxc.model.PostModel;
+import org.wordpress.android.fluxc.model.PostTermModel;
 import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.model.TermModel;
+import org.wordpress.android.fluxc.model.post.PostSummary;
 import org.wordpress.android.fluxc.model.revisions.Diff;
 import org.wordpress.android.fluxc.model.revisions.DiffOperations;
 import org.wordpress.android.fluxc.model.revisions.LocalDiffModel;
@@ -23,11 +28,14 @@ import org.wordpress.android.fluxc.model.revisions.RevisionModel;
 import org.wordpress.android.fluxc.network.rest.wpcom.post.PostRestClient;
 import org.wordpress.android.fluxc.network.xmlrpc.post.PostXMLRPCClient;
 import org.wordpress.android.fluxc.persistence.PostSqlUtils;
+import org.wordpress.android.fluxc.persistence.PostSummaryList;
 import org.wordpress.android.fluxc.persistence.WellSqlConfig;
 import org.wordpress.android.fluxc.store.PostStore;
 import org.wordpress.android.util.DateTimeUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -37,6 +45,8 @@ import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.wordpress.android.fluxc.store.TaxonomyStore.DEFAULT_TAXONOMY_CATEGORY;
+import static org.wordpress.android.fluxc.store.TaxonomyStore.DEFAULT_TAXONOMY_TAG;
 
 @RunWith(RobolectricTestRunner.class)
 public class PostStoreUnitTest {
@@ -49,6 +59,7 @@ public class PostStoreUnitTest {
 
         List<Class<? extends Identifiable>> modelsToTest = new ArrayList<>();
         modelsToTest.add(PostModel.class);
+        modelsToTest.add(PostTermModel.class);
         modelsToTest.add(LocalDiffModel.class);
         modelsToTest.add(LocalRevisionModel.class);
 
@@ -337,6 +348,103 @@ public class PostStoreUnitTest {
         assertEquals(42, posts.get(2).getRemotePostId());
     }
 
+    @Test
+    public void testGetPostSummariesForSite() {
+        SiteModel site = new SiteModel();
+        site.setId(6);
+
+        PostModel post = new PostModel();
+        post.setLocalSiteId(6);
+        post.setRemotePostId(42);
+        post.setTitle("Published");
+        post.setContent("<p>Some long content</p>");
+        post.setStatus("publish");
+        post.setFeaturedImageId(7);
+        post.setDateCreated("2016-01-01T07:00:00+00:00");
+        PostSqlUtils.insertPostForResult(post);
+
+        PostModel localDraft = new PostModel();
+        localDraft.setLocalSiteId(6);
+        localDraft.setIsLocalDraft(true);
+        localDraft.setTitle("Draft");
+        PostSqlUtils.insertPostForResult(localDraft);
+
+        PostModel page = new PostModel();
+        page.setIsPage(true);
+        page.setLocalSiteId(6);
+        page.setRemotePostId(43);
+        PostSqlUtils.insertPostForResult(page);
+
+        PostSummaryList summaries = mPostStore.getPostSummariesForSite(site);
+        try {
+            // Same order as the full posts: local drafts first
+            assertEquals(2, summaries.size());
+            assertTrue(summaries.get(0).isLocalDraft());
+            assertEquals("Draft", summaries.get(0).getTitle());
+
+            PostSummary summary = summaries.get(1);
+            assertEquals(post.getId(), summary.getId());
+            assertEquals(42, summary.getRemotePostId());
+            assertEquals("Published", summary.getTitle());
+            assertEquals("publish", summary.getStatus());
+            assertEquals("2016-01-01T07:00:00+00:00", summary.getDateCreated());
+            assertTrue(summary.hasFeaturedImage());
+            assertFalse(summary.isPage());
+            assertEquals(summary, summaries.get(1));
+            assertEquals("<p>Some long content</p>", mPostStore.getPostByLocalPostId(summary.getId()).getContent());
+        } finally {
+            summaries.close();
+        }
+
+        PostSummaryList pageSummaries = mPostStore.getPageSummariesForSite(site);
+        try {
+            assertEquals(1, pageSummaries.size());
+            assertEquals(43, pageSummaries.get(0).getRemotePostId());
+        } finally {
+            pageSummaries.close();
+        }
+
+        assertEquals(0, PostSqlUtils.getPostSummariesForSite(null, false).size());
+    }
+
+    @Test
+    public void testGetLocalPostSummariesForFilter() {
+        SiteModel site = new SiteModel();
+        site.setId(6);
+
+        PostModel olderDraft = PostTestUtils.generateSampleLocalDraftPost();
+        olderDraft.setTitle("Gardening tips");
+        olderDraft.setDateCreated("2016-01-01T07:00:00+00:00");
+        PostSqlUtils.insertPostForResult(olderDraft);
+
+        PostModel newerDraft = PostTestUtils.generateSampleLocalDraftPost();
+        newerDraft.setTitle("Cooking");
+        newerDraft.setContent("Herbs from the garden");
+        newerDraft.setDateCreated("2017-01-01T07:00:00+00:00");
+        PostSqlUtils.insertPostForResult(newerDraft);
+
+        PostSqlUtils.insertPostForResult(PostTestUtils.generateSampleUploadedPost());
+
+        PostSummaryList summaries = PostSqlUtils.getLocalPostSummariesForFilter(site, false, "garden",
+                PostModelTable.DATE_CREATED, SelectQuery.ORDER_DESCENDING);
+        try {
+            assertEquals(2, summaries.size());
+            assertEquals(newerDraft.getId(), summaries.get(0).getId());
+            assertEquals(olderDraft.getId(), summaries.get(1).getId());
+        } finally {
+            summaries.close();
+        }
+
+        summaries = PostSqlUtils.getLocalPostSummariesForFilter(site, false, "tips", PostModelTable.DATE_CREATED,
+                SelectQuery.ORDER_ASCENDING);
+        try {
+            assertEquals(1, summaries.size());
+            assertEquals(olderDraft.getId(), summaries.get(0).getId());
+        } finally {
+            summaries.close();
+        }
+    }
+
     @Test
     public void testRemoveAllPosts() {
         PostModel uploadedPost1 = PostTestUtils.generateSampleUploadedPost();
@@ -353,6 +461,62 @@ public class PostStoreUnitTest {
         assertEquals(0, PostTestUtils.getPostsCount());
     }
 
+    @Test
+    public void testGetPostsForSiteWithTerm() {
+        SiteModel site = new SiteModel();
+        site.setId(6);
+
+        PostModel uploadedPost = PostTestUtils.generateSampleUploadedPost();
+        uploadedPost.setCategoryIdList(Arrays.asList(1L, 2L));
+        uploadedPost.setTagNameList(Arrays.asList("tag", "other tag"));
+        PostSqlUtils.insertPostForResult(uploadedPost);
+
+        PostModel localDraft = PostTestUtils.generateSampleLocalDraftPost();
+        localDraft.setCategoryIdList(Collections.singletonList(2L));
+        PostSqlUtils.insertPostForResult(localDraft);
+
+        // Pages are neither listed nor counted
+        PostModel page = PostTestUtils.generateSampleUploadedPost();
+        page.setIsPage(true);
+        page.setRemotePostId(page.getRemotePostId() + 1);
+        page.setCategoryIdList(Collections.singletonList(2L));
+        PostSqlUtils.insertPostForResult(page);
+
+        TermModel category = newTerm(DEFAULT_TAXONOMY_CATEGORY, 2, "category");
+        List<PostModel> posts = mPostStore.getPostsForSiteWithTerm(site, category);
+        assertEquals(2, posts.size());
+        // Local drafts first
+        assertEquals(localDraft.getId(), posts.get(0).getId());
+        assertEquals(uploadedPost.getId(), posts.get(1).getId());
+        assertEquals(2, mPostStore.getPostCountForSiteWithTerm(site, category));
+
+        TermModel tag = newTerm(DEFAULT_TAXONOMY_TAG, 10, "other tag");
+        assertEquals(1, mPostStore.getPostCountForSiteWithTerm(site, tag));
+        assertEquals(uploadedPost.getId(), mPostStore.getPostsForSiteWithTerm(site, tag).get(0).getId());
+        // Tags are matched by name, not by remote id
+        assertEquals(0, mPostStore.getPostCountForSiteWithTerm(site, newTerm(DEFAULT_TAXONOMY_CATEGORY, 10, "tag")));
+    }
+
+    @Test
+    public void testPostTermsFollowPostChanges() {
+        SiteModel site = new SiteModel();
+        site.setId(6);
+        TermModel category = newTerm(DEFAULT_TAXONOMY_CATEGORY, 1, "category");
+
+        PostModel uploadedPost = PostTestUtils.generateSampleUploadedPost();
+        uploadedPost.setCategoryIdList(Collections.singletonList(1L));
+        PostSqlUtils.insertOrUpdatePostOverwritingLocalChanges(uploadedPost);
+        assertEquals(1, mPostStore.getPostCountForSiteWithTerm(site, category));
+
+        uploadedPost.setCategoryIdList(Collections.singletonList(3L));
+        PostSqlUtils.insertOrUpdatePostOverwritingLocalChanges(uploadedPost);
+        assertEquals(0, mPostStore.getPostCountForSiteWithTerm(site, category));
+        assertEquals(1, mPostStore.getPostCountForSiteWithTerm(site, newTerm(DEFAULT_TAXONOMY_CATEGORY, 3, "")));
+
+        PostSqlUtils.deletePost(PostTestUtils.getPosts().get(0));
+        assertEquals(0, mPostStore.getPostCountForSiteWithTerm(site, newTerm(DEFAULT_TAXONOMY_CATEGORY, 3, "")));
+    }
+
     @Test
     public void testNumLocalChanges() {
         // first make sure there aren't any local changes
@@ -431,4 +595,13 @@ public class PostStoreUnitTest {
         mPostStore.deleteLocalRevisionOfAPostOrPage(postModel);
         assertNull(mPostStore.getLocalRevision(site, postModel));
     }
+
+    private TermModel newTerm(String taxonomy, long remoteTermId, String name) {
+        TermModel term = new TermModel();
+        term.setLocalSiteId(6);
+        term.setTaxonomy(taxonomy);
+        term.setRemoteTermId(remoteTermId);
+        term.setName(name);
+        return term;
+    }
 }
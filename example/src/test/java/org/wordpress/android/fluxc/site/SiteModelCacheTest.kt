@@ -0,0 +1,113 @@
+package org.wordpress.android.fluxc.site
+
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.wordpress.android.fluxc.WellSqlTestUtils
+import org.wordpress.android.fluxc.persistence.SiteModelCache
+import org.wordpress.android.fluxc.persistence.SiteSqlUtils
+import org.wordpress.android.fluxc.persistence.WellSqlConfig
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class SiteModelCacheTest {
+    private val cache: SiteModelCache
+        get() = SiteSqlUtils.getSiteCache()
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+
+        val config = WellSqlConfig(appContext)
+        WellSql.init(config)
+        config.reset()
+    }
+
+    @Test
+    fun testWritesAreVisibleOnceLoaded() {
+        WellSqlTestUtils.setupWordPressComAccount()
+        assertEquals(0, cache.getSitesCount(SiteModelCache.ALL))
+
+        val wpComSite = SiteUtils.generateWPComSite()
+        SiteSqlUtils.insertOrUpdateSite(wpComSite)
+        val selfHostedSite = SiteUtils.generateSelfHostedNonJPSite()
+        SiteSqlUtils.insertOrUpdateSite(selfHostedSite)
+
+        assertEquals(2, cache.getSitesCount(SiteModelCache.ALL))
+        assertEquals(1, cache.getSitesCount(SiteModelCache.WPCOM))
+        assertEquals(1, cache.getSitesCount(SiteModelCache.ACCESSED_VIA_XMLRPC))
+        assertEquals(wpComSite.id, cache.getSiteBySiteId(wpComSite.siteId)!!.id)
+        assertEquals(selfHostedSite.id, cache.getSiteByXmlRpcUrl(selfHostedSite.xmlRpcUrl)!!.id)
+
+        wpComSite.name = "Updated"
+        SiteSqlUtils.insertOrUpdateSite(wpComSite)
+        SiteSqlUtils.setSiteVisibility(wpComSite, false)
+
+        val updatedSite = cache.getSiteByLocalId(wpComSite.id)!!
+        assertEquals("Updated", updatedSite.name)
+        assertFalse(updatedSite.isVisible)
+        assertFalse(cache.matches(wpComSite.id, SiteModelCache.VISIBLE_WPCOM))
+    }
+
+    @Test
+    fun testDeletedSitesAreRemoved() {
+        val selfHostedSite = SiteUtils.generateSelfHostedNonJPSite()
+        SiteSqlUtils.insertOrUpdateSite(selfHostedSite)
+        assertTrue(cache.hasSiteWithLocalId(selfHostedSite.id))
+
+        SiteSqlUtils.deleteSite(selfHostedSite)
+
+        assertFalse(cache.hasSiteWithLocalId(selfHostedSite.id))
+        assertNull(cache.getSiteByXmlRpcUrl(selfHostedSite.xmlRpcUrl))
+        assertEquals(0, cache.getLocalIdForRemoteSiteId(selfHostedSite.selfHostedSiteId))
+    }
+
+    @Test
+    fun testReturnedSitesAreCopies() {
+        val selfHostedSite = SiteUtils.generateSelfHostedNonJPSite()
+        SiteSqlUtils.insertOrUpdateSite(selfHostedSite)
+
+        cache.getSiteByLocalId(selfHostedSite.id)!!.url = "http://other.url"
+        cache.getSites(SiteModelCache.ALL)[0].selfHostedSiteId = 42
+
+        val site = cache.getSiteByLocalId(selfHostedSite.id)!!
+        assertEquals(selfHostedSite.url, site.url)
+        assertEquals(selfHostedSite.selfHostedSiteId, site.selfHostedSiteId)
+    }
+
+    @Test
+    fun testRemoteIdLookups() {
+        WellSqlTestUtils.setupWordPressComAccount()
+        val jetpackSite = SiteUtils.generateJetpackSiteOverXMLRPC()
+        SiteSqlUtils.insertOrUpdateSite(jetpackSite)
+
+        assertEquals(jetpackSite.id, cache.getLocalIdForRemoteSiteId(jetpackSite.siteId))
+        assertEquals(jetpackSite.id, cache.getLocalIdForRemoteSiteId(jetpackSite.selfHostedSiteId))
+        assertEquals(jetpackSite.id, cache.getLocalIdForSelfHostedSiteIdAndXmlRpcUrl(jetpackSite.selfHostedSiteId,
+                jetpackSite.xmlRpcUrl))
+        assertEquals(0, cache.getLocalIdForSelfHostedSiteIdAndXmlRpcUrl(jetpackSite.selfHostedSiteId,
+                "http://other.url/xmlrpc.php"))
+        assertEquals(jetpackSite.siteId, cache.getRemoteSiteIdForLocalId(jetpackSite.id))
+    }
+
+    @Test
+    fun testCacheIsReloadedAfterInvalidation() {
+        val selfHostedSite = SiteUtils.generateSelfHostedNonJPSite()
+        SiteSqlUtils.insertOrUpdateSite(selfHostedSite)
+        assertEquals(1, cache.getSitesCount(SiteModelCache.ALL))
+
+        // Written behind the cache's back
+        WellSql.insert(SiteUtils.generateTestSite(0, "http://other.url", "http://other.url/xmlrpc.php", false, true))
+                .execute()
+        assertEquals(1, cache.getSitesCount(SiteModelCache.ALL))
+
+        cache.invalidate()
+        assertEquals(2, cache.getSitesCount(SiteModelCache.ALL))
+    }
+}
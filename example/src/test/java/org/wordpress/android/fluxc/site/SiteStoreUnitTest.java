@@ -657,6 +657,46 @@ public class SiteStoreUnitTest {
         assertEquals(1, mSiteStore.getSitesCount());
     }
 
+    @Test
+    public void testBatchUpdateExistingSites()
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, DuplicateSiteException {
+        WellSqlTestUtils.setupWordPressComAccount();
+
+        SiteModel wpComSite = generateTestSite(1, "https://pony1.com", "https://pony1.com/xmlrpc.php", true, true);
+        SiteSqlUtils.insertOrUpdateSite(wpComSite);
+        SiteModel selfHostedSite = generateSelfHostedNonJPSite();
+        SiteSqlUtils.insertOrUpdateSite(selfHostedSite);
+
+        List<SiteModel> siteList = new ArrayList<>();
+        // Matched by remote id
+        SiteModel updatedWPComSite = generateTestSite(1, "https://pony1.com", "https://pony1.com/xmlrpc.php", true,
+                false);
+        updatedWPComSite.setName("Pony 1");
+        siteList.add(updatedWPComSite);
+        // Matched by XML-RPC url: the self-hosted site is now a Jetpack site
+        SiteModel jetpackSite = generateTestSite(2, selfHostedSite.getUrl(),
+                selfHostedSite.getXmlRpcUrl().replace("http://", "https://"), false, true);
+        jetpackSite.setOrigin(SiteModel.ORIGIN_WPCOM_REST);
+        siteList.add(jetpackSite);
+        siteList.add(generateTestSite(3, "https://pony3.com", "https://pony3.com/xmlrpc.php", true, true));
+
+        Method createOrUpdateSites = SiteStore.class.getDeclaredMethod("createOrUpdateSites", SitesModel.class);
+        createOrUpdateSites.setAccessible(true);
+        UpdateSitesResult res = (UpdateSitesResult) createOrUpdateSites.invoke(mSiteStore, new SitesModel(siteList));
+
+        assertFalse(res.duplicateSiteFound);
+        assertEquals(3, res.rowsAffected);
+        assertEquals(3, mSiteStore.getSitesCount());
+
+        SiteModel site1 = mSiteStore.getSiteByLocalId(wpComSite.getId());
+        assertEquals("Pony 1", site1.getName());
+        assertFalse(site1.isVisible());
+        SiteModel site2 = mSiteStore.getSiteByLocalId(selfHostedSite.getId());
+        assertEquals(2, site2.getSiteId());
+        assertEquals(SiteModel.ORIGIN_WPCOM_REST, site2.getOrigin());
+        assertNotNull(mSiteStore.getSiteBySiteId(3));
+    }
+
     @Test
     public void testInsertSiteDuplicateXmlRpcTrailingSlash() throws DuplicateSiteException {
         // It's possible for the URL in `wp.getOptions` to be different from the URL in `wp.getUsersBlogs`,
@@ -0,0 +1,146 @@
+package org.wordpress.android.fluxc.store
+
+import org.greenrobot.eventbus.Subscribe
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.action.PostAction
+import org.wordpress.android.fluxc.action.SiteAction
+import org.wordpress.android.fluxc.annotations.ActionRoutingIndex
+import org.wordpress.android.fluxc.annotations.HandlesActions
+import org.wordpress.android.fluxc.annotations.action.Action
+import org.wordpress.android.fluxc.annotations.action.IAction
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class ActionRoutingTest {
+    @Test
+    fun testActionsAreOnlyRoutedToStoresHandlingTheirType() {
+        val dispatcher = Dispatcher()
+        val siteStore = TestSiteStore(dispatcher, 1)
+        val postStore = TestPostStore(dispatcher, 1)
+
+        dispatcher.dispatch(Action(SiteAction.FETCH_SITES, null))
+
+        assertTrue(siteStore.latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+        assertEquals(listOf<Any>(SiteAction.FETCH_SITES), siteStore.received)
+        assertTrue(postStore.received.isEmpty())
+    }
+
+    @Test
+    fun testActionsAreHandledInDispatchOrderWithinAStore() {
+        val dispatcher = Dispatcher()
+        val actionCount = 5000
+        val siteStore = TestSiteStore(dispatcher, actionCount)
+
+        // Dispatch more actions than the store queue can hold, dispatching blocks until the store catches up
+        val actions = (0 until actionCount).map {
+            if (it % 2 == 0) SiteAction.FETCH_SITES else SiteAction.FETCH_SITE
+        }
+        actions.forEach { dispatcher.dispatch(Action(it, null)) }
+
+        assertTrue(siteStore.latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+        assertEquals(actions, siteStore.received)
+    }
+
+    @Test
+    fun testUnregisteredStoreDoesNotReceiveActions() {
+        val dispatcher = Dispatcher()
+        val siteStore = TestSiteStore(dispatcher, 1)
+        dispatcher.unregister(siteStore)
+
+        dispatcher.dispatch(Action(SiteAction.FETCH_SITES, null))
+
+        assertEquals(false, siteStore.latch.await(1, TimeUnit.SECONDS))
+    }
+
+    @Test
+    fun testStoreListeningToChangeEventsReceivesThem() {
+        val dispatcher = Dispatcher()
+        val store = TestSubscribingStore(dispatcher)
+
+        dispatcher.emitChange(TestChangeEvent())
+
+        assertEquals(1, store.receivedEvents)
+    }
+
+    @Test
+    fun testIndexedStoreWithSubscribersMissingFromTheIndexReceivesChangeEvents() {
+        val dispatcher = Dispatcher(listOf(TestIndex(TestSubscribingStore::class.java, false)))
+        val store = TestSubscribingStore(dispatcher)
+
+        dispatcher.emitChange(TestChangeEvent())
+
+        assertEquals(1, store.receivedEvents)
+    }
+
+    @Test
+    fun testStoreIndexedWithoutSubscribersIsNotScanned() {
+        // The index is trusted: the store isn't registered on the EventBus, even though it has a subscriber method
+        val dispatcher = Dispatcher(listOf(TestIndex(TestSubscribingStore::class.java, true)))
+        val store = TestSubscribingStore(dispatcher)
+
+        dispatcher.emitChange(TestChangeEvent())
+
+        assertEquals(0, store.receivedEvents)
+    }
+
+    @HandlesActions(SiteAction::class)
+    private class TestSiteStore(dispatcher: Dispatcher, expectedCount: Int) : Store(dispatcher) {
+        val received: MutableList<Any> = Collections.synchronizedList(mutableListOf())
+        val latch = CountDownLatch(expectedCount)
+
+        override fun onAction(action: Action<*>) {
+            received.add(action.type)
+            latch.countDown()
+        }
+
+        override fun onRegister() {}
+    }
+
+    @HandlesActions(PostAction::class)
+    private class TestPostStore(dispatcher: Dispatcher, expectedCount: Int) : Store(dispatcher) {
+        val received: MutableList<Any> = Collections.synchronizedList(mutableListOf())
+        val latch = CountDownLatch(expectedCount)
+
+        override fun onAction(action: Action<*>) {
+            received.add(action.type)
+            latch.countDown()
+        }
+
+        override fun onRegister() {}
+    }
+
+    class TestChangeEvent
+
+    @HandlesActions(SiteAction::class)
+    class TestSubscribingStore(dispatcher: Dispatcher) : Store(dispatcher) {
+        var receivedEvents = 0
+
+        override fun onAction(action: Action<*>) {}
+
+        override fun onRegister() {}
+
+        @Subscribe
+        fun onTestChange(event: TestChangeEvent) {
+            receivedEvents++
+        }
+    }
+
+    private class TestIndex(private val storeClass: Class<*>, private val noSubscribers: Boolean) :
+            ActionRoutingIndex {
+        override fun getHandledActions(storeClass: Class<*>): Array<Class<out IAction>>? =
+                if (storeClass == this.storeClass) arrayOf(SiteAction::class.java) else null
+
+        override fun hasNoSubscribers(storeClass: Class<*>) = storeClass == this.storeClass && noSubscribers
+    }
+
+    companion object {
+        private const val TIMEOUT_SECONDS = 10L
+    }
+}
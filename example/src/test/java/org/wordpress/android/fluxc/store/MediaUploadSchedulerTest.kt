@@ -0,0 +1,170 @@
+package org.wordpress.android.fluxc.store
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.yarolegovich.wellsql.WellSql
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.shadows.ShadowLooper
+import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests
+import org.wordpress.android.fluxc.model.MediaModel
+import org.wordpress.android.fluxc.model.MediaModel.MediaUploadState
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.network.rest.wpcom.media.MediaRestClient
+import org.wordpress.android.fluxc.network.xmlrpc.media.MediaXMLRPCClient
+import org.wordpress.android.fluxc.persistence.MediaSqlUtils
+import org.wordpress.android.fluxc.store.MediaStore.MediaError
+import org.wordpress.android.fluxc.store.MediaStore.MediaErrorType
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+@RunWith(RobolectricTestRunner::class)
+class MediaUploadSchedulerTest {
+    private val restClient = mock<MediaRestClient>()
+    private val xmlrpcClient = mock<MediaXMLRPCClient>()
+    private lateinit var scheduler: MediaUploadScheduler
+
+    @Before
+    fun setUp() {
+        val appContext = RuntimeEnvironment.application.applicationContext
+
+        val config = SingleStoreWellSqlConfigForTests(appContext, MediaModel::class.java)
+        WellSql.init(config)
+        config.reset()
+
+        scheduler = MediaUploadScheduler(restClient, xmlrpcClient)
+    }
+
+    @Test
+    fun testUploadsPerSiteAreLimited() {
+        val site = generateSite(1)
+        val mediaList = (1..MediaUploadScheduler.MAX_CONCURRENT_UPLOADS_PER_SITE + 1).map { generateMedia(site) }
+        mediaList.forEach { scheduler.enqueue(site, it) }
+
+        assertEquals(MediaUploadScheduler.MAX_CONCURRENT_UPLOADS_PER_SITE, scheduler.runningUploadCount)
+        assertEquals(1, scheduler.queuedUploadCount)
+        val queuedMedia = mediaList.last()
+        verify(restClient, never()).uploadMedia(site, queuedMedia)
+        assertEquals(MediaUploadState.QUEUED.toString(), MediaSqlUtils.getMediaWithLocalId(queuedMedia.id).uploadState)
+
+        scheduler.onUploadFinished(mediaList.first())
+
+        verify(restClient).uploadMedia(site, queuedMedia)
+        assertEquals(0, scheduler.queuedUploadCount)
+        assertEquals(MediaUploadState.UPLOADING.toString(),
+                MediaSqlUtils.getMediaWithLocalId(queuedMedia.id).uploadState)
+    }
+
+    @Test
+    fun testConcurrentUploadsAreLimited() {
+        for (localSiteId in 1..MediaUploadScheduler.MAX_CONCURRENT_UPLOADS + 1) {
+            val site = generateSite(localSiteId)
+            scheduler.enqueue(site, generateMedia(site))
+        }
+
+        assertEquals(MediaUploadScheduler.MAX_CONCURRENT_UPLOADS, scheduler.runningUploadCount)
+        assertEquals(1, scheduler.queuedUploadCount)
+    }
+
+    @Test
+    fun testMediaAttachedToPostsGoFirst() {
+        val site = generateSite(1)
+        val runningMedia = (1..MediaUploadScheduler.MAX_CONCURRENT_UPLOADS_PER_SITE).map { generateMedia(site) }
+        runningMedia.forEach { scheduler.enqueue(site, it) }
+        val unattachedMedia = generateMedia(site)
+        scheduler.enqueue(site, unattachedMedia)
+        val attachedMedia = generateMedia(site)
+        attachedMedia.localPostId = 5
+        scheduler.enqueue(site, attachedMedia)
+
+        scheduler.onUploadFinished(runningMedia.first())
+
+        verify(restClient).uploadMedia(site, attachedMedia)
+        verify(restClient, never()).uploadMedia(site, unattachedMedia)
+    }
+
+    @Test
+    fun testCancelQueuedUpload() {
+        val site = generateSite(1)
+        val mediaList = (1..MediaUploadScheduler.MAX_CONCURRENT_UPLOADS_PER_SITE + 1).map { generateMedia(site) }
+        mediaList.forEach { scheduler.enqueue(site, it) }
+
+        assertTrue(scheduler.cancel(mediaList.last()))
+        assertFalse(scheduler.cancel(mediaList.first()))
+
+        assertEquals(MediaUploadScheduler.MAX_CONCURRENT_UPLOADS_PER_SITE - 1, scheduler.runningUploadCount)
+        assertEquals(0, scheduler.queuedUploadCount)
+        verify(restClient, never()).uploadMedia(site, mediaList.last())
+    }
+
+    @Test
+    fun testDuplicateEnqueueIsIgnored() {
+        val site = generateSite(1)
+        val mediaList = (1..MediaUploadScheduler.MAX_CONCURRENT_UPLOADS_PER_SITE + 1).map { generateMedia(site) }
+        mediaList.forEach { scheduler.enqueue(site, it) }
+
+        // Enqueue again a running and a queued media
+        scheduler.enqueue(site, mediaList.first())
+        scheduler.enqueue(site, mediaList.last())
+
+        assertEquals(MediaUploadScheduler.MAX_CONCURRENT_UPLOADS_PER_SITE, scheduler.runningUploadCount)
+        assertEquals(1, scheduler.queuedUploadCount)
+        verify(restClient, times(1)).uploadMedia(site, mediaList.first())
+
+        scheduler.onUploadFinished(mediaList.first())
+
+        verify(restClient, times(1)).uploadMedia(site, mediaList.last())
+        assertEquals(0, scheduler.queuedUploadCount)
+    }
+
+    @Test
+    fun testTransientErrorsAreRetried() {
+        val site = generateSite(1)
+        val media = generateMedia(site)
+        scheduler.enqueue(site, media)
+
+        val timeout = MediaError(MediaErrorType.TIMEOUT)
+        repeat(MediaUploadScheduler.MAX_RETRIES) {
+            assertTrue(scheduler.retryUpload(media, timeout))
+            ShadowLooper.runUiThreadTasksIncludingDelayedTasks()
+        }
+        verify(restClient, times(MediaUploadScheduler.MAX_RETRIES + 1)).uploadMedia(site, media)
+
+        // Out of retries
+        assertFalse(scheduler.retryUpload(media, timeout))
+        assertEquals(1, scheduler.runningUploadCount)
+    }
+
+    @Test
+    fun testOtherErrorsAreNotRetried() {
+        val site = generateSite(1)
+        val media = generateMedia(site)
+        scheduler.enqueue(site, media)
+
+        assertFalse(scheduler.retryUpload(media, MediaError(MediaErrorType.EXCEEDS_FILESIZE_LIMIT)))
+        verify(xmlrpcClient, never()).uploadMedia(any(), any())
+    }
+
+    private fun generateSite(localSiteId: Int): SiteModel {
+        val site = SiteModel()
+        site.id = localSiteId
+        site.setIsWPCom(true)
+        return site
+    }
+
+    private fun generateMedia(site: SiteModel): MediaModel {
+        val media = MediaModel()
+        media.localSiteId = site.id
+        media.filePath = "/test/test.jpg"
+        media.mimeType = "image/jpeg"
+        MediaSqlUtils.insertMediaForResult(media)
+        return media
+    }
+}
@@ -59,7 +59,7 @@ class VisitsAndViewsStoreTest {
         val responseModel = store.fetchVisits(site, PAGE_SIZE, DATE, DAYS, forced)
 
         assertThat(responseModel.model).isEqualTo(VISITS_AND_VIEWS_MODEL)
-        verify(sqlUtils).insert(site, VISITS_AND_VIEWS_RESPONSE, DAYS, DATE)
+        verify(sqlUtils).insert(site, VISITS_AND_VIEWS_MODEL, DAYS, DATE)
     }
 
     @Test
@@ -98,12 +98,21 @@ class VisitsAndViewsStoreTest {
 
     @Test
     fun `returns data from db`() {
-        whenever(sqlUtils.selectVisitsAndViews(site, DAYS, DATE)).thenReturn(VISITS_AND_VIEWS_RESPONSE)
         val model = mock<VisitsAndViewsModel>()
-        whenever(mapper.map(VISITS_AND_VIEWS_RESPONSE)).thenReturn(model)
+        whenever(sqlUtils.selectVisitsAndViews(site, DAYS, DATE)).thenReturn(model)
 
         val result = store.getVisits(site, DATE, DAYS)
 
         assertThat(result).isEqualTo(model)
     }
+
+    @Test
+    fun `returns periods in range from db`() {
+        val endDate = Date(1000)
+        whenever(sqlUtils.selectVisitsAndViews(site, DAYS, DATE, endDate)).thenReturn(VISITS_AND_VIEWS_MODEL.dates)
+
+        val result = store.getVisits(site, DATE, endDate, DAYS)
+
+        assertThat(result).isEqualTo(VISITS_AND_VIEWS_MODEL.dates)
+    }
 }
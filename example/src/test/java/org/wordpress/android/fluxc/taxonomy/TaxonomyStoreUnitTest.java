@@ -3,6 +3,7 @@ package org.wordpress.android.fluxc.taxonomy;
 import android.content.Context;
 
 import com.yarolegovich.wellsql.WellSql;
+import com.yarolegovich.wellsql.core.Identifiable;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -12,15 +13,19 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.SingleStoreWellSqlConfigForTests;
+import org.wordpress.android.fluxc.model.PostModel;
+import org.wordpress.android.fluxc.model.PostTermModel;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.TermModel;
 import org.wordpress.android.fluxc.network.rest.wpcom.taxonomy.TaxonomyRestClient;
 import org.wordpress.android.fluxc.network.xmlrpc.taxonomy.TaxonomyXMLRPCClient;
+import org.wordpress.android.fluxc.persistence.PostSqlUtils;
 import org.wordpress.android.fluxc.persistence.TaxonomySqlUtils;
 import org.wordpress.android.fluxc.persistence.WellSqlConfig;
 import org.wordpress.android.fluxc.store.TaxonomyStore;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -36,7 +41,12 @@ public class TaxonomyStoreUnitTest {
     public void setUp() {
         Context appContext = RuntimeEnvironment.application.getApplicationContext();
 
-        WellSqlConfig config = new SingleStoreWellSqlConfigForTests(appContext, TermModel.class);
+        List<Class<? extends Identifiable>> modelsToTest = new ArrayList<>();
+        modelsToTest.add(TermModel.class);
+        modelsToTest.add(PostModel.class);
+        modelsToTest.add(PostTermModel.class);
+
+        WellSqlConfig config = new SingleStoreWellSqlConfigForTests(appContext, modelsToTest, "");
         WellSql.init(config);
         config.reset();
     }
@@ -310,4 +320,34 @@ public class TaxonomyStoreUnitTest {
 
         assertEquals(0, TaxonomyTestUtils.getTermsCount());
     }
+
+    @Test
+    public void testTagChangesFollowedByPostTerms() {
+        SiteModel site = new SiteModel();
+        site.setId(6);
+
+        TermModel tag = TaxonomyTestUtils.generateSampleTag();
+        TaxonomySqlUtils.insertOrUpdateTerm(tag);
+
+        PostModel post = new PostModel();
+        post.setLocalSiteId(6);
+        post.setTagNameList(Collections.singletonList(tag.getName()));
+        PostSqlUtils.insertPostForResult(post);
+        assertEquals(1, PostSqlUtils.getPostCountForSiteWithTerm(site, tag));
+
+        TermModel renamedTag = TaxonomyTestUtils.generateSampleTag();
+        renamedTag.setName("Renamed");
+        TaxonomySqlUtils.insertOrUpdateTerm(renamedTag);
+        // The post still references the old name until it's fetched again
+        assertEquals(1, PostSqlUtils.getPostCountForSiteWithTerm(site, tag));
+        assertEquals(0, PostSqlUtils.getPostCountForSiteWithTerm(site, renamedTag));
+
+        post.setTagNameList(Collections.singletonList(renamedTag.getName()));
+        PostSqlUtils.insertOrUpdatePostOverwritingLocalChanges(post);
+        assertEquals(0, PostSqlUtils.getPostCountForSiteWithTerm(site, tag));
+        assertEquals(1, PostSqlUtils.getPostCountForSiteWithTerm(site, renamedTag));
+
+        TaxonomySqlUtils.removeTerm(renamedTag);
+        assertEquals(0, PostSqlUtils.getPostCountForSiteWithTerm(site, renamedTag));
+    }
 }
@@ -11,6 +11,7 @@ import org.mockito.Mockito;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.wordpress.android.fluxc.Dispatcher;
+import org.wordpress.android.fluxc.generated.UploadActionBuilder;
 import org.wordpress.android.fluxc.model.MediaModel;
 import org.wordpress.android.fluxc.model.MediaUploadModel;
 import org.wordpress.android.fluxc.model.PostModel;
@@ -18,11 +19,13 @@ import org.wordpress.android.fluxc.model.PostUploadModel;
 import org.wordpress.android.fluxc.network.rest.wpcom.post.PostRestClient;
 import org.wordpress.android.fluxc.network.xmlrpc.post.PostXMLRPCClient;
 import org.wordpress.android.fluxc.persistence.MediaSqlUtils;
+import org.wordpress.android.fluxc.persistence.MediaUploadProgressCache;
 import org.wordpress.android.fluxc.persistence.PostSqlUtils;
 import org.wordpress.android.fluxc.persistence.UploadSqlUtils;
 import org.wordpress.android.fluxc.persistence.WellSqlConfig;
 import org.wordpress.android.fluxc.store.MediaStore.MediaError;
 import org.wordpress.android.fluxc.store.MediaStore.MediaErrorType;
+import org.wordpress.android.fluxc.store.MediaStore.ProgressPayload;
 import org.wordpress.android.fluxc.store.PostStore;
 import org.wordpress.android.fluxc.store.PostStore.PostError;
 import org.wordpress.android.fluxc.store.PostStore.PostErrorType;
@@ -33,6 +36,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -73,6 +77,67 @@ public class UploadStoreUnitTest {
         assertEquals(0.65F, mUploadStore.getUploadProgressForMedia(testMedia), 0.1F);
     }
 
+    @Test
+    public void testMediaUploadProgressIsKeptInMemory() {
+        MediaModel testMedia = UploadTestUtils.getLocalTestMedia();
+        testMedia.setId(5);
+        MediaSqlUtils.insertMediaForResult(testMedia);
+        UploadSqlUtils.insertOrUpdateMedia(new MediaUploadModel(testMedia.getId()));
+
+        mUploadStore.onAction(UploadActionBuilder.newUploadedMediaAction(
+                new ProgressPayload(testMedia, 0.3F, false, false)));
+        mUploadStore.onAction(UploadActionBuilder.newUploadedMediaAction(
+                new ProgressPayload(testMedia, 0.6F, false, false)));
+        // Progress never goes back
+        mUploadStore.onAction(UploadActionBuilder.newUploadedMediaAction(
+                new ProgressPayload(testMedia, 0.5F, false, false)));
+
+        assertEquals(0.6F, mUploadStore.getUploadProgressForMedia(testMedia), 0.01F);
+        // Not saved yet
+        assertEquals(0F, UploadTestUtils.getMediaUploadModelForMediaModel(testMedia).getProgress(), 0.01F);
+
+        mUploadStore.onAction(UploadActionBuilder.newUploadedMediaAction(
+                new ProgressPayload(testMedia, 1F, true, false)));
+
+        MediaUploadModel mediaUploadModel = UploadTestUtils.getMediaUploadModelForMediaModel(testMedia);
+        assertEquals(MediaUploadModel.COMPLETED, mediaUploadModel.getUploadState());
+        assertEquals(1F, mediaUploadModel.getProgress(), 0.01F);
+        assertEquals(1F, mUploadStore.getUploadProgressForMedia(testMedia), 0.01F);
+    }
+
+    @Test
+    public void testMediaUploadProgressIsSavedOnFailure() {
+        MediaModel testMedia = UploadTestUtils.getLocalTestMedia();
+        testMedia.setId(5);
+        MediaSqlUtils.insertMediaForResult(testMedia);
+        UploadSqlUtils.insertOrUpdateMedia(new MediaUploadModel(testMedia.getId()));
+
+        mUploadStore.onAction(UploadActionBuilder.newUploadedMediaAction(
+                new ProgressPayload(testMedia, 0.4F, false, false)));
+        mUploadStore.onAction(UploadActionBuilder.newUploadedMediaAction(
+                new ProgressPayload(testMedia, 0.4F, false, new MediaError(MediaErrorType.GENERIC_ERROR))));
+
+        MediaUploadModel mediaUploadModel = UploadTestUtils.getMediaUploadModelForMediaModel(testMedia);
+        assertEquals(MediaUploadModel.FAILED, mediaUploadModel.getUploadState());
+        assertEquals(0.4F, mediaUploadModel.getProgress(), 0.01F);
+    }
+
+    @Test
+    public void testMediaUploadProgressIsFlushed() {
+        MediaModel testMedia = UploadTestUtils.getLocalTestMedia();
+        testMedia.setId(5);
+        MediaSqlUtils.insertMediaForResult(testMedia);
+        UploadSqlUtils.insertOrUpdateMedia(new MediaUploadModel(testMedia.getId()));
+
+        // Saves the progress on every update
+        MediaUploadProgressCache progressCache = new MediaUploadProgressCache(0);
+        assertFalse(progressCache.updateProgress(testMedia.getId(), 0.2F));
+        progressCache.startTracking(testMedia.getId(), 0F);
+        assertTrue(progressCache.updateProgress(testMedia.getId(), 0.2F));
+
+        assertEquals(0.2F, UploadTestUtils.getMediaUploadModelForMediaModel(testMedia).getProgress(), 0.01F);
+    }
+
     @Test
     public void testPostModelRegistration() {
         // Create a PostModel and add it to the PostStore
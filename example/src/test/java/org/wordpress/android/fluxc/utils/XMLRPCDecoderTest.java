@@ -0,0 +1,270 @@
+package org.wordpress.android.fluxc.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.wordpress.android.fluxc.model.CommentModel;
+import org.wordpress.android.fluxc.model.CommentStatus;
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.fluxc.model.PostModel;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCArrayDecoder;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCDecoder;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCFault;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCReader;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLSerializerUtils;
+import org.wordpress.android.fluxc.network.xmlrpc.comment.CommentXMLRPCDecoder;
+import org.wordpress.android.fluxc.network.xmlrpc.media.MediaXMLRPCDecoder;
+import org.wordpress.android.fluxc.network.xmlrpc.post.PostXMLRPCDecoder;
+import org.wordpress.android.util.DateTimeUtils;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+@RunWith(RobolectricTestRunner.class)
+public class XMLRPCDecoderTest {
+    private static final String POSTS_RESPONSE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<methodResponse><params><param><value><array><data>\n"
+            // A post, with members that aren't read and need to be skipped
+            + "<value><struct>\n"
+            + "  <member><name>post_id</name><value><string>42</string></value></member>\n"
+            + "  <member><name>post_title</name><value><string>Caf\u00e9 &amp; co</string></value></member>\n"
+            + "  <member><name>post_date_gmt</name>"
+            + "<value><dateTime.iso8601>20190102T03:04:05</dateTime.iso8601></value></member>\n"
+            + "  <member><name>post_modified_gmt</name>"
+            + "<value><dateTime.iso8601>20190203T04:05:06</dateTime.iso8601></value></member>\n"
+            + "  <member><name>post_status</name><value><string>publish</string></value></member>\n"
+            + "  <member><name>post_type</name><value><string>post</string></value></member>\n"
+            + "  <member><name>post_content</name><value><string>&lt;p&gt;Hello&lt;/p&gt;</string></value></member>\n"
+            + "  <member><name>post_content_filtered</name><value><string>ignored</string></value></member>\n"
+            + "  <member><name>post_author</name><value><int>7</int></value></member>\n"
+            + "  <member><name>enclosure</name><value><struct>"
+            + "<member><name>url</name><value><string>http://a.b/c.mp3</string></value></member>"
+            + "<member><name>nested</name><value><array><data><value><int>1</int></value></data></array></value>"
+            + "</member></struct></value></member>\n"
+            + "  <member><name>post_thumbnail</name><value><struct>"
+            + "<member><name>attachment_id</name><value><string>17</string></value></member>"
+            + "<member><name>link</name><value><string>http://a.b/c.jpg</string></value></member>"
+            + "</struct></value></member>\n"
+            + "  <member><name>post_format</name><value><string>aside</string></value></member>\n"
+            + "  <member><name>terms</name><value><array><data>"
+            + "<value><struct>"
+            + "<member><name>term_id</name><value><string>3</string></value></member>"
+            + "<member><name>name</name><value><string>News</string></value></member>"
+            + "<member><name>taxonomy</name><value><string>category</string></value></member>"
+            + "</struct></value>"
+            + "<value><struct>"
+            + "<member><name>term_id</name><value><string>5</string></value></member>"
+            + "<member><name>name</name><value><string>fluxc</string></value></member>"
+            + "<member><name>taxonomy</name><value><string>post_tag</string></value></member>"
+            + "</struct></value>"
+            + "</data></array></value></member>\n"
+            + "  <member><name>custom_fields</name><value><array><data>"
+            + "<value><struct>"
+            + "<member><name>id</name><value><string>9</string></value></member>"
+            + "<member><name>key</name><value><string>geo_latitude</string></value></member>"
+            + "<member><name>value</name><value><string>45.5</string></value></member>"
+            + "</struct></value>"
+            + "<value><struct>"
+            + "<member><name>id</name><value><string>10</string></value></member>"
+            + "<member><name>key</name><value><string>geo_longitude</string></value></member>"
+            + "<member><name>value</name><value><string>-73.5</string></value></member>"
+            + "</struct></value>"
+            + "</data></array></value></member>\n"
+            + "</struct></value>\n"
+            // A page, without a featured image
+            + "<value><struct>\n"
+            + "  <member><name>post_id</name><value><string>43</string></value></member>\n"
+            + "  <member><name>post_type</name><value><string>page</string></value></member>\n"
+            + "  <member><name>post_parent</name><value><string>42</string></value></member>\n"
+            + "  <member><name>wp_slug</name><value><string>about</string></value></member>\n"
+            + "  <member><name>post_thumbnail</name><value><array><data></data></array></value></member>\n"
+            + "  <member><name>terms</name><value><array><data></data></array></value></member>\n"
+            + "</struct></value>\n"
+            // A post without an ID
+            + "<value><struct>\n"
+            + "  <member><name>post_title</name><value><string>No ID</string></value></member>\n"
+            + "</struct></value>\n"
+            + "</data></array></value></param></params></methodResponse>";
+
+    @Test
+    public void testDecodePosts() throws Exception {
+        SiteModel site = new SiteModel();
+        site.setId(6);
+        List<PostModel> posts = decode(POSTS_RESPONSE, new XMLRPCArrayDecoder<>(new PostXMLRPCDecoder(site)));
+
+        Assert.assertEquals(3, posts.size());
+
+        PostModel post = posts.get(0);
+        Assert.assertEquals(6, post.getLocalSiteId());
+        Assert.assertEquals(42, post.getRemotePostId());
+        Assert.assertEquals("Caf\u00e9 & co", post.getTitle());
+        Assert.assertEquals("<p>Hello</p>", post.getContent());
+        Assert.assertEquals(utcDate(2019, Calendar.JANUARY, 2, 3, 4, 5), utcDate(post.getDateCreated()));
+        Assert.assertEquals(utcDate(2019, Calendar.FEBRUARY, 3, 4, 5, 6), utcDate(post.getLastModified()));
+        Assert.assertEquals("publish", post.getStatus());
+        Assert.assertFalse(post.isPage());
+        Assert.assertEquals(17, post.getFeaturedImageId());
+        Assert.assertEquals("aside", post.getPostFormat());
+        Assert.assertEquals(Arrays.asList(3L), post.getCategoryIdList());
+        Assert.assertEquals(Arrays.asList("fluxc"), post.getTagNameList());
+        Assert.assertEquals(45.5, post.getLocation().getLatitude(), 0.0);
+        Assert.assertEquals(-73.5, post.getLocation().getLongitude(), 0.0);
+
+        PostModel page = posts.get(1);
+        Assert.assertEquals(43, page.getRemotePostId());
+        Assert.assertTrue(page.isPage());
+        Assert.assertEquals(42, page.getParentId());
+        Assert.assertEquals("about", page.getSlug());
+        Assert.assertEquals(0, page.getFeaturedImageId());
+        Assert.assertTrue(page.getCategoryIdList().isEmpty());
+
+        Assert.assertNull(posts.get(2));
+    }
+
+    @Test
+    public void testDecodeComment() throws Exception {
+        SiteModel site = new SiteModel();
+        site.setId(6);
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<methodResponse><params><param><value><struct>"
+                + "<member><name>comment_id</name><value><string>12</string></value></member>"
+                + "<member><name>parent</name><value><string>11</string></value></member>"
+                + "<member><name>status</name><value><string>hold</string></value></member>"
+                + "<member><name>date_created_gmt</name>"
+                + "<value><dateTime.iso8601>20190102T03:04:05</dateTime.iso8601></value></member>"
+                + "<member><name>content</name><value><string>Nice post</string></value></member>"
+                + "<member><name>link</name><value><string>http://a.b/#comment-12</string></value></member>"
+                + "<member><name>post_id</name><value><string>42</string></value></member>"
+                + "<member><name>post_title</name><value><string>Caf&amp;eacute;</string></value></member>"
+                + "<member><name>author</name><value><string>Ren&amp;eacute;</string></value></member>"
+                + "</struct></value></param></params></methodResponse>";
+        CommentModel comment = decode(xml, new CommentXMLRPCDecoder(site));
+
+        Assert.assertEquals(12, comment.getRemoteCommentId());
+        Assert.assertEquals(11, comment.getRemoteParentCommentId());
+        Assert.assertEquals(42, comment.getRemotePostId());
+        Assert.assertEquals(6, comment.getLocalSiteId());
+        Assert.assertEquals(CommentStatus.UNAPPROVED.toString(), comment.getStatus());
+        Assert.assertEquals(utcDate(2019, Calendar.JANUARY, 2, 3, 4, 5), utcDate(comment.getDatePublished()));
+        Assert.assertEquals("Nice post", comment.getContent());
+        Assert.assertEquals("Caf\u00e9", comment.getPostTitle());
+        Assert.assertEquals("Ren\u00e9", comment.getAuthorName());
+        Assert.assertEquals("", comment.getAuthorEmail());
+    }
+
+    @Test
+    public void testDecodeMedia() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<methodResponse><params><param><value><struct>"
+                + "<member><name>metadata</name><value><struct>"
+                + "<member><name>width</name><value><int>1024</int></value></member>"
+                + "<member><name>height</name><value><int>768</int></value></member>"
+                + "<member><name>sizes</name><value><struct>"
+                + "<member><name>thumbnail</name><value><struct>"
+                + "<member><name>file</name><value><string>pic-150x150.jpg</string></value></member>"
+                + "</struct></value></member>"
+                + "<member><name>medium</name><value><struct>"
+                + "<member><name>file</name><value><string>pic-300x225.jpg</string></value></member>"
+                + "<member><name>width</name><value><int>300</int></value></member>"
+                + "</struct></value></member>"
+                + "</struct></value></member>"
+                + "<member><name>image_meta</name><value><struct>"
+                + "<member><name>keywords</name><value><array><data></data></array></value></member>"
+                + "</struct></value></member>"
+                + "</struct></value></member>"
+                // The link comes after the metadata the size urls are built from
+                + "<member><name>attachment_id</name><value><string>17</string></value></member>"
+                + "<member><name>parent</name><value><int>42</int></value></member>"
+                + "<member><name>title</name><value><string>Pic</string></value></member>"
+                + "<member><name>link</name><value><string>http://a.b/uploads/pic.jpg</string></value></member>"
+                + "</struct></value></param></params></methodResponse>";
+        MediaModel media = decode(xml, new MediaXMLRPCDecoder());
+
+        Assert.assertEquals(17, media.getMediaId());
+        Assert.assertEquals(42, media.getPostId());
+        Assert.assertEquals("Pic", media.getTitle());
+        Assert.assertEquals("http://a.b/uploads/pic.jpg", media.getUrl());
+        Assert.assertEquals("pic.jpg", media.getFileName());
+        Assert.assertEquals(1024, media.getWidth());
+        Assert.assertEquals(768, media.getHeight());
+        Assert.assertEquals("http://a.b/uploads/pic-300x225.jpg", media.getFileUrlMediumSize());
+        Assert.assertNull(media.getFileUrlLargeSize());
+    }
+
+    @Test
+    public void testReaderIsLenientWithUnexpectedTypes() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<methodResponse><params><param><value><array><data>"
+                + "<value><int>12</int></value>"
+                + "<value><struct><member><name>a</name><value><string>b</string></value></member></struct></value>"
+                + "<value><string>not a number</string></value>"
+                + "<value><string>20190102T03:04:05</string></value>"
+                + "<value><i4>7</i4></value>"
+                + "</data></array></value></param></params></methodResponse>";
+        Object[] values = decode(xml, new XMLRPCDecoder<Object[]>() {
+            @Override
+            public Object[] decode(XMLRPCReader reader) throws IOException, XmlPullParserException {
+                reader.beginArray();
+                Object[] values = new Object[5];
+                values[0] = reader.hasNext() ? reader.nextString() : null;
+                values[1] = reader.hasNext() ? reader.nextString() : null;
+                values[2] = reader.hasNext() ? reader.nextLong(-1) : null;
+                values[3] = reader.hasNext() ? reader.nextDate() : null;
+                // Calling hasNext() twice doesn't skip anything
+                values[4] = reader.hasNext() && reader.hasNext() ? reader.nextInt(-1) : null;
+                Assert.assertFalse(reader.hasNext());
+                reader.endArray();
+                return values;
+            }
+        });
+
+        Assert.assertArrayEquals(new Object[]{"12", null, -1L, null, 7}, values);
+    }
+
+    @Test
+    public void testNonArrayResponseDecodesToNull() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<methodResponse><params><param><value><struct>"
+                + "<member><name>post_id</name><value><string>42</string></value></member>"
+                + "</struct></value></param></params></methodResponse>";
+        Assert.assertNull(decode(xml, new XMLRPCArrayDecoder<>(new PostXMLRPCDecoder(new SiteModel()))));
+    }
+
+    @Test
+    public void testFaultIsThrown() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<methodResponse><fault><value><struct>"
+                + "<member><name>faultCode</name><value><int>403</int></value></member>"
+                + "<member><name>faultString</name><value><string>Incorrect username or password.</string></value>"
+                + "</member></struct></value></fault></methodResponse>";
+        try {
+            decode(xml, new PostXMLRPCDecoder(new SiteModel()));
+            Assert.fail("Expected an XMLRPCFault");
+        } catch (XMLRPCFault e) {
+            Assert.assertEquals(403, e.getFaultCode());
+        }
+    }
+
+    private static Date utcDate(int year, int month, int day, int hour, int minute, int second) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute, second);
+        return calendar.getTime();
+    }
+
+    private static Date utcDate(String iso8601) {
+        return DateTimeUtils.dateUTCFromIso8601(iso8601);
+    }
+
+    private static <T> T decode(String xml, XMLRPCDecoder<T> decoder) throws Exception {
+        return XMLSerializerUtils.deserialize(new ByteArrayInputStream(xml.getBytes("UTF-8")), "UTF-8", decoder);
+    }
+}
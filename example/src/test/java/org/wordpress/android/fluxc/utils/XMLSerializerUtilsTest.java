@@ -4,12 +4,28 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
+import org.wordpress.android.fluxc.generated.endpoint.XMLRPC;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCRequestBody;
 import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCSerializer;
 import org.wordpress.android.fluxc.network.xmlrpc.XMLSerializerUtils;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import okio.Buffer;
 
 @RunWith(RobolectricTestRunner.class)
 public class XMLSerializerUtilsTest {
@@ -39,6 +55,31 @@ public class XMLSerializerUtilsTest {
         Assert.assertEquals(xml, result);
     }
 
+    @Test
+    public void testXmlRpcResponseScrubWithLongJunk() {
+        final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><nothing></nothing>";
+        final String junk = new String(new char[4900]).replace('\0', 'x');
+        final String result = scrub(junk + xml, xml.length());
+        Assert.assertEquals(xml, result);
+    }
+
+    @Test
+    public void testXmlRpcResponseScrubWithoutXmlDeclaration() {
+        final String xml = "<methodResponse><params></params></methodResponse>";
+        final String result = scrub(xml, xml.length());
+        Assert.assertEquals(xml, result);
+    }
+
+    @Test
+    public void testXmlRpcResponseDeserializeWithJunk() throws Exception {
+        final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><methodResponse><params><param>"
+                           + "<value><string>h\u00e9llo \u2603</string></value></param></params></methodResponse>";
+        final String junk = "Warning: virtual() [function.virtual2]: Unable to include '/cgi-bin/script/l'\n";
+        final InputStream is = new ByteArrayInputStream((junk + xml).getBytes("UTF-8"));
+        Object result = XMLSerializerUtils.deserialize(XMLSerializerUtils.scrubXmlResponse(is), "UTF-8");
+        Assert.assertEquals("h\u00e9llo \u2603", result);
+    }
+
     private String scrub(String input, int xmlLength) {
         try {
             final InputStream is = new ByteArrayInputStream(input.getBytes("UTF-8"));
@@ -66,4 +107,87 @@ public class XMLSerializerUtilsTest {
         // If the input wasn't modified, it will fail during the XMLRPC serialization step
         Assert.assertNotEquals(inputString, serializeThis);
     }
+
+    @Test
+    public void testSerializeMethodCallRoundTrip() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            content.append("<p class=\"x\">Paragraph ").append(i).append(" &amp; caf\u00e9 \uD83D\uDE00</p>\n");
+        }
+        Map<String, Object> contentStruct = new HashMap<>();
+        contentStruct.put("post_title", "Fish & <Chips>");
+        contentStruct.put("post_content", content.toString());
+        contentStruct.put("terms_names", Collections.singletonMap("post_tag", Arrays.asList("a", "b")));
+        Object[] params = {1, "user", "pass\u0001word", 42L, contentStruct};
+
+        Buffer buffer = new Buffer();
+        XMLSerializerUtils.serialize(buffer, XMLRPC.EDIT_POST, params);
+
+        XmlPullParser parser = XmlPullParserFactory.newInstance().newPullParser();
+        parser.setInput(buffer.inputStream(), "UTF-8");
+        parser.nextTag(); // <methodCall>
+        parser.nextTag(); // <methodName>
+        Assert.assertEquals(XMLRPC.EDIT_POST.toString(), parser.nextText());
+        parser.nextTag(); // <params>
+        List<Object> deserializedParams = new ArrayList<>();
+        while (parser.nextTag() == XmlPullParser.START_TAG) { // <param>
+            parser.nextTag(); // <value>
+            deserializedParams.add(XMLRPCSerializer.deserialize(parser));
+            parser.nextTag(); // </param>
+        }
+
+        Assert.assertEquals(5, deserializedParams.size());
+        Assert.assertEquals(1, deserializedParams.get(0));
+        // Characters that aren't allowed in XML 1.0 are stripped
+        Assert.assertEquals("password", deserializedParams.get(2));
+        Assert.assertEquals("42", deserializedParams.get(3));
+        Map<?, ?> deserializedStruct = (Map<?, ?>) deserializedParams.get(4);
+        Assert.assertEquals("Fish & <Chips>", deserializedStruct.get("post_title"));
+        Assert.assertEquals(content.toString(), deserializedStruct.get("post_content"));
+        Map<?, ?> termsNames = (Map<?, ?>) deserializedStruct.get("terms_names");
+        Assert.assertArrayEquals(new Object[]{"a", "b"}, (Object[]) termsNames.get("post_tag"));
+    }
+
+    @Test
+    public void testRequestBodyContentLengthMatchesWrittenBytes() throws Exception {
+        Map<String, Object> contentStruct = new HashMap<>();
+        contentStruct.put("post_content", "<p>caf\u00e9 \uD83D\uDE00 &amp; more</p>");
+        XMLRPCRequestBody body = new XMLRPCRequestBody(XMLRPC.EDIT_POST,
+                new Object[]{1, "user", "password", contentStruct});
+
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+
+        Assert.assertEquals(buffer.size(), body.contentLength());
+    }
+
+    @Test
+    public void testMakeValidInputStringIsThreadSafe() throws Exception {
+        final String[] inputs = {"plain text", "emoji \uD83D\uDE00", "lone \uD83D surrogate", "control \u0001 char"};
+        final String[] expected = new String[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            expected[i] = XMLRPCSerializer.makeValidInputString(inputs[i]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int thread = 0; thread < 10; thread++) {
+            results.add(executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    for (int i = 0; i < 1000; i++) {
+                        int index = i % inputs.length;
+                        if (!expected[index].equals(XMLRPCSerializer.makeValidInputString(inputs[index]))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            Assert.assertTrue(result.get());
+        }
+        executor.shutdown();
+    }
 }
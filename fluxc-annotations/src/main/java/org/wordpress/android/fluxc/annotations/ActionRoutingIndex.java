@@ -0,0 +1,20 @@
+package org.wordpress.android.fluxc.annotations;
+
+import org.wordpress.android.fluxc.annotations.action.IAction;
+
+/**
+ * Compile-time index of the actions handled by each {@link HandlesActions}-annotated store of a module, generated by
+ * fluxc-processor when the {@code fluxcIndex} annotation processor option is set.
+ */
+public interface ActionRoutingIndex {
+    /**
+     * @return the action types handled by the given store class, or null if the class isn't part of this index
+     */
+    Class<? extends IAction>[] getHandledActions(Class<?> storeClass);
+
+    /**
+     * @return true if the given store class is part of this index and has no EventBus subscriber methods, neither
+     * its own nor inherited, so it doesn't need to be registered on the EventBus nor scanned by reflection
+     */
+    boolean hasNoSubscribers(Class<?> storeClass);
+}
@@ -0,0 +1,18 @@
+package org.wordpress.android.fluxc.annotations;
+
+import org.wordpress.android.fluxc.annotations.action.IAction;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the {@link IAction} enums a store handles. The dispatcher only routes actions of these types to the
+ * annotated store. A store without this annotation receives every action.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface HandlesActions {
+    Class<? extends IAction>[] value();
+}
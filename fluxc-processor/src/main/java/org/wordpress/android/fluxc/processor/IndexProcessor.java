@@ -0,0 +1,359 @@
+package org.wordpress.android.fluxc.processor;
+
+import com.google.auto.service.AutoService;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import org.wordpress.android.fluxc.annotations.ActionEnum;
+import org.wordpress.android.fluxc.annotations.ActionRoutingIndex;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
+import org.wordpress.android.fluxc.annotations.action.IAction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import static java.util.Collections.singleton;
+import static javax.lang.model.SourceVersion.latestSupported;
+
+/**
+ * Generates a per-module index of the actions handled by each {@link HandlesActions}-annotated store, and of every
+ * EventBus {@code @Subscribe} method, so that registering with the Dispatcher doesn't need any reflection. Indexed
+ * stores without any subscriber method are listed as well, so the Dispatcher knows it doesn't have to look for them.
+ *
+ * The index is only generated if the {@code fluxcIndex} option is set to the fully qualified name of the class to
+ * generate. Classes that can't be indexed (non-public subscribers or event types) are left out and are looked up by
+ * reflection at runtime, as before.
+ */
+@SuppressWarnings("unused")
+@AutoService(Processor.class)
+public class IndexProcessor extends AbstractProcessor {
+    public static final String OPTION_INDEX = "fluxcIndex";
+
+    private static final String SUBSCRIBE = "org.greenrobot.eventbus.Subscribe";
+    private static final ClassName THREAD_MODE = ClassName.get("org.greenrobot.eventbus", "ThreadMode");
+    private static final ClassName SUBSCRIBER_INFO = ClassName.get("org.greenrobot.eventbus.meta", "SubscriberInfo");
+    private static final ClassName SUBSCRIBER_INFO_INDEX =
+            ClassName.get("org.greenrobot.eventbus.meta", "SubscriberInfoIndex");
+    private static final ClassName SIMPLE_SUBSCRIBER_INFO =
+            ClassName.get("org.greenrobot.eventbus.meta", "SimpleSubscriberInfo");
+    private static final ClassName SUBSCRIBER_METHOD_INFO =
+            ClassName.get("org.greenrobot.eventbus.meta", "SubscriberMethodInfo");
+
+    private Filer mFiler;
+    private Messager mMessager;
+    private Types mTypes;
+    private boolean mIndexWritten;
+
+    private final Map<TypeElement, List<TypeMirror>> mHandledActions = new LinkedHashMap<>();
+    private final Map<TypeElement, List<ExecutableElement>> mSubscriberMethods = new LinkedHashMap<>();
+    private final Set<TypeElement> mSkippedSubscribers = new HashSet<>();
+
+    @Override
+    public void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        mFiler = processingEnv.getFiler();
+        mMessager = processingEnv.getMessager();
+        mTypes = processingEnv.getTypeUtils();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<>(Arrays.asList(HandlesActions.class.getCanonicalName(), SUBSCRIBE));
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return singleton(OPTION_INDEX);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        String indexClassName = processingEnv.getOptions().get(OPTION_INDEX);
+        if (indexClassName == null || mIndexWritten || roundEnv.processingOver()) {
+            return false;
+        }
+
+        for (Element storeElement : roundEnv.getElementsAnnotatedWith(HandlesActions.class)) {
+            collectHandledActions((TypeElement) storeElement);
+        }
+
+        TypeElement subscribeElement = processingEnv.getElementUtils().getTypeElement(SUBSCRIBE);
+        if (subscribeElement != null) {
+            for (Element methodElement : roundEnv.getElementsAnnotatedWith(subscribeElement)) {
+                collectSubscriberMethod((ExecutableElement) methodElement);
+            }
+        }
+
+        createIndexClass(indexClassName);
+        mIndexWritten = true;
+
+        // Don't claim @Subscribe, other processors might be interested in it
+        return false;
+    }
+
+    private void collectHandledActions(TypeElement storeElement) {
+        List<TypeMirror> actionTypes = new ArrayList<>();
+        try {
+            storeElement.getAnnotation(HandlesActions.class).value();
+        } catch (MirroredTypesException e) {
+            actionTypes.addAll(e.getTypeMirrors());
+        }
+
+        for (TypeMirror actionType : actionTypes) {
+            Element actionElement = mTypes.asElement(actionType);
+            if (actionElement == null || actionElement.getAnnotation(ActionEnum.class) == null) {
+                mMessager.printMessage(Diagnostic.Kind.ERROR,
+                        actionType + " is not an @ActionEnum and can't be handled by a store", storeElement);
+                return;
+            }
+        }
+
+        if (!isAccessible(storeElement)) {
+            mMessager.printMessage(Diagnostic.Kind.NOTE,
+                    storeElement + " is not public and won't be indexed", storeElement);
+            return;
+        }
+        mHandledActions.put(storeElement, actionTypes);
+    }
+
+    private void collectSubscriberMethod(ExecutableElement method) {
+        TypeElement subscriberElement = (TypeElement) method.getEnclosingElement();
+        if (mSkippedSubscribers.contains(subscriberElement)) {
+            return;
+        }
+
+        boolean indexable = isAccessible(subscriberElement)
+                && method.getModifiers().contains(Modifier.PUBLIC)
+                && !method.getModifiers().contains(Modifier.STATIC)
+                && method.getParameters().size() == 1;
+        if (indexable) {
+            TypeMirror eventType = mTypes.erasure(method.getParameters().get(0).asType());
+            indexable = eventType.getKind() == TypeKind.DECLARED
+                    && isAccessible((TypeElement) ((DeclaredType) eventType).asElement());
+        }
+
+        if (!indexable) {
+            // EventBus looks up every subscriber method of a class at once, leave the whole class to reflection
+            mMessager.printMessage(Diagnostic.Kind.NOTE,
+                    subscriberElement + " can't be indexed, its subscribers will be found by reflection", method);
+            mSubscriberMethods.remove(subscriberElement);
+            mSkippedSubscribers.add(subscriberElement);
+            return;
+        }
+
+        List<ExecutableElement> methods = mSubscriberMethods.get(subscriberElement);
+        if (methods == null) {
+            methods = new ArrayList<>();
+            mSubscriberMethods.put(subscriberElement, methods);
+        }
+        methods.add(method);
+    }
+
+    private void createIndexClass(String indexClassName) {
+        ClassName indexName = ClassName.bestGuess(indexClassName);
+        TypeName classType = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(
+                Object.class));
+        TypeName actionArrayType = ArrayTypeName.of(ParameterizedTypeName.get(ClassName.get(Class.class),
+                WildcardTypeName.subtypeOf(IAction.class)));
+
+        FieldSpec handledActionsField = FieldSpec.builder(
+                ParameterizedTypeName.get(ClassName.get(Map.class), classType, actionArrayType),
+                "HANDLED_ACTIONS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T<>()", HashMap.class)
+                .build();
+        FieldSpec subscriberInfosField = FieldSpec.builder(
+                ParameterizedTypeName.get(ClassName.get(Map.class), classType, SUBSCRIBER_INFO),
+                "SUBSCRIBER_INFOS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T<>()", HashMap.class)
+                .build();
+
+        FieldSpec storesWithoutSubscribersField = FieldSpec.builder(
+                ParameterizedTypeName.get(ClassName.get(Set.class), classType),
+                "STORES_WITHOUT_SUBSCRIBERS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T<>()", HashSet.class)
+                .build();
+
+        CodeBlock.Builder staticBlock = CodeBlock.builder();
+        for (Map.Entry<TypeElement, List<TypeMirror>> entry : mHandledActions.entrySet()) {
+            CodeBlock.Builder actionTypes = CodeBlock.builder();
+            for (int i = 0; i < entry.getValue().size(); i++) {
+                actionTypes.add(i == 0 ? "$T.class" : ", $T.class", TypeName.get(entry.getValue().get(i)));
+            }
+            staticBlock.addStatement("HANDLED_ACTIONS.put($T.class, new Class[] {$L})",
+                    ClassName.get(entry.getKey()), actionTypes.build());
+        }
+        for (TypeElement storeElement : mHandledActions.keySet()) {
+            // Stores with subscriber methods the index left out (see collectSubscriberMethod) are not listed, the
+            // Dispatcher looks for them by reflection
+            if (!mSubscriberMethods.containsKey(storeElement) && !mSkippedSubscribers.contains(storeElement)
+                    && !hasSubscriberSuperclass(storeElement)) {
+                staticBlock.addStatement("STORES_WITHOUT_SUBSCRIBERS.add($T.class)", ClassName.get(storeElement));
+            }
+        }
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : mSubscriberMethods.entrySet()) {
+            ClassName subscriberName = ClassName.get(entry.getKey());
+            staticBlock.add("SUBSCRIBER_INFOS.put($T.class, new $T($T.class, $L, new $T[] {\n", subscriberName,
+                    SIMPLE_SUBSCRIBER_INFO, subscriberName, hasSubscriberSuperclass(entry.getKey()),
+                    SUBSCRIBER_METHOD_INFO);
+            staticBlock.indent();
+            for (ExecutableElement method : entry.getValue()) {
+                staticBlock.add(createSubscriberMethodInfo(method));
+            }
+            staticBlock.unindent();
+            staticBlock.add("}));\n");
+        }
+
+        MethodSpec getHandledActions = MethodSpec.methodBuilder("getHandledActions")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(actionArrayType)
+                .addParameter(classType, "storeClass")
+                .addStatement("return HANDLED_ACTIONS.get(storeClass)")
+                .build();
+        MethodSpec hasNoSubscribers = MethodSpec.methodBuilder("hasNoSubscribers")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(TypeName.BOOLEAN)
+                .addParameter(classType, "storeClass")
+                .addStatement("return STORES_WITHOUT_SUBSCRIBERS.contains(storeClass)")
+                .build();
+        MethodSpec getSubscriberInfo = MethodSpec.methodBuilder("getSubscriberInfo")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(SUBSCRIBER_INFO)
+                .addParameter(classType, "subscriberClass")
+                .addStatement("return SUBSCRIBER_INFOS.get(subscriberClass)")
+                .build();
+
+        TypeSpec indexClass = TypeSpec.classBuilder(indexName.simpleName())
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+                        .addMember("value", "$S", "unchecked").build())
+                .addSuperinterface(ActionRoutingIndex.class)
+                .addSuperinterface(SUBSCRIBER_INFO_INDEX)
+                .addField(handledActionsField)
+                .addField(subscriberInfosField)
+                .addField(storesWithoutSubscribersField)
+                .addStaticBlock(staticBlock.build())
+                .addMethod(getHandledActions)
+                .addMethod(hasNoSubscribers)
+                .addMethod(getSubscriberInfo)
+                .build();
+
+        JavaFile javaFile = JavaFile.builder(indexName.packageName(), indexClass).build();
+
+        try {
+            javaFile.writeTo(mFiler);
+        } catch (IOException e) {
+            mMessager.printMessage(Diagnostic.Kind.ERROR, "Failed to create file: " + e.getMessage());
+        }
+    }
+
+    private CodeBlock createSubscriberMethodInfo(ExecutableElement method) {
+        String threadMode = "POSTING";
+        int priority = 0;
+        boolean sticky = false;
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (!annotation.getAnnotationType().toString().equals(SUBSCRIBE)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                    : annotation.getElementValues().entrySet()) {
+                String name = value.getKey().getSimpleName().toString();
+                if (name.equals("threadMode")) {
+                    threadMode = ((VariableElement) value.getValue().getValue()).getSimpleName().toString();
+                } else if (name.equals("priority")) {
+                    priority = (Integer) value.getValue().getValue();
+                } else if (name.equals("sticky")) {
+                    sticky = (Boolean) value.getValue().getValue();
+                }
+            }
+        }
+        TypeName eventType = TypeName.get(mTypes.erasure(method.getParameters().get(0).asType()));
+        return CodeBlock.of("new $T($S, $T.class, $T.$L, $L, $L),\n", SUBSCRIBER_METHOD_INFO,
+                method.getSimpleName().toString(), eventType, THREAD_MODE, threadMode, priority, sticky);
+    }
+
+    private boolean hasSubscriberSuperclass(TypeElement typeElement) {
+        TypeMirror superclass = typeElement.getSuperclass();
+        while (superclass.getKind() == TypeKind.DECLARED) {
+            TypeElement superElement = (TypeElement) mTypes.asElement(superclass);
+            String name = superElement.getQualifiedName().toString();
+            if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("android.")) {
+                return false;
+            }
+            for (Element enclosed : superElement.getEnclosedElements()) {
+                if (enclosed.getKind() != ElementKind.METHOD) {
+                    continue;
+                }
+                for (AnnotationMirror annotation : enclosed.getAnnotationMirrors()) {
+                    if (annotation.getAnnotationType().toString().equals(SUBSCRIBE)) {
+                        return true;
+                    }
+                }
+            }
+            superclass = superElement.getSuperclass();
+        }
+        return false;
+    }
+
+    private static boolean isAccessible(TypeElement typeElement) {
+        Element element = typeElement;
+        while (element instanceof TypeElement) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            Element enclosing = element.getEnclosingElement();
+            if (enclosing instanceof TypeElement && !element.getModifiers().contains(Modifier.STATIC)
+                    && element.getKind() == ElementKind.CLASS) {
+                // Inner classes can't be referenced from the index
+                return false;
+            }
+            element = enclosing;
+        }
+        return true;
+    }
+}
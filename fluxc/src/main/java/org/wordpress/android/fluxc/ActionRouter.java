@@ -0,0 +1,203 @@
+package org.wordpress.android.fluxc;
+
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.fluxc.annotations.ActionRoutingIndex;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
+import org.wordpress.android.fluxc.annotations.action.Action;
+import org.wordpress.android.fluxc.annotations.action.IAction;
+import org.wordpress.android.fluxc.store.Store;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes actions straight to the {@link Store}s that handle their {@link IAction} type, as declared with
+ * {@link HandlesActions}. The handled types are read from the generated {@link ActionRoutingIndex}es, falling back to
+ * the annotation for Stores that aren't indexed.
+ *
+ * Each Store gets a serial queue drained on a shared thread pool: actions are handled in dispatch order within a Store,
+ * and different Stores run concurrently. A Store's queue holds at most {@code queueCapacity} pending actions; once it
+ * is full, dispatching blocks until the Store catches up. Actions dispatched from a Store's own handler never block,
+ * to avoid deadlocks between Stores dispatching to each other.
+ */
+class ActionRouter {
+    static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private static final ThreadLocal<Boolean> IS_STORE_THREAD = new ThreadLocal<>();
+
+    private final Collection<ActionRoutingIndex> mIndexes;
+    private final Executor mExecutor;
+    private final int mQueueCapacity;
+
+    private final Map<Class<?>, List<StoreQueue>> mRoutes = new ConcurrentHashMap<>();
+    private final List<StoreQueue> mCatchAllQueues = new CopyOnWriteArrayList<>();
+    private final Map<Store, StoreQueue> mStoreQueues = new ConcurrentHashMap<>();
+
+    ActionRouter(Collection<ActionRoutingIndex> indexes) {
+        this(indexes, Executors.newCachedThreadPool(new StoreThreadFactory()), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    ActionRouter(Collection<ActionRoutingIndex> indexes, Executor executor, int queueCapacity) {
+        mIndexes = indexes;
+        mExecutor = executor;
+        mQueueCapacity = queueCapacity;
+    }
+
+    synchronized void register(@NonNull Store store) {
+        if (mStoreQueues.containsKey(store)) {
+            return;
+        }
+        StoreQueue storeQueue = new StoreQueue(store);
+        mStoreQueues.put(store, storeQueue);
+
+        Class<? extends IAction>[] handledActions = getHandledActions(store.getClass());
+        if (handledActions == null) {
+            AppLog.w(T.API, store.getClass().getSimpleName() + " doesn't declare @HandlesActions, "
+                            + "it will receive every action");
+            mCatchAllQueues.add(storeQueue);
+            return;
+        }
+        for (Class<? extends IAction> actionType : handledActions) {
+            List<StoreQueue> queues = mRoutes.get(actionType);
+            if (queues == null) {
+                queues = new CopyOnWriteArrayList<>();
+                mRoutes.put(actionType, queues);
+            }
+            queues.add(storeQueue);
+        }
+    }
+
+    synchronized void unregister(@NonNull Store store) {
+        StoreQueue storeQueue = mStoreQueues.remove(store);
+        if (storeQueue == null) {
+            return;
+        }
+        mCatchAllQueues.remove(storeQueue);
+        for (List<StoreQueue> queues : mRoutes.values()) {
+            queues.remove(storeQueue);
+        }
+    }
+
+    void route(@NonNull Action action) {
+        List<StoreQueue> queues = mRoutes.get(getActionTypeClass(action.getType()));
+        if (queues != null) {
+            for (StoreQueue storeQueue : queues) {
+                storeQueue.enqueue(action);
+            }
+        }
+        for (StoreQueue storeQueue : mCatchAllQueues) {
+            storeQueue.enqueue(action);
+        }
+    }
+
+    private Class<? extends IAction>[] getHandledActions(Class<?> storeClass) {
+        for (ActionRoutingIndex index : mIndexes) {
+            Class<? extends IAction>[] handledActions = index.getHandledActions(storeClass);
+            if (handledActions != null) {
+                return handledActions;
+            }
+        }
+        HandlesActions handlesActions = storeClass.getAnnotation(HandlesActions.class);
+        return handlesActions != null ? handlesActions.value() : null;
+    }
+
+    private static Class<?> getActionTypeClass(IAction actionType) {
+        // Enum constants with a body are anonymous subclasses of their enum
+        if (actionType instanceof Enum) {
+            return ((Enum) actionType).getDeclaringClass();
+        }
+        return actionType.getClass();
+    }
+
+    private static class Envelope {
+        final Action mAction;
+        final boolean mHoldsPermit;
+
+        Envelope(Action action, boolean holdsPermit) {
+            mAction = action;
+            mHoldsPermit = holdsPermit;
+        }
+    }
+
+    private class StoreQueue implements Runnable {
+        private final Store mStore;
+        private final Queue<Envelope> mQueue = new ConcurrentLinkedQueue<>();
+        private final Semaphore mPermits = new Semaphore(mQueueCapacity);
+        private final AtomicBoolean mScheduled = new AtomicBoolean(false);
+
+        StoreQueue(Store store) {
+            mStore = store;
+        }
+
+        void enqueue(Action action) {
+            mQueue.add(new Envelope(action, acquirePermit()));
+            if (mScheduled.compareAndSet(false, true)) {
+                mExecutor.execute(this);
+            }
+        }
+
+        private boolean acquirePermit() {
+            if (mPermits.tryAcquire()) {
+                return true;
+            }
+            if (Boolean.TRUE.equals(IS_STORE_THREAD.get())) {
+                // Never block a Store's handler: let the queue go over capacity instead
+                return false;
+            }
+            AppLog.d(T.API, mStore.getClass().getSimpleName() + " queue is full, waiting");
+            try {
+                mPermits.acquire();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public void run() {
+            IS_STORE_THREAD.set(true);
+            try {
+                Envelope envelope;
+                while ((envelope = mQueue.poll()) != null) {
+                    if (envelope.mHoldsPermit) {
+                        mPermits.release();
+                    }
+                    mStore.onAction(envelope.mAction);
+                }
+            } finally {
+                IS_STORE_THREAD.remove();
+                mScheduled.set(false);
+                // An action may have been enqueued after the last poll but before the flag was reset
+                if (!mQueue.isEmpty() && mScheduled.compareAndSet(false, true)) {
+                    mExecutor.execute(this);
+                }
+            }
+        }
+    }
+
+    private static class StoreThreadFactory implements ThreadFactory {
+        private final AtomicInteger mThreadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "fluxc-store-" + mThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,40 +1,85 @@
 package org.wordpress.android.fluxc;
 
 import org.greenrobot.eventbus.EventBus;
+import org.greenrobot.eventbus.EventBusBuilder;
+import org.greenrobot.eventbus.Subscribe;
+import org.greenrobot.eventbus.meta.SubscriberInfoIndex;
+import org.wordpress.android.fluxc.annotations.ActionRoutingIndex;
 import org.wordpress.android.fluxc.annotations.action.Action;
+import org.wordpress.android.fluxc.generated.FluxCIndex;
 import org.wordpress.android.fluxc.store.Store;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 import javax.inject.Singleton;
 
 @Singleton
 public class Dispatcher {
     private final EventBus mBus;
+    private final List<ActionRoutingIndex> mIndexes;
+    private final List<SubscriberInfoIndex> mSubscriberIndexes = new ArrayList<>();
+    private final ActionRouter mActionRouter;
 
     public Dispatcher() {
-        mBus = EventBus.builder()
+        this(Collections.<ActionRoutingIndex>singletonList(new FluxCIndex()));
+    }
+
+    /**
+     * @param indexes the generated indexes of every module with Stores or subscribers, see the fluxcIndex
+     *                annotation processor option. Stores and subscribers that aren't indexed are found by reflection.
+     */
+    public Dispatcher(Collection<ActionRoutingIndex> indexes) {
+        EventBusBuilder builder = EventBus.builder()
                 .logNoSubscriberMessages(true)
                 .sendNoSubscriberEvent(true)
-                .throwSubscriberException(true)
-                .build();
+                .throwSubscriberException(true);
+        for (ActionRoutingIndex index : indexes) {
+            if (index instanceof SubscriberInfoIndex) {
+                mSubscriberIndexes.add((SubscriberInfoIndex) index);
+                builder.addIndex((SubscriberInfoIndex) index);
+            }
+        }
+        mBus = builder.build();
+        mIndexes = new ArrayList<>(indexes);
+        mActionRouter = new ActionRouter(mIndexes);
     }
 
     public void register(final Object object) {
-        mBus.register(object);
         if (object instanceof Store) {
+            // Actions are routed to Stores directly, only register Stores that also listen to change events
+            mActionRouter.register((Store) object);
+            if (hasSubscriberMethods((Store) object)) {
+                mBus.register(object);
+            }
             ((Store) object).onRegister();
+        } else {
+            mBus.register(object);
         }
     }
 
     public void unregister(final Object object) {
-        mBus.unregister(object);
+        if (object instanceof Store) {
+            mActionRouter.unregister((Store) object);
+        }
+        if (mBus.isRegistered(object)) {
+            mBus.unregister(object);
+        }
     }
 
     public void dispatch(Action action) {
         AppLog.d(T.API, "Dispatching action: " + action.getType().getClass().getSimpleName()
                 + "-" + action.getType().toString());
-        post(action);
+        mActionRouter.route(action);
+        // Non-Store subscribers (e.g. tests) can still listen to actions
+        if (mBus.hasSubscriberForEvent(Action.class)) {
+            post(action);
+        }
     }
 
     public void emitChange(final Object changeEvent) {
@@ -44,4 +89,25 @@ public class Dispatcher {
     private void post(final Object event) {
         mBus.post(event);
     }
+
+    private boolean hasSubscriberMethods(Store store) {
+        Class<?> storeClass = store.getClass();
+        for (SubscriberInfoIndex index : mSubscriberIndexes) {
+            if (index.getSubscriberInfo(storeClass) != null) {
+                return true;
+            }
+        }
+        for (ActionRoutingIndex index : mIndexes) {
+            if (index.hasNoSubscribers(storeClass)) {
+                return false;
+            }
+        }
+        // Not indexed, or indexed with subscriber methods the index couldn't include (e.g. non-public ones)
+        for (Method method : storeClass.getMethods()) {
+            if (method.isAnnotationPresent(Subscribe.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -7,10 +7,12 @@ import com.yarolegovich.wellsql.core.annotation.Table;
 
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
+import org.wordpress.android.fluxc.persistence.TableIndexes;
 
 import java.io.Serializable;
 
 @Table
+@TableIndexes({"LOCAL_SITE_ID, REMOTE_COMMENT_ID"})
 public class CommentModel extends Payload<BaseNetworkError> implements Identifiable, Serializable {
     // Ids
     @PrimaryKey
@@ -7,12 +7,16 @@ import com.yarolegovich.wellsql.core.annotation.Table;
 
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
+import org.wordpress.android.fluxc.persistence.FullTextSearch;
+import org.wordpress.android.fluxc.persistence.TableIndexes;
 import org.wordpress.android.fluxc.utils.MediaUtils;
 import org.wordpress.android.util.StringUtils;
 
 import java.io.Serializable;
 
 @Table
+@TableIndexes({"LOCAL_SITE_ID, MEDIA_ID"})
+@FullTextSearch({"TITLE", "CAPTION", "DESCRIPTION"})
 public class MediaModel extends Payload<BaseNetworkError> implements Identifiable, Serializable {
     public enum MediaUploadState {
         QUEUED, UPLOADING, DELETING, DELETED, FAILED, UPLOADED;
@@ -15,6 +15,8 @@ import org.json.JSONObject;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.model.post.PostLocation;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
+import org.wordpress.android.fluxc.persistence.FullTextSearch;
+import org.wordpress.android.fluxc.persistence.TableIndexes;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.StringUtils;
 
@@ -24,6 +26,8 @@ import java.util.Collections;
 import java.util.List;
 
 @Table
+@TableIndexes({"LOCAL_SITE_ID, REMOTE_POST_ID"})
+@FullTextSearch({"TITLE", "CONTENT"})
 public class PostModel extends Payload<BaseNetworkError> implements Cloneable, Identifiable, Serializable {
     private static final long LATITUDE_REMOVED_VALUE = 8888;
     private static final long LONGITUDE_REMOVED_VALUE = 8888;
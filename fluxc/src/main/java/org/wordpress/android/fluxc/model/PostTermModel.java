@@ -0,0 +1,78 @@
+package org.wordpress.android.fluxc.model;
+
+import com.yarolegovich.wellsql.core.Identifiable;
+import com.yarolegovich.wellsql.core.annotation.Column;
+import com.yarolegovich.wellsql.core.annotation.PrimaryKey;
+import com.yarolegovich.wellsql.core.annotation.RawConstraints;
+import com.yarolegovich.wellsql.core.annotation.Table;
+
+import org.wordpress.android.fluxc.persistence.TableIndexes;
+
+/**
+ * A term of a post, mirroring the serialized category ids and tag names of the {@link PostModel}, so posts can be
+ * looked up and counted by term.
+ *
+ * Categories are referenced by remote term id, and tags by name, the same way the {@link PostModel} references them.
+ */
+@Table(name = "PostTerm")
+@RawConstraints({"FOREIGN KEY(LOCAL_POST_ID) REFERENCES PostModel(_id) ON DELETE CASCADE"})
+@TableIndexes({"LOCAL_POST_ID", "LOCAL_SITE_ID, TAXONOMY, REMOTE_TERM_ID", "LOCAL_SITE_ID, TAXONOMY, TERM_NAME"})
+public class PostTermModel implements Identifiable {
+    @PrimaryKey
+    @Column private int mId;
+    @Column private int mLocalPostId;
+    @Column private int mLocalSiteId;
+    @Column private String mTaxonomy;
+    @Column private long mRemoteTermId;
+    @Column private String mTermName;
+
+    @Override
+    public int getId() {
+        return mId;
+    }
+
+    @Override
+    public void setId(int id) {
+        mId = id;
+    }
+
+    public int getLocalPostId() {
+        return mLocalPostId;
+    }
+
+    public void setLocalPostId(int localPostId) {
+        mLocalPostId = localPostId;
+    }
+
+    public int getLocalSiteId() {
+        return mLocalSiteId;
+    }
+
+    public void setLocalSiteId(int localSiteId) {
+        mLocalSiteId = localSiteId;
+    }
+
+    public String getTaxonomy() {
+        return mTaxonomy;
+    }
+
+    public void setTaxonomy(String taxonomy) {
+        mTaxonomy = taxonomy;
+    }
+
+    public long getRemoteTermId() {
+        return mRemoteTermId;
+    }
+
+    public void setRemoteTermId(long remoteTermId) {
+        mRemoteTermId = remoteTermId;
+    }
+
+    public String getTermName() {
+        return mTermName;
+    }
+
+    public void setTermName(String termName) {
+        mTermName = termName;
+    }
+}
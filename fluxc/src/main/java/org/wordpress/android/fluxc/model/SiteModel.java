@@ -11,6 +11,7 @@ import com.yarolegovich.wellsql.core.annotation.Table;
 
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
+import org.wordpress.android.fluxc.persistence.FullTextSearch;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
@@ -23,7 +24,8 @@ import static java.lang.annotation.RetentionPolicy.SOURCE;
 
 @Table
 @RawConstraints({"UNIQUE (SITE_ID, URL)"})
-public class SiteModel extends Payload<BaseNetworkError> implements Identifiable, Serializable {
+@FullTextSearch({"NAME", "URL"})
+public class SiteModel extends Payload<BaseNetworkError> implements Identifiable, Serializable, Cloneable {
     @Retention(SOURCE)
     @IntDef({ORIGIN_UNKNOWN, ORIGIN_WPCOM_REST, ORIGIN_XMLRPC})
     public @interface SiteOrigin {}
@@ -609,4 +611,13 @@ public class SiteModel extends Payload<BaseNetworkError> implements Identifiable
     public boolean hasDiskSpaceQuotaInformation() {
         return mSpaceAllowed > 0;
     }
+
+    @Override
+    public SiteModel clone() {
+        try {
+            return (SiteModel) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(); // Can't happen
+        }
+    }
 }
@@ -7,11 +7,13 @@ import com.yarolegovich.wellsql.core.annotation.Table;
 
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
+import org.wordpress.android.fluxc.persistence.TableIndexes;
 import org.wordpress.android.util.StringUtils;
 
 import java.io.Serializable;
 
 @Table
+@TableIndexes({"LOCAL_SITE_ID, TAXONOMY, REMOTE_TERM_ID"})
 public class TermModel extends Payload<BaseNetworkError> implements Identifiable, Serializable {
     @PrimaryKey
     @Column private int mId;
@@ -0,0 +1,43 @@
+package org.wordpress.android.fluxc.model.list
+
+/**
+ * Describes how the remote item ids of a list changed. It's emitted by `ListStore` with every list change, so
+ * [PagedListFactory] can keep its copy of the remote item ids up to date instead of reading the whole list from the DB
+ * every time the data is invalidated.
+ */
+sealed class ListItemsDelta {
+    /**
+     * The remote item ids didn't change, only the items themselves or the state of the list did.
+     */
+    object Unchanged : ListItemsDelta()
+
+    /**
+     * The first page of the list is fetched and it replaces the existing remote item ids. Items that are already in
+     * the list are moved to their new position.
+     */
+    class Reset(val remoteItemIds: List<Long>) : ListItemsDelta()
+
+    /**
+     * The remote item ids are inserted at the end of the list. Ids that are already in the list are ignored, the same
+     * way they are in the DB, so the order doesn't change while the user is browsing the list.
+     */
+    class Inserted(val remoteItemIds: List<Long>) : ListItemsDelta()
+
+    /**
+     * The remote item ids are removed from the list.
+     */
+    class Removed(val remoteItemIds: Set<Long>) : ListItemsDelta()
+
+    /**
+     * Returns the remote item ids after this change is applied to the given [remoteItemIds].
+     */
+    fun applyTo(remoteItemIds: List<Long>): List<Long> = when (this) {
+        is Unchanged -> remoteItemIds
+        is Reset -> this.remoteItemIds.distinct()
+        is Inserted -> {
+            val existingIds = remoteItemIds.toHashSet()
+            remoteItemIds.plus(this.remoteItemIds.filter { existingIds.add(it) })
+        }
+        is Removed -> remoteItemIds.filter { !this.remoteItemIds.contains(it) }
+    }
+}
@@ -22,7 +22,10 @@ private sealed class InternalItem<T> {
 /**
  * A [DataSource.Factory] instance for `ListStore` lists. It creates instances of [PagedListPositionalDataSource].
  *
- * All properties are passed to [PagedListPositionalDataSource] during instantiation.
+ * The remote item ids of the list are read with [getList] only once. After that they are kept up to date with the
+ * [ListItemsDelta]s emitted by `ListStore`, so invalidating the data doesn't read the whole list from the DB again.
+ *
+ * All other properties are passed to [PagedListPositionalDataSource] during instantiation.
  */
 class PagedListFactory<T, R>(
     private val dataStore: ListDataStoreInterface<T>,
@@ -32,12 +35,13 @@ class PagedListFactory<T, R>(
     private val transform: (T) -> R
 ) : DataSource.Factory<Int, PagedListItemType<R>>() {
     private var currentSource: PagedListPositionalDataSource<T, R>? = null
+    private var remoteItemIds: List<Long>? = null
 
     override fun create(): DataSource<Int, PagedListItemType<R>> {
         val source = PagedListPositionalDataSource(
                 listDescriptor = listDescriptor,
                 dataStore = dataStore,
-                getList = getList,
+                getRemoteItemIds = this::getRemoteItemIds,
                 isListFullyFetched = isListFullyFetched,
                 transform = transform
         )
@@ -48,6 +52,24 @@ class PagedListFactory<T, R>(
     fun invalidate() {
         currentSource?.invalidate()
     }
+
+    /**
+     * Applies the [delta] to the remote item ids and invalidates the current data source so it's reloaded.
+     */
+    fun applyDelta(delta: ListItemsDelta) {
+        synchronized(this) {
+            // If the ids are not read yet, they'll be read from the DB with the change already applied
+            remoteItemIds = remoteItemIds?.let { delta.applyTo(it) }
+        }
+        invalidate()
+    }
+
+    /**
+     * Returns the current remote item ids of the list, reading them from the DB the first time.
+     */
+    fun getRemoteItemIds(): List<Long> = synchronized(this) {
+        remoteItemIds ?: getList(listDescriptor).also { remoteItemIds = it }
+    }
 }
 
 /**
@@ -55,7 +77,7 @@ class PagedListFactory<T, R>(
  *
  * @param listDescriptor Which list this data source is for.
  * @param dataStore Describes how to take certain actions such as fetching list for the item type [T].
- * @param getList A function to get the list for the given [ListDescriptor]
+ * @param getRemoteItemIds A function to get the current remote item ids of the list
  * @param isListFullyFetched A function to check whether the list is fully fetched. It's used to add an
  * [EndListIndicatorItem] at the end of the list.
  * @param transform A transform function from the actual item type [T], to the resulting item type [R]. In many
@@ -66,15 +88,15 @@ class PagedListFactory<T, R>(
 private class PagedListPositionalDataSource<T, R>(
     private val listDescriptor: ListDescriptor,
     private val dataStore: ListDataStoreInterface<T>,
-    getList: (ListDescriptor) -> List<Long>,
+    getRemoteItemIds: () -> List<Long>,
     isListFullyFetched: (ListDescriptor) -> Boolean,
     private val transform: (T) -> R
 ) : PositionalDataSource<PagedListItemType<R>>() {
     // Create internal items to make it easier to manage it
     private val internalItems: List<InternalItem<T>> by lazy {
         val localItems = dataStore.localItems(listDescriptor).map { InternalLocalItem(it) }
-        val remoteItemIdsToHide = dataStore.getItemIdsToHide(listDescriptor).mapNotNull { it.second }
-        val remoteItems = getList(listDescriptor).asSequence().filter {
+        val remoteItemIdsToHide = dataStore.getItemIdsToHide(listDescriptor).mapNotNullTo(HashSet<Long>()) { it.second }
+        val remoteItems = getRemoteItemIds().asSequence().filter {
             !remoteItemIdsToHide.contains(it)
         }.map { InternalRemoteItem<T>(it) }.toList()
         val actualItems = localItems.plus(remoteItems)
@@ -108,16 +130,26 @@ private class PagedListPositionalDataSource<T, R>(
         if (startPosition == endPosition) {
             return emptyList()
         }
-        return (startPosition..(endPosition - 1)).map { index ->
-            val internalItem = internalItems[index]
+        val pageItems = internalItems.subList(startPosition, endPosition)
+        // Look up all the remote items of the page at once and fetch the missing ones in a single batch
+        val remoteItemIds = pageItems.mapNotNull { if (it is InternalRemoteItem) it.remoteItemId else null }
+        val remoteItems = if (remoteItemIds.isEmpty()) {
+            emptyMap()
+        } else {
+            dataStore.getItemsByRemoteIds(listDescriptor, remoteItemIds)
+        }
+        val missingRemoteItemIds = remoteItemIds.filter { !remoteItems.containsKey(it) }
+        if (missingRemoteItemIds.isNotEmpty()) {
+            dataStore.fetchItems(listDescriptor, missingRemoteItemIds)
+        }
+        return pageItems.map { internalItem ->
             when (internalItem) {
                 is InternalEndListItem -> EndListIndicatorItem<R>()
                 is InternalLocalItem -> ReadyItem(transform(internalItem.localItem))
                 is InternalRemoteItem -> {
                     val remoteItemId = internalItem.remoteItemId
-                    val item = dataStore.getItemByRemoteId(listDescriptor, remoteItemId)
+                    val item = remoteItems[remoteItemId]
                     if (item == null) {
-                        dataStore.fetchItem(listDescriptor, remoteItemId)
                         LoadingItem<R>(remoteItemId)
                     } else {
                         ReadyItem(transform(item))
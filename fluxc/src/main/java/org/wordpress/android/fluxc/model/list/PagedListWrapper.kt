@@ -13,6 +13,7 @@ import org.wordpress.android.fluxc.store.ListStore.ListError
 import org.wordpress.android.fluxc.store.ListStore.OnListChanged
 import org.wordpress.android.fluxc.store.ListStore.OnListItemsChanged
 import org.wordpress.android.fluxc.store.ListStore.OnListStateChanged
+import org.wordpress.android.fluxc.store.ListStore.OnListsRemoved
 
 /**
  * This is a wrapper class to consume lists from `ListStore`.
@@ -32,6 +33,7 @@ class PagedListWrapper<T>(
     private val lifecycle: Lifecycle,
     private val refresh: () -> Unit,
     private val invalidate: () -> Unit,
+    private val applyDelta: (ListItemsDelta) -> Unit,
     private val isListEmpty: () -> Boolean
 ) : LifecycleObserver {
     private val _isFetchingFirstPage = MutableLiveData<Boolean>()
@@ -101,8 +103,8 @@ class PagedListWrapper<T>(
     }
 
     /**
-     * Handles the [OnListChanged] `ListStore` event. It'll invalidate the data, so it can be reloaded. It'll also
-     * updates whether the list is empty or not.
+     * Handles the [OnListChanged] `ListStore` event. It'll apply the change to the list and invalidate the data, so it
+     * can be reloaded. It'll also updates whether the list is empty or not.
      */
     @Subscribe(threadMode = ThreadMode.BACKGROUND)
     @Suppress("unused")
@@ -110,13 +112,13 @@ class PagedListWrapper<T>(
         if (!event.listDescriptors.contains(listDescriptor)) {
             return
         }
-        invalidateData()
+        applyDelta(event.delta)
         updateIsEmpty()
     }
 
     /**
-     * Handles the [OnListItemsChanged] `ListStore` event. It'll invalidate the data, so it can be reloaded. It'll also
-     * updates whether the list is empty or not.
+     * Handles the [OnListItemsChanged] `ListStore` event. It'll apply the change to the list and invalidate the data,
+     * so it can be reloaded. It'll also updates whether the list is empty or not.
      */
     @Subscribe(threadMode = ThreadMode.BACKGROUND)
     @Suppress("unused")
@@ -124,7 +126,21 @@ class PagedListWrapper<T>(
         if (listDescriptor.typeIdentifier != event.type) {
             return
         }
-        invalidateData()
+        applyDelta(event.delta)
+        updateIsEmpty()
+    }
+
+    /**
+     * Handles the [OnListsRemoved] `ListStore` event. The list and its items are gone from the DB, so the list is
+     * emptied until its first page is fetched again.
+     */
+    @Subscribe(threadMode = ThreadMode.BACKGROUND)
+    @Suppress("unused")
+    fun onListsRemoved(event: OnListsRemoved) {
+        if (!event.uniqueIdentifiers.contains(listDescriptor.uniqueIdentifier)) {
+            return
+        }
+        applyDelta(ListItemsDelta.Reset(emptyList()))
         updateIsEmpty()
     }
 
@@ -11,6 +11,14 @@ interface ListDataStoreInterface<T> {
      */
     fun fetchItem(listDescriptor: ListDescriptor, remoteItemId: Long)
 
+    /**
+     * Should fetch the items for the given [ListDescriptor] and [remoteItemIds]. It's called once per loaded page with
+     * all the items that are not available, so implementations can batch the requests.
+     */
+    fun fetchItems(listDescriptor: ListDescriptor, remoteItemIds: List<Long>) {
+        remoteItemIds.forEach { fetchItem(listDescriptor, it) }
+    }
+
     /**
      * Should fetch the list for the given [ListDescriptor] and an offset.
      */
@@ -21,6 +29,20 @@ interface ListDataStoreInterface<T> {
      */
     fun getItemByRemoteId(listDescriptor: ListDescriptor, remoteItemId: Long): T?
 
+    /**
+     * Should return the available items for the given [ListDescriptor] and [remoteItemIds] mapped by their remote
+     * item id. Items that are not available should be left out of the map.
+     *
+     * It's called once per loaded page, so implementations should override it to look up all the items at once.
+     */
+    fun getItemsByRemoteIds(listDescriptor: ListDescriptor, remoteItemIds: List<Long>): Map<Long, T> {
+        val items = HashMap<Long, T>(remoteItemIds.size)
+        remoteItemIds.forEach { remoteItemId ->
+            getItemByRemoteId(listDescriptor, remoteItemId)?.let { items[remoteItemId] = it }
+        }
+        return items
+    }
+
     /**
      * Optional function to return the ordered local items to be shown at the top of the list
      */
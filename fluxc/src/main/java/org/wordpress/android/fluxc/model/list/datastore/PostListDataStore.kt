@@ -23,16 +23,20 @@ class PostListDataStore(
     private val fetchingSet = HashSet<SitePostId>()
 
     override fun fetchItem(listDescriptor: ListDescriptor, remoteItemId: Long) {
-        site?.let {
-            val sitePostId = SitePostId(localSiteId = it.id, remotePostId = remoteItemId)
-            // Only fetch the post if there is no request going on
-            if (!fetchingSet.contains(sitePostId)) {
-                fetchingSet.add(sitePostId)
+        fetchItems(listDescriptor, listOf(remoteItemId))
+    }
 
-                val postToFetch = PostModel()
-                postToFetch.remotePostId = remoteItemId
-                val payload = RemotePostPayload(postToFetch, it)
-                dispatcher.dispatch(PostActionBuilder.newFetchPostAction(payload))
+    override fun fetchItems(listDescriptor: ListDescriptor, remoteItemIds: List<Long>) {
+        site?.let {
+            remoteItemIds.forEach { remoteItemId ->
+                val sitePostId = SitePostId(localSiteId = it.id, remotePostId = remoteItemId)
+                // Only fetch the post if there is no request going on
+                if (fetchingSet.add(sitePostId)) {
+                    val postToFetch = PostModel()
+                    postToFetch.remotePostId = remoteItemId
+                    val payload = RemotePostPayload(postToFetch, it)
+                    dispatcher.dispatch(PostActionBuilder.newFetchPostAction(payload))
+                }
             }
         }
     }
@@ -46,22 +50,29 @@ class PostListDataStore(
 
     override fun localItems(listDescriptor: ListDescriptor): List<PostModel> {
         if (listDescriptor is PostListDescriptor) {
-            val localPostIdsToHide = getItemIdsToHide(listDescriptor).mapNotNull { it.first }
+            val localPostIdsToHide = getItemIdsToHide(listDescriptor).mapNotNullTo(HashSet<Int>()) { it.first }
             return postStore.getLocalPostsForDescriptor(listDescriptor).filter { !localPostIdsToHide.contains(it.id) }
         }
         return emptyList()
     }
 
     override fun getItemByRemoteId(listDescriptor: ListDescriptor, remoteItemId: Long): PostModel? {
+        return getItemsByRemoteIds(listDescriptor, listOf(remoteItemId))[remoteItemId]
+    }
+
+    override fun getItemsByRemoteIds(listDescriptor: ListDescriptor, remoteItemIds: List<Long>): Map<Long, PostModel> {
         if (listDescriptor is PostListDescriptor) {
-            val post = postStore.getPostByRemotePostId(remoteItemId, site)
-            if (post != null) {
-                val sitePostId = SitePostId(localSiteId = listDescriptor.site.id, remotePostId = remoteItemId)
-                fetchingSet.remove(sitePostId)
-            }
-            return post
+            val posts = postStore.getPostsByRemotePostIds(remoteItemIds, site)
+            onItemsAvailable(listDescriptor, posts.keys)
+            return posts
+        }
+        return emptyMap()
+    }
+
+    internal fun onItemsAvailable(listDescriptor: PostListDescriptor, remotePostIds: Collection<Long>) {
+        remotePostIds.forEach { remotePostId ->
+            fetchingSet.remove(SitePostId(localSiteId = listDescriptor.site.id, remotePostId = remotePostId))
         }
-        return null
     }
 
     override fun getItemIdsToHide(listDescriptor: ListDescriptor): List<Pair<Int?, Long?>> {
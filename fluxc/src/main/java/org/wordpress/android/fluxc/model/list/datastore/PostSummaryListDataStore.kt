@@ -0,0 +1,67 @@
+package org.wordpress.android.fluxc.model.list.datastore
+
+import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.list.ListDescriptor
+import org.wordpress.android.fluxc.model.list.PostListDescriptor
+import org.wordpress.android.fluxc.model.post.PostSummary
+import org.wordpress.android.fluxc.store.PostStore
+
+/**
+ * A [ListDataStoreInterface] for post lists which only display [PostSummary]s, so the content of the posts isn't
+ * loaded while scrolling. Fetching works the same as in [PostListDataStore].
+ */
+class PostSummaryListDataStore(
+    dispatcher: Dispatcher,
+    private val postStore: PostStore,
+    private val site: SiteModel?,
+    performGetItemIdsToHide: ((ListDescriptor) -> List<Pair<Int?, Long?>>)? = null
+) : ListDataStoreInterface<PostSummary> {
+    private val postListDataStore = PostListDataStore(dispatcher, postStore, site, performGetItemIdsToHide)
+
+    override fun fetchItem(listDescriptor: ListDescriptor, remoteItemId: Long) {
+        postListDataStore.fetchItem(listDescriptor, remoteItemId)
+    }
+
+    override fun fetchItems(listDescriptor: ListDescriptor, remoteItemIds: List<Long>) {
+        postListDataStore.fetchItems(listDescriptor, remoteItemIds)
+    }
+
+    override fun fetchList(listDescriptor: ListDescriptor, offset: Int) {
+        postListDataStore.fetchList(listDescriptor, offset)
+    }
+
+    /**
+     * Returns the summaries of all the local drafts matching the [listDescriptor] at once, since the list shows them
+     * all at its top. The summaries are small, and the lazy list they're read from is closed right away.
+     */
+    override fun localItems(listDescriptor: ListDescriptor): List<PostSummary> {
+        if (listDescriptor is PostListDescriptor) {
+            val localPostIdsToHide = getItemIdsToHide(listDescriptor).mapNotNullTo(HashSet<Int>()) { it.first }
+            return postStore.getLocalPostSummariesForDescriptor(listDescriptor).use { summaries ->
+                summaries.filter { !localPostIdsToHide.contains(it.id) }
+            }
+        }
+        return emptyList()
+    }
+
+    override fun getItemByRemoteId(listDescriptor: ListDescriptor, remoteItemId: Long): PostSummary? {
+        return getItemsByRemoteIds(listDescriptor, listOf(remoteItemId))[remoteItemId]
+    }
+
+    override fun getItemsByRemoteIds(
+        listDescriptor: ListDescriptor,
+        remoteItemIds: List<Long>
+    ): Map<Long, PostSummary> {
+        if (listDescriptor is PostListDescriptor) {
+            val summaries = postStore.getPostSummariesByRemotePostIds(remoteItemIds, site)
+            postListDataStore.onItemsAvailable(listDescriptor, summaries.keys)
+            return summaries
+        }
+        return emptyMap()
+    }
+
+    override fun getItemIdsToHide(listDescriptor: ListDescriptor): List<Pair<Int?, Long?>> {
+        return postListDataStore.getItemIdsToHide(listDescriptor)
+    }
+}
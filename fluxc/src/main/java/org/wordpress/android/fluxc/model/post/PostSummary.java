@@ -0,0 +1,113 @@
+package org.wordpress.android.fluxc.model.post;
+
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.fluxc.model.PostModel;
+import org.wordpress.android.util.StringUtils;
+
+/**
+ * The subset of a {@link PostModel} that post list screens display, without its content, excerpt and other large
+ * text columns.
+ *
+ * The full post can be loaded on demand with {@code PostStore#getPostByLocalPostId(getId())}.
+ */
+public class PostSummary {
+    private final int mId;
+    private final int mLocalSiteId;
+    private final long mRemotePostId;
+    private final String mTitle;
+    private final String mDateCreated;
+    private final String mStatus;
+    private final long mFeaturedImageId;
+    private final boolean mIsPage;
+    private final boolean mIsLocalDraft;
+    private final boolean mIsLocallyChanged;
+
+    public PostSummary(int id, int localSiteId, long remotePostId, String title, String dateCreated, String status,
+                       long featuredImageId, boolean isPage, boolean isLocalDraft, boolean isLocallyChanged) {
+        mId = id;
+        mLocalSiteId = localSiteId;
+        mRemotePostId = remotePostId;
+        mTitle = title;
+        mDateCreated = dateCreated;
+        mStatus = status;
+        mFeaturedImageId = featuredImageId;
+        mIsPage = isPage;
+        mIsLocalDraft = isLocalDraft;
+        mIsLocallyChanged = isLocallyChanged;
+    }
+
+    public int getId() {
+        return mId;
+    }
+
+    public int getLocalSiteId() {
+        return mLocalSiteId;
+    }
+
+    public long getRemotePostId() {
+        return mRemotePostId;
+    }
+
+    public @NonNull String getTitle() {
+        return StringUtils.notNullStr(mTitle);
+    }
+
+    public @NonNull String getDateCreated() {
+        return StringUtils.notNullStr(mDateCreated);
+    }
+
+    public @NonNull String getStatus() {
+        return StringUtils.notNullStr(mStatus);
+    }
+
+    public long getFeaturedImageId() {
+        return mFeaturedImageId;
+    }
+
+    public boolean hasFeaturedImage() {
+        return mFeaturedImageId > 0;
+    }
+
+    public boolean isPage() {
+        return mIsPage;
+    }
+
+    public boolean isLocalDraft() {
+        return mIsLocalDraft;
+    }
+
+    public boolean isLocallyChanged() {
+        return mIsLocallyChanged;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+
+        PostSummary otherSummary = (PostSummary) other;
+
+        return getId() == otherSummary.getId() && getLocalSiteId() == otherSummary.getLocalSiteId()
+                && getRemotePostId() == otherSummary.getRemotePostId()
+                && getFeaturedImageId() == otherSummary.getFeaturedImageId()
+                && isPage() == otherSummary.isPage() && isLocalDraft() == otherSummary.isLocalDraft()
+                && isLocallyChanged() == otherSummary.isLocallyChanged()
+                && StringUtils.equals(getTitle(), otherSummary.getTitle())
+                && StringUtils.equals(getDateCreated(), otherSummary.getDateCreated())
+                && StringUtils.equals(getStatus(), otherSummary.getStatus());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mId;
+        result = 31 * result + (int) (mRemotePostId ^ (mRemotePostId >>> 32));
+        result = 31 * result + getTitle().hashCode();
+        result = 31 * result + getStatus().hashCode();
+        return result;
+    }
+}
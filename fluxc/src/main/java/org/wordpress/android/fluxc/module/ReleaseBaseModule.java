@@ -1,17 +1,28 @@
 package org.wordpress.android.fluxc.module;
 
 import org.wordpress.android.fluxc.Dispatcher;
+import org.wordpress.android.fluxc.annotations.ActionRoutingIndex;
+import org.wordpress.android.fluxc.generated.FluxCIndex;
+
+import java.util.Set;
 
 import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
+import dagger.multibindings.IntoSet;
 
 @Module
 public class ReleaseBaseModule {
     @Singleton
     @Provides
-    public Dispatcher provideDispatcher() {
-        return new Dispatcher();
+    public Dispatcher provideDispatcher(Set<ActionRoutingIndex> indexes) {
+        return new Dispatcher(indexes);
+    }
+
+    @Provides
+    @IntoSet
+    public ActionRoutingIndex provideFluxCIndex() {
+        return new FluxCIndex();
     }
 }
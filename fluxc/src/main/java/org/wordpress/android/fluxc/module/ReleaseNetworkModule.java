@@ -7,7 +7,6 @@ import com.android.volley.RequestQueue;
 import com.android.volley.toolbox.BasicNetwork;
 import com.android.volley.toolbox.DiskBasedCache;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.network.HTTPAuthManager;
@@ -17,10 +16,8 @@ import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.discovery.DiscoveryWPAPIRestClient;
 import org.wordpress.android.fluxc.network.discovery.DiscoveryXMLRPCClient;
 import org.wordpress.android.fluxc.network.discovery.SelfHostedEndpointFinder;
-import org.wordpress.android.fluxc.network.rest.JsonObjectOrEmptyArray;
-import org.wordpress.android.fluxc.network.rest.JsonObjectOrEmptyArrayDeserializer;
-import org.wordpress.android.fluxc.network.rest.JsonObjectOrFalse;
-import org.wordpress.android.fluxc.network.rest.JsonObjectOrFalseDeserializer;
+import org.wordpress.android.fluxc.network.rest.GsonRequest;
+import org.wordpress.android.fluxc.network.rest.OkHttpGsonRequestExecutor;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequestBuilder;
 import org.wordpress.android.fluxc.network.rest.wpcom.account.AccountRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.activity.ActivityLogRestClient;
@@ -64,9 +61,9 @@ public class ReleaseNetworkModule {
     private static final String DEFAULT_CACHE_DIR = "volley-fluxc";
     private static final int NETWORK_THREAD_POOL_SIZE = 10;
 
-    private RequestQueue newRequestQueue(OkHttpClient.Builder okHttpClientBuilder, Context appContext) {
+    private RequestQueue newRequestQueue(OkHttpStack okHttpStack, Context appContext) {
         File cacheDir = new File(appContext.getCacheDir(), DEFAULT_CACHE_DIR);
-        Network network = new BasicNetwork(new OkHttpStack(okHttpClientBuilder));
+        Network network = new BasicNetwork(okHttpStack);
         RequestQueue queue = new RequestQueue(new DiskBasedCache(cacheDir), network, NETWORK_THREAD_POOL_SIZE);
         queue.start();
         return queue;
@@ -75,9 +72,25 @@ public class ReleaseNetworkModule {
     @Singleton
     @Named("regular")
     @Provides
-    public RequestQueue provideRequestQueue(@Named("regular") OkHttpClient.Builder okHttpClientBuilder,
-                                            Context appContext) {
-        return newRequestQueue(okHttpClientBuilder, appContext);
+    public OkHttpStack provideOkHttpStack(@Named("regular") OkHttpClient.Builder okHttpClientBuilder) {
+        // Requests run by the OkHttpGsonRequestExecutor are limited by the dispatcher, allow them as many concurrent
+        // requests to WP.com as the RequestQueue has threads
+        okhttp3.Dispatcher dispatcher = new okhttp3.Dispatcher();
+        dispatcher.setMaxRequestsPerHost(NETWORK_THREAD_POOL_SIZE);
+        return new OkHttpStack(okHttpClientBuilder.dispatcher(dispatcher));
+    }
+
+    @Singleton
+    @Named("regular")
+    @Provides
+    public RequestQueue provideRequestQueue(@Named("regular") OkHttpStack okHttpStack, Context appContext) {
+        return newRequestQueue(okHttpStack, appContext);
+    }
+
+    @Singleton
+    @Provides
+    public OkHttpGsonRequestExecutor provideOkHttpGsonRequestExecutor(@Named("regular") OkHttpStack okHttpStack) {
+        return new OkHttpGsonRequestExecutor(okHttpStack);
     }
 
     @Singleton
@@ -85,7 +98,7 @@ public class ReleaseNetworkModule {
     @Provides
     public RequestQueue provideRequestQueueCustomSSL(@Named("custom-ssl") OkHttpClient.Builder okHttpClientBuilder,
                                                      Context appContext) {
-        return newRequestQueue(okHttpClientBuilder, appContext);
+        return newRequestQueue(new OkHttpStack(okHttpClientBuilder), appContext);
     }
 
     @Singleton
@@ -327,11 +340,7 @@ public class ReleaseNetworkModule {
     @Singleton
     @Provides
     public Gson provideGson() {
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        gsonBuilder.setLenient();
-        gsonBuilder.registerTypeHierarchyAdapter(JsonObjectOrFalse.class, new JsonObjectOrFalseDeserializer());
-        gsonBuilder.registerTypeHierarchyAdapter(JsonObjectOrEmptyArray.class,
-                new JsonObjectOrEmptyArrayDeserializer());
-        return gsonBuilder.create();
+        // Share the requests' instance, so its TypeAdapter cache is warmed up by both
+        return GsonRequest.getSharedGson();
     }
 }
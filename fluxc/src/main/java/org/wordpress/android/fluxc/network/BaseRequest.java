@@ -3,7 +3,7 @@ package org.wordpress.android.fluxc.network;
 import android.net.Uri;
 import android.net.Uri.Builder;
 import android.support.annotation.NonNull;
-import android.util.Base64;
+import android.support.annotation.Nullable;
 
 import com.android.volley.AuthFailureError;
 import com.android.volley.Cache;
@@ -22,7 +22,9 @@ import org.wordpress.android.fluxc.store.AccountStore.AuthenticateErrorPayload;
 import org.wordpress.android.fluxc.utils.ErrorUtils.OnUnexpectedError;
 import org.wordpress.android.util.AppLog;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.net.ssl.SSLHandshakeException;
@@ -57,6 +59,11 @@ public abstract class BaseRequest<T> extends Request<T> {
     private int mCacheTtl;
     private int mCacheSoftTtl;
 
+    // Set while this request is in flight with a RequestCoalescer, see getCoalescingKey()
+    private volatile RequestCoalescer mRequestCoalescer;
+    private volatile String mCoalescingKey;
+    private volatile boolean mListenerCanceled;
+
     public static class BaseNetworkError implements FluxCError {
         public GenericErrorType type;
         public String message;
@@ -197,11 +204,9 @@ public abstract class BaseRequest<T> extends Request<T> {
     }
 
     public void setHTTPAuthHeaderOnMatchingURL(HTTPAuthManager httpAuthManager) {
-        HTTPAuthModel httpAuthModel = httpAuthManager.getHTTPAuthModel(getUrl());
-        if (httpAuthModel != null) {
-            String creds = String.format("%s:%s", httpAuthModel.getUsername(), httpAuthModel.getPassword());
-            String auth = "Basic " + Base64.encodeToString(creds.getBytes(), Base64.NO_WRAP);
-            mHeaders.put("Authorization", auth);
+        String authorizationHeader = httpAuthManager.getAuthorizationHeader(getUrl());
+        if (authorizationHeader != null) {
+            mHeaders.put("Authorization", authorizationHeader);
         }
     }
 
@@ -221,6 +226,63 @@ public abstract class BaseRequest<T> extends Request<T> {
         mHeaders.put(header, value);
     }
 
+    /**
+     * Returns the key identifying the requests a {@link RequestCoalescer} can merge with this one, or null if this
+     * request must always be sent. Only requests without side effects that don't use the cache can be coalesced, and
+     * the key must include everything that can change their response, credentials included.
+     *
+     * Subclasses returning a key must call {@link #deliverResponseToCoalescedRequests} from {@link #deliverResponse}.
+     */
+    @Nullable
+    public String getCoalescingKey() {
+        return null;
+    }
+
+    void setRequestCoalescer(RequestCoalescer requestCoalescer, String coalescingKey) {
+        mCoalescingKey = coalescingKey;
+        mRequestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * Cancels the request. If other requests were coalesced with this one and still need the response, the request
+     * keeps running for them, but this request's own listeners aren't called.
+     */
+    @Override
+    public void cancel() {
+        RequestCoalescer requestCoalescer = mRequestCoalescer;
+        if (requestCoalescer != null && !requestCoalescer.cancel(mCoalescingKey, this)) {
+            mListenerCanceled = true;
+            return;
+        }
+        super.cancel();
+    }
+
+    /**
+     * Delivers the response to the requests that were coalesced with this one, if any.
+     *
+     * @return false if the response must not be delivered to this request's own listener, because it was cancelled
+     */
+    @SuppressWarnings("unchecked")
+    protected boolean deliverResponseToCoalescedRequests(T response) {
+        for (BaseRequest<?> request : takeCoalescedRequests()) {
+            if (!request.isCanceled()) {
+                // Coalesced requests have the same key, and so the same response type
+                ((BaseRequest<T>) request).deliverResponse(response);
+            }
+        }
+        return !mListenerCanceled;
+    }
+
+    private List<BaseRequest<?>> takeCoalescedRequests() {
+        RequestCoalescer requestCoalescer = mRequestCoalescer;
+        if (requestCoalescer == null) {
+            return Collections.emptyList();
+        }
+        // The request is no longer in flight, it has to be coalesced again if it's retried
+        mRequestCoalescer = null;
+        return requestCoalescer.complete(mCoalescingKey, this);
+    }
+
     /**
      * Convenience method for setting a {@link com.android.volley.RetryPolicy} with no retries.
      */
@@ -324,6 +386,14 @@ public abstract class BaseRequest<T> extends Request<T> {
 
     @Override
     public final void deliverError(VolleyError volleyError) {
+        for (BaseRequest<?> request : takeCoalescedRequests()) {
+            if (!request.isCanceled()) {
+                request.deliverError(volleyError);
+            }
+        }
+        if (mListenerCanceled) {
+            return;
+        }
         AppLog.e(AppLog.T.API, "Volley error on " + getUrl(), volleyError);
         if (volleyError instanceof ParseError) {
             OnUnexpectedError error = new OnUnexpectedError(volleyError, "API response parse error");
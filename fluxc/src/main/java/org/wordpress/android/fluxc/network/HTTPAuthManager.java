@@ -3,41 +3,34 @@ package org.wordpress.android.fluxc.network;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
-import com.yarolegovich.wellsql.WellSql;
-
 import org.wordpress.android.fluxc.persistence.HTTPAuthSqlUtils;
 
 import java.net.URI;
-import java.util.List;
 
 public class HTTPAuthManager {
     public HTTPAuthManager() {}
 
     /**
      * Get an HTTPAuthModel containing username and password for the url parameter
-     * TODO: Use an in memory model (or caching) - because this SQL query is executed every time a request is sent
+     * The returned model is shared with the in-memory index of the credentials, and must not be modified.
      *
      * @param url to test
      * @return null if url is not matching any known HTTP auth credentials
      */
     @Nullable
     public HTTPAuthModel getHTTPAuthModel(String url) {
-        List<HTTPAuthModel> authModels = WellSql.select(HTTPAuthModel.class).getAsModel();
-        if (authModels.isEmpty()) {
-            return null;
-        }
-        for (HTTPAuthModel authModel : authModels) {
-            if (url.startsWith(authModel.getRootUrl())) {
-                return authModel;
-            }
-
-            // Also compare against the stored URL with the ending 'xmlrpc.php' (or other name) stripped
-            String xmlrpcStripped = authModel.getRootUrl().replaceFirst("/[^/]*?.php$", "");
-            if (url.startsWith(xmlrpcStripped)) {
-                return authModel;
-            }
-        }
-        return null;
+        return HTTPAuthSqlUtils.getAuthModelCache().getModel(url);
+    }
+
+    /**
+     * Get the value of the Authorization header for the url parameter
+     *
+     * @param url to test
+     * @return null if url is not matching any known HTTP auth credentials
+     */
+    @Nullable
+    public String getAuthorizationHeader(String url) {
+        return HTTPAuthSqlUtils.getAuthModelCache().getAuthorizationHeader(url);
     }
 
     public void addHTTPAuthCredentials(@NonNull String username, @NonNull String password,
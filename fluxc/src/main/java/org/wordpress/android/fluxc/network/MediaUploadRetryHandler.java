@@ -0,0 +1,16 @@
+package org.wordpress.android.fluxc.network;
+
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.fluxc.store.MediaStore.MediaError;
+
+/**
+ * Gets a chance to retry a failed media upload, before the error is reported.
+ */
+public interface MediaUploadRetryHandler {
+    /**
+     * @return true if the upload will be retried, in which case the error must not be reported
+     */
+    boolean retryUpload(@NonNull MediaModel media, @NonNull MediaError error);
+}
@@ -13,8 +13,13 @@ import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicHttpResponse;
 import org.apache.http.message.BasicStatusLine;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
@@ -33,20 +38,53 @@ import okhttp3.ResponseBody;
  * use okhttp-urlconnection
  */
 public class OkHttpStack implements HttpStack {
-    private final OkHttpClient.Builder mClientBuilder;
+    private final OkHttpClient mBaseClient;
+    // Clients derived from mBaseClient, keyed by timeout in ms. They all share the base client's connection pool,
+    // dispatcher and interceptors, only the timeouts differ.
+    private final ConcurrentMap<Integer, OkHttpClient> mClientsByTimeout = new ConcurrentHashMap<>();
 
     public OkHttpStack(OkHttpClient.Builder clientBuilder) {
-        this.mClientBuilder = clientBuilder;
+        this.mBaseClient = clientBuilder.build();
     }
 
     @Override
     public HttpResponse performRequest(Request<?> request, Map<String, String> additionalHeaders)
             throws IOException, AuthFailureError {
-        int timeoutMs = request.getTimeoutMs();
-        mClientBuilder.connectTimeout(timeoutMs, TimeUnit.MILLISECONDS);
-        mClientBuilder.readTimeout(timeoutMs, TimeUnit.MILLISECONDS);
-        mClientBuilder.writeTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        okhttp3.Response okHttpResponse = newCall(request, additionalHeaders).execute();
 
+        StatusLine responseStatus = new BasicStatusLine(parseProtocol(okHttpResponse.protocol()),
+                okHttpResponse.code(), okHttpResponse.message());
+        BasicHttpResponse response = new BasicHttpResponse(responseStatus);
+
+        Headers responseHeaders = okHttpResponse.headers();
+        for (int i = 0, len = responseHeaders.size(); i < len; i++) {
+            final String name = responseHeaders.name(i), value = responseHeaders.value(i);
+            if (name != null) {
+                response.addHeader(new BasicHeader(name, value));
+            }
+        }
+
+        if (shouldStreamResponse(request, okHttpResponse)) {
+            ResponseBody body = okHttpResponse.body();
+            try {
+                ((StreamingResponseRequest) request).parseResponseBody(headersToMap(responseHeaders),
+                        body.byteStream());
+            } finally {
+                body.close();
+            }
+            response.setEntity(emptyEntity());
+        } else {
+            response.setEntity(entityFromOkHttpResponse(okHttpResponse));
+        }
+
+        return response;
+    }
+
+    /**
+     * Creates the OkHttp call for the given request, without executing it.
+     */
+    public Call newCall(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
         Builder okHttpRequestBuilder = new okhttp3.Request.Builder();
         okHttpRequestBuilder.url(request.getUrl());
 
@@ -60,25 +98,48 @@ public class OkHttpStack implements HttpStack {
 
         setConnectionParametersForRequest(okHttpRequestBuilder, request);
 
-        OkHttpClient client = mClientBuilder.build();
-        okhttp3.Request okHttpRequest = okHttpRequestBuilder.build();
-        Call okHttpCall = client.newCall(okHttpRequest);
-        okhttp3.Response okHttpResponse = okHttpCall.execute();
+        OkHttpClient client = getClientForTimeout(request.getTimeoutMs());
+        return client.newCall(okHttpRequestBuilder.build());
+    }
 
-        StatusLine responseStatus = new BasicStatusLine(parseProtocol(okHttpResponse.protocol()),
-                okHttpResponse.code(), okHttpResponse.message());
-        BasicHttpResponse response = new BasicHttpResponse(responseStatus);
-        response.setEntity(entityFromOkHttpResponse(okHttpResponse));
+    private static boolean shouldStreamResponse(Request<?> request, okhttp3.Response response) {
+        return request instanceof StreamingResponseRequest
+               && !request.shouldCache()
+               && request.getMethod() != Request.Method.HEAD
+               && response.isSuccessful()
+               && response.code() != HttpURLConnection.HTTP_NO_CONTENT;
+    }
 
-        Headers responseHeaders = okHttpResponse.headers();
-        for (int i = 0, len = responseHeaders.size(); i < len; i++) {
-            final String name = responseHeaders.name(i), value = responseHeaders.value(i);
-            if (name != null) {
-                response.addHeader(new BasicHeader(name, value));
-            }
+    public static Map<String, String> headersToMap(Headers headers) {
+        // Same as Volley's headers map: case insensitive, and the last value wins for repeated headers
+        Map<String, String> headersMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0, len = headers.size(); i < len; i++) {
+            headersMap.put(headers.name(i), headers.value(i));
         }
+        return headersMap;
+    }
 
-        return response;
+    private static HttpEntity emptyEntity() {
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContent(new ByteArrayInputStream(new byte[0]));
+        entity.setContentLength(0);
+        return entity;
+    }
+
+    OkHttpClient getClientForTimeout(int timeoutMs) {
+        OkHttpClient client = mClientsByTimeout.get(timeoutMs);
+        if (client == null) {
+            client = mBaseClient.newBuilder()
+                    .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .writeTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .build();
+            OkHttpClient existing = mClientsByTimeout.putIfAbsent(timeoutMs, client);
+            if (existing != null) {
+                client = existing;
+            }
+        }
+        return client;
     }
 
     private static HttpEntity entityFromOkHttpResponse(okhttp3.Response r) throws IOException {
@@ -151,6 +212,9 @@ public class OkHttpStack implements HttpStack {
     }
 
     private static RequestBody createRequestBody(Request r) throws AuthFailureError {
+        if (r instanceof StreamingRequest) {
+            return ((StreamingRequest) r).getRequestBody();
+        }
         byte[] body = r.getBody();
         if (body == null) {
             // Use the empty body when we get the null body
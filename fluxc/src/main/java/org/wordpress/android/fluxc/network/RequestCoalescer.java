@@ -0,0 +1,109 @@
+package org.wordpress.android.fluxc.network;
+
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of the read requests in flight, so an identical request started before the first one completes doesn't
+ * go to the network again: it's attached to the request in flight, and gets the same response (or error) as soon as
+ * that one completes. All the attached requests get the same response instance, so listeners must not modify it.
+ *
+ * Requests are identical when they have the same {@link BaseRequest#getCoalescingKey()}, which covers the method,
+ * URL, query, body and credentials of the request. Requests returning {@code null} are never coalesced.
+ */
+public class RequestCoalescer {
+    private static class InFlightRequest {
+        private final BaseRequest<?> mRequest;
+        private final List<BaseRequest<?>> mCoalescedRequests = new ArrayList<>();
+
+        InFlightRequest(BaseRequest<?> request) {
+            mRequest = request;
+        }
+    }
+
+    private final Map<String, InFlightRequest> mInFlightRequests = new HashMap<>();
+    private long mSentRequestCount;
+    private long mCoalescedRequestCount;
+
+    /**
+     * Attaches the request to an identical request in flight, if there is one.
+     *
+     * @return true if the request was attached, and must not be sent; false if it must be sent as usual
+     */
+    public boolean coalesce(@NonNull BaseRequest<?> request) {
+        String key = request.getCoalescingKey();
+        if (key == null) {
+            return false;
+        }
+        synchronized (this) {
+            InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+            if (inFlightRequest != null && inFlightRequest.mRequest != request
+                && !inFlightRequest.mRequest.isCanceled()) {
+                inFlightRequest.mCoalescedRequests.add(request);
+                mCoalescedRequestCount++;
+                AppLog.d(T.API, "Coalesced request " + request.getUrl() + " with the one in flight ("
+                                + mCoalescedRequestCount + " coalesced, " + mSentRequestCount + " sent)");
+                return true;
+            }
+            mInFlightRequests.put(key, new InFlightRequest(request));
+            mSentRequestCount++;
+        }
+        request.setRequestCoalescer(this, key);
+        return false;
+    }
+
+    /**
+     * Returns the number of requests that were sent to the network since the app started, only counting the ones
+     * that could have been coalesced.
+     */
+    public synchronized long getSentRequestCount() {
+        return mSentRequestCount;
+    }
+
+    /**
+     * Returns the number of requests that were attached to an identical request in flight since the app started,
+     * instead of being sent to the network.
+     */
+    public synchronized long getCoalescedRequestCount() {
+        return mCoalescedRequestCount;
+    }
+
+    /**
+     * Called when the request completes. Returns the requests attached to it, which will get its response.
+     */
+    @NonNull
+    synchronized List<BaseRequest<?>> complete(@NonNull String key, @NonNull BaseRequest<?> request) {
+        InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+        if (inFlightRequest == null || inFlightRequest.mRequest != request) {
+            return Collections.emptyList();
+        }
+        mInFlightRequests.remove(key);
+        return inFlightRequest.mCoalescedRequests;
+    }
+
+    /**
+     * Called when the request is cancelled. Returns false if there are still requests attached to it that are not
+     * cancelled, in which case the request keeps running for them.
+     */
+    synchronized boolean cancel(@NonNull String key, @NonNull BaseRequest<?> request) {
+        InFlightRequest inFlightRequest = mInFlightRequests.get(key);
+        if (inFlightRequest == null || inFlightRequest.mRequest != request) {
+            return true;
+        }
+        for (BaseRequest<?> coalescedRequest : inFlightRequest.mCoalescedRequests) {
+            if (!coalescedRequest.isCanceled()) {
+                return false;
+            }
+        }
+        mInFlightRequests.remove(key);
+        return true;
+    }
+}
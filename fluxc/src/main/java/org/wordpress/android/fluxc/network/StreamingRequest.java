@@ -0,0 +1,11 @@
+package org.wordpress.android.fluxc.network;
+
+import okhttp3.RequestBody;
+
+/**
+ * A request whose body {@link OkHttpStack} writes straight to the connection, instead of copying the byte array
+ * returned by {@link com.android.volley.Request#getBody()}.
+ */
+public interface StreamingRequest {
+    RequestBody getRequestBody();
+}
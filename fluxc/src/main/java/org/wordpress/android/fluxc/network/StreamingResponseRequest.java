@@ -0,0 +1,20 @@
+package org.wordpress.android.fluxc.network;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * A request that parses a successful response while {@link OkHttpStack} reads it from the connection, instead of
+ * waiting for Volley to copy the whole body into a byte array. The parsed result is then returned by
+ * {@link com.android.volley.Request#parseNetworkResponse}, which receives an empty body.
+ *
+ * Error responses, and requests with caching enabled, still go through the byte array since they need the raw body.
+ */
+public interface StreamingResponseRequest {
+    /**
+     * Reads and parses the response body. Failures to read from the connection must be thrown as
+     * {@link IOException}s, so Volley handles them like any other network error.
+     */
+    void parseResponseBody(Map<String, String> headers, InputStream body) throws IOException;
+}
@@ -27,11 +27,16 @@ public class DiscoveryWPAPIRestClient extends BaseWPAPIRestClient {
     public String discoverWPAPIBaseURL(String url) throws SelfHostedEndpointFinder.DiscoveryException {
         BaseRequestFuture<String> future = BaseRequestFuture.newFuture();
         WPAPIHeadRequest request = new WPAPIHeadRequest(url, future, future);
+        future.setRequest(request);
         add(request);
         try {
             return future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
         } catch (InterruptedException | TimeoutException e) {
             AppLog.e(AppLog.T.API, "Couldn't get HEAD response from server.");
+            future.cancel(true);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
         } catch (ExecutionException e) {
             // TODO: Add support for HTTP AUTH and self-signed SSL WP-API sites
 //            if (e.getCause() instanceof AuthFailureError) {
@@ -49,6 +54,7 @@ public class DiscoveryWPAPIRestClient extends BaseWPAPIRestClient {
         BaseRequestFuture<RootWPAPIRestResponse> future = BaseRequestFuture.newFuture();
         WPAPIGsonRequest request = new WPAPIGsonRequest<>(Request.Method.GET, wpApiBaseUrl, null, null,
                 RootWPAPIRestResponse.class, future, future);
+        future.setRequest(request);
         add(request);
         try {
             RootWPAPIRestResponse response = future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
@@ -63,6 +69,10 @@ public class DiscoveryWPAPIRestClient extends BaseWPAPIRestClient {
             }
         } catch (InterruptedException | TimeoutException e) {
             AppLog.e(AppLog.T.API, "Couldn't get response from root endpoint.");
+            future.cancel(true);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
         } catch (ExecutionException e) {
             // TODO: Add support for HTTP AUTH and self-signed SSL WP-API sites
 //            if (e.getCause() instanceof AuthFailureError) {
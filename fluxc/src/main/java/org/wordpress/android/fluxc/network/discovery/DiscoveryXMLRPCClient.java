@@ -5,6 +5,7 @@ import com.android.volley.NetworkResponse;
 import com.android.volley.NoConnectionError;
 import com.android.volley.RequestQueue;
 import com.android.volley.ServerError;
+import com.android.volley.VolleyError;
 
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.generated.endpoint.XMLRPC;
@@ -36,16 +37,25 @@ public class DiscoveryXMLRPCClient extends BaseXMLRPCClient {
 
     /**
      * Obtain the HTML response from a GET request for the given URL.
+     *
+     * @return an empty string if the server replied with an error status, or null if there was no reply (no
+     * connection, timeout...)
      */
     public String getResponse(String url) throws DiscoveryException {
         BaseRequestFuture<String> future = BaseRequestFuture.newFuture();
         DiscoveryRequest request = new DiscoveryRequest(url, future, future);
+        future.setRequest(request);
         add(request);
 
         try {
             return future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
         } catch (InterruptedException | TimeoutException e) {
             AppLog.e(AppLog.T.API, "Couldn't get XML-RPC response");
+            // Nobody is waiting for the response anymore, e.g. another endpoint was already found
+            future.cancel(true);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
         } catch (ExecutionException e) {
             if (e.getCause() instanceof AuthFailureError) {
                 NetworkResponse networkResponse = ((AuthFailureError) e.getCause()).networkResponse;
@@ -64,6 +74,10 @@ public class DiscoveryXMLRPCClient extends BaseXMLRPCClient {
                 // In the event of an SSL handshake error we should stop attempting discovery
                 throw new DiscoveryException(DiscoveryError.ERRONEOUS_SSL_CERTIFICATE, url);
             }
+            if (e.getCause() instanceof VolleyError && ((VolleyError) e.getCause()).networkResponse != null) {
+                // The server replied, e.g. with a 404
+                return "";
+            }
         }
         return null;
     }
@@ -81,12 +95,17 @@ public class DiscoveryXMLRPCClient extends BaseXMLRPCClient {
 
         BaseRequestFuture<Object[]> future = BaseRequestFuture.newFuture();
         DiscoveryXMLRPCRequest request = new DiscoveryXMLRPCRequest(url, XMLRPC.LIST_METHODS, future, future);
+        future.setRequest(request);
         add(request);
 
         try {
             return future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
         } catch (InterruptedException | TimeoutException e) {
             AppLog.e(AppLog.T.API, "Couldn't get XML-RPC response.");
+            future.cancel(true);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
         } catch (ExecutionException e) {
             if (e.getCause() instanceof AuthFailureError) {
                 NetworkResponse networkResponse = ((AuthFailureError) e.getCause()).networkResponse;
@@ -1,6 +1,8 @@
 package org.wordpress.android.fluxc.network.discovery;
 
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.text.TextUtils;
 import android.webkit.URLUtil;
 
@@ -14,17 +16,51 @@ import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.UrlUtils;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Finds the XML-RPC (and WP-API) endpoints of a self-hosted site.
+ *
+ * All the candidate endpoints are tried at the same time, on a shared executor, but their results are still used in
+ * order of priority: a candidate only wins once all the ones before it failed. The remaining requests are cancelled as
+ * soon as there is a winner.
+ *
+ * Results are cached by site address, so trying to log in again to the same site doesn't run the whole discovery
+ * again. Errors are only cached when the site replied, so errors the user can act on (HTTP auth, SSL certificate...)
+ * and connectivity errors are never cached.
+ */
 public class SelfHostedEndpointFinder {
     public static final int TIMEOUT_MS = 60000;
 
+    private static final long SUCCESS_CACHE_DURATION_MS = 15 * 60 * 1000;
+    private static final long FAILURE_CACHE_DURATION_MS = 60 * 1000;
+    // Errors that always come from a reply of the site. NO_SITE_ERROR is only cached when the site replied.
+    private static final Set<DiscoveryError> CACHEABLE_ERRORS = EnumSet.of(DiscoveryError.MISSING_XMLRPC_METHOD,
+            DiscoveryError.XMLRPC_BLOCKED, DiscoveryError.XMLRPC_FORBIDDEN);
+
+    private static final ExecutorService DISCOVERY_EXECUTOR =
+            Executors.newCachedThreadPool(new DiscoveryThreadFactory());
+
     private final Dispatcher mDispatcher;
     private final DiscoveryXMLRPCClient mDiscoveryXMLRPCClient;
     private final DiscoveryWPAPIRestClient mDiscoveryWPAPIRestClient;
+    // Discovery results by site address
+    private final Map<String, CachedResult> mCachedResults = new HashMap<>();
 
     public enum DiscoveryError implements OnChangedError {
         INVALID_URL,
@@ -41,10 +77,23 @@ public class SelfHostedEndpointFinder {
     public static class DiscoveryException extends Exception {
         public final DiscoveryError discoveryError;
         public final String failedUrl;
+        private final boolean mIsSiteReply;
 
         DiscoveryException(DiscoveryError failureType, String failedUrl) {
+            this(failureType, failedUrl, false);
+        }
+
+        /**
+         * @param isSiteReply whether the error comes from a reply of the site, rather than from a lack of reply
+         */
+        DiscoveryException(DiscoveryError failureType, String failedUrl, boolean isSiteReply) {
             this.discoveryError = failureType;
             this.failedUrl = failedUrl;
+            mIsSiteReply = isSiteReply;
+        }
+
+        boolean isCacheable() {
+            return mIsSiteReply || CACHEABLE_ERRORS.contains(discoveryError);
         }
     }
 
@@ -64,6 +113,40 @@ public class SelfHostedEndpointFinder {
         }
     }
 
+    private static class CachedResult {
+        private final DiscoveryResultPayload mPayload;
+        private final long mExpirationTime;
+
+        CachedResult(DiscoveryResultPayload payload, long duration) {
+            mPayload = payload;
+            mExpirationTime = SystemClock.elapsedRealtime() + duration;
+        }
+
+        boolean isExpired() {
+            return SystemClock.elapsedRealtime() >= mExpirationTime;
+        }
+
+        DiscoveryResultPayload newPayload() {
+            if (mPayload.isError()) {
+                return new DiscoveryResultPayload(mPayload.error, mPayload.failedEndpoint);
+            }
+            return new DiscoveryResultPayload(mPayload.xmlRpcEndpoint, mPayload.wpRestEndpoint);
+        }
+    }
+
+    /**
+     * What the HTML of a site revealed about its XML-RPC endpoint.
+     */
+    private static class HTMLSearchResult {
+        private final String mXmlRpcUrl;
+        private final boolean mIsWpSite;
+
+        HTMLSearchResult(String xmlRpcUrl, boolean isWpSite) {
+            mXmlRpcUrl = xmlRpcUrl;
+            mIsWpSite = isWpSite;
+        }
+    }
+
     public SelfHostedEndpointFinder(Dispatcher dispatcher, DiscoveryXMLRPCClient discoveryXMLRPCClient,
                                     DiscoveryWPAPIRestClient discoveryWPAPIRestClient) {
         mDispatcher = dispatcher;
@@ -72,29 +155,101 @@ public class SelfHostedEndpointFinder {
     }
 
     public void findEndpoint(final String url) {
-        new Thread(new Runnable() {
+        DISCOVERY_EXECUTOR.execute(new Runnable() {
             @Override
             public void run() {
-                try {
-                    String wpRestEndpoint = "";
-                    if (BuildConfig.ENABLE_WPAPI) {
-                        wpRestEndpoint = discoverWPRESTEndpoint(url);
+                String cacheKey = getCacheKey(url);
+                DiscoveryResultPayload payload = getCachedResult(cacheKey);
+                if (payload != null) {
+                    AppLog.i(T.NUX, "Using the cached discovery result for " + url);
+                } else {
+                    try {
+                        payload = discoverEndpoints(url);
+                        cacheResult(cacheKey, payload, SUCCESS_CACHE_DURATION_MS);
+                    } catch (DiscoveryException e) {
+                        // TODO: Handle tracking of XMLRPCDiscoveryException
+                        // If a DiscoveryException is caught this high up, it means that either:
+                        // 1. The discovery process has completed, and did not turn up a valid WordPress.com site
+                        // 2. Discovery was halted early because the given site requires SSL validation, or HTTP AUTH
+                        // login, or is a WordPress.com site, or is a completely invalid URL
+                        payload = new DiscoveryResultPayload(e.discoveryError, e.failedUrl);
+                        if (e.isCacheable()) {
+                            cacheResult(cacheKey, payload, FAILURE_CACHE_DURATION_MS);
+                        }
                     }
-                    // TODO: Eventually make the XML-RPC discovery only run if WP-API discovery fails
-                    String xmlRpcEndpoint = verifyOrDiscoverXMLRPCEndpoint(url);
-                    DiscoveryResultPayload payload = new DiscoveryResultPayload(xmlRpcEndpoint, wpRestEndpoint);
-                    mDispatcher.dispatch(AuthenticationActionBuilder.newDiscoveryResultAction(payload));
-                } catch (DiscoveryException e) {
-                    // TODO: Handle tracking of XMLRPCDiscoveryException
-                    // If a DiscoveryException is caught this high up, it means that either:
-                    // 1. The discovery process has completed, and did not turn up a valid WordPress.com site
-                    // 2. Discovery was halted early because the given site requires SSL validation, or HTTP AUTH login,
-                    // or is a WordPress.com site, or is a completely invalid URL
-                    DiscoveryResultPayload payload = new DiscoveryResultPayload(e.discoveryError, e.failedUrl);
-                    mDispatcher.dispatch(AuthenticationActionBuilder.newDiscoveryResultAction(payload));
                 }
+                mDispatcher.dispatch(AuthenticationActionBuilder.newDiscoveryResultAction(payload));
+            }
+        });
+    }
+
+    private DiscoveryResultPayload discoverEndpoints(final String url) throws DiscoveryException {
+        Future<String> wpRestDiscovery = null;
+        try {
+            String wpRestEndpoint = "";
+            if (BuildConfig.ENABLE_WPAPI) {
+                // Runs alongside the XML-RPC discovery
+                wpRestDiscovery = DISCOVERY_EXECUTOR.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws DiscoveryException {
+                        return discoverWPRESTEndpoint(url);
+                    }
+                });
+            }
+            // TODO: Eventually make the XML-RPC discovery only run if WP-API discovery fails
+            String xmlRpcEndpoint = verifyOrDiscoverXMLRPCEndpoint(url);
+            if (wpRestDiscovery != null) {
+                wpRestEndpoint = getResult(wpRestDiscovery);
+            }
+            return new DiscoveryResultPayload(xmlRpcEndpoint, wpRestEndpoint);
+        } finally {
+            if (wpRestDiscovery != null) {
+                wpRestDiscovery.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Returns the key of the discovery results for the given url: its sanitized form, with the scheme that is tried
+     * first, or null if the url is invalid.
+     */
+    @Nullable
+    private String getCacheKey(String url) {
+        if (TextUtils.isEmpty(url)) {
+            return null;
+        }
+        try {
+            return sanitizeSiteUrl(url, !url.startsWith("http://"));
+        } catch (DiscoveryException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private DiscoveryResultPayload getCachedResult(@Nullable String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+        synchronized (mCachedResults) {
+            CachedResult cachedResult = mCachedResults.get(cacheKey);
+            if (cachedResult == null) {
+                return null;
+            }
+            if (cachedResult.isExpired()) {
+                mCachedResults.remove(cacheKey);
+                return null;
             }
-        }).start();
+            return cachedResult.newPayload();
+        }
+    }
+
+    private void cacheResult(@Nullable String cacheKey, @NonNull DiscoveryResultPayload payload, long duration) {
+        if (cacheKey == null) {
+            return;
+        }
+        synchronized (mCachedResults) {
+            mCachedResults.put(cacheKey, new CachedResult(payload, duration));
+        }
     }
 
     private String verifyOrDiscoverXMLRPCEndpoint(final String siteUrl) throws DiscoveryException {
@@ -106,21 +261,51 @@ public class SelfHostedEndpointFinder {
             throw new DiscoveryException(DiscoveryError.WORDPRESS_COM_SITE, siteUrl);
         }
 
-        String xmlrpcUrl = verifyXMLRPCUrl(siteUrl);
+        // Searching the HTML of the site starts along with the verification of the likely XML-RPC urls, but is only
+        // used if none of them could be verified
+        final List<String> urlsToVerify = new ArrayList<>(getOrderedVerifyUrlsToTry(siteUrl));
+        final List<String> urlsToSearch = new ArrayList<>(getOrderedDiscoveryUrlsToTry(siteUrl));
+        List<Future<Boolean>> verifications = new ArrayList<>();
+        List<Future<HTMLSearchResult>> searches = new ArrayList<>();
+        try {
+            AppLog.i(T.NUX, "Calling system.listMethods on the following URLs: " + urlsToVerify);
+            for (final String url : urlsToVerify) {
+                verifications.add(DISCOVERY_EXECUTOR.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws DiscoveryException {
+                        return checkXMLRPCEndpointValidity(url);
+                    }
+                }));
+            }
+            AppLog.i(T.NUX, "Running RSD discovery process on the following URLs: " + urlsToSearch);
+            for (final String url : urlsToSearch) {
+                searches.add(DISCOVERY_EXECUTOR.submit(new Callable<HTMLSearchResult>() {
+                    @Override
+                    public HTMLSearchResult call() throws DiscoveryException {
+                        return searchHTMLForXMLRPCEndpoint(url);
+                    }
+                }));
+            }
 
-        if (xmlrpcUrl == null) {
-            AppLog.w(T.NUX, "The XML-RPC endpoint was not found by using our 'smart' cleaning approach. "
-                            + "Time to start the Endpoint discovery process");
-            xmlrpcUrl = discoverXMLRPCEndpoint(siteUrl);
-        }
+            String xmlrpcUrl = verifyXMLRPCUrl(urlsToVerify, verifications);
 
-        // Validate the XML-RPC URL we've found before. This check prevents a crash that can occur
-        // during the setup of self-hosted sites that have malformed xmlrpc URLs in their declaration.
-        if (!URLUtil.isValidUrl(xmlrpcUrl)) {
-            throw new DiscoveryException(DiscoveryError.NO_SITE_ERROR, xmlrpcUrl);
-        }
+            if (xmlrpcUrl == null) {
+                AppLog.w(T.NUX, "The XML-RPC endpoint was not found by using our 'smart' cleaning approach. "
+                                + "Time to start the Endpoint discovery process");
+                xmlrpcUrl = discoverXMLRPCEndpoint(urlsToSearch, searches);
+            }
+
+            // Validate the XML-RPC URL we've found before. This check prevents a crash that can occur
+            // during the setup of self-hosted sites that have malformed xmlrpc URLs in their declaration.
+            if (!URLUtil.isValidUrl(xmlrpcUrl)) {
+                throw new DiscoveryException(DiscoveryError.NO_SITE_ERROR, xmlrpcUrl);
+            }
 
-        return xmlrpcUrl;
+            return xmlrpcUrl;
+        } finally {
+            cancelAll(verifications);
+            cancelAll(searches);
+        }
     }
 
     private LinkedHashSet<String> getOrderedVerifyUrlsToTry(String siteUrl) throws DiscoveryException {
@@ -153,16 +338,33 @@ public class SelfHostedEndpointFinder {
         return urlsToTry;
     }
 
-    private String verifyXMLRPCUrl(@NonNull final String siteUrl) throws DiscoveryException {
-        // Ordered set of Strings that contains the URLs we want to try
-        final LinkedHashSet<String> urlsToTry = getOrderedVerifyUrlsToTry(siteUrl);
+    private LinkedHashSet<String> getOrderedDiscoveryUrlsToTry(String siteUrl) throws DiscoveryException {
+        LinkedHashSet<String> urlsToTry = new LinkedHashSet<>();
 
-        AppLog.i(T.NUX, "Calling system.listMethods on the following URLs: " + urlsToTry);
-        for (String url : urlsToTry) {
+        // Add the url as provided by the user
+        urlsToTry.add(siteUrl);
+
+        // Add the sanitized URL url, prioritizing https, unless the user specified the http:// protocol
+        if (siteUrl.startsWith("http://")) {
+            urlsToTry.add(sanitizeSiteUrl(siteUrl, false));
+            urlsToTry.add(sanitizeSiteUrl(siteUrl, true));
+        } else {
+            urlsToTry.add(sanitizeSiteUrl(siteUrl, true));
+            urlsToTry.add(sanitizeSiteUrl(siteUrl, false));
+        }
+        return urlsToTry;
+    }
+
+    /**
+     * Returns the first of the urls to be verified, waiting for the verifications of the urls before it to fail.
+     */
+    private String verifyXMLRPCUrl(List<String> urlsToTry, List<Future<Boolean>> verifications)
+            throws DiscoveryException {
+        for (int i = 0; i < urlsToTry.size(); i++) {
             try {
-                if (checkXMLRPCEndpointValidity(url)) {
+                if (getResult(verifications.get(i))) {
                     // Endpoint found and works fine.
-                    return url;
+                    return urlsToTry.get(i);
                 }
             } catch (DiscoveryException e) {
                 // Stop execution for errors requiring user interaction
@@ -185,71 +387,24 @@ public class SelfHostedEndpointFinder {
     // Attempts to retrieve the XML-RPC url for a self-hosted site.
     // See diagrams here https://github.com/wordpress-mobile/WordPress-Android/issues/3805 for details about the
     // whole process.
-    private String discoverXMLRPCEndpoint(String siteUrl) throws DiscoveryException {
-        // Ordered set of Strings that contains the URLs we want to try
-        final Set<String> urlsToTry = new LinkedHashSet<>();
-
-        // Add the url as provided by the user
-        urlsToTry.add(siteUrl);
-
-        // Add the sanitized URL url, prioritizing https, unless the user specified the http:// protocol
-        if (siteUrl.startsWith("http://")) {
-            urlsToTry.add(sanitizeSiteUrl(siteUrl, false));
-            urlsToTry.add(sanitizeSiteUrl(siteUrl, true));
-        } else {
-            urlsToTry.add(sanitizeSiteUrl(siteUrl, true));
-            urlsToTry.add(sanitizeSiteUrl(siteUrl, false));
-        }
-
-        AppLog.i(AppLog.T.NUX, "Running RSD discovery process on the following URLs: " + urlsToTry);
-
+    private String discoverXMLRPCEndpoint(List<String> urlsToTry, List<Future<HTMLSearchResult>> searches)
+            throws DiscoveryException {
         String xmlrpcUrl = null;
         boolean isWpSite = false;
-        for (String currentURL : urlsToTry) {
-            if (!URLUtil.isValidUrl(currentURL)) {
+        boolean isSiteReply = false;
+        for (int i = 0; i < urlsToTry.size(); i++) {
+            HTMLSearchResult result = getResult(searches.get(i));
+            if (result == null) {
                 continue;
             }
-            // Download the HTML content
-            AppLog.i(AppLog.T.NUX, "Downloading the HTML content at the following URL: " + currentURL);
-            String responseHTML = mDiscoveryXMLRPCClient.getResponse(currentURL);
-            if (TextUtils.isEmpty(responseHTML)) {
-                AppLog.w(AppLog.T.NUX, "Content downloaded but it's empty or null. Skipping this URL");
-                continue;
-            }
-
-            // Try to find the RSD tag with a regex
-            String rsdUrl = getRSDMetaTagHrefRegEx(responseHTML);
-            rsdUrl = UrlUtils.addUrlSchemeIfNeeded(rsdUrl, false);
-
-            // If the RSD URL is empty here, try to see if the pingback or Apilink are in the doc, as the user
-            // could have inserted a direct link to the XML-RPC endpoint
-            if (rsdUrl == null) {
-                AppLog.i(AppLog.T.NUX, "Can't find the RSD endpoint in the HTML document. Try to check the "
-                                       + "pingback tag, and the apiLink tag.");
-                xmlrpcUrl = UrlUtils.addUrlSchemeIfNeeded(DiscoveryUtils.getXMLRPCPingback(responseHTML), false);
-                if (xmlrpcUrl == null) {
-                    xmlrpcUrl = UrlUtils.addUrlSchemeIfNeeded(DiscoveryUtils.getXMLRPCApiLink(responseHTML), false);
-                }
-            } else {
-                // If the site contains RSD link, it is WP.org site
-                isWpSite = true;
-                AppLog.i(AppLog.T.NUX, "RSD endpoint found at the following address: " + rsdUrl);
-                AppLog.i(AppLog.T.NUX, "Downloading the RSD document...");
-                String rsdEndpointDocument = mDiscoveryXMLRPCClient.getResponse(rsdUrl);
-                if (TextUtils.isEmpty(rsdEndpointDocument)) {
-                    AppLog.w(AppLog.T.NUX, "Content downloaded but it's empty or null. Skipping this RSD document"
-                                           + " URL.");
-                    continue;
-                }
-                AppLog.i(AppLog.T.NUX, "Extracting the XML-RPC Endpoint address from the RSD document");
-                xmlrpcUrl = UrlUtils.addUrlSchemeIfNeeded(DiscoveryUtils.getXMLRPCApiLink(rsdEndpointDocument),
-                        false);
-            }
+            isSiteReply = true;
+            isWpSite |= result.mIsWpSite;
+            xmlrpcUrl = result.mXmlRpcUrl;
             if (xmlrpcUrl != null) {
-                AppLog.i(AppLog.T.NUX, "Found the XML-RPC endpoint in the HTML document");
+                AppLog.i(AppLog.T.NUX, "Found the XML-RPC endpoint in the HTML document of " + urlsToTry.get(i));
                 break;
             } else {
-                AppLog.i(AppLog.T.NUX, "XML-RPC endpoint not found");
+                AppLog.i(AppLog.T.NUX, "XML-RPC endpoint not found in the HTML document of " + urlsToTry.get(i));
             }
         }
 
@@ -260,12 +415,66 @@ public class SelfHostedEndpointFinder {
             }
         }
         if (!isWpSite) {
-            throw new DiscoveryException(DiscoveryError.NO_SITE_ERROR, xmlrpcUrl);
+            // Without any reply, the site may only be unreachable for now (offline, timeout, DNS failure...)
+            throw new DiscoveryException(DiscoveryError.NO_SITE_ERROR, xmlrpcUrl, isSiteReply);
         } else {
             throw new DiscoveryException(DiscoveryError.MISSING_XMLRPC_METHOD, xmlrpcUrl);
         }
     }
 
+    /**
+     * Looks for the XML-RPC endpoint in the HTML document at the given URL, through its RSD link, or directly in its
+     * pingback or apiLink tags.
+     *
+     * @return null if the URL couldn't be searched, e.g. without connection
+     */
+    @Nullable
+    private HTMLSearchResult searchHTMLForXMLRPCEndpoint(String url) throws DiscoveryException {
+        if (!URLUtil.isValidUrl(url)) {
+            return null;
+        }
+        // Download the HTML content
+        AppLog.i(AppLog.T.NUX, "Downloading the HTML content at the following URL: " + url);
+        String responseHTML = mDiscoveryXMLRPCClient.getResponse(url);
+        if (responseHTML == null) {
+            AppLog.w(AppLog.T.NUX, "Content couldn't be downloaded. Skipping this URL");
+            return null;
+        }
+        if (responseHTML.isEmpty()) {
+            AppLog.w(AppLog.T.NUX, "Content downloaded but it's empty. Skipping this URL");
+            return new HTMLSearchResult(null, false);
+        }
+
+        // Try to find the RSD tag with a regex
+        String rsdUrl = getRSDMetaTagHrefRegEx(responseHTML);
+        rsdUrl = UrlUtils.addUrlSchemeIfNeeded(rsdUrl, false);
+
+        // If the RSD URL is empty here, try to see if the pingback or Apilink are in the doc, as the user
+        // could have inserted a direct link to the XML-RPC endpoint
+        if (rsdUrl == null) {
+            AppLog.i(AppLog.T.NUX, "Can't find the RSD endpoint in the HTML document. Try to check the "
+                                   + "pingback tag, and the apiLink tag.");
+            String xmlrpcUrl = UrlUtils.addUrlSchemeIfNeeded(DiscoveryUtils.getXMLRPCPingback(responseHTML), false);
+            if (xmlrpcUrl == null) {
+                xmlrpcUrl = UrlUtils.addUrlSchemeIfNeeded(DiscoveryUtils.getXMLRPCApiLink(responseHTML), false);
+            }
+            return new HTMLSearchResult(xmlrpcUrl, false);
+        }
+
+        // If the site contains RSD link, it is WP.org site
+        AppLog.i(AppLog.T.NUX, "RSD endpoint found at the following address: " + rsdUrl);
+        AppLog.i(AppLog.T.NUX, "Downloading the RSD document...");
+        String rsdEndpointDocument = mDiscoveryXMLRPCClient.getResponse(rsdUrl);
+        if (TextUtils.isEmpty(rsdEndpointDocument)) {
+            AppLog.w(AppLog.T.NUX, "Content downloaded but it's empty or null. Skipping this RSD document"
+                                   + " URL.");
+            return new HTMLSearchResult(null, true);
+        }
+        AppLog.i(AppLog.T.NUX, "Extracting the XML-RPC Endpoint address from the RSD document");
+        String xmlrpcUrl = UrlUtils.addUrlSchemeIfNeeded(DiscoveryUtils.getXMLRPCApiLink(rsdEndpointDocument), false);
+        return new HTMLSearchResult(xmlrpcUrl, true);
+    }
+
     /**
      * Regex pattern for matching the RSD link found in most WordPress sites.
      */
@@ -371,4 +580,41 @@ public class SelfHostedEndpointFinder {
         }
         return null;
     }
+
+    /**
+     * Waits for the result of a discovery step, throwing the {@link DiscoveryException} it failed with, if any.
+     */
+    private static <T> T getResult(Future<T> future) throws DiscoveryException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DiscoveryException) {
+                throw (DiscoveryException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DiscoveryException(DiscoveryError.GENERIC_ERROR, null);
+        }
+    }
+
+    private static void cancelAll(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            // Interrupts the request the step is waiting for, which cancels it
+            future.cancel(true);
+        }
+    }
+
+    private static class DiscoveryThreadFactory implements ThreadFactory {
+        private final AtomicInteger mThreadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "fluxc-discovery-" + mThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -8,27 +8,42 @@ import com.android.volley.Response.Listener;
 import com.android.volley.toolbox.HttpHeaderParser;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 
 import org.jetbrains.annotations.Nullable;
 import org.wordpress.android.fluxc.network.BaseRequest;
+import org.wordpress.android.fluxc.network.StreamingResponseRequest;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
-public abstract class GsonRequest<T> extends BaseRequest<T> {
+public abstract class GsonRequest<T> extends BaseRequest<T> implements StreamingResponseRequest {
     private static final String PROTOCOL_CHARSET = "utf-8";
     private static final String PROTOCOL_CONTENT_TYPE = String.format("application/json; charset=%s", PROTOCOL_CHARSET);
 
+    // Gson is thread-safe and caches the TypeAdapter of every type it has seen, so all requests share one instance
+    // instead of introspecting the response classes again for each request
+    private static final Gson GSON = setupGsonBuilder().create();
+
     private final Gson mGson;
     private final Class<T> mClass;
     private final Type mType;
     private final Listener<T> mListener;
     private final Map<String, String> mParams;
     private final Map<String, Object> mBody;
+    // Set by parseResponseBody on the network thread, and consumed by parseNetworkResponse right after
+    private volatile Response<T> mStreamedResponse;
 
     protected GsonRequest(int method, Map<String, String> params, Map<String, Object> body, String url, Class<T> clazz,
                        Type type, Listener<T> listener, BaseErrorListener errorListener) {
@@ -43,14 +58,28 @@ public abstract class GsonRequest<T> extends BaseRequest<T> {
         mClass = clazz;
         mType = type;
         mListener = listener;
-        mGson = setupGsonBuilder().create();
+        mGson = GSON;
         mParams = params;
         mBody = body;
     }
 
     @Override
     protected void deliverResponse(T response) {
-        mListener.onResponse(response);
+        if (deliverResponseToCoalescedRequests(response)) {
+            mListener.onResponse(response);
+        }
+    }
+
+    /**
+     * GET requests that don't use the cache can be coalesced. The key includes the full URL and the headers (which
+     * hold the credentials), as well as the response type since it decides how the response is parsed.
+     */
+    @Override
+    public String getCoalescingKey() {
+        if (getMethod() != Method.GET || shouldCache()) {
+            return null;
+        }
+        return "GET " + getUrl() + " " + new TreeMap<>(getHeaders()) + " " + (mClass != null ? mClass : mType);
     }
 
     @Override
@@ -81,8 +110,40 @@ public abstract class GsonRequest<T> extends BaseRequest<T> {
         return mBody;
     }
 
+    @Override
+    public void parseResponseBody(Map<String, String> headers, InputStream body) throws IOException {
+        ConnectionInputStream connectionStream = new ConnectionInputStream(body);
+        JsonReader reader = new JsonReader(new InputStreamReader(connectionStream,
+                HttpHeaderParser.parseCharset(headers)));
+        try {
+            T res;
+            if (mClass == null) {
+                res = mGson.fromJson(reader, mType);
+            } else {
+                res = mGson.fromJson(reader, mClass);
+            }
+            mStreamedResponse = Response.success(res, null);
+        } catch (JsonIOException e) {
+            throw new IOException(e);
+        } catch (JsonSyntaxException e) {
+            // Gson also wraps the failures to read from the connection (timeout, reset, truncated chunk) in a
+            // JsonSyntaxException. Those are rethrown so Volley retries or reports them as network errors, only the
+            // reader's own errors (malformed JSON, or a body ending too early) are parse errors.
+            IOException readFailure = connectionStream.mReadFailure;
+            if (readFailure != null && e.getCause() == readFailure) {
+                throw readFailure;
+            }
+            mStreamedResponse = Response.error(new ParseError(e));
+        }
+    }
+
     @Override
     protected Response<T> parseNetworkResponse(NetworkResponse response) {
+        Response<T> streamedResponse = mStreamedResponse;
+        if (streamedResponse != null) {
+            mStreamedResponse = null;
+            return streamedResponse;
+        }
         try {
             String json = new String(response.data, HttpHeaderParser.parseCharset(response.headers));
             T res;
@@ -99,7 +160,24 @@ public abstract class GsonRequest<T> extends BaseRequest<T> {
         }
     }
 
-    private GsonBuilder setupGsonBuilder() {
+    /**
+     * Returns the {@link Gson} instance shared by all the requests, with the FluxC type adapters registered.
+     */
+    public static Gson getSharedGson() {
+        return GSON;
+    }
+
+    /**
+     * Builds the TypeAdapters of the given response types ahead of time, so the first requests returning them don't
+     * pay for the reflection. It's optional, and meant to be called from a background thread during startup.
+     */
+    public static void warmUp(Type... types) {
+        for (Type type : types) {
+            GSON.getAdapter(TypeToken.get(type));
+        }
+    }
+
+    private static GsonBuilder setupGsonBuilder() {
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.setLenient();
         gsonBuilder.registerTypeHierarchyAdapter(JsonObjectOrFalse.class, new JsonObjectOrFalseDeserializer());
@@ -107,4 +185,36 @@ public abstract class GsonRequest<T> extends BaseRequest<T> {
                 new JsonObjectOrEmptyArrayDeserializer());
         return gsonBuilder;
     }
+
+    /**
+     * Keeps the last failure to read from the connection, to tell it apart from the {@link JsonReader} errors once
+     * Gson wrapped them both in a {@link JsonSyntaxException}.
+     */
+    private static class ConnectionInputStream extends FilterInputStream {
+        private IOException mReadFailure;
+
+        ConnectionInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                mReadFailure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                mReadFailure = e;
+                throw e;
+            }
+        }
+    }
 }
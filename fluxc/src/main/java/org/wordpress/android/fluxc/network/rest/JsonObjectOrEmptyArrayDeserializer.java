@@ -15,11 +15,14 @@ import java.lang.reflect.Type;
  * MyServerResponse if the server response was [].
  */
 public class JsonObjectOrEmptyArrayDeserializer implements JsonDeserializer<JsonObjectOrEmptyArray> {
+    // Plain Gson without the FluxC adapters, shared since Gson is thread-safe and caches the TypeAdapters it creates
+    private static final Gson GSON = new Gson();
+
     @Override
     public JsonObjectOrEmptyArray deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
             throws JsonParseException {
         if (json.isJsonObject()) {
-            return new Gson().fromJson(json, typeOfT);
+            return GSON.fromJson(json, typeOfT);
         }
         return null;
     }
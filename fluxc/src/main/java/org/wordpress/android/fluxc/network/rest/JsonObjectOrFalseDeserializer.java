@@ -20,6 +20,9 @@ import java.lang.reflect.Type;
  * So, this class is only useful if we don't care about the actual value of the primitive, only of the object.
  */
 public class JsonObjectOrFalseDeserializer implements JsonDeserializer<JsonObjectOrFalse> {
+    // Plain Gson without the FluxC adapters, shared since Gson is thread-safe and caches the TypeAdapters it creates
+    private static final Gson GSON = new Gson();
+
     @Override
     public JsonObjectOrFalse deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
             throws JsonParseException {
@@ -37,7 +40,6 @@ public class JsonObjectOrFalseDeserializer implements JsonDeserializer<JsonObjec
             }
 
             Field[] fields = clazz.getFields();
-            Gson gson = new Gson();
             for (Field field : fields) {
                 JsonElement element = json.getAsJsonObject().get(field.getName());
                 if (element == null) {
@@ -45,13 +47,13 @@ public class JsonObjectOrFalseDeserializer implements JsonDeserializer<JsonObjec
                 }
 
                 if (!element.isJsonPrimitive()) {
-                    field.set(result, gson.fromJson(element, field.getType()));
+                    field.set(result, GSON.fromJson(element, field.getType()));
                     continue;
                 }
                 Object elementToPrimitive = jsonPrimitiveToJavaPrimitive(field.getType(), element);
 
                 if (elementToPrimitive == null) {
-                    gson.fromJson(element, field.getType());
+                    GSON.fromJson(element, field.getType());
                 } else {
                     field.set(result, jsonPrimitiveToJavaPrimitive(field.getType(), element));
                 }
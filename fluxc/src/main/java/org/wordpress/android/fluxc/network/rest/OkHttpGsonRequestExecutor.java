@@ -0,0 +1,172 @@
+package org.wordpress.android.fluxc.network.rest;
+
+import android.support.annotation.NonNull;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.ClientError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.Response;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+
+import org.wordpress.android.fluxc.network.OkHttpStack;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.Map;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ResponseBody;
+
+/**
+ * Runs {@link GsonRequest}s with OkHttp's asynchronous calls instead of a Volley
+ * {@link com.android.volley.RequestQueue}. Waiting for a response doesn't take up one of the queue's network threads,
+ * and cancelling a request closes its connection instead of only dropping the response once it arrives.
+ *
+ * The request goes through the same steps it would in the queue: the body is parsed with
+ * {@link GsonRequest#parseResponseBody}, error responses are turned into the same {@link VolleyError}s as
+ * {@link com.android.volley.toolbox.BasicNetwork} does and timeouts are retried following the request's
+ * {@link com.android.volley.RetryPolicy}. Caching is not supported, requests with caching enabled should be added to
+ * the queue.
+ *
+ * Listeners are called on an OkHttp thread, not on the main thread.
+ */
+public class OkHttpGsonRequestExecutor {
+    /**
+     * An executing request, that can be cancelled at any time.
+     */
+    public static class ExecutingRequest {
+        private final GsonRequest<?> mRequest;
+        private volatile Call mCall;
+
+        public ExecutingRequest(GsonRequest<?> request) {
+            mRequest = request;
+        }
+
+        /**
+         * Cancels the request. None of its listeners will be called after this.
+         */
+        public void cancel() {
+            mRequest.cancel();
+            Call call = mCall;
+            // The request keeps running if other requests were coalesced with it, see BaseRequest#cancel()
+            if (call != null && mRequest.isCanceled()) {
+                call.cancel();
+            }
+        }
+
+        public boolean isCanceled() {
+            return mRequest.isCanceled();
+        }
+    }
+
+    private final OkHttpStack mStack;
+
+    public OkHttpGsonRequestExecutor(OkHttpStack stack) {
+        mStack = stack;
+    }
+
+    /**
+     * Starts the request and returns right away. Exactly one of the request's listeners is called once it's done,
+     * unless it's cancelled first.
+     */
+    public <T> ExecutingRequest enqueue(@NonNull GsonRequest<T> request) {
+        ExecutingRequest executingRequest = new ExecutingRequest(request);
+        execute(executingRequest, request);
+        return executingRequest;
+    }
+
+    private <T> void execute(final ExecutingRequest executingRequest, final GsonRequest<T> request) {
+        Call call;
+        try {
+            call = mStack.newCall(request, Collections.<String, String>emptyMap());
+        } catch (IOException e) {
+            request.deliverError(new NoConnectionError(e));
+            return;
+        } catch (AuthFailureError e) {
+            request.deliverError(e);
+            return;
+        }
+        executingRequest.mCall = call;
+        if (request.isCanceled()) {
+            // Cancelled while a retry was being set up
+            call.cancel();
+            return;
+        }
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                if (request.isCanceled()) {
+                    return;
+                }
+                if (e instanceof SocketTimeoutException) {
+                    TimeoutError timeoutError = new TimeoutError();
+                    try {
+                        // Increases the timeout for the next attempt, or throws if the request shouldn't be retried
+                        request.getRetryPolicy().retry(timeoutError);
+                    } catch (VolleyError error) {
+                        request.deliverError(error);
+                        return;
+                    }
+                    execute(executingRequest, request);
+                } else {
+                    request.deliverError(new NoConnectionError(e));
+                }
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull okhttp3.Response response) {
+                try {
+                    handleResponse(request, response);
+                } catch (IOException e) {
+                    onFailure(call, e);
+                } finally {
+                    response.close();
+                }
+            }
+        });
+    }
+
+    private static <T> void handleResponse(GsonRequest<T> request, okhttp3.Response okHttpResponse)
+            throws IOException {
+        Map<String, String> headers = OkHttpStack.headersToMap(okHttpResponse.headers());
+        ResponseBody body = okHttpResponse.body();
+        int statusCode = okHttpResponse.code();
+        if (!okHttpResponse.isSuccessful()) {
+            byte[] data = body != null ? body.bytes() : new byte[0];
+            if (!request.isCanceled()) {
+                request.deliverError(errorForResponse(new NetworkResponse(statusCode, data, headers, false)));
+            }
+            return;
+        }
+        if (body != null && statusCode != HttpURLConnection.HTTP_NO_CONTENT) {
+            request.parseResponseBody(headers, body.byteStream());
+        }
+        Response<T> response = request.parseNetworkResponse(new NetworkResponse(statusCode, new byte[0], headers,
+                false));
+        if (request.isCanceled()) {
+            return;
+        }
+        if (response.isSuccess()) {
+            request.deliverResponse(response.result);
+        } else {
+            request.deliverError(response.error);
+        }
+    }
+
+    private static VolleyError errorForResponse(NetworkResponse response) {
+        if (response.statusCode == HttpURLConnection.HTTP_UNAUTHORIZED
+            || response.statusCode == HttpURLConnection.HTTP_FORBIDDEN) {
+            return new AuthFailureError(response);
+        } else if (response.statusCode >= 400 && response.statusCode <= 499) {
+            return new ClientError(response);
+        } else {
+            return new ServerError(response);
+        }
+    }
+}
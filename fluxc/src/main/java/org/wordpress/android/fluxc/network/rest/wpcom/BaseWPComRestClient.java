@@ -10,7 +10,10 @@ import org.wordpress.android.fluxc.generated.AuthenticationActionBuilder;
 import org.wordpress.android.fluxc.network.BaseRequest;
 import org.wordpress.android.fluxc.network.BaseRequest.OnAuthFailedListener;
 import org.wordpress.android.fluxc.network.BaseRequest.OnParseErrorListener;
+import org.wordpress.android.fluxc.network.RequestCoalescer;
 import org.wordpress.android.fluxc.network.UserAgent;
+import org.wordpress.android.fluxc.network.rest.OkHttpGsonRequestExecutor;
+import org.wordpress.android.fluxc.network.rest.OkHttpGsonRequestExecutor.ExecutingRequest;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.OnJetpackTimeoutError;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.OnJetpackTunnelTimeoutListener;
 import org.wordpress.android.fluxc.network.rest.wpcom.account.AccountSocialRequest;
@@ -20,6 +23,11 @@ import org.wordpress.android.fluxc.utils.ErrorUtils.OnUnexpectedError;
 import org.wordpress.android.util.LanguageUtils;
 
 public abstract class BaseWPComRestClient {
+    // Shared by all the WP.com clients, so identical requests are coalesced whichever client sends them. Requests
+    // run by an OkHttpGsonRequestExecutor have their own, since their listeners aren't called on the main thread.
+    private static final RequestCoalescer REQUEST_COALESCER = new RequestCoalescer();
+    private static final RequestCoalescer ASYNC_REQUEST_COALESCER = new RequestCoalescer();
+
     private AccessToken mAccessToken;
     private final RequestQueue mRequestQueue;
 
@@ -71,6 +79,19 @@ public abstract class BaseWPComRestClient {
         return addRequest(setRequestAuthParams(request, true));
     }
 
+    /**
+     * Sets up the request the same way {@link #add(WPComGsonRequest)} does, but runs it with the given executor
+     * instead of the request queue.
+     */
+    protected ExecutingRequest enqueue(WPComGsonRequest request, OkHttpGsonRequestExecutor executor) {
+        request.addQueryParameter("locale", LanguageUtils.getPatchedCurrentDeviceLanguage(mAppContext));
+        setRequestAuthParams(request, true);
+        if (ASYNC_REQUEST_COALESCER.coalesce(request)) {
+            return new ExecutingRequest(request);
+        }
+        return executor.enqueue(request);
+    }
+
     protected Request addUnauthedRequest(AccountSocialRequest request) {
         // Add "locale=xx_XX" query parameter to all request by default
         return addUnauthedRequest(request, true);
@@ -97,6 +118,21 @@ public abstract class BaseWPComRestClient {
         return addRequest(setRequestAuthParams(request, false));
     }
 
+    /**
+     * Returns the {@link RequestCoalescer} of the WP.com requests added to the request queue, which counts how many
+     * of them were coalesced.
+     */
+    public static RequestCoalescer getRequestCoalescer() {
+        return REQUEST_COALESCER;
+    }
+
+    /**
+     * Returns the {@link RequestCoalescer} of the WP.com requests run by an {@link OkHttpGsonRequestExecutor}.
+     */
+    public static RequestCoalescer getAsyncRequestCoalescer() {
+        return ASYNC_REQUEST_COALESCER;
+    }
+
     protected AccessToken getAccessToken() {
         return mAccessToken;
     }
@@ -114,6 +150,9 @@ public abstract class BaseWPComRestClient {
         if (request.shouldCache() && request.shouldForceUpdate()) {
             mRequestQueue.getCache().invalidate(request.mUri.toString(), true);
         }
+        if (REQUEST_COALESCER.coalesce(request)) {
+            return request;
+        }
         return mRequestQueue.add(request);
     }
 }
@@ -1,17 +1,18 @@
 package org.wordpress.android.fluxc.network.rest.wpcom
 
+import kotlinx.coroutines.suspendCancellableCoroutine
 import org.wordpress.android.fluxc.network.BaseRequest
+import org.wordpress.android.fluxc.network.rest.OkHttpGsonRequestExecutor
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComGsonNetworkError
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequestBuilder.Response.Error
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequestBuilder.Response.Success
 import javax.inject.Inject
 import javax.inject.Singleton
 import kotlin.coroutines.resume
-import kotlin.coroutines.suspendCoroutine
 
 @Singleton
 class WPComGsonRequestBuilder
-@Inject constructor() {
+@Inject constructor(private val requestExecutor: OkHttpGsonRequestExecutor) {
     /**
      * Creates a new GET request.
      * @param url the request URL
@@ -31,7 +32,8 @@ class WPComGsonRequestBuilder
     }
 
     /**
-     * Creates a new GET request.
+     * Creates a new GET request, triggers it and awaits results synchronously. Cancelling the coroutine cancels the
+     * request. Requests with caching enabled go through the Volley queue, which holds the cache.
      * @param restClient rest client that handles the request
      * @param url the request URL
      * @param params the parameters to append to the request URL
@@ -45,7 +47,7 @@ class WPComGsonRequestBuilder
         enableCaching: Boolean = false,
         cacheTimeToLive: Int = BaseRequest.DEFAULT_CACHE_LIFETIME,
         forced: Boolean = false
-    ) = suspendCoroutine<Response<T>> { cont ->
+    ) = suspendCancellableCoroutine<Response<T>> { cont ->
         val request = WPComGsonRequest.buildGetRequest(url, params, clazz, {
             cont.resume(Success(it))
         }, {
@@ -53,11 +55,15 @@ class WPComGsonRequestBuilder
         })
         if (enableCaching) {
             request.enableCaching(cacheTimeToLive)
+            if (forced) {
+                request.setShouldForceUpdate()
+            }
+            restClient.add(request)
+            cont.invokeOnCancellation { request.cancel() }
+        } else {
+            val executingRequest = restClient.enqueue(request, requestExecutor)
+            cont.invokeOnCancellation { executingRequest.cancel() }
         }
-        if (forced) {
-            request.setShouldForceUpdate()
-        }
-        restClient.add(request)
     }
 
     /**
@@ -79,7 +85,8 @@ class WPComGsonRequestBuilder
     }
 
     /**
-     * Creates a new JSON-formatted POST request, triggers it and awaits results synchronously.
+     * Creates a new JSON-formatted POST request, triggers it and awaits results synchronously. Cancelling the coroutine
+     * cancels the request.
      * @param restClient rest client that handles the request
      * @param url the request URL
      * @param body the content body, which will be converted to JSON using [Gson][com.google.gson.Gson]
@@ -90,12 +97,14 @@ class WPComGsonRequestBuilder
         url: String,
         body: Map<String, Any>,
         clazz: Class<T>
-    ) = suspendCoroutine<Response<T>> { cont ->
-        restClient.add(WPComGsonRequest.buildPostRequest(url, body, clazz, {
+    ) = suspendCancellableCoroutine<Response<T>> { cont ->
+        val request = WPComGsonRequest.buildPostRequest(url, body, clazz, {
             cont.resume(Success(it))
         }, {
             cont.resume(Error(it))
-        }))
+        })
+        val executingRequest = restClient.enqueue(request, requestExecutor)
+        cont.invokeOnCancellation { executingRequest.cancel() }
     }
 
     sealed class Response<T> {
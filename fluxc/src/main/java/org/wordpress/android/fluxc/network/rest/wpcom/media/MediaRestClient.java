@@ -2,6 +2,7 @@ package org.wordpress.android.fluxc.network.rest.wpcom.media;
 
 import android.content.Context;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.text.TextUtils;
 
 import com.android.volley.RequestQueue;
@@ -24,6 +25,7 @@ import org.wordpress.android.fluxc.model.MediaModel.MediaUploadState;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.StockMediaModel;
 import org.wordpress.android.fluxc.network.BaseUploadRequestBody.ProgressListener;
+import org.wordpress.android.fluxc.network.MediaUploadRetryHandler;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.rest.wpcom.BaseWPComRestClient;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest;
@@ -82,6 +84,7 @@ public class MediaRestClient extends BaseWPComRestClient implements ProgressList
     // this will hold which media is being uploaded by which call, in order to be able
     // to monitor multiple uploads
     private ConcurrentHashMap<Integer, Call> mCurrentUploadCalls = new ConcurrentHashMap<>();
+    private MediaUploadRetryHandler mUploadRetryHandler;
 
     public MediaRestClient(Context appContext, Dispatcher dispatcher, RequestQueue requestQueue,
                            OkHttpClient okHttpClient, AccessToken accessToken, UserAgent userAgent) {
@@ -363,6 +366,10 @@ public class MediaRestClient extends BaseWPComRestClient implements ProgressList
             ));
     }
 
+    public void setUploadRetryHandler(@Nullable MediaUploadRetryHandler uploadRetryHandler) {
+        mUploadRetryHandler = uploadRetryHandler;
+    }
+
     public void cancelUpload(final MediaModel media) {
         if (media == null) {
             MediaError error = new MediaError(MediaErrorType.NULL_MEDIA_ARG);
@@ -492,6 +499,12 @@ public class MediaRestClient extends BaseWPComRestClient implements ProgressList
     }
 
     private void notifyMediaUploaded(MediaModel media, MediaError error) {
+        if (media != null && error != null && mUploadRetryHandler != null
+            && mUploadRetryHandler.retryUpload(media, error)) {
+            removeCallFromCurrentUploadsMap(media.getId());
+            return;
+        }
+
         if (media != null) {
             media.setUploadState(error == null ? MediaUploadState.UPLOADED : MediaUploadState.FAILED);
             removeCallFromCurrentUploadsMap(media.getId());
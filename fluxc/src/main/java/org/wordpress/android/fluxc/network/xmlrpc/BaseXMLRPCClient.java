@@ -9,6 +9,7 @@ import org.wordpress.android.fluxc.network.BaseRequest;
 import org.wordpress.android.fluxc.network.BaseRequest.OnAuthFailedListener;
 import org.wordpress.android.fluxc.network.BaseRequest.OnParseErrorListener;
 import org.wordpress.android.fluxc.network.HTTPAuthManager;
+import org.wordpress.android.fluxc.network.RequestCoalescer;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.discovery.DiscoveryRequest;
 import org.wordpress.android.fluxc.network.discovery.DiscoveryXMLRPCRequest;
@@ -16,6 +17,9 @@ import org.wordpress.android.fluxc.store.AccountStore.AuthenticateErrorPayload;
 import org.wordpress.android.fluxc.utils.ErrorUtils.OnUnexpectedError;
 
 public abstract class BaseXMLRPCClient {
+    // Shared by all the XML-RPC clients, so identical calls are coalesced whichever client sends them
+    private static final RequestCoalescer REQUEST_COALESCER = new RequestCoalescer();
+
     private final RequestQueue mRequestQueue;
     protected final Dispatcher mDispatcher;
     protected UserAgent mUserAgent;
@@ -48,7 +52,11 @@ public abstract class BaseXMLRPCClient {
         if (request.shouldCache() && request.shouldForceUpdate()) {
             mRequestQueue.getCache().invalidate(request.mUri.toString(), true);
         }
-        return mRequestQueue.add(setRequestAuthParams(request));
+        setRequestAuthParams(request);
+        if (REQUEST_COALESCER.coalesce(request)) {
+            return request;
+        }
+        return mRequestQueue.add(request);
     }
 
     protected Request add(DiscoveryRequest request) {
@@ -59,6 +67,13 @@ public abstract class BaseXMLRPCClient {
         return mRequestQueue.add(setRequestAuthParams(request));
     }
 
+    /**
+     * Returns the {@link RequestCoalescer} of the XML-RPC requests, which counts how many of them were coalesced.
+     */
+    public static RequestCoalescer getRequestCoalescer() {
+        return REQUEST_COALESCER;
+    }
+
     private BaseRequest setRequestAuthParams(BaseRequest request) {
         request.setOnAuthFailedListener(mOnAuthFailedListener);
         request.setOnParseErrorListener(mOnParseErrorListener);
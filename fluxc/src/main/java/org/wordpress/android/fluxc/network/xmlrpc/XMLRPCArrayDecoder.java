@@ -0,0 +1,33 @@
+package org.wordpress.android.fluxc.network.xmlrpc;
+
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes an XML-RPC array with the given element decoder. The list has one entry per array element, including the
+ * nulls returned by the element decoder, so that callers can still tell how many elements the server returned.
+ * Returns null if the value isn't an array.
+ */
+public class XMLRPCArrayDecoder<T> implements XMLRPCDecoder<List<T>> {
+    private final XMLRPCDecoder<T> mElementDecoder;
+
+    public XMLRPCArrayDecoder(XMLRPCDecoder<T> elementDecoder) {
+        mElementDecoder = elementDecoder;
+    }
+
+    @Override
+    public List<T> decode(XMLRPCReader reader) throws IOException, XmlPullParserException {
+        if (!reader.beginArray()) {
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        while (reader.hasNext()) {
+            list.add(mElementDecoder.decode(reader));
+        }
+        reader.endArray();
+        return list;
+    }
+}
@@ -0,0 +1,12 @@
+package org.wordpress.android.fluxc.network.xmlrpc;
+
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+
+/**
+ * Decodes the value of an XML-RPC response straight into a model, see {@link XMLRPCReader}.
+ */
+public interface XMLRPCDecoder<T> {
+    T decode(XMLRPCReader reader) throws IOException, XmlPullParserException;
+}
@@ -0,0 +1,246 @@
+package org.wordpress.android.fluxc.network.xmlrpc;
+
+import android.support.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.SimpleTimeZone;
+
+/**
+ * Reads an XML-RPC value one token at a time, straight from the {@link XmlPullParser} events, in the spirit of
+ * Gson's JsonReader. Unlike {@link XMLRPCSerializer#deserialize(XmlPullParser)}, nothing is materialized unless it's
+ * read: skipped values and struct members are never turned into Strings, boxed numbers or Maps.
+ *
+ * Every value method expects the reader to be positioned on a {@code <value>}: the root value of the response, an
+ * array element after {@link #hasNext()} returned true, or a struct member after {@link #nextName()}. Scalar readers
+ * are lenient, like {@link org.wordpress.android.util.MapUtils}: they return their default value (after skipping it)
+ * when the value has an unexpected type, instead of failing the whole response.
+ */
+public class XMLRPCReader {
+    private final XmlPullParser mParser;
+    // True when hasNext() already moved the parser to the next element
+    private boolean mPeeked;
+    private SimpleDateFormat mDateFormat;
+
+    public XMLRPCReader(XmlPullParser parser) {
+        mParser = parser;
+    }
+
+    /**
+     * Enters the array value, or skips the value and returns false if it isn't an array.
+     */
+    public boolean beginArray() throws IOException, XmlPullParserException {
+        if (!openContainer(XMLRPCSerializer.TYPE_ARRAY)) {
+            return false;
+        }
+        mParser.nextTag();
+        mParser.require(XmlPullParser.START_TAG, null, XMLRPCSerializer.TAG_DATA);
+        return true;
+    }
+
+    public void endArray() throws IOException, XmlPullParserException {
+        peek();
+        mParser.require(XmlPullParser.END_TAG, null, XMLRPCSerializer.TAG_DATA);
+        mParser.nextTag();
+        mParser.require(XmlPullParser.END_TAG, null, XMLRPCSerializer.TYPE_ARRAY);
+        closeValue();
+    }
+
+    /**
+     * Enters the struct value, or skips the value and returns false if it isn't a struct.
+     */
+    public boolean beginStruct() throws IOException, XmlPullParserException {
+        return openContainer(XMLRPCSerializer.TYPE_STRUCT);
+    }
+
+    public void endStruct() throws IOException, XmlPullParserException {
+        peek();
+        mParser.require(XmlPullParser.END_TAG, null, XMLRPCSerializer.TYPE_STRUCT);
+        closeValue();
+    }
+
+    /**
+     * Returns true if the current array has another element, or the current struct has another member.
+     */
+    public boolean hasNext() throws IOException, XmlPullParserException {
+        peek();
+        return mParser.getEventType() == XmlPullParser.START_TAG;
+    }
+
+    /**
+     * Returns the name of the next struct member, and positions the reader on its value.
+     */
+    public String nextName() throws IOException, XmlPullParserException {
+        peek();
+        mParser.require(XmlPullParser.START_TAG, null, XMLRPCSerializer.TAG_MEMBER);
+        mPeeked = false;
+        mParser.nextTag();
+        mParser.require(XmlPullParser.START_TAG, null, XMLRPCSerializer.TAG_NAME);
+        String name = mParser.nextText();
+        mParser.nextTag();
+        mParser.require(XmlPullParser.START_TAG, null, XMLRPCSerializer.TAG_VALUE);
+        return name;
+    }
+
+    /**
+     * Returns the text of a scalar value whatever its type, or null if the value is an array or a struct.
+     */
+    public @Nullable String nextString() throws IOException, XmlPullParserException {
+        String type = openValue();
+        if (isContainer(type)) {
+            skipElement();
+            closeValue();
+            return null;
+        }
+        String text = mParser.nextText();
+        closeValue();
+        return text;
+    }
+
+    public long nextLong(long defaultValue) throws IOException, XmlPullParserException {
+        String text = nextString();
+        if (text == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public int nextInt(int defaultValue) throws IOException, XmlPullParserException {
+        long value = nextLong(defaultValue);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return defaultValue;
+        }
+        return (int) value;
+    }
+
+    /**
+     * Returns the date of a {@code dateTime.iso8601} value, or null if the value is of another type or can't be parsed.
+     */
+    public @Nullable Date nextDate() throws IOException, XmlPullParserException {
+        String type = openValue();
+        if (!XMLRPCSerializer.TYPE_DATE_TIME_ISO8601.equals(type)) {
+            skipElement();
+            closeValue();
+            return null;
+        }
+        String text = mParser.nextText();
+        closeValue();
+        try {
+            return getDateFormat().parse(text);
+        } catch (ParseException e) {
+            AppLog.e(T.API, "Can't parse Date:" + text, e);
+            return null;
+        }
+    }
+
+    /**
+     * Materializes the whole value the same way {@link XMLRPCSerializer#deserialize(XmlPullParser)} does, for the
+     * rare members that are still consumed as Maps.
+     */
+    public Object nextValue() throws IOException, XmlPullParserException {
+        peek();
+        mPeeked = false;
+        return XMLRPCSerializer.deserialize(mParser);
+    }
+
+    public void skipValue() throws IOException, XmlPullParserException {
+        peek();
+        mParser.require(XmlPullParser.START_TAG, null, XMLRPCSerializer.TAG_VALUE);
+        mPeeked = false;
+        skipElement();
+    }
+
+    private void peek() throws IOException, XmlPullParserException {
+        if (mPeeked) {
+            return;
+        }
+        int event = mParser.getEventType();
+        if (event == XmlPullParser.END_TAG && XMLRPCSerializer.TAG_VALUE.equals(mParser.getName())) {
+            // A value was just read: move on to the next element, past the end of its struct member if any
+            mParser.nextTag();
+            if (mParser.getEventType() == XmlPullParser.END_TAG
+                    && XMLRPCSerializer.TAG_MEMBER.equals(mParser.getName())) {
+                mParser.nextTag();
+            }
+        } else if (event == XmlPullParser.START_TAG && !XMLRPCSerializer.TAG_VALUE.equals(mParser.getName())) {
+            // Just entered an array's <data> or a <struct>
+            mParser.nextTag();
+        }
+        mPeeked = true;
+    }
+
+    /**
+     * Moves from the {@code <value>} to its type element, and returns the type.
+     */
+    private String openValue() throws IOException, XmlPullParserException {
+        peek();
+        mParser.require(XmlPullParser.START_TAG, null, XMLRPCSerializer.TAG_VALUE);
+        mPeeked = false;
+        mParser.nextTag();
+        return mParser.getName();
+    }
+
+    private boolean openContainer(String containerType) throws IOException, XmlPullParserException {
+        String type = openValue();
+        if (!containerType.equals(type)) {
+            skipElement();
+            closeValue();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Moves from the end of the type element to the end of its {@code <value>}.
+     */
+    private void closeValue() throws IOException, XmlPullParserException {
+        mParser.nextTag();
+        mParser.require(XmlPullParser.END_TAG, null, XMLRPCSerializer.TAG_VALUE);
+        mPeeked = false;
+    }
+
+    /**
+     * Skips the element the parser is on, without reading its text, and stops on its end tag.
+     */
+    private void skipElement() throws IOException, XmlPullParserException {
+        int depth = 1;
+        while (depth > 0) {
+            switch (mParser.next()) {
+                case XmlPullParser.START_TAG:
+                    depth++;
+                    break;
+                case XmlPullParser.END_TAG:
+                    depth--;
+                    break;
+                case XmlPullParser.END_DOCUMENT:
+                    throw new XmlPullParserException("Unexpected end of XMLRPC response");
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static boolean isContainer(String type) {
+        return XMLRPCSerializer.TYPE_ARRAY.equals(type) || XMLRPCSerializer.TYPE_STRUCT.equals(type);
+    }
+
+    private SimpleDateFormat getDateFormat() {
+        if (mDateFormat == null) {
+            mDateFormat = new SimpleDateFormat("yyyyMMdd'T'HH:mm:ss", Locale.US);
+            mDateFormat.setTimeZone(new SimpleTimeZone(0, "GMT"));
+        }
+        return mDateFormat;
+    }
+}
@@ -1,7 +1,6 @@
 package org.wordpress.android.fluxc.network.xmlrpc;
 
 import android.support.annotation.NonNull;
-import android.util.Xml;
 
 import com.android.volley.AuthFailureError;
 import com.android.volley.NetworkResponse;
@@ -13,36 +12,48 @@ import com.android.volley.toolbox.HttpHeaderParser;
 
 import org.wordpress.android.fluxc.generated.endpoint.XMLRPC;
 import org.wordpress.android.fluxc.network.BaseRequest;
+import org.wordpress.android.fluxc.network.StreamingRequest;
 import org.wordpress.android.fluxc.store.AccountStore.AuthenticateErrorPayload;
 import org.wordpress.android.fluxc.store.AccountStore.AuthenticationErrorType;
 import org.wordpress.android.fluxc.utils.ErrorUtils.OnUnexpectedError;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.xmlpull.v1.XmlPullParserException;
-import org.xmlpull.v1.XmlSerializer;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
-import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
+import java.util.TreeMap;
 
-// TODO: Would be great to use generics / return POJO or model direclty (see GSON code?)
-public class XMLRPCRequest extends BaseRequest<Object> {
+import okhttp3.RequestBody;
+import okio.Buffer;
+
+public class XMLRPCRequest extends BaseRequest<Object> implements StreamingRequest {
     private static final String PROTOCOL_CHARSET = "utf-8";
     private static final String PROTOCOL_CONTENT_TYPE = String.format("text/xml; charset=%s", PROTOCOL_CHARSET);
 
-    private final Listener<? super Object[]> mListener;
+    private final Listener<?> mListener;
+    private final XMLRPCDecoder<?> mDecoder;
     private final XMLRPC mMethod;
     private final Object[] mParams;
-    private final XmlSerializer mSerializer = Xml.newSerializer();
 
     public XMLRPCRequest(String url, XMLRPC method, List<Object> params, Listener<? super Object[]> listener,
                          BaseErrorListener errorListener) {
+        this(url, method, params, (XMLRPCDecoder<Object[]>) null, listener, errorListener);
+    }
+
+    /**
+     * Creates a request whose response is decoded straight into a model by the given {@link XMLRPCDecoder}, instead
+     * of being deserialized into Object/Map trees.
+     */
+    public <T> XMLRPCRequest(String url, XMLRPC method, List<Object> params, XMLRPCDecoder<T> decoder,
+                             Listener<? super T> listener, BaseErrorListener errorListener) {
         super(Method.POST, url, errorListener);
         mListener = listener;
+        mDecoder = decoder;
         mMethod = method;
         // First params are always username/password
         mParams = (params == null ? null : params.toArray());
@@ -50,15 +61,33 @@ public class XMLRPCRequest extends BaseRequest<Object> {
 
     @Override
     protected void deliverResponse(Object response) {
-        deliverResponse(mListener, response);
+        if (deliverResponseToCoalescedRequests(response)) {
+            deliverResponse(mListener, response);
+        }
+    }
+
+    /**
+     * Calls to read-only XML-RPC methods can be coalesced. The key includes the params, which start with the
+     * credentials, and the decoder, since it decides what the response is decoded into.
+     */
+    @Override
+    public String getCoalescingKey() {
+        String method = mMethod.toString();
+        if (shouldCache() || !(method.startsWith("wp.get") || method.equals(XMLRPC.LIST_METHODS.toString()))) {
+            return null;
+        }
+        return "POST " + getUrl() + " " + new TreeMap<>(getHeaders()) + " " + method + " "
+               + Arrays.deepToString(mParams) + " " + (mDecoder != null ? mDecoder.getClass().getName() : "");
     }
 
     @Override
     protected Response<Object> parseNetworkResponse(NetworkResponse response) {
         try {
-            String data = new String(response.data, HttpHeaderParser.parseCharset(response.headers));
-            InputStream is = new ByteArrayInputStream(data.getBytes(Charset.forName("UTF-8")));
-            Object obj = XMLSerializerUtils.deserialize(XMLSerializerUtils.scrubXmlResponse(is));
+            // Parse the response bytes directly in the response charset, without intermediate String/byte[] copies
+            InputStream is = XMLSerializerUtils.scrubXmlResponse(new ByteArrayInputStream(response.data));
+            String charset = HttpHeaderParser.parseCharset(response.headers);
+            Object obj = mDecoder != null ? XMLSerializerUtils.deserialize(is, charset, mDecoder)
+                    : XMLSerializerUtils.deserialize(is, charset);
             return Response.success(obj, createCacheEntry(response));
         } catch (XMLRPCFault e) {
             return Response.error(new VolleyError(e));
@@ -83,17 +112,22 @@ public class XMLRPCRequest extends BaseRequest<Object> {
 
     @Override
     public byte[] getBody() throws AuthFailureError {
+        // Only used by stacks other than OkHttpStack, which streams getRequestBody() instead
         try {
-            StringWriter stringWriter = XMLSerializerUtils.serialize(mSerializer, mMethod, mParams);
-            return stringWriter.toString().getBytes("UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            AppLog.e(T.API, "Can't encode XMLRPC request", e);
+            Buffer buffer = new Buffer();
+            XMLSerializerUtils.serialize(buffer, mMethod, mParams);
+            return buffer.readByteArray();
         } catch (IOException e) {
             AppLog.e(T.API, "Can't serialize XMLRPC request", e);
         }
         return null;
     }
 
+    @Override
+    public RequestBody getRequestBody() {
+        return new XMLRPCRequestBody(mMethod, mParams);
+    }
+
     @Override
     public BaseNetworkError deliverBaseNetworkError(@NonNull BaseNetworkError error) {
         AuthenticateErrorPayload payload = new AuthenticateErrorPayload(AuthenticationErrorType.GENERIC_ERROR);
@@ -139,8 +173,9 @@ public class XMLRPCRequest extends BaseRequest<Object> {
     private <K> void deliverResponse(final Listener<K> listener, Object rawResponse) {
         // The XMLRPCSerializer always returns an Object - it's up to the client making the request to know whether
         // it's really an Object[] (i.e., when requesting a list of values from the API).
-        // We've already restricted the Listener parameterization to Object and Object[], so we know this is returning
-        // a 'safe' type - but it's still up to the client to know if an Object or an Object[] is the expected response.
+        // We've already restricted the Listener parameterization to Object and Object[] (or to the decoded type when
+        // an XMLRPCDecoder is used), so we know this is returning a 'safe' type - but it's still up to the client to
+        // know if an Object or an Object[] is the expected response.
         // So, we're matching the parsed response to the Listener parameter we were given, trusting that the network
         // client knows what it's doing
         @SuppressWarnings("unchecked") K response = (K) rawResponse;
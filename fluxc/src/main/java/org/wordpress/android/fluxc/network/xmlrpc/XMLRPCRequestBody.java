@@ -0,0 +1,81 @@
+package org.wordpress.android.fluxc.network.xmlrpc;
+
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.fluxc.generated.endpoint.XMLRPC;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Sink;
+import okio.Timeout;
+
+/**
+ * Serializes an XML-RPC method call straight to the connection, so the request body never exists in memory as a
+ * whole. The content length is computed by a first serialization pass that only counts bytes, which keeps the request
+ * length-delimited rather than chunked (some self-hosted servers reject chunked requests).
+ */
+public class XMLRPCRequestBody extends RequestBody {
+    private static final MediaType MEDIA_TYPE = MediaType.parse("text/xml; charset=utf-8");
+
+    private final XMLRPC mMethod;
+    private final Object[] mParams;
+    private long mContentLength = -1;
+
+    public XMLRPCRequestBody(XMLRPC method, Object[] params) {
+        mMethod = method;
+        mParams = params;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        if (mContentLength == -1) {
+            ByteCountingSink countingSink = new ByteCountingSink();
+            BufferedSink sink = Okio.buffer(countingSink);
+            XMLSerializerUtils.serialize(sink, mMethod, mParams);
+            sink.close();
+            mContentLength = countingSink.mByteCount;
+        }
+        return mContentLength;
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        XMLSerializerUtils.serialize(sink, mMethod, mParams);
+    }
+
+    /**
+     * Counts and discards everything written to it.
+     */
+    private static class ByteCountingSink implements Sink {
+        private long mByteCount;
+
+        @Override
+        public void write(@NonNull Buffer source, long byteCount) throws IOException {
+            mByteCount += byteCount;
+            source.skip(byteCount);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
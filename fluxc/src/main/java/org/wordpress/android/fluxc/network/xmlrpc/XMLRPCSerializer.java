@@ -2,18 +2,15 @@ package org.wordpress.android.fluxc.network.xmlrpc;
 
 import android.text.TextUtils;
 import android.util.Base64;
-import android.util.Xml;
 
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.StringUtils;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
-import org.xmlpull.v1.XmlSerializer;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.StringReader;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -21,21 +18,15 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.SimpleTimeZone;
 
-public class XMLRPCSerializer {
-    // Writes to /dev/null
-    private static class NullOutputStream extends OutputStream {
-        @Override
-        public void write(int b) throws IOException {
-        }
-    }
+import okio.BufferedSink;
 
+public class XMLRPCSerializer {
     public static final String TAG_NAME = "name";
     public static final String TAG_MEMBER = "member";
     public static final String TAG_VALUE = "value";
@@ -55,146 +46,192 @@ public class XMLRPCSerializer {
     static SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd'T'HH:mm:ss", Locale.US);
     static Calendar cal = Calendar.getInstance(new SimpleTimeZone(0, "GMT"));
 
-    private static final XmlSerializer SERIALIZE_TESTER;
-
-    static {
-        SERIALIZE_TESTER = Xml.newSerializer();
-        try {
-            SERIALIZE_TESTER.setOutput(new NullOutputStream(), "UTF-8");
-        } catch (IllegalArgumentException e) {
-            AppLog.e(T.API, "IllegalArgumentException setting test serializer output stream", e);
-        } catch (IllegalStateException e) {
-            AppLog.e(T.API, "IllegalStateException setting test serializer output stream", e);
-        } catch (IOException e) {
-            AppLog.e(T.API, "IOException setting test serializer output stream", e);
-        }
-    }
-
+    /**
+     * Writes the XML-RPC representation of the given value (without the enclosing {@code <value>} tag) to the sink.
+     */
     @SuppressWarnings("unchecked")
-    public static void serialize(XmlSerializer serializer, Object object) throws IOException {
+    public static void serialize(BufferedSink sink, Object object) throws IOException {
         // check for scalar types:
         if (object instanceof Integer || object instanceof Short || object instanceof Byte) {
-            serializer.startTag(null, TYPE_I4).text(object.toString()).endTag(null, TYPE_I4);
+            writeScalar(sink, TYPE_I4, object.toString());
         } else if (object instanceof Long) {
             // Note Long should be represented by a TYPE_I8 but the WordPress end point doesn't support <i8> tag
             // Long usually represents IDs, so we convert them to string
-            serializer.startTag(null, TYPE_STRING).text(object.toString()).endTag(null, TYPE_STRING);
+            writeScalar(sink, TYPE_STRING, object.toString());
             AppLog.w(T.API, "long type could be misinterpreted when sent to the WordPress XMLRPC end point");
         } else if (object instanceof Double || object instanceof Float) {
-            serializer.startTag(null, TYPE_DOUBLE).text(object.toString()).endTag(null, TYPE_DOUBLE);
+            writeScalar(sink, TYPE_DOUBLE, object.toString());
         } else if (object instanceof Boolean) {
             Boolean bool = (Boolean) object;
             String boolStr = bool.booleanValue() ? "1" : "0";
-            serializer.startTag(null, TYPE_BOOLEAN).text(boolStr).endTag(null, TYPE_BOOLEAN);
+            writeScalar(sink, TYPE_BOOLEAN, boolStr);
         } else if (object instanceof String) {
-            serializer.startTag(null, TYPE_STRING).text(makeValidInputString((String) object))
-                    .endTag(null, TYPE_STRING);
+            writeStartTag(sink, TYPE_STRING);
+            writeEscaped(sink, makeValidInputString((String) object));
+            writeEndTag(sink, TYPE_STRING);
         } else if (object instanceof Date || object instanceof Calendar) {
-            Date date = (Date) object;
+            Date date = object instanceof Calendar ? ((Calendar) object).getTime() : (Date) object;
             SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyyMMdd'T'HH:mm:ss", Locale.US);
-            simpleDateFormat.setCalendar(cal);
-            String sDate = simpleDateFormat.format(date);
-            serializer.startTag(null, TYPE_DATE_TIME_ISO8601).text(sDate).endTag(null, TYPE_DATE_TIME_ISO8601);
+            simpleDateFormat.setTimeZone(new SimpleTimeZone(0, "GMT"));
+            writeScalar(sink, TYPE_DATE_TIME_ISO8601, simpleDateFormat.format(date));
         } else if (object instanceof byte[]) {
             String value;
             try {
                 value = Base64.encodeToString((byte[]) object, Base64.DEFAULT);
-                serializer.startTag(null, TYPE_BASE64).text(value).endTag(null, TYPE_BASE64);
+                writeScalar(sink, TYPE_BASE64, value);
             } catch (OutOfMemoryError e) {
                 throw new IOException("Out of memory");
             }
-//        } else if (object instanceof MediaFile) {
-//            // convert media file binary to base64
-//            serializer.startTag(null, "base64");
-//            MediaFile mediaFile = (MediaFile) object;
-//            InputStream inStream = new DataInputStream(new FileInputStream(mediaFile.getFilePath()));
-//            byte[] buffer = new byte[3600];//you must use a 24bit multiple
-//            int length = -1;
-//            String chunk = null;
-//            while ((length = inStream.read(buffer)) > 0) {
-//                chunk = Base64.encodeToString(buffer, 0, length, Base64.DEFAULT);
-//                serializer.text(chunk);
-//            }
-//            inStream.close();
-//            serializer.endTag(null, "base64");
         } else if (object instanceof List<?>) {
-            serializer.startTag(null, TYPE_ARRAY).startTag(null, TAG_DATA);
+            writeStartTag(sink, TYPE_ARRAY);
+            writeStartTag(sink, TAG_DATA);
             List<Object> list = (List<Object>) object;
-            Iterator<Object> iter = list.iterator();
-            while (iter.hasNext()) {
-                Object o = iter.next();
-                serializer.startTag(null, TAG_VALUE);
-                serialize(serializer, o);
-                serializer.endTag(null, TAG_VALUE);
+            for (Object o : list) {
+                writeValue(sink, o);
             }
-            serializer.endTag(null, TAG_DATA).endTag(null, TYPE_ARRAY);
+            writeEndTag(sink, TAG_DATA);
+            writeEndTag(sink, TYPE_ARRAY);
         } else if (object instanceof Object[]) {
-            serializer.startTag(null, TYPE_ARRAY).startTag(null, TAG_DATA);
+            writeStartTag(sink, TYPE_ARRAY);
+            writeStartTag(sink, TAG_DATA);
             Object[] objects = (Object[]) object;
-            for (int i = 0; i < objects.length; i++) {
-                Object o = objects[i];
-                serializer.startTag(null, TAG_VALUE);
-                serialize(serializer, o);
-                serializer.endTag(null, TAG_VALUE);
+            for (Object o : objects) {
+                writeValue(sink, o);
             }
-            serializer.endTag(null, TAG_DATA).endTag(null, TYPE_ARRAY);
+            writeEndTag(sink, TAG_DATA);
+            writeEndTag(sink, TYPE_ARRAY);
         } else if (object instanceof Map) {
-            serializer.startTag(null, TYPE_STRUCT);
+            writeStartTag(sink, TYPE_STRUCT);
             Map<String, Object> map = (Map<String, Object>) object;
-            Iterator<Entry<String, Object>> iter = map.entrySet().iterator();
-            while (iter.hasNext()) {
-                Entry<String, Object> entry = iter.next();
-                String key = entry.getKey();
-                Object value = entry.getValue();
-
-                serializer.startTag(null, TAG_MEMBER);
-                serializer.startTag(null, TAG_NAME).text(key).endTag(null, TAG_NAME);
-                serializer.startTag(null, TAG_VALUE);
-                serialize(serializer, value);
-                serializer.endTag(null, TAG_VALUE);
-                serializer.endTag(null, TAG_MEMBER);
+            for (Entry<String, Object> entry : map.entrySet()) {
+                writeStartTag(sink, TAG_MEMBER);
+                writeStartTag(sink, TAG_NAME);
+                writeEscaped(sink, entry.getKey());
+                writeEndTag(sink, TAG_NAME);
+                writeValue(sink, entry.getValue());
+                writeEndTag(sink, TAG_MEMBER);
             }
-            serializer.endTag(null, TYPE_STRUCT);
+            writeEndTag(sink, TYPE_STRUCT);
         } else {
             throw new IOException("Cannot serialize " + object);
         }
     }
 
-    public static String makeValidInputString(final String input) throws IOException {
+    /**
+     * Writes the value wrapped in a {@code <value>} tag.
+     */
+    public static void writeValue(BufferedSink sink, Object object) throws IOException {
+        writeStartTag(sink, TAG_VALUE);
+        serialize(sink, object);
+        writeEndTag(sink, TAG_VALUE);
+    }
+
+    static void writeStartTag(BufferedSink sink, String tag) throws IOException {
+        sink.writeByte('<').writeUtf8(tag).writeByte('>');
+    }
+
+    static void writeEndTag(BufferedSink sink, String tag) throws IOException {
+        sink.writeByte('<').writeByte('/').writeUtf8(tag).writeByte('>');
+    }
+
+    private static void writeScalar(BufferedSink sink, String type, String text) throws IOException {
+        writeStartTag(sink, type);
+        sink.writeUtf8(text);
+        writeEndTag(sink, type);
+    }
+
+    /**
+     * Writes the text with the XML markup characters escaped, and without the characters that aren't allowed in
+     * XML 1.0. Unescaped runs of the text are written as they are, without intermediate copies.
+     */
+    static void writeEscaped(BufferedSink sink, String text) throws IOException {
+        if (text == null) {
+            return;
+        }
+        int runStart = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            String replacement;
+            if (c == '&') {
+                replacement = "&amp;";
+            } else if (c == '<') {
+                replacement = "&lt;";
+            } else if (c == '>') {
+                replacement = "&gt;";
+            } else {
+                int validLength = validXmlCharLength(text, i);
+                if (validLength > 0) {
+                    // Keep the character (or surrogate pair) in the current run
+                    i += validLength - 1;
+                    continue;
+                }
+                // Drop the invalid character
+                replacement = "";
+            }
+            sink.writeUtf8(text, runStart, i);
+            sink.writeUtf8(replacement);
+            runStart = i + 1;
+        }
+        sink.writeUtf8(text, runStart, length);
+    }
+
+    public static String makeValidInputString(final String input) {
         if (TextUtils.isEmpty(input)) {
             return "";
         }
 
-        if (SERIALIZE_TESTER == null) {
+        // 99.9% of the time the string can be encoded as-is
+        if (isValidXmlString(input)) {
             return input;
         }
 
-        try {
-            // try to encode the string as-is, 99.9% of the time it's OK
-            SERIALIZE_TESTER.text(input);
-            return input;
-        } catch (IllegalArgumentException e) {
-            // There are characters outside the XML unicode charset as specified by the XML 1.0 standard
-            // See http://www.w3.org/TR/2000/REC-xml-20001006#NT-Char
-            AppLog.d(T.API, "There are characters outside the XML unicode charset as specified"
-                    + " by the XML 1.0 standard");
-        }
+        // There are characters outside the XML unicode charset as specified by the XML 1.0 standard
+        // See http://www.w3.org/TR/2000/REC-xml-20001006#NT-Char
+        AppLog.d(T.API, "There are characters outside the XML unicode charset as specified"
+                        + " by the XML 1.0 standard");
 
         // We need to do the following things:
         // 1. Replace surrogates with HTML Entity.
         // 2. Replace emoji with their textual versions (if available on WP)
-        // 3. Try to serialize the resulting string.
-        // 4. If it fails again, strip characters that are not allowed in XML 1.0
+        // 3. Check the resulting string again.
+        // 4. If it's still invalid, strip characters that are not allowed in XML 1.0
 
         final String noEmojiString = StringUtils.replaceUnicodeSurrogateBlocksWithHTMLEntities(input);
-        try {
-            SERIALIZE_TESTER.text(noEmojiString);
+        if (isValidXmlString(noEmojiString)) {
             return noEmojiString;
-        } catch (IllegalArgumentException e) {
-            AppLog.w(T.API, "noEmojiString still contains characters outside the XML unicode charset as specified"
-                    + " by the XML 1.0 standard");
-            return StringUtils.stripNonValidXMLCharacters(noEmojiString);
         }
+        AppLog.w(T.API, "noEmojiString still contains characters outside the XML unicode charset as specified"
+                        + " by the XML 1.0 standard");
+        return StringUtils.stripNonValidXMLCharacters(noEmojiString);
+    }
+
+    private static boolean isValidXmlString(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            int validLength = validXmlCharLength(text, i);
+            if (validLength == 0) {
+                return false;
+            }
+            i += validLength - 1;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of chars (1, or 2 for a surrogate pair) of the XML 1.0 character at the given index, or 0 if
+     * it isn't a valid XML 1.0 character.
+     */
+    private static int validXmlCharLength(String text, int index) {
+        char c = text.charAt(index);
+        if (c == 0x9 || c == 0xA || c == 0xD || (c >= 0x20 && c <= 0xD7FF) || (c >= 0xE000 && c <= 0xFFFD)) {
+            return 1;
+        }
+        if (Character.isHighSurrogate(c) && index + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(index + 1))) {
+            return 2;
+        }
+        return 0;
     }
 
     public static Object deserialize(XmlPullParser parser) throws XmlPullParserException, IOException,
@@ -4,18 +4,16 @@ import org.wordpress.android.fluxc.generated.endpoint.XMLRPC;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 import org.xmlpull.v1.XmlPullParserFactory;
-import org.xmlpull.v1.XmlSerializer;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.SequenceInputStream;
-import java.io.StringWriter;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
+import okio.BufferedSink;
+
 public class XMLSerializerUtils {
     private static final String TAG_METHOD_CALL = "methodCall";
     private static final String TAG_METHOD_NAME = "methodName";
@@ -26,38 +24,62 @@ public class XMLSerializerUtils {
     private static final String TAG_FAULT_CODE = "faultCode";
     private static final String TAG_FAULT_STRING = "faultString";
 
-    private static final int MAX_SCRUB_CHARACTERS = 5000;
+    private static final String XML_DECLARATION_LINE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
 
-    public static StringWriter serialize(XmlSerializer serializer, XMLRPC method, Object[] params)
-            throws IOException {
-        StringWriter bodyWriter = new StringWriter();
-        serializer.setOutput(bodyWriter);
+    private static final int MAX_SCRUB_CHARACTERS = 5000;
+    private static final byte[] XML_DECLARATION = {'<', '?', 'x', 'm', 'l'};
+    private static final int SCRUB_READ_SIZE = 512;
 
-        serializer.startDocument(null, null);
-        serializer.startTag(null, TAG_METHOD_CALL);
+    /**
+     * Writes the XML-RPC method call straight to the sink, see {@link XMLRPCRequestBody}.
+     */
+    public static void serialize(BufferedSink sink, XMLRPC method, Object[] params) throws IOException {
+        sink.writeUtf8(XML_DECLARATION_LINE);
+        XMLRPCSerializer.writeStartTag(sink, TAG_METHOD_CALL);
         // set method name
-        serializer.startTag(null, TAG_METHOD_NAME).text(method.toString()).endTag(null, TAG_METHOD_NAME);
+        XMLRPCSerializer.writeStartTag(sink, TAG_METHOD_NAME);
+        XMLRPCSerializer.writeEscaped(sink, method.toString());
+        XMLRPCSerializer.writeEndTag(sink, TAG_METHOD_NAME);
         if (params != null && params.length != 0) {
             // set method params
-            serializer.startTag(null, TAG_PARAMS);
-            for (int i = 0; i < params.length; i++) {
-                serializer.startTag(null, TAG_PARAM).startTag(null, XMLRPCSerializer.TAG_VALUE);
-                XMLRPCSerializer.serialize(serializer, params[i]);
-                serializer.endTag(null, XMLRPCSerializer.TAG_VALUE).endTag(null, TAG_PARAM);
+            XMLRPCSerializer.writeStartTag(sink, TAG_PARAMS);
+            for (Object param : params) {
+                XMLRPCSerializer.writeStartTag(sink, TAG_PARAM);
+                XMLRPCSerializer.writeValue(sink, param);
+                XMLRPCSerializer.writeEndTag(sink, TAG_PARAM);
             }
-            serializer.endTag(null, TAG_PARAMS);
+            XMLRPCSerializer.writeEndTag(sink, TAG_PARAMS);
         }
-        serializer.endTag(null, TAG_METHOD_CALL);
-        serializer.endDocument();
-
-        return bodyWriter;
+        XMLRPCSerializer.writeEndTag(sink, TAG_METHOD_CALL);
     }
 
     public static Object deserialize(InputStream is)
             throws IOException, XmlPullParserException, XMLRPCException {
+        return deserialize(is, "UTF-8");
+    }
+
+    public static Object deserialize(InputStream is, String charset)
+            throws IOException, XmlPullParserException, XMLRPCException {
+        return XMLRPCSerializer.deserialize(openResponseValue(is, charset));
+    }
+
+    /**
+     * Decodes the response value with the given {@link XMLRPCDecoder}, without building the intermediate
+     * Object/Map tree. Faults are still thrown as {@link XMLRPCFault}s.
+     */
+    public static <T> T deserialize(InputStream is, String charset, XMLRPCDecoder<T> decoder)
+            throws IOException, XmlPullParserException, XMLRPCException {
+        return decoder.decode(new XMLRPCReader(openResponseValue(is, charset)));
+    }
+
+    /**
+     * Returns a parser positioned on the {@code <value>} of the response, or throws the response fault.
+     */
+    private static XmlPullParser openResponseValue(InputStream is, String charset)
+            throws IOException, XmlPullParserException, XMLRPCException {
         // setup pull parser
         XmlPullParser pullParser = XmlPullParserFactory.newInstance().newPullParser();
-        pullParser.setInput(is, "UTF-8");
+        pullParser.setInput(is, charset);
 
         // lets start pulling...
         pullParser.nextTag();
@@ -70,9 +92,8 @@ public class XMLSerializerUtils {
             pullParser.nextTag(); // TAG_PARAM (<param>)
             pullParser.require(XmlPullParser.START_TAG, null, TAG_PARAM);
             pullParser.nextTag(); // TAG_VALUE (<value>)
-            // no parser.require() here since its called in XMLRPCSerializer.deserialize() below
-            // deserialize result
-            return XMLRPCSerializer.deserialize(pullParser);
+            // no parser.require() here since it's called by the value deserializers
+            return pullParser;
         } else if (tag.equals(TAG_FAULT)) {
             // fault response
             pullParser.nextTag(); // TAG_VALUE (<value>)
@@ -87,36 +108,63 @@ public class XMLSerializerUtils {
         }
     }
 
+    /**
+     * Skips anything before the xml declaration in the first {@link #MAX_SCRUB_CHARACTERS} bytes of the stream.
+     * The returned stream supports mark/reset and is positioned at the xml declaration, or at the start of the
+     * original stream if none was found.
+     */
     public static InputStream scrubXmlResponse(InputStream is) throws IOException {
         // Many WordPress configs can output junk before the xml response (php warnings for example), this cleans it.
-        int bomCheck = -1;
-        int stopper = 0;
-        while ((bomCheck = is.read()) != -1 && stopper <= MAX_SCRUB_CHARACTERS) {
-            stopper++;
-            String snippet = "";
-            // 60 == '<' character
-            if (bomCheck == 60) {
-                for (int i = 0; i < 4; i++) {
-                    byte[] chunk = new byte[1];
-                    int numRead = is.read(chunk);
-                    if (numRead > 0) {
-                        snippet += new String(chunk, "UTF-8");
-                    }
-                }
-                if (snippet.equals("?xml")) {
-                    // it's all good, add xml tag back and start parsing
-                    String start = "<" + snippet;
-                    List<InputStream> streams = Arrays.asList(new ByteArrayInputStream(start.getBytes()), is);
-                    is = new SequenceInputStream(Collections.enumeration(streams));
-                    break;
-                } else {
-                    // keep searching...
-                    List<InputStream> streams = Arrays.asList(new ByteArrayInputStream(snippet.getBytes()), is);
-                    is = new SequenceInputStream(Collections.enumeration(streams));
-                }
+        if (!is.markSupported()) {
+            is = new BufferedInputStream(is);
+        }
+        int lookahead = MAX_SCRUB_CHARACTERS + XML_DECLARATION.length;
+        byte[] window = new byte[Math.min(lookahead, SCRUB_READ_SIZE)];
+        int length = 0;
+        int declarationStart = -1;
+
+        is.mark(lookahead);
+        while (declarationStart == -1 && length < lookahead) {
+            if (length == window.length) {
+                window = Arrays.copyOf(window, Math.min(lookahead, window.length * 2));
             }
+            int read = is.read(window, length, window.length - length);
+            if (read == -1) {
+                break;
+            }
+            // The declaration might straddle the previous read
+            int searchFrom = Math.max(0, length - XML_DECLARATION.length + 1);
+            length += read;
+            declarationStart = indexOf(window, searchFrom, length, XML_DECLARATION);
         }
+        is.reset();
 
+        if (declarationStart > 0) {
+            skipFully(is, declarationStart);
+        }
         return is;
     }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte[] pattern) {
+        for (int i = from; i <= to - pattern.length; i++) {
+            int j = 0;
+            while (j < pattern.length && bytes[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void skipFully(InputStream is, long count) throws IOException {
+        while (count > 0) {
+            long skipped = is.skip(count);
+            if (skipped <= 0) {
+                throw new EOFException("Unexpected end of XMLRPC response");
+            }
+            count -= skipped;
+        }
+    }
 }
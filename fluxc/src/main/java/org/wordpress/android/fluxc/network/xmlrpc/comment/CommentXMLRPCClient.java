@@ -6,7 +6,6 @@ import android.support.annotation.Nullable;
 import com.android.volley.RequestQueue;
 import com.android.volley.Response.Listener;
 
-import org.apache.commons.text.StringEscapeUtils;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.generated.CommentActionBuilder;
 import org.wordpress.android.fluxc.generated.endpoint.XMLRPC;
@@ -19,17 +18,15 @@ import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
 import org.wordpress.android.fluxc.network.HTTPAuthManager;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.xmlrpc.BaseXMLRPCClient;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCArrayDecoder;
 import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCRequest;
-import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCUtils;
 import org.wordpress.android.fluxc.store.CommentStore.CommentError;
 import org.wordpress.android.fluxc.store.CommentStore.CommentErrorType;
 import org.wordpress.android.fluxc.store.CommentStore.FetchCommentsResponsePayload;
 import org.wordpress.android.fluxc.store.CommentStore.RemoteCommentResponsePayload;
 import org.wordpress.android.fluxc.utils.CommentErrorUtils;
-import org.wordpress.android.util.DateTimeUtils;
 
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -58,10 +55,11 @@ public class CommentXMLRPCClient extends BaseXMLRPCClient {
         params.add(commentParams);
         final XMLRPCRequest request = new XMLRPCRequest(
                 site.getXmlRpcUrl(), XMLRPC.GET_COMMENTS, params,
-                new Listener<Object>() {
+                new XMLRPCArrayDecoder<>(new CommentXMLRPCDecoder(site)),
+                new Listener<List<CommentModel>>() {
                     @Override
-                    public void onResponse(Object response) {
-                        List<CommentModel> comments = commentsResponseToCommentList(response, site);
+                    public void onResponse(List<CommentModel> response) {
+                        List<CommentModel> comments = commentsResponseToCommentList(response);
                         FetchCommentsResponsePayload payload = new FetchCommentsResponsePayload(comments, site, number,
                                 offset);
                         mDispatcher.dispatch(CommentActionBuilder.newFetchedCommentsAction(payload));
@@ -124,10 +122,10 @@ public class CommentXMLRPCClient extends BaseXMLRPCClient {
         params.add(remoteCommentId);
         final XMLRPCRequest request = new XMLRPCRequest(
                 site.getXmlRpcUrl(), XMLRPC.GET_COMMENT, params,
-                new Listener<Object>() {
+                new CommentXMLRPCDecoder(site),
+                new Listener<CommentModel>() {
                     @Override
-                    public void onResponse(Object response) {
-                        CommentModel updatedComment = commentResponseToComment(response, site);
+                    public void onResponse(CommentModel updatedComment) {
                         RemoteCommentResponsePayload payload = new RemoteCommentResponsePayload(updatedComment);
                         mDispatcher.dispatch(CommentActionBuilder.newFetchedCommentAction(payload));
                     }
@@ -289,64 +287,16 @@ public class CommentXMLRPCClient extends BaseXMLRPCClient {
         }
     }
 
-    private CommentStatus getCommentStatusFromXMLRPCStatusString(String stringStatus) {
-        // Default
-        CommentStatus status = CommentStatus.APPROVED;
-        if ("approve".equals(stringStatus)) {
-            status = CommentStatus.APPROVED;
-        } else if ("hold".equals(stringStatus)) {
-            status = CommentStatus.UNAPPROVED;
-        } else if ("spam".equals(stringStatus)) {
-            status = CommentStatus.SPAM;
-        } else if ("trash".equals(stringStatus)) {
-            status = CommentStatus.TRASH;
-        }
-        return status;
-    }
-
-    private List<CommentModel> commentsResponseToCommentList(Object response, SiteModel site) {
+    private List<CommentModel> commentsResponseToCommentList(@Nullable List<CommentModel> response) {
         List<CommentModel> comments = new ArrayList<>();
-        if (!(response instanceof Object[])) {
+        if (response == null) {
             return comments;
         }
-        Object[] responseArray = (Object[]) response;
-        for (Object commentObject : responseArray) {
-            CommentModel commentModel = commentResponseToComment(commentObject, site);
+        for (CommentModel commentModel : response) {
             if (commentModel != null) {
                 comments.add(commentModel);
             }
         }
         return comments;
     }
-
-    private CommentModel commentResponseToComment(Object commentObject, SiteModel site) {
-        if (!(commentObject instanceof HashMap)) {
-            return null;
-        }
-        HashMap<?, ?> commentMap = (HashMap<?, ?>) commentObject;
-        CommentModel comment = new CommentModel();
-
-        comment.setRemoteCommentId(XMLRPCUtils.safeGetMapValue(commentMap, "comment_id", 0L));
-        comment.setLocalSiteId(site.getId());
-        comment.setRemoteSiteId(site.getSelfHostedSiteId());
-        String stringStatus = XMLRPCUtils.safeGetMapValue(commentMap, "status", "approve");
-        comment.setStatus(getCommentStatusFromXMLRPCStatusString(stringStatus).toString());
-        Date datePublished = XMLRPCUtils.safeGetMapValue(commentMap, "date_created_gmt", new Date());
-        comment.setDatePublished(DateTimeUtils.iso8601UTCFromDate(datePublished));
-        comment.setContent(XMLRPCUtils.safeGetMapValue(commentMap, "content", ""));
-        comment.setRemoteParentCommentId(XMLRPCUtils.safeGetMapValue(commentMap, "parent", 0L));
-
-        // Author
-        comment.setAuthorUrl(XMLRPCUtils.safeGetMapValue(commentMap, "author_url", ""));
-        comment.setAuthorName(StringEscapeUtils.unescapeHtml4(XMLRPCUtils.safeGetMapValue(commentMap, "author", "")));
-        comment.setAuthorEmail(XMLRPCUtils.safeGetMapValue(commentMap, "author_email", ""));
-        // TODO: comment.setAuthorProfileImageUrl(); - get the hash from the email address?
-
-        // Post
-        comment.setRemotePostId(XMLRPCUtils.safeGetMapValue(commentMap, "post_id", 0L));
-        comment.setPostTitle(StringEscapeUtils.unescapeHtml4(XMLRPCUtils.safeGetMapValue(commentMap,
-                "post_title", "")));
-
-        return comment;
-    }
 }
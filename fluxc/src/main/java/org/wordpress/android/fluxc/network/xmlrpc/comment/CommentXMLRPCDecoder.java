@@ -0,0 +1,103 @@
+package org.wordpress.android.fluxc.network.xmlrpc.comment;
+
+import org.apache.commons.text.StringEscapeUtils;
+import org.wordpress.android.fluxc.model.CommentModel;
+import org.wordpress.android.fluxc.model.CommentStatus;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCDecoder;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCReader;
+import org.wordpress.android.util.DateTimeUtils;
+import org.wordpress.android.util.StringUtils;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Decodes a wp.getComment struct into a {@link CommentModel}, or null if the value isn't a struct.
+ */
+public class CommentXMLRPCDecoder implements XMLRPCDecoder<CommentModel> {
+    private final SiteModel mSite;
+
+    public CommentXMLRPCDecoder(SiteModel site) {
+        mSite = site;
+    }
+
+    @Override
+    public CommentModel decode(XMLRPCReader reader) throws IOException, XmlPullParserException {
+        if (!reader.beginStruct()) {
+            return null;
+        }
+        CommentModel comment = new CommentModel();
+        comment.setLocalSiteId(mSite.getId());
+        comment.setRemoteSiteId(mSite.getSelfHostedSiteId());
+        comment.setStatus(CommentStatus.APPROVED.toString());
+        Date datePublished = null;
+        comment.setContent("");
+        comment.setAuthorUrl("");
+        comment.setAuthorName("");
+        comment.setAuthorEmail("");
+        // TODO: comment.setAuthorProfileImageUrl(); - get the hash from the email address?
+        comment.setPostTitle("");
+
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "comment_id":
+                    comment.setRemoteCommentId(reader.nextLong(0));
+                    break;
+                case "status":
+                    comment.setStatus(getCommentStatusFromXMLRPCStatusString(reader.nextString()).toString());
+                    break;
+                case "date_created_gmt":
+                    datePublished = reader.nextDate();
+                    break;
+                case "content":
+                    comment.setContent(StringUtils.notNullStr(reader.nextString()));
+                    break;
+                case "parent":
+                    comment.setRemoteParentCommentId(reader.nextLong(0));
+                    break;
+                // Author
+                case "author_url":
+                    comment.setAuthorUrl(StringUtils.notNullStr(reader.nextString()));
+                    break;
+                case "author":
+                    comment.setAuthorName(StringEscapeUtils.unescapeHtml4(StringUtils.notNullStr(reader.nextString())));
+                    break;
+                case "author_email":
+                    comment.setAuthorEmail(StringUtils.notNullStr(reader.nextString()));
+                    break;
+                // Post
+                case "post_id":
+                    comment.setRemotePostId(reader.nextLong(0));
+                    break;
+                case "post_title":
+                    comment.setPostTitle(StringEscapeUtils.unescapeHtml4(StringUtils.notNullStr(reader.nextString())));
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endStruct();
+
+        comment.setDatePublished(DateTimeUtils.iso8601UTCFromDate(datePublished != null ? datePublished : new Date()));
+        return comment;
+    }
+
+    private static CommentStatus getCommentStatusFromXMLRPCStatusString(String stringStatus) {
+        // Default
+        CommentStatus status = CommentStatus.APPROVED;
+        if ("approve".equals(stringStatus)) {
+            status = CommentStatus.APPROVED;
+        } else if ("hold".equals(stringStatus)) {
+            status = CommentStatus.UNAPPROVED;
+        } else if ("spam".equals(stringStatus)) {
+            status = CommentStatus.SPAM;
+        } else if ("trash".equals(stringStatus)) {
+            status = CommentStatus.TRASH;
+        }
+        return status;
+    }
+}
@@ -1,8 +1,8 @@
 package org.wordpress.android.fluxc.network.xmlrpc.media;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.text.TextUtils;
-import android.util.Base64;
 
 import com.android.volley.RequestQueue;
 import com.android.volley.Response.Listener;
@@ -20,10 +20,11 @@ import org.wordpress.android.fluxc.network.BaseRequest;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseErrorListener;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
 import org.wordpress.android.fluxc.network.BaseUploadRequestBody.ProgressListener;
+import org.wordpress.android.fluxc.network.MediaUploadRetryHandler;
 import org.wordpress.android.fluxc.network.HTTPAuthManager;
-import org.wordpress.android.fluxc.network.HTTPAuthModel;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.xmlrpc.BaseXMLRPCClient;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCArrayDecoder;
 import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCException;
 import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCFault;
 import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCRequest;
@@ -40,15 +41,12 @@ import org.wordpress.android.util.DateTimeUtils;
 import org.wordpress.android.util.MapUtils;
 import org.xmlpull.v1.XmlPullParserException;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -75,6 +73,7 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
     // this will hold which media is being uploaded by which call, in order to be able
     // to monitor multiple uploads
     private ConcurrentHashMap<Integer, Call> mCurrentUploadCalls = new ConcurrentHashMap<>();
+    private MediaUploadRetryHandler mUploadRetryHandler;
 
     public MediaXMLRPCClient(Dispatcher dispatcher, RequestQueue requestQueue, OkHttpClient okHttpClient,
                              UserAgent userAgent, HTTPAuthManager httpAuthManager) {
@@ -162,12 +161,7 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
         HttpUrl url = urlBuilder.build();
 
         // Use the HTTP Auth Manager to check if we need HTTP Auth for this url
-        HTTPAuthModel httpAuthModel = mHTTPAuthManager.getHTTPAuthModel(xmlrpcUrl.toString());
-        String authString = null;
-        if (httpAuthModel != null) {
-            String creds = String.format("%s:%s", httpAuthModel.getUsername(), httpAuthModel.getPassword());
-            authString = "Basic " + Base64.encodeToString(creds.getBytes(), Base64.NO_WRAP);
-        }
+        String authString = mHTTPAuthManager.getAuthorizationHeader(xmlrpcUrl.toString());
 
         Builder builder = new Request.Builder()
                 .url(url)
@@ -259,17 +253,17 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
         params.add(queryParams);
 
         add(new XMLRPCRequest(site.getXmlRpcUrl(), XMLRPC.GET_MEDIA_LIBRARY, params,
-                new Listener<Object[]>() {
+                new XMLRPCArrayDecoder<>(new MediaXMLRPCDecoder()),
+                new Listener<List<MediaModel>>() {
                     @Override
-                    public void onResponse(Object[] response) {
+                    public void onResponse(List<MediaModel> response) {
                         List<MediaModel> mediaList = getMediaListFromXmlrpcResponse(response, site.getId());
                         if (mediaList != null) {
                             AppLog.v(T.MEDIA, "Fetched media list for site via XMLRPC.GET_MEDIA_LIBRARY");
                             boolean canLoadMore = mediaList.size() == number;
                             notifyMediaListFetched(site, mediaList, offset > 0, canLoadMore, mimeType);
                         } else {
-                            AppLog.w(T.MEDIA, "could not parse XMLRPC.GET_MEDIA_LIBRARY response: "
-                                    + Arrays.toString(response));
+                            AppLog.w(T.MEDIA, "could not parse XMLRPC.GET_MEDIA_LIBRARY response");
                             MediaError error = new MediaError(MediaErrorType.PARSE_ERROR);
                             notifyMediaListFetched(site, error, mimeType);
                         }
@@ -306,11 +300,11 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
 
         List<Object> params = getBasicParams(site, media);
         add(new XMLRPCRequest(site.getXmlRpcUrl(), XMLRPC.GET_MEDIA_ITEM, params,
-                new Listener<Object>() {
+                new MediaXMLRPCDecoder(),
+                new Listener<MediaModel>() {
                     @Override
-                    public void onResponse(Object response) {
+                    public void onResponse(MediaModel responseMedia) {
                         AppLog.v(T.MEDIA, "Fetched media for site via XMLRPC.GET_MEDIA_ITEM");
-                        MediaModel responseMedia = getMediaFromXmlrpcResponse((HashMap) response);
                         if (responseMedia != null) {
                             AppLog.v(T.MEDIA, "Fetched media with remoteId= " + media.getMediaId()
                                               + " localId=" + media.getId());
@@ -386,6 +380,10 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
             ));
     }
 
+    public void setUploadRetryHandler(@Nullable MediaUploadRetryHandler uploadRetryHandler) {
+        mUploadRetryHandler = uploadRetryHandler;
+    }
+
     public void cancelUpload(final MediaModel media) {
         if (media == null) {
             MediaError error = new MediaError(MediaErrorType.NULL_MEDIA_ARG);
@@ -426,6 +424,12 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
     }
 
     private void notifyMediaUploaded(MediaModel media, MediaError error) {
+        if (media != null && error != null && mUploadRetryHandler != null
+            && mUploadRetryHandler.retryUpload(media, error)) {
+            removeCallFromCurrentUploadsMap(media.getId());
+            return;
+        }
+
         if (media != null) {
             media.setUploadState(error == null ? MediaUploadState.UPLOADED : MediaUploadState.FAILED);
             removeCallFromCurrentUploadsMap(media.getId());
@@ -469,14 +473,12 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
     // Utility methods
     //
 
-    // media list responses should be of type Object[] with each media item in the array represented by a HashMap
-    private List<MediaModel> getMediaListFromXmlrpcResponse(Object[] response, int localSiteId) {
+    // media list responses are decoded by MediaXMLRPCDecoder, with null entries for items that couldn't be decoded
+    private List<MediaModel> getMediaListFromXmlrpcResponse(List<MediaModel> response, int localSiteId) {
         if (response == null) return null;
 
         List<MediaModel> responseMedia = new ArrayList<>();
-        for (Object mediaObject : response) {
-            if (!(mediaObject instanceof HashMap)) continue;
-            MediaModel media = getMediaFromXmlrpcResponse((HashMap) mediaObject);
+        for (MediaModel media : response) {
             if (media != null) {
                 media.setLocalSiteId(localSiteId);
                 responseMedia.add(media);
@@ -486,6 +488,7 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
         return responseMedia;
     }
 
+    // upload responses are parsed into a Map by getMapFromUploadResponse, see MediaXMLRPCDecoder for fetch responses
     private MediaModel getMediaFromXmlrpcResponse(Map response) {
         if (response == null || response.isEmpty()) return null;
 
@@ -521,20 +524,10 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
     }
 
     private String getFileUrlForSize(String mediaUrl, Map metadataMap, String size) {
-        if (metadataMap == null || TextUtils.isEmpty(mediaUrl) || !mediaUrl.contains("/")) {
-            return null;
-        }
-
-        String fileName = getFileForSize(metadataMap, size);
-        if (TextUtils.isEmpty(fileName)) {
+        if (metadataMap == null) {
             return null;
         }
-
-        // make sure the path to the original image is a valid path to a file
-        if (mediaUrl.lastIndexOf("/") + 1 >= mediaUrl.length()) return null;
-
-        String baseURL = mediaUrl.substring(0, mediaUrl.lastIndexOf("/") + 1);
-        return baseURL + fileName;
+        return MediaXMLRPCDecoder.getFileUrl(mediaUrl, getFileForSize(metadataMap, size));
     }
 
     private String getFileForSize(Map metadataMap, String size) {
@@ -576,9 +569,9 @@ public class MediaXMLRPCClient extends BaseXMLRPCClient implements ProgressListe
                 AppLog.e(T.MEDIA, "Failed to parse XMLRPC.wpUploadFile response - body was empty: " + response);
                 return null;
             }
-            String data = new String(responseBody.bytes(), "UTF-8");
-            InputStream is = new ByteArrayInputStream(data.getBytes(Charset.forName("UTF-8")));
-            Object responseObject = XMLSerializerUtils.deserialize(XMLSerializerUtils.scrubXmlResponse(is));
+            // Stream the response body straight into the parser
+            InputStream is = XMLSerializerUtils.scrubXmlResponse(responseBody.byteStream());
+            Object responseObject = XMLSerializerUtils.deserialize(is);
             if (responseObject instanceof Map) {
                 return (Map) responseObject;
             }
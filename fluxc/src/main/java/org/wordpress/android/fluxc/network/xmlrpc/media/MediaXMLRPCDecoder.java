@@ -0,0 +1,195 @@
+package org.wordpress.android.fluxc.network.xmlrpc.media;
+
+import android.text.TextUtils;
+
+import org.apache.commons.text.StringEscapeUtils;
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.fluxc.model.MediaModel.MediaUploadState;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCDecoder;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCReader;
+import org.wordpress.android.fluxc.utils.MediaUtils;
+import org.wordpress.android.util.DateTimeUtils;
+import org.wordpress.android.util.StringUtils;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Decodes a wp.getMediaItem struct into a {@link MediaModel}, or null if the value isn't a struct or is empty.
+ * Of the attachment metadata, only the dimensions and the file names of the medium, medium_large and large sizes are
+ * read: image_meta and the other sizes are skipped.
+ */
+public class MediaXMLRPCDecoder implements XMLRPCDecoder<MediaModel> {
+    private static final String SIZE_MEDIUM = "medium";
+    private static final String SIZE_MEDIUM_LARGE = "medium_large";
+    private static final String SIZE_LARGE = "large";
+
+    @Override
+    public MediaModel decode(XMLRPCReader reader) throws IOException, XmlPullParserException {
+        if (!reader.beginStruct()) {
+            return null;
+        }
+        if (!reader.hasNext()) {
+            reader.endStruct();
+            return null;
+        }
+
+        MediaModel media = new MediaModel();
+        media.setTitle("");
+        media.setCaption("");
+        media.setDescription("");
+        media.setVideoPressGuid("");
+        media.setThumbnailUrl("");
+        Date uploadDate = null;
+        String link = "";
+        Metadata metadata = null;
+
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "attachment_id":
+                    media.setMediaId(reader.nextLong(0));
+                    break;
+                case "parent":
+                    media.setPostId(reader.nextLong(0));
+                    break;
+                case "title":
+                    media.setTitle(StringEscapeUtils.unescapeHtml4(StringUtils.notNullStr(reader.nextString())));
+                    break;
+                case "caption":
+                    media.setCaption(StringEscapeUtils.unescapeHtml4(StringUtils.notNullStr(reader.nextString())));
+                    break;
+                case "description":
+                    media.setDescription(StringEscapeUtils.unescapeHtml4(StringUtils.notNullStr(reader.nextString())));
+                    break;
+                case "videopress_shortcode":
+                    media.setVideoPressGuid(StringUtils.notNullStr(reader.nextString()));
+                    break;
+                case "thumbnail":
+                    media.setThumbnailUrl(StringUtils.notNullStr(reader.nextString()));
+                    break;
+                case "date_created_gmt":
+                    uploadDate = reader.nextDate();
+                    break;
+                case "link":
+                    link = StringUtils.notNullStr(reader.nextString());
+                    break;
+                case "metadata":
+                    metadata = readMetadata(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endStruct();
+
+        media.setUploadDate(DateTimeUtils.iso8601UTCFromDate(uploadDate));
+        String fileExtension = MediaUtils.getExtension(link);
+        media.setUrl(link);
+        media.setFileName(MediaUtils.getFileName(link));
+        media.setFileExtension(fileExtension);
+        media.setMimeType(MediaUtils.getMimeTypeForExtension(fileExtension));
+
+        if (metadata != null) {
+            media.setWidth(metadata.mWidth);
+            media.setHeight(metadata.mHeight);
+            media.setFileUrlMediumSize(getFileUrl(link, metadata.mMediumFile));
+            media.setFileUrlMediumLargeSize(getFileUrl(link, metadata.mMediumLargeFile));
+            media.setFileUrlLargeSize(getFileUrl(link, metadata.mLargeFile));
+        }
+
+        media.setUploadState(MediaUploadState.UPLOADED);
+        return media;
+    }
+
+    /**
+     * Returns the url of the given file in the same directory as the media url.
+     */
+    static String getFileUrl(String mediaUrl, String fileName) {
+        if (TextUtils.isEmpty(mediaUrl) || !mediaUrl.contains("/") || TextUtils.isEmpty(fileName)) {
+            return null;
+        }
+
+        // make sure the path to the original image is a valid path to a file
+        if (mediaUrl.lastIndexOf("/") + 1 >= mediaUrl.length()) return null;
+
+        String baseURL = mediaUrl.substring(0, mediaUrl.lastIndexOf("/") + 1);
+        return baseURL + fileName;
+    }
+
+    private static Metadata readMetadata(XMLRPCReader reader) throws IOException, XmlPullParserException {
+        if (!reader.beginStruct()) {
+            return null;
+        }
+        Metadata metadata = new Metadata();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "width":
+                    metadata.mWidth = reader.nextInt(0);
+                    break;
+                case "height":
+                    metadata.mHeight = reader.nextInt(0);
+                    break;
+                case "sizes":
+                    readSizes(reader, metadata);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endStruct();
+        return metadata;
+    }
+
+    private static void readSizes(XMLRPCReader reader, Metadata metadata) throws IOException, XmlPullParserException {
+        if (!reader.beginStruct()) {
+            return;
+        }
+        while (reader.hasNext()) {
+            String size = reader.nextName();
+            switch (size) {
+                case SIZE_MEDIUM:
+                    metadata.mMediumFile = readSizeFile(reader);
+                    break;
+                case SIZE_MEDIUM_LARGE:
+                    metadata.mMediumLargeFile = readSizeFile(reader);
+                    break;
+                case SIZE_LARGE:
+                    metadata.mLargeFile = readSizeFile(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endStruct();
+    }
+
+    private static String readSizeFile(XMLRPCReader reader) throws IOException, XmlPullParserException {
+        if (!reader.beginStruct()) {
+            return null;
+        }
+        String file = null;
+        while (reader.hasNext()) {
+            if ("file".equals(reader.nextName())) {
+                file = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endStruct();
+        return file;
+    }
+
+    private static class Metadata {
+        int mWidth;
+        int mHeight;
+        String mMediumFile;
+        String mMediumLargeFile;
+        String mLargeFile;
+    }
+}
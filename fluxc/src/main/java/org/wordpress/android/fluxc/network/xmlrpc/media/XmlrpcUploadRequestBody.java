@@ -1,19 +1,22 @@
 package org.wordpress.android.fluxc.network.xmlrpc.media;
 
 import android.support.annotation.NonNull;
-import android.util.Base64;
 
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.wordpress.android.fluxc.model.MediaModel;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.network.BaseUploadRequestBody;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.Locale;
 
 import okhttp3.MediaType;
 import okio.BufferedSink;
+import okio.ByteString;
 import okio.Okio;
 
 public class XmlrpcUploadRequestBody extends BaseUploadRequestBody {
@@ -37,34 +40,33 @@ public class XmlrpcUploadRequestBody extends BaseUploadRequestBody {
     private static final String APPEND_XML =
             "</base64></value></member></struct></value></param></params></methodCall>";
 
-    private final String mPrependString;
-    private long mMediaSize;
+    // Base64 encodes 3 bytes into 4 characters, the file is read in chunks of BASE64_CHUNK_GROUPS such groups
+    private static final int BASE64_CHUNK_GROUPS = 4096;
+    private static final byte[] BASE64_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(Charset.forName("US-ASCII"));
+
+    private final ByteString mPrepend;
+    private final long mMediaSize;
     private long mContentSize = -1;
-    private long mMediaBytesWritten = 0;
 
     public XmlrpcUploadRequestBody(MediaModel media, ProgressListener listener, SiteModel site) {
         super(media, listener);
 
         // TODO: we should use the XMLRPCSerializer instead of doing this
-        mPrependString = String.format(Locale.ENGLISH, PREPEND_XML_FORMAT,
+        mPrepend = ByteString.encodeUtf8(String.format(Locale.ENGLISH, PREPEND_XML_FORMAT,
                 site.getSelfHostedSiteId(),
                 StringEscapeUtils.escapeXml(site.getUsername()),
                 StringEscapeUtils.escapeXml(site.getPassword()),
                 StringEscapeUtils.escapeXml(media.getFileName()),
                 StringEscapeUtils.escapeXml(media.getMimeType()),
-                media.getPostId());
-
-        try {
-            mMediaSize = contentLength();
-        } catch (IOException e) {
-            // Default to 1 (to avoid divide by zero errors)
-            mMediaSize = 1;
-        }
+                media.getPostId()));
+        mMediaSize = new File(media.getFilePath()).length();
     }
 
     @Override
     protected float getProgress(long bytesWritten) {
-        return (float) mMediaBytesWritten / mMediaSize;
+        // Default to 1 (to avoid divide by zero errors)
+        return (float) bytesWritten / Math.max(1, mContentSize);
     }
 
     @Override
@@ -73,47 +75,38 @@ public class XmlrpcUploadRequestBody extends BaseUploadRequestBody {
     }
 
     @Override
-    public long contentLength() throws IOException {
+    public long contentLength() {
         if (mContentSize == -1) {
-            mContentSize = getMediaBase64EncodedSize() + mPrependString.length() + APPEND_XML.length();
+            mContentSize = mPrepend.size() + getBase64EncodedSize(mMediaSize) + APPEND_XML.length();
         }
         return mContentSize;
     }
 
-    private long getMediaBase64EncodedSize() throws IOException {
-        FileInputStream fis = new FileInputStream(getMedia().getFilePath());
-        int totalSize = 0;
-        try {
-            byte[] buffer = new byte[3600];
-            int length;
-            while ((length = fis.read(buffer)) > 0) {
-                totalSize += Base64.encodeToString(buffer, 0, length, Base64.DEFAULT).length();
-            }
-        } finally {
-            fis.close();
-        }
-        return totalSize;
+    /**
+     * The file is encoded without line breaks, so its encoded size only depends on its size.
+     */
+    static long getBase64EncodedSize(long size) {
+        return 4 * ((size + 2) / 3);
     }
 
     @Override
     public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        contentLength();
         CountingSink countingSink = new CountingSink(sink);
         BufferedSink bufferedSink = Okio.buffer(countingSink);
 
         // write XML up to point of file
-        bufferedSink.writeUtf8(mPrependString);
-
-        // write file to xml
+        bufferedSink.write(mPrepend);
 
+        // write file to xml, encoding it in chunks into the same buffers
+        byte[] input = new byte[3 * BASE64_CHUNK_GROUPS];
+        byte[] output = new byte[4 * BASE64_CHUNK_GROUPS];
         FileInputStream fis = new FileInputStream(getMedia().getFilePath());
         try {
-            byte[] buffer = new byte[3600]; // you must use a 24bit multiple
             int length;
-            String chunk;
-            while ((length = fis.read(buffer)) > 0) {
-                chunk = Base64.encodeToString(buffer, 0, length, Base64.DEFAULT);
-                mMediaBytesWritten += length;
-                bufferedSink.writeUtf8(chunk);
+            while ((length = readFully(fis, input)) > 0) {
+                int encodedLength = encodeBase64(input, length, output);
+                bufferedSink.write(output, 0, encodedLength);
             }
         } finally {
             fis.close();
@@ -124,4 +117,45 @@ public class XmlrpcUploadRequestBody extends BaseUploadRequestBody {
 
         bufferedSink.flush();
     }
+
+    /**
+     * Fills the buffer unless the end of the stream is reached, so that only the last chunk needs base64 padding.
+     */
+    private static int readFully(InputStream is, byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            int read = is.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                break;
+            }
+            length += read;
+        }
+        return length;
+    }
+
+    /**
+     * Base64 encodes the first {@code length} bytes of the input into the output, without line breaks.
+     *
+     * @return the number of characters written to the output
+     */
+    static int encodeBase64(byte[] input, int length, byte[] output) {
+        int in = 0;
+        int out = 0;
+        while (length - in >= 3) {
+            int bits = (input[in++] & 0xff) << 16 | (input[in++] & 0xff) << 8 | (input[in++] & 0xff);
+            output[out++] = BASE64_ALPHABET[(bits >> 18) & 0x3f];
+            output[out++] = BASE64_ALPHABET[(bits >> 12) & 0x3f];
+            output[out++] = BASE64_ALPHABET[(bits >> 6) & 0x3f];
+            output[out++] = BASE64_ALPHABET[bits & 0x3f];
+        }
+        int remaining = length - in;
+        if (remaining > 0) {
+            int bits = (input[in] & 0xff) << 16 | (remaining == 2 ? (input[in + 1] & 0xff) << 8 : 0);
+            output[out++] = BASE64_ALPHABET[(bits >> 18) & 0x3f];
+            output[out++] = BASE64_ALPHABET[(bits >> 12) & 0x3f];
+            output[out++] = remaining == 2 ? BASE64_ALPHABET[(bits >> 6) & 0x3f] : (byte) '=';
+            output[out++] = (byte) '=';
+        }
+        return out;
+    }
 }
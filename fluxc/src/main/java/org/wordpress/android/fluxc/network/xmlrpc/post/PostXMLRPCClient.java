@@ -8,7 +8,6 @@ import com.android.volley.RequestQueue;
 import com.android.volley.Response.Listener;
 
 import org.jetbrains.annotations.NotNull;
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wordpress.android.fluxc.Dispatcher;
@@ -28,8 +27,8 @@ import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
 import org.wordpress.android.fluxc.network.HTTPAuthManager;
 import org.wordpress.android.fluxc.network.UserAgent;
 import org.wordpress.android.fluxc.network.xmlrpc.BaseXMLRPCClient;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCArrayDecoder;
 import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCRequest;
-import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCUtils;
 import org.wordpress.android.fluxc.store.PostStore;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostListResponsePayload;
 import org.wordpress.android.fluxc.store.PostStore.FetchPostResponsePayload;
@@ -72,25 +71,23 @@ public class PostXMLRPCClient extends BaseXMLRPCClient {
         params.add(post.getRemotePostId());
 
         final XMLRPCRequest request = new XMLRPCRequest(site.getXmlRpcUrl(), XMLRPC.GET_POST, params,
-                new Listener<Object>() {
+                new PostXMLRPCDecoder(site),
+                new Listener<PostModel>() {
                     @Override
-                    public void onResponse(Object response) {
-                        if (response instanceof Map) {
-                            PostModel postModel = postResponseObjectToPostModel((Map) response, site);
-                            FetchPostResponsePayload payload;
-                            if (postModel != null) {
-                                if (origin == PostAction.PUSH_POST) {
-                                    postModel.setId(post.getId());
-                                }
-                                payload = new FetchPostResponsePayload(postModel, site);
-                            } else {
-                                payload = new FetchPostResponsePayload(post, site);
-                                payload.error = new PostError(PostErrorType.INVALID_RESPONSE);
+                    public void onResponse(PostModel postModel) {
+                        FetchPostResponsePayload payload;
+                        if (postModel != null) {
+                            if (origin == PostAction.PUSH_POST) {
+                                postModel.setId(post.getId());
                             }
-                            payload.origin = origin;
-
-                            mDispatcher.dispatch(PostActionBuilder.newFetchedPostAction(payload));
+                            payload = new FetchPostResponsePayload(postModel, site);
+                        } else {
+                            payload = new FetchPostResponsePayload(post, site);
+                            payload.error = new PostError(PostErrorType.INVALID_RESPONSE);
                         }
+                        payload.origin = origin;
+
+                        mDispatcher.dispatch(PostActionBuilder.newFetchedPostAction(payload));
                     }
                 }, new BaseErrorListener() {
             @Override
@@ -169,15 +166,16 @@ public class PostXMLRPCClient extends BaseXMLRPCClient {
                         getPages, offset, PostStore.NUM_POSTS_PER_FETCH, statusList, null, null, null);
 
         final XMLRPCRequest request = new XMLRPCRequest(site.getXmlRpcUrl(), XMLRPC.GET_POSTS, params,
-                new Listener<Object[]>() {
+                new XMLRPCArrayDecoder<>(new PostXMLRPCDecoder(site)),
+                new Listener<List<PostModel>>() {
                     @Override
-                    public void onResponse(Object[] response) {
+                    public void onResponse(List<PostModel> response) {
                         boolean canLoadMore = false;
-                        if (response != null && response.length == PostStore.NUM_POSTS_PER_FETCH) {
+                        if (response != null && response.size() == PostStore.NUM_POSTS_PER_FETCH) {
                             canLoadMore = true;
                         }
 
-                        PostsModel posts = postsResponseToPostsModel(response, site);
+                        PostsModel posts = postsResponseToPostsModel(response);
 
                         FetchPostsResponsePayload payload = new FetchPostsResponsePayload(posts, site, getPages,
                                 offset > 0, canLoadMore);
@@ -345,17 +343,15 @@ public class PostXMLRPCClient extends BaseXMLRPCClient {
         return postListItems;
     }
 
-    private PostsModel postsResponseToPostsModel(@Nullable Object[] response, SiteModel site) {
+    private PostsModel postsResponseToPostsModel(@Nullable List<PostModel> response) {
         List<PostModel> postArray = new ArrayList<>();
         if (response == null) {
             return null;
         }
-        if (response.length == 0) {
+        if (response.isEmpty()) {
             return new PostsModel(postArray);
         }
-        for (Object responseObject : response) {
-            Map<?, ?> postMap = (Map<?, ?>) responseObject;
-            PostModel post = postResponseObjectToPostModel(postMap, site);
+        for (PostModel post : response) {
             if (post != null) {
                 postArray.add(post);
             }
@@ -368,103 +364,6 @@ public class PostXMLRPCClient extends BaseXMLRPCClient {
         return new PostsModel(postArray);
     }
 
-    private static PostModel postResponseObjectToPostModel(@NonNull Map postObject, SiteModel site) {
-        Map<?, ?> postMap = (Map<?, ?>) postObject;
-        PostModel post = new PostModel();
-
-        String postID = MapUtils.getMapStr(postMap, "post_id");
-        if (TextUtils.isEmpty(postID)) {
-            // If we don't have a post or page ID, move on
-            return null;
-        }
-
-        post.setLocalSiteId(site.getId());
-        post.setRemotePostId(Long.valueOf(postID));
-        post.setTitle(MapUtils.getMapStr(postMap, "post_title"));
-
-        Date dateCreatedGmt = MapUtils.getMapDate(postMap, "post_date_gmt");
-        String dateCreatedAsIso8601 = DateTimeUtils.iso8601UTCFromDate(dateCreatedGmt);
-        post.setDateCreated(dateCreatedAsIso8601);
-
-        Date lastModifiedGmt = MapUtils.getMapDate(postMap, "post_modified_gmt");
-        String lastModifiedAsIso8601 = DateTimeUtils.iso8601UTCFromDate(lastModifiedGmt);
-        post.setLastModified(lastModifiedAsIso8601);
-        post.setRemoteLastModified(lastModifiedAsIso8601);
-
-        post.setContent(MapUtils.getMapStr(postMap, "post_content"));
-        post.setLink(MapUtils.getMapStr(postMap, "link"));
-
-        Object[] terms = (Object[]) postMap.get("terms");
-        List<Long> categoryIds = new ArrayList<>();
-        List<String> tagNames = new ArrayList<>();
-        for (Object term : terms) {
-            if (!(term instanceof Map)) {
-                continue;
-            }
-            Map<?, ?> termMap = (Map<?, ?>) term;
-            String taxonomy = MapUtils.getMapStr(termMap, "taxonomy");
-            if (taxonomy.equals("category")) {
-                categoryIds.add(MapUtils.getMapLong(termMap, "term_id"));
-            } else if (taxonomy.equals("post_tag")) {
-                tagNames.add(MapUtils.getMapStr(termMap, "name"));
-            }
-        }
-        post.setCategoryIdList(categoryIds);
-        post.setTagNameList(tagNames);
-
-        Object[] customFields = (Object[]) postMap.get("custom_fields");
-        JSONArray jsonCustomFieldsArray = new JSONArray();
-        if (customFields != null) {
-            PostLocation postLocation = new PostLocation();
-            for (Object customField : customFields) {
-                jsonCustomFieldsArray.put(customField.toString());
-                // Update geo_long and geo_lat from custom fields
-                if (!(customField instanceof Map)) {
-                    continue;
-                }
-                Map<?, ?> customFieldMap = (Map<?, ?>) customField;
-                if (customFieldMap.get("key") != null && customFieldMap.get("value") != null) {
-                    if (customFieldMap.get("key").equals("geo_longitude")) {
-                        postLocation.setLongitude(XMLRPCUtils.safeGetMapValue(customFieldMap, 0.0));
-                    }
-                    if (customFieldMap.get("key").equals("geo_latitude")) {
-                        postLocation.setLatitude(XMLRPCUtils.safeGetMapValue(customFieldMap, 0.0));
-                    }
-                }
-            }
-            if (postLocation.isValid()) {
-                post.setLocation(postLocation);
-            }
-        }
-        post.setCustomFields(jsonCustomFieldsArray.toString());
-
-        post.setExcerpt(MapUtils.getMapStr(postMap, "post_excerpt"));
-
-        post.setPassword(MapUtils.getMapStr(postMap, "post_password"));
-        post.setStatus(MapUtils.getMapStr(postMap, "post_status"));
-
-        if ("page".equals(MapUtils.getMapStr(postMap, "post_type"))) {
-            post.setIsPage(true);
-        }
-
-        if (post.isPage()) {
-            post.setParentId(MapUtils.getMapLong(postMap, "post_parent"));
-            post.setParentTitle(MapUtils.getMapStr(postMap, "wp_page_parent"));
-            post.setSlug(MapUtils.getMapStr(postMap, "wp_slug"));
-        } else {
-            // Extract featured image ID from post_thumbnail struct
-            Object featuredImageObject = postMap.get("post_thumbnail");
-            if (featuredImageObject instanceof Map) {
-                Map<?, ?> featuredImageMap = (Map<?, ?>) featuredImageObject;
-                post.setFeaturedImageId(MapUtils.getMapInt(featuredImageMap, "attachment_id"));
-            }
-
-            post.setPostFormat(MapUtils.getMapStr(postMap, "post_format"));
-        }
-
-        return post;
-    }
-
     private static Map<String, Object> postModelToContentStruct(PostModel post) {
         Map<String, Object> contentStruct = new HashMap<>();
 
@@ -0,0 +1,243 @@
+package org.wordpress.android.fluxc.network.xmlrpc.post;
+
+import android.text.TextUtils;
+
+import org.json.JSONArray;
+import org.wordpress.android.fluxc.model.PostModel;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.model.post.PostLocation;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCDecoder;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCReader;
+import org.wordpress.android.fluxc.network.xmlrpc.XMLRPCUtils;
+import org.wordpress.android.util.DateTimeUtils;
+import org.wordpress.android.util.StringUtils;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes a wp.getPost struct into a {@link PostModel}, or null if it has no post ID.
+ * Only the members below are read, the rest of the struct (e.g. post_content_filtered, enclosure) is skipped.
+ */
+public class PostXMLRPCDecoder implements XMLRPCDecoder<PostModel> {
+    private final SiteModel mSite;
+
+    public PostXMLRPCDecoder(SiteModel site) {
+        mSite = site;
+    }
+
+    @Override
+    public PostModel decode(XMLRPCReader reader) throws IOException, XmlPullParserException {
+        if (!reader.beginStruct()) {
+            return null;
+        }
+        String postID = null;
+        String title = "";
+        Date dateCreatedGmt = null;
+        Date lastModifiedGmt = null;
+        String content = "";
+        String link = "";
+        List<Long> categoryIds = new ArrayList<>();
+        List<String> tagNames = new ArrayList<>();
+        JSONArray jsonCustomFieldsArray = new JSONArray();
+        PostLocation postLocation = new PostLocation();
+        String excerpt = "";
+        String password = "";
+        String status = "";
+        String type = "";
+        long parentId = 0;
+        String parentTitle = "";
+        String slug = "";
+        int featuredImageId = 0;
+        String postFormat = "";
+
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "post_id":
+                    postID = reader.nextString();
+                    break;
+                case "post_title":
+                    title = StringUtils.notNullStr(reader.nextString());
+                    break;
+                case "post_date_gmt":
+                    dateCreatedGmt = reader.nextDate();
+                    break;
+                case "post_modified_gmt":
+                    lastModifiedGmt = reader.nextDate();
+                    break;
+                case "post_content":
+                    content = StringUtils.notNullStr(reader.nextString());
+                    break;
+                case "link":
+                    link = StringUtils.notNullStr(reader.nextString());
+                    break;
+                case "terms":
+                    readTerms(reader, categoryIds, tagNames);
+                    break;
+                case "custom_fields":
+                    readCustomFields(reader, jsonCustomFieldsArray, postLocation);
+                    break;
+                case "post_excerpt":
+                    excerpt = StringUtils.notNullStr(reader.nextString());
+                    break;
+                case "post_password":
+                    password = StringUtils.notNullStr(reader.nextString());
+                    break;
+                case "post_status":
+                    status = StringUtils.notNullStr(reader.nextString());
+                    break;
+                case "post_type":
+                    type = reader.nextString();
+                    break;
+                case "post_parent":
+                    parentId = reader.nextLong(0);
+                    break;
+                case "wp_page_parent":
+                    parentTitle = StringUtils.notNullStr(reader.nextString());
+                    break;
+                case "wp_slug":
+                    slug = StringUtils.notNullStr(reader.nextString());
+                    break;
+                case "post_thumbnail":
+                    featuredImageId = readFeaturedImageId(reader);
+                    break;
+                case "post_format":
+                    postFormat = StringUtils.notNullStr(reader.nextString());
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endStruct();
+
+        if (TextUtils.isEmpty(postID)) {
+            // If we don't have a post or page ID, move on
+            return null;
+        }
+
+        PostModel post = new PostModel();
+        post.setLocalSiteId(mSite.getId());
+        post.setRemotePostId(Long.valueOf(postID));
+        post.setTitle(title);
+
+        post.setDateCreated(DateTimeUtils.iso8601UTCFromDate(dateCreatedGmt));
+        String lastModifiedAsIso8601 = DateTimeUtils.iso8601UTCFromDate(lastModifiedGmt);
+        post.setLastModified(lastModifiedAsIso8601);
+        post.setRemoteLastModified(lastModifiedAsIso8601);
+
+        post.setContent(content);
+        post.setLink(link);
+        post.setCategoryIdList(categoryIds);
+        post.setTagNameList(tagNames);
+
+        if (postLocation.isValid()) {
+            post.setLocation(postLocation);
+        }
+        post.setCustomFields(jsonCustomFieldsArray.toString());
+
+        post.setExcerpt(excerpt);
+        post.setPassword(password);
+        post.setStatus(status);
+
+        if ("page".equals(type)) {
+            post.setIsPage(true);
+            post.setParentId(parentId);
+            post.setParentTitle(parentTitle);
+            post.setSlug(slug);
+        } else {
+            post.setFeaturedImageId(featuredImageId);
+            post.setPostFormat(postFormat);
+        }
+
+        return post;
+    }
+
+    private static void readTerms(XMLRPCReader reader, List<Long> categoryIds, List<String> tagNames)
+            throws IOException, XmlPullParserException {
+        if (!reader.beginArray()) {
+            return;
+        }
+        while (reader.hasNext()) {
+            if (!reader.beginStruct()) {
+                continue;
+            }
+            String taxonomy = "";
+            long termId = 0;
+            String termName = "";
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                switch (name) {
+                    case "taxonomy":
+                        taxonomy = StringUtils.notNullStr(reader.nextString());
+                        break;
+                    case "term_id":
+                        termId = reader.nextLong(0);
+                        break;
+                    case "name":
+                        termName = StringUtils.notNullStr(reader.nextString());
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endStruct();
+
+            if (taxonomy.equals("category")) {
+                categoryIds.add(termId);
+            } else if (taxonomy.equals("post_tag")) {
+                tagNames.add(termName);
+            }
+        }
+        reader.endArray();
+    }
+
+    private static void readCustomFields(XMLRPCReader reader, JSONArray jsonCustomFieldsArray,
+                                         PostLocation postLocation) throws IOException, XmlPullParserException {
+        if (!reader.beginArray()) {
+            return;
+        }
+        while (reader.hasNext()) {
+            // Custom fields are small and stored as they were deserialized, so they're still read as Maps
+            Object customField = reader.nextValue();
+            jsonCustomFieldsArray.put(customField.toString());
+            // Update geo_long and geo_lat from custom fields
+            if (!(customField instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> customFieldMap = (Map<?, ?>) customField;
+            if (customFieldMap.get("key") != null && customFieldMap.get("value") != null) {
+                if (customFieldMap.get("key").equals("geo_longitude")) {
+                    postLocation.setLongitude(XMLRPCUtils.safeGetMapValue(customFieldMap, 0.0));
+                }
+                if (customFieldMap.get("key").equals("geo_latitude")) {
+                    postLocation.setLatitude(XMLRPCUtils.safeGetMapValue(customFieldMap, 0.0));
+                }
+            }
+        }
+        reader.endArray();
+    }
+
+    private static int readFeaturedImageId(XMLRPCReader reader) throws IOException, XmlPullParserException {
+        // Posts without a featured image have an empty array instead of a struct
+        if (!reader.beginStruct()) {
+            return 0;
+        }
+        int featuredImageId = 0;
+        while (reader.hasNext()) {
+            if ("attachment_id".equals(reader.nextName())) {
+                featuredImageId = reader.nextInt(0);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endStruct();
+        return featuredImageId;
+    }
+}
@@ -0,0 +1,19 @@
+package org.wordpress.android.fluxc.persistence;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the text columns of a WellSql table to index for full-text search, e.g.
+ * {@code @FullTextSearch({"TITLE", "CONTENT"})}. Matches in earlier columns rank higher.
+ *
+ * The search table is created along with the table, and {@link WellSqlConfig} brings the search tables of existing DBs
+ * in line with the declarations on every upgrade: the DB version must be bumped when they change.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface FullTextSearch {
+    String[] value();
+}
@@ -0,0 +1,255 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+import android.util.SparseArray;
+
+import com.yarolegovich.wellsql.WellSql;
+import com.yarolegovich.wellsql.core.Identifiable;
+import com.yarolegovich.wellsql.core.TableClass;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates and maintains the FTS4 search tables declared with {@link FullTextSearch}, and runs ranked searches on them.
+ *
+ * A search table is an external content table: it only stores the index, and reads the text from the table it
+ * indexes, which triggers keep it in sync with.
+ */
+public class FullTextSearchUtils {
+    public static final int DEFAULT_RESULT_LIMIT = 100;
+
+    private static final String SEARCH_TABLE_SUFFIX = "_fts";
+    private static final String[] TRIGGER_SUFFIXES = {"_fts_ai", "_fts_bu", "_fts_au", "_fts_bd"};
+    private static final String ID_COLUMN = "_id";
+    // Keeps the 'IN' clause of the lookups by id below SQLite's limit on the number of parameters
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private static class Match {
+        private final int mId;
+        private final double mRank;
+
+        Match(int id, double rank) {
+            mId = id;
+            mRank = rank;
+        }
+    }
+
+    /**
+     * Creates the search table declared on the table class, replacing any existing one, and indexes the rows of the
+     * table, which must already be created.
+     */
+    public static void createSearchTable(@NonNull SQLiteDatabase db, @NonNull Class<?> tableClass,
+                                         @NonNull TableClass table) {
+        FullTextSearch fullTextSearch = tableClass.getAnnotation(FullTextSearch.class);
+        if (fullTextSearch == null) {
+            return;
+        }
+        String tableName = table.getTableName();
+        String searchTable = tableName + SEARCH_TABLE_SUFFIX;
+        String[] columns = fullTextSearch.value();
+        String columnList = TextUtils.join(", ", columns);
+        String newColumnList = "new." + TextUtils.join(", new.", columns);
+
+        dropSearchTable(db, tableName);
+        db.execSQL(getCreateStatement(tableName, columns));
+        // The deletes must run before the row changes, for the index to read the old text from the content table
+        db.execSQL("CREATE TRIGGER " + tableName + "_fts_ai AFTER INSERT ON " + tableName + " BEGIN "
+                   + "INSERT INTO " + searchTable + " (docid, " + columnList + ") "
+                   + "VALUES (new." + ID_COLUMN + ", " + newColumnList + "); END");
+        db.execSQL("CREATE TRIGGER " + tableName + "_fts_bu BEFORE UPDATE OF " + columnList + " ON " + tableName
+                   + " BEGIN DELETE FROM " + searchTable + " WHERE docid = old." + ID_COLUMN + "; END");
+        db.execSQL("CREATE TRIGGER " + tableName + "_fts_au AFTER UPDATE OF " + columnList + " ON " + tableName
+                   + " BEGIN INSERT INTO " + searchTable + " (docid, " + columnList + ") "
+                   + "VALUES (new." + ID_COLUMN + ", " + newColumnList + "); END");
+        db.execSQL("CREATE TRIGGER " + tableName + "_fts_bd BEFORE DELETE ON " + tableName + " BEGIN "
+                   + "DELETE FROM " + searchTable + " WHERE docid = old." + ID_COLUMN + "; END");
+        db.execSQL("INSERT INTO " + searchTable + " (" + searchTable + ") VALUES ('rebuild')");
+    }
+
+    /**
+     * Creates the search tables declared on the table classes that are missing from the DB (or declared with other
+     * columns), and drops the ones that aren't declared anymore.
+     */
+    public static void syncSearchTables(@NonNull SQLiteDatabase db, @NonNull Map<Class<?>, TableClass> tables) {
+        Map<String, String> existingTables = new HashMap<>();
+        Cursor cursor = db.rawQuery("SELECT name, sql FROM sqlite_master WHERE type = 'table'"
+                                    + " AND sql LIKE 'CREATE VIRTUAL TABLE%' AND name LIKE ? ESCAPE '\\'",
+                new String[]{"%\\" + SEARCH_TABLE_SUFFIX});
+        try {
+            while (cursor.moveToNext()) {
+                existingTables.put(cursor.getString(0), cursor.getString(1));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        for (Map.Entry<Class<?>, TableClass> table : tables.entrySet()) {
+            FullTextSearch fullTextSearch = table.getKey().getAnnotation(FullTextSearch.class);
+            if (fullTextSearch == null) {
+                continue;
+            }
+            String tableName = table.getValue().getTableName();
+            String existingStatement = existingTables.remove(tableName + SEARCH_TABLE_SUFFIX);
+            // The triggers are gone if the table was recreated, and the index is stale then
+            if (!getCreateStatement(tableName, fullTextSearch.value()).equals(existingStatement)
+                || !hasTriggers(db, tableName)) {
+                AppLog.d(T.DB, "Creating search table for " + tableName);
+                createSearchTable(db, table.getKey(), table.getValue());
+            }
+        }
+        for (String searchTable : existingTables.keySet()) {
+            AppLog.d(T.DB, "Dropping search table " + searchTable);
+            dropSearchTable(db, searchTable.substring(0, searchTable.length() - SEARCH_TABLE_SUFFIX.length()));
+        }
+    }
+
+    /**
+     * Returns the models of the table whose indexed columns contain words starting with each of the words of the
+     * query, the best matches first. Matches in earlier columns rank higher.
+     *
+     * @param selection optional WHERE clause on the columns of the table, to restrict the search to some rows
+     * @param limit maximum number of models to return
+     */
+    @NonNull
+    public static <T extends Identifiable> List<T> search(@NonNull Class<T> modelClass, @NonNull String tableName,
+                                                          @NonNull String query, @Nullable String selection,
+                                                          @Nullable String[] selectionArgs, int limit) {
+        String matchQuery = toMatchQuery(query);
+        if (matchQuery.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String searchTable = tableName + SEARCH_TABLE_SUFFIX;
+        String sql = "SELECT docid, matchinfo(" + searchTable + ", 'pcx') FROM " + searchTable
+                     + " WHERE " + searchTable + " MATCH ?";
+        if (!TextUtils.isEmpty(selection)) {
+            sql += " AND docid IN (SELECT " + ID_COLUMN + " FROM " + tableName + " WHERE " + selection + ")";
+        }
+        String[] args = new String[1 + (selectionArgs != null ? selectionArgs.length : 0)];
+        args[0] = matchQuery;
+        if (selectionArgs != null) {
+            System.arraycopy(selectionArgs, 0, args, 1, selectionArgs.length);
+        }
+
+        List<Match> matches = new ArrayList<>();
+        Cursor cursor = WellSql.giveMeReadableDb().rawQuery(sql, args);
+        try {
+            while (cursor.moveToNext()) {
+                matches.add(new Match(cursor.getInt(0), getRank(cursor.getBlob(1))));
+            }
+        } finally {
+            cursor.close();
+        }
+        Collections.sort(matches, new Comparator<Match>() {
+            @Override
+            public int compare(Match lhs, Match rhs) {
+                if (lhs.mRank != rhs.mRank) {
+                    return lhs.mRank > rhs.mRank ? -1 : 1;
+                }
+                // Most recently created first
+                return rhs.mId - lhs.mId;
+            }
+        });
+        if (matches.size() > limit) {
+            matches = matches.subList(0, limit);
+        }
+
+        // Only the best matches are loaded, then put back in order
+        SparseArray<T> models = new SparseArray<>(matches.size());
+        for (int start = 0; start < matches.size(); start += MAX_IDS_PER_QUERY) {
+            List<Integer> ids = new ArrayList<>();
+            for (Match match : matches.subList(start, Math.min(start + MAX_IDS_PER_QUERY, matches.size()))) {
+                ids.add(match.mId);
+            }
+            for (T model : WellSql.select(modelClass).where().isIn(ID_COLUMN, ids).endWhere().getAsModel()) {
+                models.put(model.getId(), model);
+            }
+        }
+        List<T> results = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            T model = models.get(match.mId);
+            if (model != null) {
+                results.add(model);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Turns free text into an FTS query matching the rows with words starting with each of its words, e.g.
+     * {@code hello wor} into {@code "hello*" "wor*"}.
+     */
+    @NonNull
+    public static String toMatchQuery(@NonNull String query) {
+        StringBuilder matchQuery = new StringBuilder();
+        for (String word : query.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                if (matchQuery.length() > 0) {
+                    matchQuery.append(' ');
+                }
+                matchQuery.append('"').append(word).append("*\"");
+            }
+        }
+        return matchQuery.toString();
+    }
+
+    /**
+     * Computes the rank of a row from its matchinfo('pcx') blob. Each column weighs twice as much as the next one, and
+     * the hits of each word in a column count less and less, so a match in the title outranks any number of matches in
+     * the content.
+     */
+    static double getRank(byte[] matchInfo) {
+        IntBuffer info = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phraseCount = info.get(0);
+        int columnCount = info.get(1);
+        double rank = 0;
+        for (int phrase = 0; phrase < phraseCount; phrase++) {
+            for (int column = 0; column < columnCount; column++) {
+                int rowHits = info.get(2 + 3 * (phrase * columnCount + column));
+                rank += (1 << (columnCount - 1 - column)) * (double) rowHits / (rowHits + 1);
+            }
+        }
+        return rank;
+    }
+
+    private static String getCreateStatement(String tableName, String[] columns) {
+        // The prefix indexes speed up the short prefixes of search-as-you-type
+        return "CREATE VIRTUAL TABLE " + tableName + SEARCH_TABLE_SUFFIX + " USING fts4(content=\"" + tableName
+               + "\", prefix=\"2,3\", " + TextUtils.join(", ", columns) + ")";
+    }
+
+    private static boolean hasTriggers(SQLiteDatabase db, String tableName) {
+        String[] triggerNames = new String[TRIGGER_SUFFIXES.length];
+        for (int i = 0; i < TRIGGER_SUFFIXES.length; i++) {
+            triggerNames[i] = tableName + TRIGGER_SUFFIXES[i];
+        }
+        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM sqlite_master WHERE type = 'trigger'"
+                                    + " AND name IN (?, ?, ?, ?)", triggerNames);
+        try {
+            return cursor.moveToFirst() && cursor.getInt(0) == TRIGGER_SUFFIXES.length;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void dropSearchTable(SQLiteDatabase db, String tableName) {
+        for (String triggerSuffix : TRIGGER_SUFFIXES) {
+            db.execSQL("DROP TRIGGER IF EXISTS " + tableName + triggerSuffix);
+        }
+        db.execSQL("DROP TABLE IF EXISTS " + tableName + SEARCH_TABLE_SUFFIX);
+    }
+}
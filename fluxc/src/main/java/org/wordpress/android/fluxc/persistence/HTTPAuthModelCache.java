@@ -0,0 +1,146 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Base64;
+import android.util.SparseArray;
+
+import com.wellsql.generated.HTTPAuthModelTable;
+import com.yarolegovich.wellsql.SelectQuery;
+import com.yarolegovich.wellsql.WellSql;
+
+import org.wordpress.android.fluxc.network.HTTPAuthModel;
+
+/**
+ * In-memory index of the HTTPAuthModel table, to find the credentials matching a url without querying the DB.
+ *
+ * The root urls of the models (and the same urls without their ending 'xmlrpc.php', or other name) are stored in a
+ * trie, so a lookup is a single walk along the url, without any allocation. The Authorization header of each model is
+ * computed once, when the index is built.
+ *
+ * The index is built on first use, and dropped by {@link HTTPAuthSqlUtils} whenever the table is written. It's also
+ * rebuilt when the DB itself changes (i.e. {@link WellSql} is initialized again).
+ */
+public class HTTPAuthModelCache {
+    private static class Entry {
+        private final HTTPAuthModel mModel;
+        private final String mAuthorizationHeader;
+
+        Entry(HTTPAuthModel model) {
+            mModel = model;
+            String creds = String.format("%s:%s", model.getUsername(), model.getPassword());
+            mAuthorizationHeader = "Basic " + Base64.encodeToString(creds.getBytes(), Base64.NO_WRAP);
+        }
+    }
+
+    private static class Node {
+        private final SparseArray<Node> mChildren = new SparseArray<>();
+        // The model whose (stripped) root url ends at this node, if any
+        private Entry mEntry;
+    }
+
+    private static class Index {
+        private final SQLiteDatabase mDb;
+        private final Node mRoot;
+
+        Index(SQLiteDatabase db, Node root) {
+            mDb = db;
+            mRoot = root;
+        }
+    }
+
+    // Immutable once built, and replaced as a whole
+    private volatile Index mIndex;
+
+    /**
+     * Returns the model of the credentials for the url, or null if there are none. The model is shared, and must not
+     * be modified.
+     */
+    @Nullable
+    public HTTPAuthModel getModel(@NonNull String url) {
+        Entry entry = findEntry(url);
+        return entry != null ? entry.mModel : null;
+    }
+
+    /**
+     * Returns the value of the Authorization header for the url, or null if there are no credentials for it.
+     */
+    @Nullable
+    public String getAuthorizationHeader(@NonNull String url) {
+        Entry entry = findEntry(url);
+        return entry != null ? entry.mAuthorizationHeader : null;
+    }
+
+    /**
+     * Drops the index, which is built from the DB again on next use.
+     */
+    public void invalidate() {
+        mIndex = null;
+    }
+
+    /**
+     * Returns the first model (by id) whose root url, or stripped root url, the url starts with.
+     */
+    @Nullable
+    private Entry findEntry(@NonNull String url) {
+        Node node = getRoot();
+        Entry match = node.mEntry;
+        for (int i = 0, length = url.length(); i < length; i++) {
+            node = node.mChildren.get(url.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.mEntry != null && (match == null || node.mEntry.mModel.getId() < match.mModel.getId())) {
+                match = node.mEntry;
+            }
+        }
+        return match;
+    }
+
+    private Node getRoot() {
+        Index index = mIndex;
+        SQLiteDatabase db = WellSql.giveMeReadableDb();
+        if (index != null && index.mDb == db) {
+            return index.mRoot;
+        }
+        synchronized (this) {
+            index = mIndex;
+            if (index == null || index.mDb != db) {
+                index = new Index(db, buildTrie());
+                mIndex = index;
+            }
+            return index.mRoot;
+        }
+    }
+
+    private static Node buildTrie() {
+        Node root = new Node();
+        for (HTTPAuthModel model : WellSql.select(HTTPAuthModel.class)
+                                          .orderBy(HTTPAuthModelTable.ID, SelectQuery.ORDER_ASCENDING)
+                                          .getAsModel()) {
+            Entry entry = new Entry(model);
+            add(root, model.getRootUrl(), entry);
+            // Also match the stored URL with the ending 'xmlrpc.php' (or other name) stripped
+            add(root, model.getRootUrl().replaceFirst("/[^/]*?.php$", ""), entry);
+        }
+        return root;
+    }
+
+    private static void add(Node root, String prefix, Entry entry) {
+        Node node = root;
+        for (int i = 0, length = prefix.length(); i < length; i++) {
+            char c = prefix.charAt(i);
+            Node child = node.mChildren.get(c);
+            if (child == null) {
+                child = new Node();
+                node.mChildren.put(c, child);
+            }
+            node = child;
+        }
+        // Models are added by id, the first one wins
+        if (node.mEntry == null) {
+            node.mEntry = entry;
+        }
+    }
+}
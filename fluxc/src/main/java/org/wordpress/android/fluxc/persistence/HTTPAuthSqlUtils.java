@@ -11,6 +11,15 @@ import org.wordpress.android.fluxc.network.HTTPAuthModel;
 import java.util.List;
 
 public class HTTPAuthSqlUtils {
+    private static final HTTPAuthModelCache AUTH_MODEL_CACHE = new HTTPAuthModelCache();
+
+    /**
+     * Returns the in-memory index of the HTTP auth credentials, kept in sync with the writes made here.
+     */
+    public static HTTPAuthModelCache getAuthModelCache() {
+        return AUTH_MODEL_CACHE;
+    }
+
     public static void insertOrUpdateModel(HTTPAuthModel model) {
         List<HTTPAuthModel> modelResult = WellSql.select(HTTPAuthModel.class)
                 .where().equals(HTTPAuthModelTable.ROOT_URL, model.getRootUrl()).endWhere()
@@ -33,5 +42,6 @@ public class HTTPAuthSqlUtils {
                        }
                    }).execute();
         }
+        AUTH_MODEL_CACHE.invalidate();
     }
 }
@@ -5,6 +5,7 @@ import com.wellsql.generated.ListModelTable
 import com.yarolegovich.wellsql.WellSql
 import org.wordpress.android.fluxc.model.list.ListDescriptor
 import org.wordpress.android.fluxc.model.list.ListDescriptorTypeIdentifier
+import org.wordpress.android.fluxc.model.list.ListDescriptorUniqueIdentifier
 import org.wordpress.android.fluxc.model.list.ListModel
 import org.wordpress.android.fluxc.model.list.ListState
 import org.wordpress.android.util.DateTimeUtils
@@ -86,26 +87,35 @@ class ListSqlUtils @Inject constructor() {
     }
 
     /**
-     * This function deletes [ListModel] records that hasn't been updated for the given [expirationDuration].
+     * This function deletes [ListModel] records that hasn't been updated for the given [expirationDuration] and returns
+     * the unique identifiers of the deleted lists.
      */
-    fun deleteExpiredLists(expirationDuration: Long) {
+    fun deleteExpiredLists(expirationDuration: Long): List<ListDescriptorUniqueIdentifier> {
         val allLists = WellSql.select(ListModel::class.java).asModel
         val cutOffDate = Date(System.currentTimeMillis() - expirationDuration)
-        // Find the ids of lists that are expired
-        val listIdsToDelete = allLists.asSequence().filter {
+        // Find the lists that are expired
+        val listsToDelete = allLists.filter {
             DateTimeUtils.dateFromIso8601(it.lastModified).before(cutOffDate)
-        }.map { it.id }.toList()
-        if (listIdsToDelete.isNotEmpty()) {
+        }
+        if (listsToDelete.isNotEmpty()) {
             WellSql.delete(ListModel::class.java)
-                    .where().isIn(ListModelTable.ID, listIdsToDelete).endWhere()
+                    .where().isIn(ListModelTable.ID, listsToDelete.map { it.id }).endWhere()
                     .execute()
         }
+        return listsToDelete.mapNotNull { it.uniqueIdentifier() }
     }
 
     /**
-     * This function deletes all [ListModel] records from the DB.
+     * This function deletes all [ListModel] records from the DB and returns the unique identifiers of the deleted
+     * lists.
      */
-    fun deleteAllLists() {
+    fun deleteAllLists(): List<ListDescriptorUniqueIdentifier> {
+        val allLists = WellSql.select(ListModel::class.java).asModel
         WellSql.delete(ListModel::class.java).execute()
+        return allLists.mapNotNull { it.uniqueIdentifier() }
+    }
+
+    private fun ListModel.uniqueIdentifier() = descriptorUniqueIdentifierDbValue?.let {
+        ListDescriptorUniqueIdentifier(it)
     }
 }
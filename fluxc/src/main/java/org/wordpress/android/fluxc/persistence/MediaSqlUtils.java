@@ -126,6 +126,15 @@ public class MediaSqlUtils {
         return searchSiteMediaQuery(siteModel, searchTerm).getAsModel();
     }
 
+    /**
+     * Returns the media of the site with words starting with each word of the query in their title, caption or
+     * description, the best matches first.
+     */
+    public static List<MediaModel> searchSiteMediaByRelevance(SiteModel siteModel, String query, int limit) {
+        return FullTextSearchUtils.search(MediaModel.class, "MediaModel", query,
+                MediaModelTable.LOCAL_SITE_ID + " = ?", new String[]{String.valueOf(siteModel.getId())}, limit);
+    }
+
     public static List<MediaModel> searchSiteImages(SiteModel siteModel, String searchTerm) {
         return searchSiteMediaByMimeTypeQuery(siteModel, searchTerm, MediaUtils.MIME_TYPE_IMAGE).getAsModel();
     }
@@ -0,0 +1,115 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.wordpress.android.fluxc.model.MediaUploadModel;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the progress of the media uploads in flight in memory, so progress events don't each hit the DB.
+ *
+ * The progress is written to the {@link MediaUploadModel} table at most once per flush interval. Callers changing
+ * the state of an upload (completed, failed, cancelled...) must stop tracking it, and write the whole
+ * {@link MediaUploadModel} themselves, with the progress set by {@link #applyProgress(MediaUploadModel)}.
+ */
+public class MediaUploadProgressCache {
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 5000;
+
+    private final long mFlushIntervalMs;
+    private final Map<Integer, Float> mProgress = new ConcurrentHashMap<>();
+    // Progress not written to the DB yet
+    private final Map<Integer, Float> mUnsavedProgress = new ConcurrentHashMap<>();
+    private long mLastFlushTime;
+
+    public MediaUploadProgressCache() {
+        this(DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    public MediaUploadProgressCache(long flushIntervalMs) {
+        mFlushIntervalMs = flushIntervalMs;
+        mLastFlushTime = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Returns the progress of the upload, or null if it's not tracked.
+     */
+    @Nullable
+    public Float getProgress(int localMediaId) {
+        return mProgress.get(localMediaId);
+    }
+
+    /**
+     * Starts tracking the upload, from the progress currently saved in the DB.
+     */
+    public void startTracking(int localMediaId, float savedProgress) {
+        mProgress.put(localMediaId, savedProgress);
+    }
+
+    /**
+     * Updates the progress of the upload, if it's higher than the current one, and writes the unsaved progress of
+     * all uploads to the DB if the flush interval elapsed.
+     *
+     * @return false if the upload is not tracked, in which case nothing is updated
+     */
+    public boolean updateProgress(int localMediaId, float progress) {
+        Float currentProgress = mProgress.get(localMediaId);
+        if (currentProgress == null) {
+            return false;
+        }
+        if (currentProgress < progress) {
+            synchronized (this) {
+                // The upload may have stopped being tracked in the meantime
+                if (mProgress.containsKey(localMediaId)) {
+                    mProgress.put(localMediaId, progress);
+                    mUnsavedProgress.put(localMediaId, progress);
+                }
+                if (SystemClock.elapsedRealtime() - mLastFlushTime >= mFlushIntervalMs) {
+                    flush();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the tracked progress on the model, if there is one.
+     */
+    public void applyProgress(@NonNull MediaUploadModel mediaUploadModel) {
+        Float progress = mProgress.get(mediaUploadModel.getId());
+        if (progress != null) {
+            mediaUploadModel.setProgress(progress);
+        }
+    }
+
+    public synchronized void stopTracking(int localMediaId) {
+        mProgress.remove(localMediaId);
+        mUnsavedProgress.remove(localMediaId);
+    }
+
+    public synchronized void stopTracking(@NonNull Collection<Integer> localMediaIds) {
+        for (Integer localMediaId : localMediaIds) {
+            stopTracking(localMediaId);
+        }
+    }
+
+    /**
+     * Writes the unsaved progress of all uploads to the DB.
+     */
+    public synchronized void flush() {
+        if (!mUnsavedProgress.isEmpty()) {
+            AppLog.v(T.MEDIA, "Saving the progress of " + mUnsavedProgress.size() + " media uploads");
+            for (Map.Entry<Integer, Float> entry : mUnsavedProgress.entrySet()) {
+                UploadSqlUtils.updateMediaProgressOnly(entry.getKey(), entry.getValue());
+            }
+            mUnsavedProgress.clear();
+        }
+        mLastFlushTime = SystemClock.elapsedRealtime();
+    }
+}
@@ -1,25 +1,43 @@
 package org.wordpress.android.fluxc.persistence;
 
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
 import android.support.annotation.Nullable;
 import android.text.TextUtils;
+import android.util.SparseArray;
 
 import com.wellsql.generated.LocalDiffModelTable;
 import com.wellsql.generated.LocalRevisionModelTable;
 import com.wellsql.generated.PostModelTable;
+import com.wellsql.generated.PostTermTable;
 import com.yarolegovich.wellsql.ConditionClauseBuilder;
 import com.yarolegovich.wellsql.SelectQuery;
 import com.yarolegovich.wellsql.SelectQuery.Order;
+import com.yarolegovich.wellsql.WellCursor;
 import com.yarolegovich.wellsql.WellSql;
 
 import org.wordpress.android.fluxc.model.PostModel;
+import org.wordpress.android.fluxc.model.PostTermModel;
 import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.model.TermModel;
+import org.wordpress.android.fluxc.model.post.PostSummary;
 import org.wordpress.android.fluxc.model.revisions.LocalDiffModel;
 import org.wordpress.android.fluxc.model.revisions.LocalRevisionModel;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+
+import static org.wordpress.android.fluxc.store.TaxonomyStore.DEFAULT_TAXONOMY_CATEGORY;
+import static org.wordpress.android.fluxc.store.TaxonomyStore.DEFAULT_TAXONOMY_TAG;
 
 public class PostSqlUtils {
+    private static final int MAX_IDS_PER_QUERY = 500;
+
     public static int insertOrUpdatePost(PostModel post, boolean overwriteLocalChanges) {
         if (post == null) {
             return 0;
@@ -45,7 +63,7 @@ public class PostSqlUtils {
 
         if (postResult.isEmpty()) {
             // insert
-            WellSql.insert(post).asSingleTransaction(true).execute();
+            insertPostWithTerms(post);
             return 1;
         } else {
             if (postResult.size() > 1) {
@@ -58,8 +76,17 @@ public class PostSqlUtils {
             // Update only if local changes for this post don't exist
             if (overwriteLocalChanges || !postResult.get(0).isLocallyChanged()) {
                 int oldId = postResult.get(0).getId();
-                return WellSql.update(PostModel.class).whereId(oldId)
-                        .put(post, new UpdateAllExceptId<>(PostModel.class)).execute();
+                SQLiteDatabase db = WellSql.giveMeWritableDb();
+                db.beginTransaction();
+                try {
+                    int rowsAffected = WellSql.update(PostModel.class).whereId(oldId)
+                            .put(post, new UpdateAllExceptId<>(PostModel.class)).execute();
+                    updatePostTerms(oldId, post);
+                    db.setTransactionSuccessful();
+                    return rowsAffected;
+                } finally {
+                    db.endTransaction();
+                }
             }
         }
         return 0;
@@ -88,6 +115,33 @@ public class PostSqlUtils {
                 .getAsModel();
     }
 
+    /**
+     * Same as {@link #getPostsForSite}, but only reads the {@link PostSummary} columns, lazily. The returned list must
+     * be closed.
+     */
+    public static PostSummaryList getPostSummariesForSite(SiteModel site, boolean getPages) {
+        if (site == null) {
+            return PostSummaryList.empty();
+        }
+
+        return querySummaries(PostModelTable.LOCAL_SITE_ID + " = ? AND " + PostModelTable.IS_PAGE + " = ?",
+                new String[]{String.valueOf(site.getId()), getPages ? "1" : "0"},
+                PostModelTable.IS_LOCAL_DRAFT + " DESC, " + PostModelTable.DATE_CREATED + " DESC");
+    }
+
+    /**
+     * Returns the number of posts (or pages) of the site, without loading them.
+     */
+    public static int getPostCountForSite(SiteModel site, boolean getPages) {
+        if (site == null) {
+            return 0;
+        }
+
+        return (int) DatabaseUtils.queryNumEntries(WellSql.giveMeReadableDb(), "PostModel",
+                PostModelTable.LOCAL_SITE_ID + " = ? AND " + PostModelTable.IS_PAGE + " = ?",
+                new String[]{String.valueOf(site.getId()), getPages ? "1" : "0"});
+    }
+
     public static List<PostModel> getPostsForSiteWithFormat(SiteModel site, List<String> postFormat, boolean getPages) {
         if (site == null) {
             return Collections.emptyList();
@@ -130,8 +184,27 @@ public class PostSqlUtils {
         return Collections.emptyList();
     }
 
+    /**
+     * Same as {@link #getPostsByRemoteIds}, but only reads the {@link PostSummary} columns, lazily. The returned list
+     * must be closed.
+     */
+    public static PostSummaryList getPostSummariesByRemoteIds(@Nullable List<Long> remoteIds, int localSiteId) {
+        if (remoteIds == null || remoteIds.isEmpty()) {
+            return PostSummaryList.empty();
+        }
+
+        String[] args = new String[remoteIds.size() + 1];
+        args[0] = String.valueOf(localSiteId);
+        for (int i = 0; i < remoteIds.size(); i++) {
+            args[i + 1] = String.valueOf(remoteIds.get(i));
+        }
+        String placeholders = TextUtils.join(",", Collections.nCopies(remoteIds.size(), "?"));
+        return querySummaries(PostModelTable.LOCAL_SITE_ID + " = ? AND " + PostModelTable.REMOTE_POST_ID
+                              + " IN (" + placeholders + ")", args, null);
+    }
+
     public static PostModel insertPostForResult(PostModel post) {
-        WellSql.insert(post).asSingleTransaction(true).execute();
+        insertPostWithTerms(post);
 
         return post;
     }
@@ -181,6 +254,28 @@ public class PostSqlUtils {
                 .endGroup().endGroup().endWhere().getAsCursor().getCount() > 0;
     }
 
+    /**
+     * Returns the (local) ids of all the sites having local drafts or locally changed posts.
+     */
+    public static Set<Integer> getLocalSiteIdsWithLocalChanges() {
+        Set<Integer> localSiteIds = new HashSet<>();
+        WellCursor<PostModel> cursor = WellSql.select(PostModel.class)
+                .columns(PostModelTable.LOCAL_SITE_ID)
+                .where().beginGroup()
+                .equals(PostModelTable.IS_LOCAL_DRAFT, true)
+                .or()
+                .equals(PostModelTable.IS_LOCALLY_CHANGED, true)
+                .endGroup().endWhere().getAsCursor();
+        try {
+            while (cursor.moveToNext()) {
+                localSiteIds.add(cursor.getInt(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return localSiteIds;
+    }
+
     public static int getNumLocalChanges() {
         return WellSql.select(PostModel.class)
                 .where().beginGroup()
@@ -285,4 +380,155 @@ public class PostSqlUtils {
         }
         return clauseBuilder.endWhere().orderBy(orderBy, order).getAsModel();
     }
+
+    /**
+     * Same as {@link #getLocalPostsForFilter}, but only reads the {@link PostSummary} columns, lazily. The returned
+     * list must be closed.
+     */
+    public static PostSummaryList getLocalPostSummariesForFilter(SiteModel site, boolean isPage, String searchQuery,
+                                                                 String orderBy, @Order int order) {
+        String selection = PostModelTable.IS_LOCAL_DRAFT + " = 1 AND " + PostModelTable.LOCAL_SITE_ID + " = ? AND "
+                           + PostModelTable.IS_PAGE + " = ?";
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(site.getId()));
+        args.add(isPage ? "1" : "0");
+        if (!TextUtils.isEmpty(searchQuery)) {
+            selection += " AND (" + PostModelTable.TITLE + " LIKE ? OR " + PostModelTable.CONTENT + " LIKE ?)";
+            args.add("%" + searchQuery + "%");
+            args.add("%" + searchQuery + "%");
+        }
+        return querySummaries(selection, args.toArray(new String[args.size()]),
+                orderBy + (order == SelectQuery.ORDER_ASCENDING ? " ASC" : " DESC"));
+    }
+
+    private static PostSummaryList querySummaries(String selection, String[] selectionArgs, String orderBy) {
+        return new PostSummaryList(WellSql.giveMeReadableDb().query("PostModel", PostSummaryList.COLUMNS, selection,
+                selectionArgs, null, null, orderBy));
+    }
+
+    /**
+     * Returns the posts (or pages) of the site with words starting with each word of the query in their title or
+     * content, the best matches first.
+     */
+    public static List<PostModel> searchPostsForSite(SiteModel site, String query, boolean isPage, int limit) {
+        return FullTextSearchUtils.search(PostModel.class, "PostModel", query,
+                PostModelTable.LOCAL_SITE_ID + " = ? AND " + PostModelTable.IS_PAGE + " = ?",
+                new String[]{String.valueOf(site.getId()), isPage ? "1" : "0"}, limit);
+    }
+
+    /**
+     * Returns the posts of the site with the given category or tag, local drafts first, then most recent first.
+     */
+    public static List<PostModel> getPostsForSiteWithTerm(SiteModel site, TermModel term) {
+        if (site == null || term == null) {
+            return Collections.emptyList();
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        Cursor cursor = WellSql.giveMeReadableDb().rawQuery(
+                "SELECT DISTINCT PostModel._id FROM PostTerm JOIN PostModel ON PostModel._id = "
+                + "PostTerm.LOCAL_POST_ID WHERE " + getTermSelection(term) + " AND PostModel.IS_PAGE = 0 "
+                + "ORDER BY PostModel.IS_LOCAL_DRAFT DESC, PostModel.DATE_CREATED DESC",
+                getTermSelectionArgs(site, term));
+        try {
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getInt(0));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        // Keeps the 'IN' clauses below SQLite's limit on the number of parameters
+        SparseArray<PostModel> posts = new SparseArray<>(ids.size());
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_QUERY) {
+            for (PostModel post : WellSql.select(PostModel.class)
+                                         .where().isIn(PostModelTable.ID,
+                                                 ids.subList(start, Math.min(start + MAX_IDS_PER_QUERY, ids.size())))
+                                         .endWhere().getAsModel()) {
+                posts.put(post.getId(), post);
+            }
+        }
+        List<PostModel> result = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            PostModel post = posts.get(id);
+            // Skips the posts deleted between the two queries
+            if (post != null) {
+                result.add(post);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of posts of the site with the given category or tag, without loading them.
+     */
+    public static int getPostCountForSiteWithTerm(SiteModel site, TermModel term) {
+        if (site == null || term == null) {
+            return 0;
+        }
+
+        return (int) DatabaseUtils.longForQuery(WellSql.giveMeReadableDb(),
+                "SELECT COUNT(DISTINCT PostModel._id) FROM PostTerm JOIN PostModel ON PostModel._id = "
+                + "PostTerm.LOCAL_POST_ID WHERE " + getTermSelection(term) + " AND PostModel.IS_PAGE = 0",
+                getTermSelectionArgs(site, term));
+    }
+
+    private static String getTermSelection(TermModel term) {
+        // Posts reference tags by name, and other terms by remote id
+        String termColumn = DEFAULT_TAXONOMY_TAG.equals(term.getTaxonomy())
+                ? PostTermTable.TERM_NAME : PostTermTable.REMOTE_TERM_ID;
+        return "PostTerm." + PostTermTable.LOCAL_SITE_ID + " = ? AND PostTerm." + PostTermTable.TAXONOMY + " = ? AND "
+               + "PostTerm." + termColumn + " = ?";
+    }
+
+    private static String[] getTermSelectionArgs(SiteModel site, TermModel term) {
+        String termValue = DEFAULT_TAXONOMY_TAG.equals(term.getTaxonomy())
+                ? term.getName() : String.valueOf(term.getRemoteTermId());
+        return new String[]{String.valueOf(site.getId()), term.getTaxonomy(), termValue};
+    }
+
+    private static void insertPostWithTerms(PostModel post) {
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        db.beginTransaction();
+        try {
+            WellSql.insert(post).asSingleTransaction(true).execute();
+            updatePostTerms(post.getId(), post);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Replaces the {@link PostTermModel}s of the post with the ones matching its category ids and tag names. Must be
+     * called in the same transaction as the write of the post, so both stay in sync.
+     */
+    private static void updatePostTerms(int localPostId, PostModel post) {
+        List<PostTermModel> postTerms = new ArrayList<>();
+        for (Long categoryId : new LinkedHashSet<>(post.getCategoryIdList())) {
+            PostTermModel postTerm = newPostTerm(localPostId, post, DEFAULT_TAXONOMY_CATEGORY);
+            postTerm.setRemoteTermId(categoryId);
+            postTerms.add(postTerm);
+        }
+        for (String tagName : new LinkedHashSet<>(post.getTagNameList())) {
+            PostTermModel postTerm = newPostTerm(localPostId, post, DEFAULT_TAXONOMY_TAG);
+            postTerm.setTermName(tagName);
+            postTerms.add(postTerm);
+        }
+
+        WellSql.delete(PostTermModel.class)
+               .where().equals(PostTermTable.LOCAL_POST_ID, localPostId).endWhere()
+               .execute();
+        if (!postTerms.isEmpty()) {
+            WellSql.insert(postTerms).execute();
+        }
+    }
+
+    private static PostTermModel newPostTerm(int localPostId, PostModel post, String taxonomy) {
+        PostTermModel postTerm = new PostTermModel();
+        postTerm.setLocalPostId(localPostId);
+        postTerm.setLocalSiteId(post.getLocalSiteId());
+        postTerm.setTaxonomy(taxonomy);
+        return postTerm;
+    }
 }
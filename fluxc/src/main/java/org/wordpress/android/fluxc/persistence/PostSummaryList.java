@@ -0,0 +1,67 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.support.annotation.NonNull;
+
+import com.wellsql.generated.PostModelTable;
+
+import org.wordpress.android.fluxc.model.post.PostSummary;
+
+import java.io.Closeable;
+import java.util.AbstractList;
+
+/**
+ * A read-only list of {@link PostSummary}s backed by a cursor on the summary columns of PostModel: the rows are read
+ * from the DB one window at a time, and a summary is only created when it's accessed.
+ *
+ * The list must be closed when it isn't used anymore, which closes the cursor.
+ */
+public class PostSummaryList extends AbstractList<PostSummary> implements Closeable {
+    static final String[] COLUMNS = {
+            PostModelTable.ID,
+            PostModelTable.LOCAL_SITE_ID,
+            PostModelTable.REMOTE_POST_ID,
+            PostModelTable.TITLE,
+            PostModelTable.DATE_CREATED,
+            PostModelTable.STATUS,
+            PostModelTable.FEATURED_IMAGE_ID,
+            PostModelTable.IS_PAGE,
+            PostModelTable.IS_LOCAL_DRAFT,
+            PostModelTable.IS_LOCALLY_CHANGED
+    };
+
+    private final Cursor mCursor;
+
+    PostSummaryList(@NonNull Cursor cursor) {
+        mCursor = cursor;
+    }
+
+    /**
+     * Returns an empty list, which doesn't hold any DB resource.
+     */
+    public static PostSummaryList empty() {
+        return new PostSummaryList(new MatrixCursor(COLUMNS));
+    }
+
+    @Override
+    public synchronized PostSummary get(int location) {
+        if (!mCursor.moveToPosition(location)) {
+            throw new IndexOutOfBoundsException("Invalid index " + location + ", size is " + mCursor.getCount());
+        }
+        // The columns are read in the order of COLUMNS
+        return new PostSummary(mCursor.getInt(0), mCursor.getInt(1), mCursor.getLong(2), mCursor.getString(3),
+                mCursor.getString(4), mCursor.getString(5), mCursor.getLong(6), mCursor.getInt(7) != 0,
+                mCursor.getInt(8) != 0, mCursor.getInt(9) != 0);
+    }
+
+    @Override
+    public synchronized int size() {
+        return mCursor.getCount();
+    }
+
+    @Override
+    public synchronized void close() {
+        mCursor.close();
+    }
+}
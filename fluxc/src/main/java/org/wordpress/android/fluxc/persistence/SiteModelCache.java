@@ -0,0 +1,260 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LongSparseArray;
+import android.util.SparseArray;
+
+import com.wellsql.generated.SiteModelTable;
+import com.yarolegovich.wellsql.WellSql;
+
+import org.wordpress.android.fluxc.model.SiteModel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory copy of the SiteModel table, indexed by local id, remote site id and XML-RPC url.
+ *
+ * It's loaded from the DB on first use, and then kept in sync by {@link SiteSqlUtils}, which reloads the rows it
+ * writes. Any other write to the table must call {@link #invalidate()}. The cache is also reloaded when the DB itself
+ * changes (i.e. {@link WellSql} is initialized again).
+ *
+ * Sites are returned as copies, so callers can modify them freely without affecting the cache.
+ */
+public class SiteModelCache {
+    public interface SiteFilter {
+        boolean matches(SiteModel site);
+    }
+
+    public static final SiteFilter ALL = new SiteFilter() {
+        @Override
+        public boolean matches(SiteModel site) {
+            return true;
+        }
+    };
+
+    public static final SiteFilter WPCOM = new SiteFilter() {
+        @Override
+        public boolean matches(SiteModel site) {
+            return site.isWPCom();
+        }
+    };
+
+    public static final SiteFilter ACCESSED_VIA_WPCOM_REST = new SiteFilter() {
+        @Override
+        public boolean matches(SiteModel site) {
+            return site.getOrigin() == SiteModel.ORIGIN_WPCOM_REST;
+        }
+    };
+
+    public static final SiteFilter ACCESSED_VIA_XMLRPC = new SiteFilter() {
+        @Override
+        public boolean matches(SiteModel site) {
+            return site.getOrigin() == SiteModel.ORIGIN_XMLRPC;
+        }
+    };
+
+    public static final SiteFilter VISIBLE = new SiteFilter() {
+        @Override
+        public boolean matches(SiteModel site) {
+            return site.isVisible();
+        }
+    };
+
+    public static final SiteFilter VISIBLE_WPCOM = new SiteFilter() {
+        @Override
+        public boolean matches(SiteModel site) {
+            return site.isVisible() && site.isWPCom();
+        }
+    };
+
+    public static final SiteFilter VISIBLE_ACCESSED_VIA_WPCOM_REST = new SiteFilter() {
+        @Override
+        public boolean matches(SiteModel site) {
+            return site.isVisible() && site.getOrigin() == SiteModel.ORIGIN_WPCOM_REST;
+        }
+    };
+
+    // Sorted by local id, the same order as the table
+    private final SparseArray<SiteModel> mSitesByLocalId = new SparseArray<>();
+    // First site (by local id) for each remote id, only for sites with a remote id
+    private final LongSparseArray<SiteModel> mSitesBySiteId = new LongSparseArray<>();
+    private final Map<String, SiteModel> mSitesByXmlRpcUrl = new HashMap<>();
+    // The DB the cache was loaded from, or null if it needs to be loaded
+    private SQLiteDatabase mLoadedDb;
+
+    @Nullable
+    public synchronized SiteModel getSiteByLocalId(int id) {
+        ensureLoaded();
+        return copy(mSitesByLocalId.get(id));
+    }
+
+    public synchronized boolean hasSiteWithLocalId(int id) {
+        ensureLoaded();
+        return mSitesByLocalId.get(id) != null;
+    }
+
+    /**
+     * Returns the first site with the given WP.com site id, the same way a query on SITE_ID would.
+     */
+    @Nullable
+    public synchronized SiteModel getSiteBySiteId(long siteId) {
+        ensureLoaded();
+        return copy(mSitesBySiteId.get(siteId));
+    }
+
+    @Nullable
+    public synchronized SiteModel getSiteByXmlRpcUrl(String xmlRpcUrl) {
+        ensureLoaded();
+        return copy(mSitesByXmlRpcUrl.get(xmlRpcUrl));
+    }
+
+    /**
+     * Returns the local id of the first site whose WP.com or self-hosted site id matches, or 0 if there are none.
+     */
+    public synchronized int getLocalIdForRemoteSiteId(long siteId) {
+        ensureLoaded();
+        for (int i = 0, size = mSitesByLocalId.size(); i < size; i++) {
+            SiteModel site = mSitesByLocalId.valueAt(i);
+            if (site.getSiteId() == siteId || site.getSelfHostedSiteId() == siteId) {
+                return site.getId();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the WP.com site id of the site with the given local id, or its self-hosted site id if it has none, or 0
+     * if there is no such site.
+     */
+    public synchronized long getRemoteSiteIdForLocalId(int id) {
+        ensureLoaded();
+        SiteModel site = mSitesByLocalId.get(id);
+        if (site == null) {
+            return 0;
+        }
+        return site.getSiteId() > 0 ? site.getSiteId() : site.getSelfHostedSiteId();
+    }
+
+    /**
+     * Returns the local id of the site matching both the self-hosted site id and XML-RPC url, or 0 if there are none.
+     */
+    public synchronized int getLocalIdForSelfHostedSiteIdAndXmlRpcUrl(long selfHostedSiteId, String xmlRpcUrl) {
+        ensureLoaded();
+        for (int i = 0, size = mSitesByLocalId.size(); i < size; i++) {
+            SiteModel site = mSitesByLocalId.valueAt(i);
+            if (site.getSelfHostedSiteId() == selfHostedSiteId && xmlRpcUrl != null
+                && xmlRpcUrl.equals(site.getXmlRpcUrl())) {
+                return site.getId();
+            }
+        }
+        return 0;
+    }
+
+    @NonNull
+    public synchronized List<SiteModel> getSites(@NonNull SiteFilter filter) {
+        ensureLoaded();
+        List<SiteModel> sites = new ArrayList<>();
+        for (int i = 0, size = mSitesByLocalId.size(); i < size; i++) {
+            SiteModel site = mSitesByLocalId.valueAt(i);
+            if (filter.matches(site)) {
+                sites.add(site.clone());
+            }
+        }
+        return sites;
+    }
+
+    public synchronized int getSitesCount(@NonNull SiteFilter filter) {
+        ensureLoaded();
+        int count = 0;
+        for (int i = 0, size = mSitesByLocalId.size(); i < size; i++) {
+            if (filter.matches(mSitesByLocalId.valueAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the site with the given local id matches the filter.
+     */
+    public synchronized boolean matches(int id, @NonNull SiteFilter filter) {
+        ensureLoaded();
+        SiteModel site = mSitesByLocalId.get(id);
+        return site != null && filter.matches(site);
+    }
+
+    /**
+     * Reloads the site with the given local id from the DB, after it was inserted or updated.
+     */
+    synchronized void onSiteWritten(int id) {
+        if (!isLoaded()) {
+            // It will be read along with all the other sites on first use
+            return;
+        }
+        List<SiteModel> result = SiteSqlUtils.getSitesWith(SiteModelTable.ID, id).getAsModel();
+        if (result.isEmpty()) {
+            mSitesByLocalId.remove(id);
+        } else {
+            mSitesByLocalId.put(id, result.get(0));
+        }
+        rebuildIndexes();
+    }
+
+    synchronized void onSiteDeleted(int id) {
+        if (!isLoaded()) {
+            return;
+        }
+        mSitesByLocalId.remove(id);
+        rebuildIndexes();
+    }
+
+    /**
+     * Drops the cache, which is loaded from the DB again on next use.
+     */
+    public synchronized void invalidate() {
+        mLoadedDb = null;
+        mSitesByLocalId.clear();
+        mSitesBySiteId.clear();
+        mSitesByXmlRpcUrl.clear();
+    }
+
+    private boolean isLoaded() {
+        return mLoadedDb != null && mLoadedDb == WellSql.giveMeReadableDb();
+    }
+
+    private void ensureLoaded() {
+        if (isLoaded()) {
+            return;
+        }
+        invalidate();
+        for (SiteModel site : WellSql.select(SiteModel.class).getAsModel()) {
+            mSitesByLocalId.put(site.getId(), site);
+        }
+        rebuildIndexes();
+        mLoadedDb = WellSql.giveMeReadableDb();
+    }
+
+    private void rebuildIndexes() {
+        mSitesBySiteId.clear();
+        mSitesByXmlRpcUrl.clear();
+        for (int i = 0, size = mSitesByLocalId.size(); i < size; i++) {
+            SiteModel site = mSitesByLocalId.valueAt(i);
+            if (site.getSiteId() != 0 && mSitesBySiteId.get(site.getSiteId()) == null) {
+                mSitesBySiteId.put(site.getSiteId(), site);
+            }
+            if (site.getXmlRpcUrl() != null && !mSitesByXmlRpcUrl.containsKey(site.getXmlRpcUrl())) {
+                mSitesByXmlRpcUrl.put(site.getXmlRpcUrl(), site);
+            }
+        }
+    }
+
+    @Nullable
+    private static SiteModel copy(@Nullable SiteModel site) {
+        return site != null ? site.clone() : null;
+    }
+}
@@ -2,31 +2,52 @@ package org.wordpress.android.fluxc.persistence;
 
 import android.content.ContentValues;
 import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+import android.util.SparseArray;
 
 import com.wellsql.generated.AccountModelTable;
 import com.wellsql.generated.PostFormatModelTable;
 import com.wellsql.generated.RoleModelTable;
 import com.wellsql.generated.SiteModelTable;
 import com.yarolegovich.wellsql.SelectQuery;
+import com.yarolegovich.wellsql.WellCursor;
 import com.yarolegovich.wellsql.WellSql;
 import com.yarolegovich.wellsql.mapper.InsertMapper;
+import com.yarolegovich.wellsql.mapper.SQLiteMapper;
 
 import org.wordpress.android.fluxc.model.AccountModel;
 import org.wordpress.android.fluxc.model.PostFormatModel;
 import org.wordpress.android.fluxc.model.RoleModel;
 import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.store.SiteStore.UpdateSitesResult;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.UrlUtils;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class SiteSqlUtils {
     public static class DuplicateSiteException extends Exception {
     }
 
+    private static final SiteModelCache SITE_CACHE = new SiteModelCache();
+
+    /**
+     * Returns the in-memory copy of the sites table, kept in sync with the writes made here.
+     */
+    public static SiteModelCache getSiteCache() {
+        return SITE_CACHE;
+    }
+
     public static SelectQuery<SiteModel> getSitesWith(String field, Object value) {
         return WellSql.select(SiteModel.class)
                 .where().equals(field, value).endWhere();
@@ -55,6 +76,13 @@ public class SiteSqlUtils {
                 .endWhere().getAsModel();
     }
 
+    /**
+     * Returns the sites with words starting with each word of the query in their name or url, the best matches first.
+     */
+    public static List<SiteModel> searchSites(String query, int limit) {
+        return FullTextSearchUtils.search(SiteModel.class, "SiteModel", query, null, null, limit);
+    }
+
     /**
      * Inserts the given SiteModel into the DB, or updates an existing entry where sites match.
      *
@@ -155,14 +183,17 @@ public class SiteSqlUtils {
             // No site with this local ID, REMOTE_ID + URL, or XMLRPC URL, then insert it
             AppLog.d(T.DB, "Inserting site: " + site.getUrl());
             WellSql.insert(site).asSingleTransaction(true).execute();
+            SITE_CACHE.onSiteWritten(site.getId());
             return 1;
         } else {
             // Update old site
             AppLog.d(T.DB, "Updating site: " + site.getUrl());
             int oldId = siteResult.get(0).getId();
             try {
-                return WellSql.update(SiteModel.class).whereId(oldId)
+                int rowsAffected = WellSql.update(SiteModel.class).whereId(oldId)
                         .put(site, new UpdateAllExceptId<>(SiteModel.class)).execute();
+                SITE_CACHE.onSiteWritten(oldId);
+                return rowsAffected;
             } catch (SQLiteConstraintException e) {
                 AppLog.e(T.DB, "Error while updating site: siteId=" + site.getSiteId() + " url=" + site.getUrl()
                         + " xmlrpc=" + site.getXmlRpcUrl(), e);
@@ -173,24 +204,106 @@ public class SiteSqlUtils {
         }
     }
 
+    /**
+     * Inserts or updates all the given sites, matching them with the sites in the DB the same way
+     * {@link #insertOrUpdateSite(SiteModel)} does, but in a single transaction.
+     *
+     * The keys used for matching are loaded once and indexed in memory, and kept up to date as the sites are written,
+     * so sites later in the list are matched against the ones written before them too.
+     */
+    public static UpdateSitesResult insertOrUpdateSites(@NonNull List<SiteModel> sites) {
+        UpdateSitesResult result = new UpdateSitesResult();
+        if (sites.isEmpty()) {
+            return result;
+        }
+
+        boolean hasWPComAccount = WellSql.select(AccountModel.class)
+                .where()
+                .not().equals(AccountModelTable.USER_ID, 0)
+                .endWhere()
+                .getAsCursor().getCount() > 0;
+
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        ExistingSites existingSites = ExistingSites.load();
+        SiteStatements statements = null;
+        int inserted = 0;
+        int updated = 0;
+        db.beginTransaction();
+        try {
+            for (SiteModel site : sites) {
+                if (site.isUsingWpComRestApi() && !hasWPComAccount) {
+                    AppLog.w(T.DB, "Can't insert WP.com site " + site.getUrl() + ", missing user account");
+                    continue;
+                }
+                SiteKey existingSite = existingSites.find(site);
+                if (existingSite == null) {
+                    existingSite = existingSites.findByXmlRpcUrl(site.getXmlRpcUrl());
+                    if (existingSite != null && existingSite.mOrigin == SiteModel.ORIGIN_WPCOM_REST) {
+                        // See insertOrUpdateSite() for the details
+                        AppLog.d(T.DB, "Site is a duplicate: " + site.getUrl());
+                        result.duplicateSiteFound = true;
+                        continue;
+                    }
+                }
+
+                if (statements == null) {
+                    statements = new SiteStatements(db, site);
+                }
+                try {
+                    if (existingSite == null) {
+                        site.setId(statements.insert(site));
+                        existingSites.add(new SiteKey(site.getId(), site));
+                        result.rowsAffected++;
+                        inserted++;
+                    } else {
+                        result.rowsAffected += statements.update(existingSite.mId, site);
+                        existingSites.remove(existingSite);
+                        existingSites.add(new SiteKey(existingSite.mId, site));
+                        updated++;
+                    }
+                } catch (SQLiteConstraintException e) {
+                    // Same as in insertOrUpdateSite(), can happen on self hosted sites with incorrect url values
+                    AppLog.e(T.DB, "Error while writing site: siteId=" + site.getSiteId() + " url=" + site.getUrl()
+                            + " xmlrpc=" + site.getXmlRpcUrl(), e);
+                    result.duplicateSiteFound = true;
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            if (statements != null) {
+                statements.close();
+            }
+            if (inserted + updated > 0) {
+                SITE_CACHE.invalidate();
+            }
+        }
+        AppLog.d(T.DB, "Sites synced: " + inserted + " inserted, " + updated + " updated");
+        return result;
+    }
+
     public static int deleteSite(SiteModel site) {
         if (site == null) {
             return 0;
         }
-        return WellSql.delete(SiteModel.class)
+        int rowsAffected = WellSql.delete(SiteModel.class)
                  .where().equals(SiteModelTable.ID, site.getId()).endWhere()
                  .execute();
+        SITE_CACHE.onSiteDeleted(site.getId());
+        return rowsAffected;
     }
 
     public static int deleteAllSites() {
-        return WellSql.delete(SiteModel.class).execute();
+        int rowsAffected = WellSql.delete(SiteModel.class).execute();
+        SITE_CACHE.invalidate();
+        return rowsAffected;
     }
 
     public static int setSiteVisibility(SiteModel site, boolean visible) {
         if (site == null) {
             return 0;
         }
-        return WellSql.update(SiteModel.class)
+        int rowsAffected = WellSql.update(SiteModel.class)
                 .whereId(site.getId())
                 .where().equals(SiteModelTable.IS_WPCOM, true).endWhere()
                 .put(visible, new InsertMapper<Boolean>() {
@@ -201,6 +314,8 @@ public class SiteSqlUtils {
                         return cv;
                     }
                 }).execute();
+        SITE_CACHE.onSiteWritten(site.getId());
+        return rowsAffected;
     }
 
     public static SelectQuery<SiteModel> getWPComSites() {
@@ -286,38 +401,247 @@ public class SiteSqlUtils {
      *  list of sites to keep in local database
      */
     public static int removeWPComRestSitesAbsentFromList(@NonNull List<SiteModel> sites) {
+        Set<Long> remoteSiteIds = new HashSet<>();
+        for (SiteModel site : sites) {
+            remoteSiteIds.add(site.getSiteId());
+        }
+        Set<Integer> localSiteIdsWithLocalChanges = PostSqlUtils.getLocalSiteIdsWithLocalChanges();
+
         // get all local WP.com+Jetpack sites
-        List<SiteModel> localSites = WellSql.select(SiteModel.class)
+        List<Integer> localSiteIdsToRemove = new ArrayList<>();
+        WellCursor<SiteModel> cursor = WellSql.select(SiteModel.class)
+                .columns(SiteModelTable.ID, SiteModelTable.SITE_ID)
                 .where()
                 .equals(SiteModelTable.ORIGIN, SiteModel.ORIGIN_WPCOM_REST)
-                .endWhere().getAsModel();
+                .endWhere().getAsCursor();
+        try {
+            while (cursor.moveToNext()) {
+                int localSiteId = cursor.getInt(0);
+                // don't remove sites with local changes, or if the remote ID matches a given site's ID
+                if (!localSiteIdsWithLocalChanges.contains(localSiteId)
+                    && !remoteSiteIds.contains(cursor.getLong(1))) {
+                    localSiteIdsToRemove.add(localSiteId);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
 
-        if (localSites.size() > 0) {
-            // iterate through all local WP.com+Jetpack sites
-            Iterator<SiteModel> localIterator = localSites.iterator();
-            while (localIterator.hasNext()) {
-                SiteModel localSite = localIterator.next();
+        if (localSiteIdsToRemove.isEmpty()) {
+            return 0;
+        }
 
-                // don't remove sites with local changes
-                if (PostSqlUtils.getSiteHasLocalChanges(localSite)) {
-                    localIterator.remove();
-                } else {
-                    // don't remove local site if the remote ID matches a given site's ID
-                    for (SiteModel site : sites) {
-                        if (site.getSiteId() == localSite.getSiteId()) {
-                            localIterator.remove();
-                            break;
-                        }
-                    }
+        // delete applicable sites
+        SQLiteDatabase db = WellSql.giveMeWritableDb();
+        SQLiteStatement deleteStatement = db.compileStatement("DELETE FROM SiteModel WHERE " + SiteModelTable.ID
+                                                              + "=?");
+        db.beginTransaction();
+        try {
+            for (int localSiteId : localSiteIdsToRemove) {
+                deleteStatement.bindLong(1, localSiteId);
+                deleteStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            deleteStatement.close();
+            SITE_CACHE.invalidate();
+        }
+        return localSiteIdsToRemove.size();
+    }
+
+    /**
+     * The columns of a site row used to match it with other sites.
+     */
+    private static class SiteKey {
+        private final int mId;
+        private final long mSiteId;
+        private final String mUrl;
+        private final String mXmlRpcUrl;
+        private final int mOrigin;
+
+        SiteKey(int id, long siteId, String url, String xmlRpcUrl, int origin) {
+            mId = id;
+            mSiteId = siteId;
+            mUrl = url;
+            mXmlRpcUrl = xmlRpcUrl;
+            mOrigin = origin;
+        }
+
+        SiteKey(int id, SiteModel site) {
+            this(id, site.getSiteId(), site.getUrl(), site.getXmlRpcUrl(), site.getOrigin());
+        }
+    }
+
+    /**
+     * In-memory indexes of the sites in the DB, answering the same lookups as the queries in
+     * {@link #insertOrUpdateSite(SiteModel)}. Each index keeps its sites sorted by local id, so a lookup returns the
+     * same site as the query would.
+     */
+    private static class ExistingSites {
+        private final SparseArray<SiteKey> mById = new SparseArray<>();
+        private final Map<Long, List<SiteKey>> mBySiteId = new HashMap<>();
+        private final Map<String, List<SiteKey>> mBySiteIdAndUrl = new HashMap<>();
+        // Keyed by XML-RPC url without the http:// or https:// scheme
+        private final Map<String, List<SiteKey>> mByXmlRpcUrl = new HashMap<>();
+
+        static ExistingSites load() {
+            ExistingSites existingSites = new ExistingSites();
+            WellCursor<SiteModel> cursor = WellSql.select(SiteModel.class)
+                    .columns(SiteModelTable.ID, SiteModelTable.SITE_ID, SiteModelTable.URL, SiteModelTable.XMLRPC_URL,
+                            SiteModelTable.ORIGIN)
+                    .orderBy(SiteModelTable.ID, SelectQuery.ORDER_ASCENDING)
+                    .getAsCursor();
+            try {
+                while (cursor.moveToNext()) {
+                    existingSites.add(new SiteKey(cursor.getInt(0), cursor.getLong(1), cursor.getString(2),
+                            cursor.getString(3), cursor.getInt(4)));
                 }
+            } finally {
+                cursor.close();
+            }
+            return existingSites;
+        }
+
+        @Nullable
+        SiteKey find(SiteModel site) {
+            SiteKey siteKey = mById.get(site.getId());
+            if (siteKey != null) {
+                return siteKey;
+            }
+            if (site.getSiteId() > 0) {
+                return first(mBySiteId, site.getSiteId());
+            }
+            return site.getUrl() == null ? null : first(mBySiteIdAndUrl, site.getSiteId() + " " + site.getUrl());
+        }
+
+        @Nullable
+        SiteKey findByXmlRpcUrl(String xmlRpcUrl) {
+            return xmlRpcUrl == null ? null : first(mByXmlRpcUrl, UrlUtils.removeScheme(xmlRpcUrl));
+        }
+
+        void add(SiteKey siteKey) {
+            mById.put(siteKey.mId, siteKey);
+            addSorted(mBySiteId, siteKey.mSiteId, siteKey);
+            if (siteKey.mUrl != null) {
+                addSorted(mBySiteIdAndUrl, siteKey.mSiteId + " " + siteKey.mUrl, siteKey);
+            }
+            String xmlRpcUrlKey = xmlRpcUrlKey(siteKey.mXmlRpcUrl);
+            if (xmlRpcUrlKey != null) {
+                addSorted(mByXmlRpcUrl, xmlRpcUrlKey, siteKey);
+            }
+        }
+
+        void remove(SiteKey siteKey) {
+            mById.remove(siteKey.mId);
+            remove(mBySiteId, siteKey.mSiteId, siteKey);
+            remove(mBySiteIdAndUrl, siteKey.mSiteId + " " + siteKey.mUrl, siteKey);
+            remove(mByXmlRpcUrl, xmlRpcUrlKey(siteKey.mXmlRpcUrl), siteKey);
+        }
+
+        @Nullable
+        private static String xmlRpcUrlKey(String xmlRpcUrl) {
+            // Only http and https urls can be matched, see insertOrUpdateSite()
+            if (xmlRpcUrl == null) {
+                return null;
+            } else if (xmlRpcUrl.startsWith("http://")) {
+                return xmlRpcUrl.substring("http://".length());
+            } else if (xmlRpcUrl.startsWith("https://")) {
+                return xmlRpcUrl.substring("https://".length());
+            }
+            return null;
+        }
+
+        @Nullable
+        private static <K> SiteKey first(Map<K, List<SiteKey>> index, K key) {
+            List<SiteKey> siteKeys = index.get(key);
+            return siteKeys == null || siteKeys.isEmpty() ? null : siteKeys.get(0);
+        }
+
+        private static <K> void addSorted(Map<K, List<SiteKey>> index, K key, SiteKey siteKey) {
+            List<SiteKey> siteKeys = index.get(key);
+            if (siteKeys == null) {
+                siteKeys = new ArrayList<>(1);
+                index.put(key, siteKeys);
+            }
+            int position = siteKeys.size();
+            while (position > 0 && siteKeys.get(position - 1).mId > siteKey.mId) {
+                position--;
+            }
+            siteKeys.add(position, siteKey);
+        }
+
+        private static <K> void remove(Map<K, List<SiteKey>> index, K key, SiteKey siteKey) {
+            List<SiteKey> siteKeys = index.get(key);
+            if (siteKeys != null) {
+                siteKeys.remove(siteKey);
             }
+        }
+    }
 
-            // delete applicable sites
-            for (SiteModel site : localSites) {
-                deleteSite(site);
+    /**
+     * Insert and update statements for the SiteModel table, compiled once and reused for all the sites.
+     */
+    private static class SiteStatements {
+        private final SQLiteMapper<SiteModel> mMapper = WellSql.mapperFor(SiteModel.class);
+        private final List<String> mColumns;
+        private final SQLiteStatement mInsertStatement;
+        private final SQLiteStatement mUpdateStatement;
+
+        SiteStatements(SQLiteDatabase db, SiteModel site) {
+            mColumns = new ArrayList<>(toCv(site).keySet());
+            StringBuilder placeholders = new StringBuilder();
+            StringBuilder assignments = new StringBuilder();
+            for (String column : mColumns) {
+                placeholders.append(placeholders.length() == 0 ? "?" : ",?");
+                assignments.append(assignments.length() == 0 ? "" : ",").append(column).append("=?");
             }
+            mInsertStatement = db.compileStatement("INSERT INTO SiteModel (" + TextUtils.join(",", mColumns)
+                                                   + ") VALUES (" + placeholders + ")");
+            mUpdateStatement = db.compileStatement("UPDATE SiteModel SET " + assignments
+                                                   + " WHERE " + SiteModelTable.ID + "=?");
         }
 
-        return localSites.size();
+        int insert(SiteModel site) {
+            bind(mInsertStatement, toCv(site));
+            return (int) mInsertStatement.executeInsert();
+        }
+
+        int update(int id, SiteModel site) {
+            bind(mUpdateStatement, toCv(site));
+            mUpdateStatement.bindLong(mColumns.size() + 1, id);
+            return mUpdateStatement.executeUpdateDelete();
+        }
+
+        void close() {
+            mInsertStatement.close();
+            mUpdateStatement.close();
+        }
+
+        private ContentValues toCv(SiteModel site) {
+            ContentValues cv = mMapper.toCv(site);
+            cv.remove(SiteModelTable.ID);
+            return cv;
+        }
+
+        private void bind(SQLiteStatement statement, ContentValues cv) {
+            statement.clearBindings();
+            for (int i = 0; i < mColumns.size(); i++) {
+                Object value = cv.get(mColumns.get(i));
+                if (value == null) {
+                    statement.bindNull(i + 1);
+                } else if (value instanceof Boolean) {
+                    statement.bindLong(i + 1, (Boolean) value ? 1 : 0);
+                } else if (value instanceof Float || value instanceof Double) {
+                    statement.bindDouble(i + 1, ((Number) value).doubleValue());
+                } else if (value instanceof Number) {
+                    statement.bindLong(i + 1, ((Number) value).longValue());
+                } else if (value instanceof byte[]) {
+                    statement.bindBlob(i + 1, (byte[]) value);
+                } else {
+                    statement.bindString(i + 1, value.toString());
+                }
+            }
+        }
     }
 }
@@ -3,16 +3,31 @@ package org.wordpress.android.fluxc.persistence
 import com.google.gson.Gson
 import com.google.gson.GsonBuilder
 import com.wellsql.generated.StatsBlockTable
+import com.wellsql.generated.StatsVisitsAndViewsTable
+import com.yarolegovich.wellsql.SelectQuery
 import com.yarolegovich.wellsql.WellSql
 import com.yarolegovich.wellsql.core.Identifiable
 import com.yarolegovich.wellsql.core.annotation.Column
 import com.yarolegovich.wellsql.core.annotation.PrimaryKey
+import com.yarolegovich.wellsql.core.annotation.RawConstraints
 import com.yarolegovich.wellsql.core.annotation.Table
 import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.stats.time.VisitsAndViewsModel
+import org.wordpress.android.fluxc.model.stats.time.VisitsAndViewsModel.PeriodData
+import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.DATE_FORMAT_DAY
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.DAY
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.INSIGHTS
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.MONTH
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.WEEK
+import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType.YEAR
+import java.text.SimpleDateFormat
+import java.util.Calendar
+import java.util.Locale
 import javax.inject.Inject
 import javax.inject.Singleton
 
 private const val DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ssZ"
+private val PERIOD_PATTERN = Regex("(\\d{4})(?:[-W](\\d{2})(?:[-W](\\d{2}))?)?")
 
 @Singleton
 class StatsSqlUtils
@@ -26,6 +41,7 @@ class StatsSqlUtils
         val json = gson.toJson(item)
         WellSql.delete(StatsBlockBuilder::class.java)
                 .where()
+                .equals(StatsBlockTable.LOCAL_SITE_ID, site.id)
                 .equals(StatsBlockTable.BLOCK_TYPE, blockType.name)
                 .equals(StatsBlockTable.STATS_TYPE, statsType.name)
                 .equals(StatsBlockTable.DATE, date)
@@ -63,7 +79,72 @@ class StatsSqlUtils
         return null
     }
 
+    /**
+     * Visits and views are stored one row per period instead of a JSON block, so they can be read without parsing the
+     * whole response and queried by period across fetches.
+     */
+    fun insertVisitsAndViews(site: SiteModel, statsType: StatsType, model: VisitsAndViewsModel, date: String) {
+        // Replaces the stored rows in one transaction, so readers never see them half replaced
+        val db = WellSql.giveMeWritableDb()
+        db.beginTransaction()
+        try {
+            WellSql.delete(VisitsAndViewsBuilder::class.java)
+                    .where()
+                    .equals(StatsVisitsAndViewsTable.LOCAL_SITE_ID, site.id)
+                    .equals(StatsVisitsAndViewsTable.STATS_TYPE, statsType.name)
+                    .equals(StatsVisitsAndViewsTable.DATE, date)
+                    .endWhere()
+                    .execute()
+            if (model.dates.isNotEmpty()) {
+                WellSql.insert(model.dates.map { VisitsAndViewsBuilder.fromPeriodData(site, statsType, date, it) })
+                        .execute()
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    fun selectVisitsAndViews(site: SiteModel, statsType: StatsType, date: String): VisitsAndViewsModel? {
+        val rows = WellSql.select(VisitsAndViewsBuilder::class.java)
+                .where()
+                .equals(StatsVisitsAndViewsTable.LOCAL_SITE_ID, site.id)
+                .equals(StatsVisitsAndViewsTable.STATS_TYPE, statsType.name)
+                .equals(StatsVisitsAndViewsTable.DATE, date)
+                .endWhere()
+                .orderBy(StatsVisitsAndViewsTable.PERIOD, SelectQuery.ORDER_ASCENDING)
+                .asModel
+        if (rows.isEmpty()) {
+            return null
+        }
+        return VisitsAndViewsModel(date, rows.map { it.toPeriodData() })
+    }
+
+    /**
+     * Returns the stored periods overlapping the days between [startDate] and [endDate] inclusive (both formatted as
+     * yyyy-MM-dd), whichever fetch they come from. When a period was stored by several fetches, the most recently
+     * stored one is used.
+     */
+    fun selectVisitsAndViewsPeriods(
+        site: SiteModel,
+        statsType: StatsType,
+        startDate: String,
+        endDate: String
+    ): List<PeriodData> {
+        val rows = WellSql.select(VisitsAndViewsBuilder::class.java)
+                .where()
+                .equals(StatsVisitsAndViewsTable.LOCAL_SITE_ID, site.id)
+                .equals(StatsVisitsAndViewsTable.STATS_TYPE, statsType.name)
+                .lessThenOrEqual(StatsVisitsAndViewsTable.PERIOD_START, endDate)
+                .greaterThenOrEqual(StatsVisitsAndViewsTable.PERIOD_END, startDate)
+                .endWhere()
+                .orderBy(StatsVisitsAndViewsTable.ID, SelectQuery.ORDER_DESCENDING)
+                .asModel
+        return rows.distinctBy { it.period }.sortedBy { it.periodStart }.map { it.toPeriodData() }
+    }
+
     @Table(name = "StatsBlock")
+    @TableIndexes("LOCAL_SITE_ID, BLOCK_TYPE, STATS_TYPE, DATE")
     data class StatsBlockBuilder(
         @PrimaryKey @Column private var mId: Int = -1,
         @Column var localSiteId: Int,
@@ -81,6 +162,104 @@ class StatsSqlUtils
         override fun getId() = mId
     }
 
+    /**
+     * [periodStart] and [periodEnd] are the first and last days of the period as yyyy-MM-dd, so ranges can be queried
+     * whatever the format of the [period] returned by the API.
+     */
+    @Table(name = "StatsVisitsAndViews")
+    @RawConstraints("UNIQUE(LOCAL_SITE_ID, STATS_TYPE, DATE, PERIOD) ON CONFLICT REPLACE")
+    @TableIndexes("LOCAL_SITE_ID, STATS_TYPE, PERIOD_START")
+    data class VisitsAndViewsBuilder(
+        @PrimaryKey @Column private var mId: Int = -1,
+        @Column var localSiteId: Int,
+        @Column var statsType: String,
+        @Column var date: String,
+        @Column var period: String,
+        @Column var periodStart: String,
+        @Column var periodEnd: String,
+        @Column var views: Long,
+        @Column var visitors: Long,
+        @Column var likes: Long,
+        @Column var reblogs: Long,
+        @Column var comments: Long,
+        @Column var posts: Long
+    ) : Identifiable {
+        constructor() : this(-1, -1, "", "", "", "", "", 0, 0, 0, 0, 0, 0)
+
+        override fun setId(id: Int) {
+            this.mId = id
+        }
+
+        override fun getId() = mId
+
+        fun toPeriodData() = PeriodData(period, views, visitors, likes, reblogs, comments, posts)
+
+        companion object {
+            fun fromPeriodData(
+                site: SiteModel,
+                statsType: StatsType,
+                date: String,
+                data: PeriodData
+            ): VisitsAndViewsBuilder {
+                val periodStart = parsePeriodStart(data.period)
+                return VisitsAndViewsBuilder(
+                        localSiteId = site.id,
+                        statsType = statsType.name,
+                        date = date,
+                        period = data.period,
+                        periodStart = periodStart?.let { formatDay(it) } ?: data.period,
+                        periodEnd = periodStart?.let { formatDay(getPeriodEnd(it, statsType)) } ?: data.period,
+                        views = data.views,
+                        visitors = data.visitors,
+                        likes = data.likes,
+                        reblogs = data.reblogs,
+                        comments = data.comments,
+                        posts = data.posts
+                )
+            }
+
+            /**
+             * Parses the first day of a period as returned by the API: 2018-10-08 for days, 2018W10W08 for weeks,
+             * 2018-10-01 or 2018-10 for months and 2018-01-01 or 2018 for years.
+             */
+            internal fun parsePeriodStart(period: String): Calendar? {
+                val match = PERIOD_PATTERN.matchEntire(period) ?: return null
+                val (year, month, day) = match.destructured
+                val calendar = Calendar.getInstance(Locale.US)
+                calendar.clear()
+                calendar.isLenient = false
+                calendar.set(
+                        year.toInt(),
+                        if (month.isEmpty()) Calendar.JANUARY else month.toInt() - 1,
+                        if (day.isEmpty()) 1 else day.toInt()
+                )
+                return try {
+                    calendar.timeInMillis
+                    calendar
+                } catch (e: IllegalArgumentException) {
+                    null
+                }
+            }
+
+            private fun getPeriodEnd(periodStart: Calendar, statsType: StatsType): Calendar {
+                val periodEnd = periodStart.clone() as Calendar
+                when (statsType) {
+                    WEEK -> periodEnd.add(Calendar.DAY_OF_YEAR, 6)
+                    MONTH -> periodEnd.set(Calendar.DAY_OF_MONTH, periodEnd.getActualMaximum(Calendar.DAY_OF_MONTH))
+                    YEAR -> periodEnd.set(Calendar.DAY_OF_YEAR, periodEnd.getActualMaximum(Calendar.DAY_OF_YEAR))
+                    INSIGHTS, DAY -> Unit
+                }
+                return periodEnd
+            }
+
+            private fun formatDay(calendar: Calendar): String {
+                val format = SimpleDateFormat(DATE_FORMAT_DAY, Locale.US)
+                format.timeZone = calendar.timeZone
+                return format.format(calendar.time)
+            }
+        }
+    }
+
     enum class StatsType {
         INSIGHTS,
         DAY,
@@ -0,0 +1,83 @@
+package org.wordpress.android.fluxc.persistence;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+
+import com.yarolegovich.wellsql.core.TableClass;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates and maintains the secondary indexes declared with {@link TableIndexes}.
+ */
+public class TableIndexUtils {
+    // Only indexes with this prefix are managed here, the ones SQLite creates for UNIQUE constraints are left alone
+    private static final String INDEX_NAME_PREFIX = "index_";
+
+    /**
+     * Creates the indexes declared on the table class, which must already be created.
+     */
+    public static void createIndexes(@NonNull SQLiteDatabase db, @NonNull Class<?> tableClass,
+                                     @NonNull TableClass table) {
+        for (Map.Entry<String, String> index : getDeclaredIndexes(tableClass, table.getTableName()).entrySet()) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS " + index.getKey() + " ON " + table.getTableName()
+                       + " (" + index.getValue() + ")");
+        }
+    }
+
+    /**
+     * Creates the indexes declared on the table classes that are missing from the DB, and drops the ones that aren't
+     * declared anymore.
+     */
+    public static void syncIndexes(@NonNull SQLiteDatabase db, @NonNull Map<Class<?>, TableClass> tables) {
+        Map<String, String> declaredIndexes = new HashMap<>();
+        for (Map.Entry<Class<?>, TableClass> table : tables.entrySet()) {
+            declaredIndexes.putAll(getDeclaredIndexes(table.getKey(), table.getValue().getTableName()));
+        }
+
+        List<String> existingIndexes = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'index' AND name LIKE ?",
+                new String[]{INDEX_NAME_PREFIX + "%"});
+        try {
+            while (cursor.moveToNext()) {
+                existingIndexes.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        for (String indexName : existingIndexes) {
+            if (!declaredIndexes.containsKey(indexName)) {
+                AppLog.d(T.DB, "Dropping index " + indexName);
+                db.execSQL("DROP INDEX IF EXISTS " + indexName);
+            }
+        }
+        for (Map.Entry<Class<?>, TableClass> table : tables.entrySet()) {
+            createIndexes(db, table.getKey(), table.getValue());
+        }
+    }
+
+    /**
+     * Returns the columns of the indexes declared on the table class, by index name.
+     */
+    private static Map<String, String> getDeclaredIndexes(Class<?> tableClass, String tableName) {
+        Map<String, String> indexes = new HashMap<>();
+        TableIndexes tableIndexes = tableClass.getAnnotation(TableIndexes.class);
+        if (tableIndexes == null) {
+            return indexes;
+        }
+        for (String columns : tableIndexes.value()) {
+            String normalizedColumns = columns.replaceAll("\\s", "");
+            indexes.put(INDEX_NAME_PREFIX + tableName + "_" + normalizedColumns.replace(',', '_'),
+                    normalizedColumns);
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,19 @@
+package org.wordpress.android.fluxc.persistence;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the secondary indexes of a WellSql table, one per value, as a comma-separated list of columns, e.g.
+ * {@code @TableIndexes({"LOCAL_SITE_ID, REMOTE_POST_ID"})}.
+ *
+ * The indexes are created along with the table, and {@link WellSqlConfig} brings the indexes of existing DBs in line
+ * with the declarations on every upgrade: the DB version must be bumped when they change.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface TableIndexes {
+    String[] value();
+}
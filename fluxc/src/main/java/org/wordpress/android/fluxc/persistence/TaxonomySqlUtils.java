@@ -1,14 +1,20 @@
 package org.wordpress.android.fluxc.persistence;
 
+import com.wellsql.generated.PostTermTable;
 import com.wellsql.generated.TermModelTable;
+import com.yarolegovich.wellsql.ConditionClauseBuilder;
+import com.yarolegovich.wellsql.DeleteQuery;
 import com.yarolegovich.wellsql.WellSql;
 
+import org.wordpress.android.fluxc.model.PostTermModel;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.model.TermModel;
 
 import java.util.Collections;
 import java.util.List;
 
+import static org.wordpress.android.fluxc.store.TaxonomyStore.DEFAULT_TAXONOMY_TAG;
+
 public class TaxonomySqlUtils {
     public static int insertOrUpdateTerm(TermModel term) {
         if (term == null) {
@@ -31,6 +37,7 @@ public class TaxonomySqlUtils {
             WellSql.insert(term).asSingleTransaction(true).execute();
             return 1;
         } else {
+            // The PostTerms of a renamed tag keep the name the posts reference, until the posts are fetched again
             return WellSql.update(TermModel.class).whereId(termResult.get(0).getId())
                     .put(term, new UpdateAllExceptId<>(TermModel.class)).execute();
         }
@@ -141,6 +148,7 @@ public class TaxonomySqlUtils {
             return 0;
         }
 
+        deletePostTerms(term);
         return WellSql.delete(TermModel.class)
                 .where().beginGroup()
                 .equals(TermModelTable.TAXONOMY, term.getTaxonomy())
@@ -153,4 +161,20 @@ public class TaxonomySqlUtils {
     public static int deleteAllTerms() {
         return WellSql.delete(TermModel.class).execute();
     }
+
+    private static void deletePostTerms(TermModel term) {
+        ConditionClauseBuilder<DeleteQuery<PostTermModel>> builder = WellSql.delete(PostTermModel.class)
+                .where().beginGroup()
+                .equals(PostTermTable.LOCAL_SITE_ID, term.getLocalSiteId())
+                .equals(PostTermTable.TAXONOMY, term.getTaxonomy());
+
+        // Posts reference tags by name
+        if (DEFAULT_TAXONOMY_TAG.equals(term.getTaxonomy())) {
+            builder.equals(PostTermTable.TERM_NAME, term.getName());
+        } else {
+            builder.equals(PostTermTable.REMOTE_TERM_ID, term.getRemoteTermId());
+        }
+
+        builder.endGroup().endWhere().execute();
+    }
 }
@@ -1,6 +1,8 @@
 package org.wordpress.android.fluxc.persistence
 
 import org.wordpress.android.fluxc.model.SiteModel
+import org.wordpress.android.fluxc.model.stats.time.VisitsAndViewsModel
+import org.wordpress.android.fluxc.model.stats.time.VisitsAndViewsModel.PeriodData
 import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.AuthorsRestClient.AuthorsResponse
 import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.ClicksRestClient.ClicksResponse
 import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.CountryViewsRestClient.CountryViewsResponse
@@ -9,7 +11,6 @@ import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.ReferrersRestCl
 import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.SearchTermsRestClient.SearchTermsResponse
 import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.StatsUtils
 import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.VideoPlaysRestClient.VideoPlaysResponse
-import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.VisitAndViewsRestClient.VisitsAndViewsResponse
 import org.wordpress.android.fluxc.network.utils.StatsGranularity
 import org.wordpress.android.fluxc.network.utils.StatsGranularity.DAYS
 import org.wordpress.android.fluxc.network.utils.StatsGranularity.MONTHS
@@ -22,7 +23,6 @@ import org.wordpress.android.fluxc.persistence.StatsSqlUtils.BlockType.POSTS_AND
 import org.wordpress.android.fluxc.persistence.StatsSqlUtils.BlockType.REFERRERS
 import org.wordpress.android.fluxc.persistence.StatsSqlUtils.BlockType.SEARCH_TERMS
 import org.wordpress.android.fluxc.persistence.StatsSqlUtils.BlockType.VIDEO_PLAYS
-import org.wordpress.android.fluxc.persistence.StatsSqlUtils.BlockType.VISITS_AND_VIEWS
 import org.wordpress.android.fluxc.persistence.StatsSqlUtils.StatsType
 import java.util.Date
 import javax.inject.Inject
@@ -61,10 +61,9 @@ class TimeStatsSqlUtils
         )
     }
 
-    fun insert(site: SiteModel, data: VisitsAndViewsResponse, granularity: StatsGranularity, date: Date) {
-        statsSqlUtils.insert(
+    fun insert(site: SiteModel, data: VisitsAndViewsModel, granularity: StatsGranularity, date: Date) {
+        statsSqlUtils.insertVisitsAndViews(
                 site,
-                VISITS_AND_VIEWS,
                 granularity.toStatsType(),
                 data,
                 statsUtils.getFormattedDate(site, date)
@@ -141,16 +140,28 @@ class TimeStatsSqlUtils
         )
     }
 
-    fun selectVisitsAndViews(site: SiteModel, granularity: StatsGranularity, date: Date): VisitsAndViewsResponse? {
-        return statsSqlUtils.select(
+    fun selectVisitsAndViews(site: SiteModel, granularity: StatsGranularity, date: Date): VisitsAndViewsModel? {
+        return statsSqlUtils.selectVisitsAndViews(
                 site,
-                VISITS_AND_VIEWS,
                 granularity.toStatsType(),
-                VisitsAndViewsResponse::class.java,
                 statsUtils.getFormattedDate(site, date)
         )
     }
 
+    fun selectVisitsAndViews(
+        site: SiteModel,
+        granularity: StatsGranularity,
+        startDate: Date,
+        endDate: Date
+    ): List<PeriodData> {
+        return statsSqlUtils.selectVisitsAndViewsPeriods(
+                site,
+                granularity.toStatsType(),
+                statsUtils.getFormattedDate(site, startDate),
+                statsUtils.getFormattedDate(site, endDate)
+        )
+    }
+
     fun selectCountryViews(site: SiteModel, granularity: StatsGranularity, date: Date): CountryViewsResponse? {
         return statsSqlUtils.select(
                 site,
@@ -47,28 +47,22 @@ public class UploadSqlUtils {
     public static int updateMediaProgressOnly(MediaUploadModel media) {
         if (media == null) return 0;
 
-        List<MediaUploadModel> existingMedia;
-        existingMedia = WellSql.select(MediaUploadModel.class)
-                .where()
-                .equals(MediaUploadModelTable.ID, media.getId())
-                .endWhere().getAsModel();
+        return updateMediaProgressOnly(media.getId(), media.getProgress());
+    }
 
-        if (existingMedia.isEmpty()) {
-            // We're only interested in updating the progress for existing MediaUploadModels
-            return 0;
-        } else {
-            // Update, media item already exists
-            int oldId = existingMedia.get(0).getId();
-            return WellSql.update(MediaUploadModel.class).whereId(oldId)
-                    .put(media, new InsertMapper<MediaUploadModel>() {
-                        @Override
-                        public ContentValues toCv(MediaUploadModel item) {
-                            ContentValues cv = new ContentValues();
-                            cv.put(MediaUploadModelTable.PROGRESS, item.getProgress());
-                            return cv;
-                        }
-                    }).execute();
-        }
+    /**
+     * Updates the progress of an existing MediaUploadModel, does nothing if there is none for this media.
+     */
+    public static int updateMediaProgressOnly(int localMediaId, float progress) {
+        return WellSql.update(MediaUploadModel.class).whereId(localMediaId)
+                .put(progress, new InsertMapper<Float>() {
+                    @Override
+                    public ContentValues toCv(Float item) {
+                        ContentValues cv = new ContentValues();
+                        cv.put(MediaUploadModelTable.PROGRESS, item);
+                        return cv;
+                    }
+                }).execute();
     }
 
     public static @Nullable MediaUploadModel getMediaUploadModelForLocalId(int localMediaId) {
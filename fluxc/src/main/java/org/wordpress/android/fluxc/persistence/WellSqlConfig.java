@@ -1,7 +1,9 @@
 package org.wordpress.android.fluxc.persistence;
 
+import android.content.ContentValues;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.os.Build;
 import android.preference.PreferenceManager;
@@ -14,6 +16,8 @@ import com.yarolegovich.wellsql.core.Identifiable;
 import com.yarolegovich.wellsql.core.TableClass;
 import com.yarolegovich.wellsql.mapper.SQLiteMapper;
 
+import org.wordpress.android.fluxc.model.PostModel;
+import org.wordpress.android.fluxc.store.TaxonomyStore;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
@@ -21,7 +25,9 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 
 import static java.lang.annotation.RetentionPolicy.SOURCE;
@@ -33,17 +39,46 @@ public class WellSqlConfig extends DefaultWellConfig {
     public @interface AddOn {}
     public static final String ADDON_WOOCOMMERCE = "WC";
 
+    public enum StorageMode {
+        /**
+         * Rollback journal: reads and writes share a single connection, so a read waits for any running write
+         * transaction to finish.
+         */
+        ROLLBACK_JOURNAL,
+        /**
+         * Write-ahead logging: writes still go through a single connection, but reads run on a small pool of other
+         * connections, and see the last committed data without waiting for the writer.
+         */
+        WRITE_AHEAD_LOGGING
+    }
+
+    // Page cache of the writer connection, in KiB
+    private static final int CACHE_SIZE_KB = 4096;
+    private static final long MMAP_SIZE_BYTES = 16 * 1024 * 1024;
+
+    private final StorageMode mStorageMode;
+
     public WellSqlConfig(Context context) {
         super(context);
+        mStorageMode = StorageMode.WRITE_AHEAD_LOGGING;
     }
 
     public WellSqlConfig(Context context, @AddOn String... addOns) {
+        this(context, StorageMode.WRITE_AHEAD_LOGGING, addOns);
+    }
+
+    public WellSqlConfig(Context context, StorageMode storageMode, @AddOn String... addOns) {
         super(context, new HashSet<>(Arrays.asList(addOns)));
+        mStorageMode = storageMode;
+    }
+
+    public StorageMode getStorageMode() {
+        return mStorageMode;
     }
 
     @Override
     public int getDbVersion() {
-        return 49;
+        return 54;
     }
 
     @Override
@@ -55,6 +90,8 @@ public class WellSqlConfig extends DefaultWellConfig {
     public void onCreate(SQLiteDatabase db, WellTableManager helper) {
         for (Class<? extends Identifiable> table : mTables) {
             helper.createTable(table);
+            TableIndexUtils.createIndexes(db, table, getTable(table));
+            FullTextSearchUtils.createSearchTable(db, table, getTable(table));
         }
     }
 
@@ -404,7 +441,44 @@ public class WellSqlConfig extends DefaultWellConfig {
                 AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
                 db.execSQL("ALTER TABLE PostModel ADD REMOTE_LAST_MODIFIED TEXT");
                 oldVersion++;
+            case 49:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                db.execSQL("DELETE FROM StatsBlock WHERE BLOCK_TYPE='VISITS_AND_VIEWS'");
+                db.execSQL("CREATE TABLE StatsVisitsAndViews (_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                           + "LOCAL_SITE_ID INTEGER,STATS_TYPE TEXT NOT NULL,DATE TEXT NOT NULL,PERIOD TEXT NOT NULL,"
+                           + "VIEWS INTEGER,VISITORS INTEGER,LIKES INTEGER,REBLOGS INTEGER,COMMENTS INTEGER,"
+                           + "POSTS INTEGER,UNIQUE(LOCAL_SITE_ID, STATS_TYPE, DATE, PERIOD) ON CONFLICT REPLACE)");
+                oldVersion++;
+            case 50:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                // Adds the first @TableIndexes, created below
+                oldVersion++;
+            case 51:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                // Adds the first @FullTextSearch tables, created below
+                oldVersion++;
+            case 52:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                db.execSQL("CREATE TABLE PostTerm (_id INTEGER PRIMARY KEY AUTOINCREMENT,LOCAL_POST_ID INTEGER,"
+                           + "LOCAL_SITE_ID INTEGER,TAXONOMY TEXT,REMOTE_TERM_ID INTEGER,TERM_NAME TEXT,"
+                           + "FOREIGN KEY(LOCAL_POST_ID) REFERENCES PostModel(_id) ON DELETE CASCADE)");
+                populatePostTerms(db);
+                oldVersion++;
+            case 53:
+                AppLog.d(T.DB, "Migrating to version " + (oldVersion + 1));
+                // The stored stats are a cache, refetched with the period bounds
+                db.execSQL("DELETE FROM StatsVisitsAndViews");
+                db.execSQL("ALTER TABLE StatsVisitsAndViews ADD PERIOD_START TEXT");
+                db.execSQL("ALTER TABLE StatsVisitsAndViews ADD PERIOD_END TEXT");
+                oldVersion++;
         }
+        // Bring the indexes and search tables in line with the @TableIndexes and @FullTextSearch declarations
+        Map<Class<?>, TableClass> tables = new HashMap<>();
+        for (Class<? extends Identifiable> table : mTables) {
+            tables.put(table, getTable(table));
+        }
+        TableIndexUtils.syncIndexes(db, tables);
+        FullTextSearchUtils.syncSearchTables(db, tables);
         db.setTransactionSuccessful();
         db.endTransaction();
     }
@@ -416,6 +490,7 @@ public class WellSqlConfig extends DefaultWellConfig {
         } else {
             db.execSQL("PRAGMA foreign_keys=ON;");
         }
+        configureStorage(db);
     }
 
     @Override
@@ -432,6 +507,70 @@ public class WellSqlConfig extends DefaultWellConfig {
             TableClass table = getTable(clazz);
             db.execSQL("DROP TABLE IF EXISTS " + table.getTableName());
             db.execSQL(table.createStatement());
+            TableIndexUtils.createIndexes(db, clazz, table);
+            FullTextSearchUtils.createSearchTable(db, clazz, table);
+        }
+        SiteSqlUtils.getSiteCache().invalidate();
+        HTTPAuthSqlUtils.getAuthModelCache().invalidate();
+    }
+
+    /**
+     * Applies the {@link StorageMode}, and sizes the page cache and memory map of the connection.
+     *
+     * Android doesn't let us configure the pooled read connections it opens in WAL mode, so the pragmas only apply to
+     * the primary connection, which all the writes go through.
+     */
+    private void configureStorage(SQLiteDatabase db) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            // onConfigure() isn't called by SQLiteOpenHelper before API 16, there's no safe point to switch modes
+            return;
+        }
+        if (mStorageMode == StorageMode.WRITE_AHEAD_LOGGING) {
+            db.enableWriteAheadLogging();
+            // With WAL, a crash can only lose the last commits, not corrupt the DB, so syncing on checkpoints is enough
+            db.execSQL("PRAGMA synchronous=NORMAL;");
+        } else {
+            // The journal mode is persistent, undo a previous WAL configuration
+            db.disableWriteAheadLogging();
+        }
+        db.execSQL("PRAGMA cache_size=-" + CACHE_SIZE_KB + ";");
+        // This pragma returns the new size, which execSQL() rejects
+        Cursor cursor = db.rawQuery("PRAGMA mmap_size=" + MMAP_SIZE_BYTES + ";", null);
+        try {
+            cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Fills the PostTerm table from the category ids and tag names serialized in PostModel.
+     */
+    private void populatePostTerms(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT _id, LOCAL_SITE_ID, CATEGORY_IDS, TAG_NAMES FROM PostModel", null);
+        try {
+            PostModel post = new PostModel();
+            ContentValues values = new ContentValues();
+            while (cursor.moveToNext()) {
+                post.setCategoryIds(cursor.getString(2));
+                post.setTagNames(cursor.getString(3));
+                values.put("LOCAL_POST_ID", cursor.getInt(0));
+                values.put("LOCAL_SITE_ID", cursor.getInt(1));
+                values.put("TAXONOMY", TaxonomyStore.DEFAULT_TAXONOMY_CATEGORY);
+                values.putNull("TERM_NAME");
+                for (Long categoryId : new LinkedHashSet<>(post.getCategoryIdList())) {
+                    values.put("REMOTE_TERM_ID", categoryId);
+                    db.insert("PostTerm", null, values);
+                }
+                values.put("TAXONOMY", TaxonomyStore.DEFAULT_TAXONOMY_TAG);
+                values.put("REMOTE_TERM_ID", 0);
+                for (String tagName : new LinkedHashSet<>(post.getTagNameList())) {
+                    values.put("TERM_NAME", tagName);
+                    db.insert("PostTerm", null, values);
+                }
+            }
+        } finally {
+            cursor.close();
         }
     }
 
@@ -4,8 +4,6 @@ import android.arch.lifecycle.Lifecycle
 import android.arch.paging.LivePagedListBuilder
 import android.arch.paging.PagedList
 import android.arch.paging.PagedList.BoundaryCallback
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.ListAction
@@ -14,11 +12,14 @@ import org.wordpress.android.fluxc.action.ListAction.LIST_ITEMS_CHANGED
 import org.wordpress.android.fluxc.action.ListAction.LIST_ITEMS_REMOVED
 import org.wordpress.android.fluxc.action.ListAction.REMOVE_ALL_LISTS
 import org.wordpress.android.fluxc.action.ListAction.REMOVE_EXPIRED_LISTS
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.list.LIST_STATE_TIMEOUT
 import org.wordpress.android.fluxc.model.list.ListDescriptor
 import org.wordpress.android.fluxc.model.list.ListDescriptorTypeIdentifier
+import org.wordpress.android.fluxc.model.list.ListDescriptorUniqueIdentifier
 import org.wordpress.android.fluxc.model.list.ListItemModel
+import org.wordpress.android.fluxc.model.list.ListItemsDelta
 import org.wordpress.android.fluxc.model.list.ListModel
 import org.wordpress.android.fluxc.model.list.ListState
 import org.wordpress.android.fluxc.model.list.ListState.FETCHED
@@ -43,13 +44,13 @@ const val DEFAULT_EXPIRATION_DURATION = 1000L * 60 * 60 * 24 * 7
  * as little as possible to the consumers and make sure the exposed parts are immutable. This not only moves the
  * responsibility of mutation to the Store but also makes it much easier to use the exposed data.
  */
+@HandlesActions(ListAction::class)
 @Singleton
 class ListStore @Inject constructor(
     private val listSqlUtils: ListSqlUtils,
     private val listItemSqlUtils: ListItemSqlUtils,
     dispatcher: Dispatcher
 ) : Store(dispatcher) {
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? ListAction ?: return
 
@@ -95,12 +96,12 @@ class ListStore @Inject constructor(
                 dataStore.fetchList(listDescriptor, offset)
             }
         }
-        val isEmpty = {
-            getListItems(listDescriptor).isEmpty()
-        }
 
         // Create the PagedList
         val factory = PagedListFactory(dataStore, listDescriptor, getList, isListFullyFetched, transform)
+        val isEmpty = {
+            factory.getRemoteItemIds().isEmpty()
+        }
         val callback = object : BoundaryCallback<PagedListItemType<R>>() {
             override fun onItemAtEndLoaded(itemAtEnd: PagedListItemType<R>) {
                 // Load more items if we are near the end of list
@@ -124,6 +125,7 @@ class ListStore @Inject constructor(
                 lifecycle = lifecycle,
                 refresh = fetchFirstPage,
                 invalidate = factory::invalidate,
+                applyDelta = factory::applyDelta,
                 isListEmpty = isEmpty
         )
     }
@@ -215,7 +217,12 @@ class ListStore @Inject constructor(
         } else {
             if (payload.loadedMore) CauseOfListChange.LOADED_MORE else CauseOfListChange.FIRST_PAGE_FETCHED
         }
-        emitChange(OnListChanged(listOf(payload.listDescriptor), causeOfChange, payload.error))
+        val delta = when (causeOfChange) {
+            CauseOfListChange.ERROR -> ListItemsDelta.Unchanged
+            CauseOfListChange.LOADED_MORE -> ListItemsDelta.Inserted(payload.remoteItemIds)
+            CauseOfListChange.FIRST_PAGE_FETCHED -> ListItemsDelta.Reset(payload.remoteItemIds)
+        }
+        emitChange(OnListChanged(listOf(payload.listDescriptor), causeOfChange, payload.error, delta))
         handleListStateChange(payload.listDescriptor, newState, payload.error)
     }
 
@@ -238,25 +245,33 @@ class ListStore @Inject constructor(
     private fun handleListItemsRemoved(payload: ListItemsRemovedPayload) {
         val lists = listSqlUtils.getListsWithTypeIdentifier(payload.type)
         listItemSqlUtils.deleteItemsFromLists(lists.map { it.id }, payload.remoteItemIds)
-        emitChange(OnListItemsChanged(payload.type, error = null))
+        val delta = ListItemsDelta.Removed(payload.remoteItemIds.toSet())
+        emitChange(OnListItemsChanged(payload.type, error = null, delta = delta))
     }
 
     /**
      * Handles the [ListAction.REMOVE_EXPIRED_LISTS] action.
      *
-     * It deletes [ListModel]s that hasn't been updated for the given [RemoveExpiredListsPayload.expirationDuration].
+     * It deletes [ListModel]s that hasn't been updated for the given [RemoveExpiredListsPayload.expirationDuration]
+     * and emits [OnListsRemoved] for them.
      */
     private fun handleRemoveExpiredLists(payload: RemoveExpiredListsPayload) {
-        listSqlUtils.deleteExpiredLists(payload.expirationDuration)
+        emitListsRemoved(listSqlUtils.deleteExpiredLists(payload.expirationDuration))
     }
 
     /**
      * Handles the [ListAction.REMOVE_ALL_LISTS] action.
      *
-     * It simply deletes every [ListModel] in the DB.
+     * It deletes every [ListModel] in the DB and emits [OnListsRemoved] for them.
      */
     private fun handleRemoveAllLists() {
-        listSqlUtils.deleteAllLists()
+        emitListsRemoved(listSqlUtils.deleteAllLists())
+    }
+
+    private fun emitListsRemoved(uniqueIdentifiers: List<ListDescriptorUniqueIdentifier>) {
+        if (uniqueIdentifiers.isNotEmpty()) {
+            emitChange(OnListsRemoved(uniqueIdentifiers.toSet()))
+        }
     }
 
     /**
@@ -300,11 +315,14 @@ class ListStore @Inject constructor(
 
     /**
      * The event to be emitted when there is a change to a [ListModel].
+     *
+     * @property delta How the remote item ids of the lists changed.
      */
     class OnListChanged(
         val listDescriptors: List<ListDescriptor>,
         val causeOfChange: CauseOfListChange,
-        error: ListError?
+        error: ListError?,
+        val delta: ListItemsDelta = ListItemsDelta.Unchanged
     ) : Store.OnChanged<ListError>() {
         enum class CauseOfListChange {
             ERROR, FIRST_PAGE_FETCHED, LOADED_MORE
@@ -330,16 +348,26 @@ class ListStore @Inject constructor(
 
     /**
      * The event to be emitted when there is a change to items for a specific [ListDescriptorTypeIdentifier].
+     *
+     * @property delta How the remote item ids of the lists with the [ListDescriptorTypeIdentifier] changed.
      */
     class OnListItemsChanged(
         val type: ListDescriptorTypeIdentifier,
-        error: ListError?
+        error: ListError?,
+        val delta: ListItemsDelta = ListItemsDelta.Unchanged
     ) : Store.OnChanged<ListError>() {
         init {
             this.error = error
         }
     }
 
+    /**
+     * The event to be emitted when lists are deleted from the DB, along with their items.
+     *
+     * @property uniqueIdentifiers The [ListDescriptorUniqueIdentifier]s of the deleted lists.
+     */
+    class OnListsRemoved(val uniqueIdentifiers: Set<ListDescriptorUniqueIdentifier>) : Store.OnChanged<ListError>()
+
     /**
      * This is the payload for [ListAction.LIST_ITEMS_CHANGED].
      *
@@ -7,13 +7,13 @@ import android.text.TextUtils;
 import com.wellsql.generated.MediaModelTable;
 import com.yarolegovich.wellsql.WellCursor;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.MediaAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
+import org.wordpress.android.fluxc.generated.MediaActionBuilder;
 import org.wordpress.android.fluxc.model.MediaModel;
 import org.wordpress.android.fluxc.model.MediaModel.MediaUploadState;
 import org.wordpress.android.fluxc.model.PostModel;
@@ -24,6 +24,7 @@ import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
 import org.wordpress.android.fluxc.network.rest.wpcom.WPComGsonRequest.WPComGsonNetworkError;
 import org.wordpress.android.fluxc.network.rest.wpcom.media.MediaRestClient;
 import org.wordpress.android.fluxc.network.xmlrpc.media.MediaXMLRPCClient;
+import org.wordpress.android.fluxc.persistence.FullTextSearchUtils;
 import org.wordpress.android.fluxc.persistence.MediaSqlUtils;
 import org.wordpress.android.fluxc.utils.MediaUtils;
 import org.wordpress.android.util.AppLog;
@@ -39,6 +40,7 @@ import java.util.Locale;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+@HandlesActions(MediaAction.class)
 @Singleton
 public class MediaStore extends Store {
     public static final int DEFAULT_NUM_MEDIA_PER_FETCH = 50;
@@ -419,6 +421,7 @@ public class MediaStore extends Store {
 
     private final MediaRestClient mMediaRestClient;
     private final MediaXMLRPCClient mMediaXmlrpcClient;
+    private final MediaUploadScheduler mUploadScheduler;
     // Ensures that the UploadStore is initialized whenever the MediaStore is,
     // to ensure actions are shadowed and repeated by the UploadStore
     @SuppressWarnings("unused")
@@ -429,9 +432,9 @@ public class MediaStore extends Store {
         super(dispatcher);
         mMediaRestClient = restClient;
         mMediaXmlrpcClient = xmlrpcClient;
+        mUploadScheduler = new MediaUploadScheduler(restClient, xmlrpcClient);
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
@@ -637,6 +640,14 @@ public class MediaStore extends Store {
         return MediaSqlUtils.searchSiteMedia(siteModel, searchTerm);
     }
 
+    /**
+     * Unlike {@link #searchSiteMedia}, matches words starting with each word of the query, and returns the best
+     * matches first.
+     */
+    public List<MediaModel> searchSiteMediaByRelevance(SiteModel siteModel, String query) {
+        return MediaSqlUtils.searchSiteMediaByRelevance(siteModel, query, FullTextSearchUtils.DEFAULT_RESULT_LIMIT);
+    }
+
     public List<MediaModel> searchSiteImages(SiteModel siteModel, String searchTerm) {
         return MediaSqlUtils.searchSiteImages(siteModel, searchTerm);
     }
@@ -682,6 +693,7 @@ public class MediaStore extends Store {
     }
 
     private void removeAllMedia() {
+        mUploadScheduler.clearQueue();
         MediaSqlUtils.deleteAllMedia();
         OnMediaChanged event = new OnMediaChanged(MediaAction.REMOVE_ALL_MEDIA);
         emitChange(event);
@@ -758,18 +770,11 @@ public class MediaStore extends Store {
             return;
         }
 
-        payload.media.setUploadState(MediaUploadState.UPLOADING);
-        MediaSqlUtils.insertOrUpdateMedia(payload.media);
-
         if (payload.stripLocation) {
             MediaUtils.stripLocation(payload.media.getFilePath());
         }
 
-        if (payload.site.isUsingWpComRestApi()) {
-            mMediaRestClient.uploadMedia(payload.site, payload.media);
-        } else {
-            mMediaXmlrpcClient.uploadMedia(payload.site, payload.media);
-        }
+        mUploadScheduler.enqueue(payload.site, payload.media);
     }
 
     private void performFetchMediaList(FetchMediaListPayload payload) {
@@ -830,7 +835,11 @@ public class MediaStore extends Store {
             MediaSqlUtils.insertOrUpdateMedia(media);
         }
 
-        if (payload.site.isUsingWpComRestApi()) {
+        if (mUploadScheduler.cancel(media)) {
+            // The upload wasn't running, there's no call to cancel
+            ProgressPayload canceledPayload = new ProgressPayload(media, 0.f, false, true);
+            mDispatcher.dispatch(MediaActionBuilder.newCanceledMediaUploadAction(canceledPayload));
+        } else if (payload.site.isUsingWpComRestApi()) {
             mMediaRestClient.cancelUpload(media);
         } else {
             mMediaXmlrpcClient.cancelUpload(media);
@@ -848,13 +857,19 @@ public class MediaStore extends Store {
     }
 
     private void handleMediaUploaded(@NonNull ProgressPayload payload) {
-        if (payload.isError() || payload.canceled || payload.completed) {
+        boolean finished = payload.isError() || payload.canceled || payload.completed;
+        if (finished) {
             updateMedia(payload.media, false);
         }
         OnMediaUploaded onMediaUploaded =
                 new OnMediaUploaded(payload.media, payload.progress, payload.completed, payload.canceled);
         onMediaUploaded.error = payload.error;
         emitChange(onMediaUploaded);
+
+        if (finished && payload.media != null) {
+            // Makes room for the next upload
+            mUploadScheduler.onUploadFinished(payload.media);
+        }
     }
 
     private void handleMediaCanceled(@NonNull ProgressPayload payload) {
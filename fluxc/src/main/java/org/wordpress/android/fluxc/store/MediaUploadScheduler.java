@@ -0,0 +1,251 @@
+package org.wordpress.android.fluxc.store;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.fluxc.model.MediaModel.MediaUploadState;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.network.MediaUploadRetryHandler;
+import org.wordpress.android.fluxc.network.rest.wpcom.media.MediaRestClient;
+import org.wordpress.android.fluxc.network.xmlrpc.media.MediaXMLRPCClient;
+import org.wordpress.android.fluxc.persistence.MediaSqlUtils;
+import org.wordpress.android.fluxc.store.MediaStore.MediaError;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Schedules the media uploads of the {@link MediaStore}, instead of starting them all at once.
+ *
+ * At most {@link #MAX_CONCURRENT_UPLOADS} uploads run at the same time, and at most
+ * {@link #MAX_CONCURRENT_UPLOADS_PER_SITE} for a given site, which leaves room for the other requests to the same
+ * host. The other uploads wait in a queue, as {@link MediaUploadState#QUEUED} in the DB. Media attached to a post go
+ * first, then uploads are started in the order they were added. A media already queued or uploading is not added
+ * again, so it can't be uploaded twice at once.
+ *
+ * Uploads failing with a timeout or a connection error are retried from the start, after an exponential backoff.
+ */
+public class MediaUploadScheduler implements MediaUploadRetryHandler {
+    static final int MAX_CONCURRENT_UPLOADS = 4;
+    static final int MAX_CONCURRENT_UPLOADS_PER_SITE = 2;
+    static final int MAX_RETRIES = 3;
+    static final long BASE_RETRY_DELAY_MS = 2000;
+
+    private static class Upload {
+        private final SiteModel mSite;
+        private final MediaModel mMedia;
+        private final long mSequenceNumber;
+        private int mRetryCount;
+        private Runnable mPendingRetry;
+
+        Upload(SiteModel site, MediaModel media, long sequenceNumber) {
+            mSite = site;
+            mMedia = media;
+            mSequenceNumber = sequenceNumber;
+        }
+
+        boolean isAttachedToPost() {
+            return mMedia.getLocalPostId() > 0;
+        }
+    }
+
+    private static final Comparator<Upload> UPLOAD_PRIORITY = new Comparator<Upload>() {
+        @Override
+        public int compare(Upload upload1, Upload upload2) {
+            if (upload1.isAttachedToPost() != upload2.isAttachedToPost()) {
+                return upload1.isAttachedToPost() ? -1 : 1;
+            }
+            return upload1.mSequenceNumber < upload2.mSequenceNumber ? -1 : 1;
+        }
+    };
+
+    private final MediaRestClient mMediaRestClient;
+    private final MediaXMLRPCClient mMediaXmlrpcClient;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final PriorityQueue<Upload> mQueuedUploads = new PriorityQueue<>(11, UPLOAD_PRIORITY);
+    // Queued uploads by local media id, kept in sync with mQueuedUploads
+    private final SparseArray<Upload> mQueuedUploadsById = new SparseArray<>();
+    // Started uploads by local media id, including the ones waiting to be retried
+    private final SparseArray<Upload> mRunningUploads = new SparseArray<>();
+    // Number of running uploads by local site id
+    private final SparseIntArray mRunningUploadCounts = new SparseIntArray();
+    private long mNextSequenceNumber;
+
+    public MediaUploadScheduler(MediaRestClient mediaRestClient, MediaXMLRPCClient mediaXmlrpcClient) {
+        mMediaRestClient = mediaRestClient;
+        mMediaXmlrpcClient = mediaXmlrpcClient;
+        mMediaRestClient.setUploadRetryHandler(this);
+        mMediaXmlrpcClient.setUploadRetryHandler(this);
+    }
+
+    /**
+     * Adds the upload to the queue, and starts it right away if there's room for it. Does nothing if the media is
+     * already queued or uploading.
+     */
+    public void enqueue(@NonNull SiteModel site, @NonNull MediaModel media) {
+        synchronized (this) {
+            int localMediaId = media.getId();
+            if (mQueuedUploadsById.get(localMediaId) != null || mRunningUploads.get(localMediaId) != null) {
+                AppLog.w(T.MEDIA, "Media " + localMediaId + " is already queued or uploading, ignoring");
+                return;
+            }
+            Upload upload = new Upload(site, media, mNextSequenceNumber++);
+            mQueuedUploads.add(upload);
+            mQueuedUploadsById.put(localMediaId, upload);
+            media.setUploadState(MediaUploadState.QUEUED);
+        }
+        MediaSqlUtils.insertOrUpdateMedia(media);
+        startNextUploads();
+    }
+
+    /**
+     * Removes the upload from the scheduler.
+     *
+     * @return true if the upload was waiting to be started or retried, in which case there is no call to cancel;
+     * false if it's running, or not known by the scheduler
+     */
+    public boolean cancel(@NonNull MediaModel media) {
+        boolean wasWaiting;
+        synchronized (this) {
+            wasWaiting = removeQueuedUpload(media.getId());
+            Upload upload = mRunningUploads.get(media.getId());
+            if (upload != null) {
+                if (upload.mPendingRetry != null) {
+                    mHandler.removeCallbacks(upload.mPendingRetry);
+                    wasWaiting = true;
+                }
+                removeRunningUpload(upload);
+            }
+        }
+        startNextUploads();
+        return wasWaiting;
+    }
+
+    /**
+     * Called once the upload completed or failed, to start the next one.
+     */
+    public void onUploadFinished(@NonNull MediaModel media) {
+        synchronized (this) {
+            Upload upload = mRunningUploads.get(media.getId());
+            if (upload != null) {
+                removeRunningUpload(upload);
+            }
+        }
+        startNextUploads();
+    }
+
+    /**
+     * Drops all the uploads waiting to be started. Running uploads are not affected.
+     */
+    public synchronized void clearQueue() {
+        mQueuedUploads.clear();
+        mQueuedUploadsById.clear();
+    }
+
+    @Override
+    public boolean retryUpload(@NonNull MediaModel media, @NonNull MediaError error) {
+        final Upload upload;
+        synchronized (this) {
+            upload = mRunningUploads.get(media.getId());
+            if (upload == null || upload.mRetryCount >= MAX_RETRIES || !isTransientError(error)) {
+                return false;
+            }
+            long delayMs = BASE_RETRY_DELAY_MS << upload.mRetryCount;
+            upload.mRetryCount++;
+            AppLog.w(T.MEDIA, "Upload of media " + media.getId() + " failed with " + error.type + ", retrying in "
+                              + delayMs + "ms (retry " + upload.mRetryCount + "/" + MAX_RETRIES + ")");
+            upload.mPendingRetry = new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (MediaUploadScheduler.this) {
+                        if (mRunningUploads.get(upload.mMedia.getId()) != upload) {
+                            // Cancelled in the meantime
+                            return;
+                        }
+                        upload.mPendingRetry = null;
+                    }
+                    startUpload(upload);
+                }
+            };
+            mHandler.postDelayed(upload.mPendingRetry, delayMs);
+        }
+        return true;
+    }
+
+    synchronized int getQueuedUploadCount() {
+        return mQueuedUploads.size();
+    }
+
+    synchronized int getRunningUploadCount() {
+        return mRunningUploads.size();
+    }
+
+    private void startNextUploads() {
+        List<Upload> uploadsToStart = new ArrayList<>();
+        synchronized (this) {
+            // Uploads for sites already running as many uploads as they can are put back in the queue
+            List<Upload> skippedUploads = new ArrayList<>();
+            while (mRunningUploads.size() < MAX_CONCURRENT_UPLOADS && !mQueuedUploads.isEmpty()) {
+                Upload upload = mQueuedUploads.poll();
+                int localSiteId = upload.mSite.getId();
+                if (mRunningUploadCounts.get(localSiteId) >= MAX_CONCURRENT_UPLOADS_PER_SITE) {
+                    skippedUploads.add(upload);
+                    continue;
+                }
+                mQueuedUploadsById.remove(upload.mMedia.getId());
+                mRunningUploads.put(upload.mMedia.getId(), upload);
+                mRunningUploadCounts.put(localSiteId, mRunningUploadCounts.get(localSiteId) + 1);
+                uploadsToStart.add(upload);
+            }
+            mQueuedUploads.addAll(skippedUploads);
+        }
+
+        for (Upload upload : uploadsToStart) {
+            upload.mMedia.setUploadState(MediaUploadState.UPLOADING);
+            MediaSqlUtils.insertOrUpdateMedia(upload.mMedia);
+            startUpload(upload);
+        }
+    }
+
+    private void startUpload(Upload upload) {
+        if (upload.mSite.isUsingWpComRestApi()) {
+            mMediaRestClient.uploadMedia(upload.mSite, upload.mMedia);
+        } else {
+            mMediaXmlrpcClient.uploadMedia(upload.mSite, upload.mMedia);
+        }
+    }
+
+    private boolean removeQueuedUpload(int localMediaId) {
+        Upload upload = mQueuedUploadsById.get(localMediaId);
+        if (upload == null) {
+            return false;
+        }
+        mQueuedUploadsById.remove(localMediaId);
+        mQueuedUploads.remove(upload);
+        return true;
+    }
+
+    private void removeRunningUpload(Upload upload) {
+        mRunningUploads.remove(upload.mMedia.getId());
+        int localSiteId = upload.mSite.getId();
+        int count = mRunningUploadCounts.get(localSiteId) - 1;
+        if (count > 0) {
+            mRunningUploadCounts.put(localSiteId, count);
+        } else {
+            mRunningUploadCounts.delete(localSiteId);
+        }
+    }
+
+    private static boolean isTransientError(MediaError error) {
+        return error.type == MediaStore.MediaErrorType.TIMEOUT
+               || error.type == MediaStore.MediaErrorType.CONNECTION_ERROR;
+    }
+}
@@ -8,12 +8,11 @@ import com.wellsql.generated.PostModelTable;
 import com.yarolegovich.wellsql.SelectQuery;
 import com.yarolegovich.wellsql.WellSql;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.jetbrains.annotations.NotNull;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.PostAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.generated.ListActionBuilder;
@@ -25,11 +24,13 @@ import org.wordpress.android.fluxc.model.CauseOfOnPostChanged.RemoveAllPosts;
 import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.PostsModel;
 import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.model.TermModel;
 import org.wordpress.android.fluxc.model.list.ListOrder;
 import org.wordpress.android.fluxc.model.list.PostListDescriptor;
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForRestSite;
 import org.wordpress.android.fluxc.model.list.PostListDescriptor.PostListDescriptorForXmlRpcSite;
 import org.wordpress.android.fluxc.model.post.PostStatus;
+import org.wordpress.android.fluxc.model.post.PostSummary;
 import org.wordpress.android.fluxc.model.revisions.Diff;
 import org.wordpress.android.fluxc.model.revisions.LocalDiffModel;
 import org.wordpress.android.fluxc.model.revisions.LocalDiffType;
@@ -39,7 +40,9 @@ import org.wordpress.android.fluxc.model.revisions.RevisionsModel;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
 import org.wordpress.android.fluxc.network.rest.wpcom.post.PostRestClient;
 import org.wordpress.android.fluxc.network.xmlrpc.post.PostXMLRPCClient;
+import org.wordpress.android.fluxc.persistence.FullTextSearchUtils;
 import org.wordpress.android.fluxc.persistence.PostSqlUtils;
+import org.wordpress.android.fluxc.persistence.PostSummaryList;
 import org.wordpress.android.fluxc.store.ListStore.FetchedListItemsPayload;
 import org.wordpress.android.fluxc.store.ListStore.ListError;
 import org.wordpress.android.fluxc.store.ListStore.ListErrorType;
@@ -58,6 +61,7 @@ import java.util.Map;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+@HandlesActions(PostAction.class)
 @Singleton
 public class PostStore extends Store {
     public static final int NUM_POSTS_PER_FETCH = 20;
@@ -330,6 +334,22 @@ public class PostStore extends Store {
         return PostSqlUtils.getPostsForSite(site, false);
     }
 
+    /**
+     * Returns all posts in the store for the given site as a lazily read {@link PostSummary} list, which doesn't load
+     * the content of the posts. The list must be closed when it isn't used anymore.
+     */
+    public PostSummaryList getPostSummariesForSite(SiteModel site) {
+        return PostSqlUtils.getPostSummariesForSite(site, false);
+    }
+
+    /**
+     * Returns all pages in the store for the given site as a lazily read {@link PostSummary} list, which doesn't load
+     * the content of the pages. The list must be closed when it isn't used anymore.
+     */
+    public PostSummaryList getPageSummariesForSite(SiteModel site) {
+        return PostSqlUtils.getPostSummariesForSite(site, true);
+    }
+
     /**
      * Returns posts with given format in the store for the given site as a {@link PostModel} list.
      */
@@ -344,18 +364,48 @@ public class PostStore extends Store {
         return PostSqlUtils.getPostsForSite(site, true);
     }
 
+    /**
+     * Returns the posts in the store for the given site with the given category or tag, as a {@link PostModel} list.
+     */
+    public List<PostModel> getPostsForSiteWithTerm(SiteModel site, TermModel term) {
+        return PostSqlUtils.getPostsForSiteWithTerm(site, term);
+    }
+
+    /**
+     * Returns the number of posts in the store for the given site with the given category or tag.
+     */
+    public int getPostCountForSiteWithTerm(SiteModel site, TermModel term) {
+        return PostSqlUtils.getPostCountForSiteWithTerm(site, term);
+    }
+
+    /**
+     * Returns the posts in the store for the given site with words starting with each word of the query in their
+     * title or content, the best matches first.
+     */
+    public List<PostModel> searchPostsForSite(SiteModel site, String query) {
+        return PostSqlUtils.searchPostsForSite(site, query, false, FullTextSearchUtils.DEFAULT_RESULT_LIMIT);
+    }
+
+    /**
+     * Returns the pages in the store for the given site with words starting with each word of the query in their
+     * title or content, the best matches first.
+     */
+    public List<PostModel> searchPagesForSite(SiteModel site, String query) {
+        return PostSqlUtils.searchPostsForSite(site, query, true, FullTextSearchUtils.DEFAULT_RESULT_LIMIT);
+    }
+
     /**
      * Returns the number of posts in the store for the given site.
      */
     public int getPostsCountForSite(SiteModel site) {
-        return getPostsForSite(site).size();
+        return PostSqlUtils.getPostCountForSite(site, false);
     }
 
     /**
      * Returns the number of pages in the store for the given site.
      */
     public int getPagesCountForSite(SiteModel site) {
-        return getPagesForSite(site).size();
+        return PostSqlUtils.getPostCountForSite(site, true);
     }
 
     /**
@@ -417,6 +467,26 @@ public class PostStore extends Store {
         return postMap;
     }
 
+    /**
+     * Same as {@link #getPostsByRemotePostIds}, but the values are {@link PostSummary}s, which don't hold the content
+     * of the posts.
+     */
+    public Map<Long, PostSummary> getPostSummariesByRemotePostIds(List<Long> remoteIds, SiteModel site) {
+        if (site == null) {
+            return Collections.emptyMap();
+        }
+        PostSummaryList summaries = PostSqlUtils.getPostSummariesByRemoteIds(remoteIds, site.getId());
+        try {
+            Map<Long, PostSummary> summaryMap = new HashMap<>(summaries.size());
+            for (PostSummary summary : summaries) {
+                summaryMap.put(summary.getRemotePostId(), summary);
+            }
+            return summaryMap;
+        } finally {
+            summaries.close();
+        }
+    }
+
     /**
      * Given a remote ID for a post and the site to which it belongs, returns that post as a {@link PostModel}.
      */
@@ -437,15 +507,40 @@ public class PostStore extends Store {
      * Returns the local posts for the given post list descriptor.
      */
     public List<PostModel> getLocalPostsForDescriptor(PostListDescriptor postListDescriptor) {
-        String searchQuery = null;
+        if (!includesLocalDrafts(postListDescriptor)) {
+            return Collections.emptyList();
+        }
+        return PostSqlUtils.getLocalPostsForFilter(postListDescriptor.getSite(), false,
+                getSearchQuery(postListDescriptor), getLocalOrderBy(postListDescriptor),
+                getLocalOrder(postListDescriptor));
+    }
+
+    /**
+     * Same as {@link #getLocalPostsForDescriptor}, but returns a lazily read {@link PostSummary} list, which doesn't
+     * load the content of the posts. The list must be closed when it isn't used anymore.
+     */
+    public PostSummaryList getLocalPostSummariesForDescriptor(PostListDescriptor postListDescriptor) {
+        if (!includesLocalDrafts(postListDescriptor)) {
+            return PostSummaryList.empty();
+        }
+        return PostSqlUtils.getLocalPostSummariesForFilter(postListDescriptor.getSite(), false,
+                getSearchQuery(postListDescriptor), getLocalOrderBy(postListDescriptor),
+                getLocalOrder(postListDescriptor));
+    }
+
+    private static boolean includesLocalDrafts(PostListDescriptor postListDescriptor) {
+        return !(postListDescriptor instanceof PostListDescriptorForRestSite)
+               || ((PostListDescriptorForRestSite) postListDescriptor).getStatusList().contains(PostStatus.DRAFT);
+    }
+
+    private static @Nullable String getSearchQuery(PostListDescriptor postListDescriptor) {
         if (postListDescriptor instanceof PostListDescriptorForRestSite) {
-            PostListDescriptorForRestSite descriptor = (PostListDescriptorForRestSite) postListDescriptor;
-            searchQuery = descriptor.getSearchQuery();
-            if (!(descriptor.getStatusList().contains(PostStatus.DRAFT))) {
-                // Drafts should not be included
-                return Collections.emptyList();
-            }
+            return ((PostListDescriptorForRestSite) postListDescriptor).getSearchQuery();
         }
+        return null;
+    }
+
+    private static String getLocalOrderBy(PostListDescriptor postListDescriptor) {
         String orderBy = null;
         switch (postListDescriptor.getOrderBy()) {
             case DATE:
@@ -465,13 +560,15 @@ public class PostStore extends Store {
                 orderBy = PostModelTable.ID;
                 break;
         }
-        int order;
+        return orderBy;
+    }
+
+    private static int getLocalOrder(PostListDescriptor postListDescriptor) {
         if (postListDescriptor.getOrder() == ListOrder.ASC) {
-            order = SelectQuery.ORDER_ASCENDING;
+            return SelectQuery.ORDER_ASCENDING;
         } else {
-            order = SelectQuery.ORDER_DESCENDING;
+            return SelectQuery.ORDER_DESCENDING;
         }
-        return PostSqlUtils.getLocalPostsForFilter(postListDescriptor.getSite(), false, searchQuery, orderBy, order);
     }
 
     /**
@@ -481,7 +578,6 @@ public class PostStore extends Store {
         return PostSqlUtils.getNumLocalChanges();
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
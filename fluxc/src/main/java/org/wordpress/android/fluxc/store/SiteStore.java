@@ -5,15 +5,12 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.text.TextUtils;
 
-import com.wellsql.generated.SiteModelTable;
 import com.yarolegovich.wellsql.WellSql;
-import com.yarolegovich.wellsql.mapper.SelectMapper;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.SiteAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.model.PlanModel;
@@ -32,6 +29,8 @@ import org.wordpress.android.fluxc.network.rest.wpcom.site.SiteRestClient.NewSit
 import org.wordpress.android.fluxc.network.rest.wpcom.site.SupportedCountryResponse;
 import org.wordpress.android.fluxc.network.rest.wpcom.site.SupportedStateResponse;
 import org.wordpress.android.fluxc.network.xmlrpc.site.SiteXMLRPCClient;
+import org.wordpress.android.fluxc.persistence.FullTextSearchUtils;
+import org.wordpress.android.fluxc.persistence.SiteModelCache;
 import org.wordpress.android.fluxc.persistence.SiteSqlUtils;
 import org.wordpress.android.fluxc.persistence.SiteSqlUtils.DuplicateSiteException;
 import org.wordpress.android.fluxc.utils.SiteErrorUtils;
@@ -48,6 +47,7 @@ import javax.inject.Singleton;
 /**
  * SQLite based only. There is no in memory copy of mapped data, everything is queried from the DB.
  */
+@HandlesActions(SiteAction.class)
 @Singleton
 public class SiteStore extends Store {
     // Payloads
@@ -881,7 +881,7 @@ public class SiteStore extends Store {
      * Returns all sites in the store as a {@link SiteModel} list.
      */
     public List<SiteModel> getSites() {
-        return WellSql.select(SiteModel.class).getAsModel();
+        return SiteSqlUtils.getSiteCache().getSites(SiteModelCache.ALL);
     }
 
     /**
@@ -895,7 +895,7 @@ public class SiteStore extends Store {
      * Returns the number of sites of any kind in the store.
      */
     public int getSitesCount() {
-        return getSitesCursor().getCount();
+        return SiteSqlUtils.getSiteCache().getSitesCount(SiteModelCache.ALL);
     }
 
     /**
@@ -909,32 +909,28 @@ public class SiteStore extends Store {
      * Obtains the site with the given (local) id and returns it as a {@link SiteModel}.
      */
     public SiteModel getSiteByLocalId(int id) {
-        List<SiteModel> result = SiteSqlUtils.getSitesWith(SiteModelTable.ID, id).getAsModel();
-        if (result.size() > 0) {
-            return result.get(0);
-        }
-        return null;
+        return SiteSqlUtils.getSiteCache().getSiteByLocalId(id);
     }
 
     /**
      * Checks whether the store contains a site matching the given (local) id.
      */
     public boolean hasSiteWithLocalId(int id) {
-        return SiteSqlUtils.getSitesWith(SiteModelTable.ID, id).getAsCursor().getCount() > 0;
+        return SiteSqlUtils.getSiteCache().hasSiteWithLocalId(id);
     }
 
     /**
      * Returns all .COM sites in the store.
      */
     public List<SiteModel> getWPComSites() {
-        return SiteSqlUtils.getSitesWith(SiteModelTable.IS_WPCOM, true).getAsModel();
+        return SiteSqlUtils.getSiteCache().getSites(SiteModelCache.WPCOM);
     }
 
     /**
      * Returns sites accessed via WPCom REST API (WPCom sites or Jetpack sites connected via WPCom REST API).
      */
     public List<SiteModel> getSitesAccessedViaWPComRest() {
-        return SiteSqlUtils.getSitesAccessedViaWPComRest().getAsModel();
+        return SiteSqlUtils.getSiteCache().getSites(SiteModelCache.ACCESSED_VIA_WPCOM_REST);
     }
 
     /**
@@ -942,7 +938,7 @@ public class SiteStore extends Store {
      * via WPCom REST API).
      */
     public int getSitesAccessedViaWPComRestCount() {
-        return SiteSqlUtils.getSitesAccessedViaWPComRest().getAsCursor().getCount();
+        return SiteSqlUtils.getSiteCache().getSitesCount(SiteModelCache.ACCESSED_VIA_WPCOM_REST);
     }
 
     /**
@@ -957,7 +953,7 @@ public class SiteStore extends Store {
      * Returns the number of .COM sites in the store.
      */
     public int getWPComSitesCount() {
-        return SiteSqlUtils.getSitesWith(SiteModelTable.IS_WPCOM, true).getAsCursor().getCount();
+        return SiteSqlUtils.getSiteCache().getSitesCount(SiteModelCache.WPCOM);
     }
 
     /**
@@ -968,6 +964,14 @@ public class SiteStore extends Store {
         return SiteSqlUtils.getSitesByNameOrUrlMatching(searchString);
     }
 
+    /**
+     * Returns sites with words starting with each word of the query in their name or url, the best matches first.
+     */
+    @NonNull
+    public List<SiteModel> searchSites(@NonNull String query) {
+        return SiteSqlUtils.searchSites(query, FullTextSearchUtils.DEFAULT_RESULT_LIMIT);
+    }
+
     /**
      * Returns sites accessed via WPCom REST API (WPCom sites or Jetpack sites connected via WPCom REST API) with a
      * name or url matching the search string.
@@ -988,14 +992,14 @@ public class SiteStore extends Store {
      * Returns sites accessed via XMLRPC (self-hosted sites or Jetpack sites accessed via XMLRPC).
      */
     public List<SiteModel> getSitesAccessedViaXMLRPC() {
-        return SiteSqlUtils.getSitesAccessedViaXMLRPC().getAsModel();
+        return SiteSqlUtils.getSiteCache().getSites(SiteModelCache.ACCESSED_VIA_XMLRPC);
     }
 
     /**
      * Returns the number of sites accessed via XMLRPC (self-hosted sites or Jetpack sites accessed via XMLRPC).
      */
     public int getSitesAccessedViaXMLRPCCount() {
-        return SiteSqlUtils.getSitesAccessedViaXMLRPC().getAsCursor().getCount();
+        return SiteSqlUtils.getSiteCache().getSitesCount(SiteModelCache.ACCESSED_VIA_XMLRPC);
     }
 
     /**
@@ -1010,88 +1014,49 @@ public class SiteStore extends Store {
      * Returns all visible sites as {@link SiteModel}s. All self-hosted sites over XML-RPC are visible by default.
      */
     public List<SiteModel> getVisibleSites() {
-        return SiteSqlUtils.getSitesWith(SiteModelTable.IS_VISIBLE, true).getAsModel();
+        return SiteSqlUtils.getSiteCache().getSites(SiteModelCache.VISIBLE);
     }
 
     /**
      * Returns the number of visible sites. All self-hosted sites over XML-RPC are visible by default.
      */
     public int getVisibleSitesCount() {
-        return SiteSqlUtils.getSitesWith(SiteModelTable.IS_VISIBLE, true).getAsCursor().getCount();
+        return SiteSqlUtils.getSiteCache().getSitesCount(SiteModelCache.VISIBLE);
     }
 
     /**
      * Returns all visible .COM sites as {@link SiteModel}s.
      */
     public List<SiteModel> getVisibleSitesAccessedViaWPCom() {
-        return SiteSqlUtils.getVisibleSitesAccessedViaWPCom().getAsModel();
+        return SiteSqlUtils.getSiteCache().getSites(SiteModelCache.VISIBLE_ACCESSED_VIA_WPCOM_REST);
     }
 
     /**
      * Returns the number of visible .COM sites.
      */
     public int getVisibleSitesAccessedViaWPComCount() {
-        return SiteSqlUtils.getVisibleSitesAccessedViaWPCom().getAsCursor().getCount();
+        return SiteSqlUtils.getSiteCache().getSitesCount(SiteModelCache.VISIBLE_ACCESSED_VIA_WPCOM_REST);
     }
 
     /**
      * Checks whether the .COM site with the given (local) id is visible.
      */
     public boolean isWPComSiteVisibleByLocalId(int id) {
-        return WellSql.select(SiteModel.class)
-                .where().beginGroup()
-                .equals(SiteModelTable.ID, id)
-                .equals(SiteModelTable.IS_WPCOM, true)
-                .equals(SiteModelTable.IS_VISIBLE, true)
-                .endGroup().endWhere()
-                .getAsCursor().getCount() > 0;
+        return SiteSqlUtils.getSiteCache().matches(id, SiteModelCache.VISIBLE_WPCOM);
     }
 
     /**
      * Given a (remote) site id, returns the corresponding (local) id.
      */
     public int getLocalIdForRemoteSiteId(long siteId) {
-        List<SiteModel> sites = WellSql.select(SiteModel.class)
-                .where().beginGroup()
-                .equals(SiteModelTable.SITE_ID, siteId)
-                .or()
-                .equals(SiteModelTable.SELF_HOSTED_SITE_ID, siteId)
-                .endGroup().endWhere()
-                .getAsModel(new SelectMapper<SiteModel>() {
-                    @Override
-                    public SiteModel convert(Cursor cursor) {
-                        SiteModel siteModel = new SiteModel();
-                        siteModel.setId(cursor.getInt(cursor.getColumnIndex(SiteModelTable.ID)));
-                        return siteModel;
-                    }
-                });
-        if (sites.size() > 0) {
-            return sites.get(0).getId();
-        }
-        return 0;
+        return SiteSqlUtils.getSiteCache().getLocalIdForRemoteSiteId(siteId);
     }
 
     /**
      * Given a (remote) self-hosted site id and XML-RPC url, returns the corresponding (local) id.
      */
     public int getLocalIdForSelfHostedSiteIdAndXmlRpcUrl(long selfHostedSiteId, String xmlRpcUrl) {
-        List<SiteModel> sites = WellSql.select(SiteModel.class)
-                .where().beginGroup()
-                .equals(SiteModelTable.SELF_HOSTED_SITE_ID, selfHostedSiteId)
-                .equals(SiteModelTable.XMLRPC_URL, xmlRpcUrl)
-                .endGroup().endWhere()
-                .getAsModel(new SelectMapper<SiteModel>() {
-                    @Override
-                    public SiteModel convert(Cursor cursor) {
-                        SiteModel siteModel = new SiteModel();
-                        siteModel.setId(cursor.getInt(cursor.getColumnIndex(SiteModelTable.ID)));
-                        return siteModel;
-                    }
-                });
-        if (sites.size() > 0) {
-            return sites.get(0).getId();
-        }
-        return 0;
+        return SiteSqlUtils.getSiteCache().getLocalIdForSelfHostedSiteIdAndXmlRpcUrl(selfHostedSiteId, xmlRpcUrl);
     }
 
     /**
@@ -1099,29 +1064,7 @@ public class SiteStore extends Store {
      * sites.
      */
     public long getSiteIdForLocalId(int id) {
-        List<SiteModel> result = WellSql.select(SiteModel.class)
-                .where().beginGroup()
-                .equals(SiteModelTable.ID, id)
-                .endGroup().endWhere()
-                .getAsModel(new SelectMapper<SiteModel>() {
-                    @Override
-                    public SiteModel convert(Cursor cursor) {
-                        SiteModel siteModel = new SiteModel();
-                        siteModel.setSiteId(cursor.getInt(cursor.getColumnIndex(SiteModelTable.SITE_ID)));
-                        siteModel.setSelfHostedSiteId(cursor.getLong(
-                                cursor.getColumnIndex(SiteModelTable.SELF_HOSTED_SITE_ID)));
-                        return siteModel;
-                    }
-                });
-        if (result.isEmpty()) {
-            return 0;
-        }
-
-        if (result.get(0).getSiteId() > 0) {
-            return result.get(0).getSiteId();
-        } else {
-            return result.get(0).getSelfHostedSiteId();
-        }
+        return SiteSqlUtils.getSiteCache().getRemoteSiteIdForLocalId(id);
     }
 
     /**
@@ -1133,13 +1076,7 @@ public class SiteStore extends Store {
             return null;
         }
 
-        List<SiteModel> sites = SiteSqlUtils.getSitesWith(SiteModelTable.SITE_ID, siteId).getAsModel();
-
-        if (sites.isEmpty()) {
-            return null;
-        } else {
-            return sites.get(0);
-        }
+        return SiteSqlUtils.getSiteCache().getSiteBySiteId(siteId);
     }
 
     public List<PostFormatModel> getPostFormats(SiteModel site) {
@@ -1150,7 +1087,6 @@ public class SiteStore extends Store {
         return SiteSqlUtils.getUserRoles(site);
     }
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
@@ -1386,15 +1322,7 @@ public class SiteStore extends Store {
     }
 
     private UpdateSitesResult createOrUpdateSites(SitesModel sites) {
-        UpdateSitesResult result = new UpdateSitesResult();
-        for (SiteModel site : sites.getSites()) {
-            try {
-                result.rowsAffected += SiteSqlUtils.insertOrUpdateSite(site);
-            } catch (DuplicateSiteException caughtException) {
-                result.duplicateSiteFound = true;
-            }
-        }
-        return result;
+        return SiteSqlUtils.insertOrUpdateSites(sites.getSites());
     }
 
     private void deleteSite(SiteModel site) {
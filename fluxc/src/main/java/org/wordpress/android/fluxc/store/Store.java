@@ -23,7 +23,8 @@ public abstract class Store {
     }
 
     /**
-     * onAction should {@link org.greenrobot.eventbus.Subscribe} with ASYNC {@link org.greenrobot.eventbus.ThreadMode}.
+     * Called by the {@link Dispatcher} on a background thread, in dispatch order, for every action of a type declared
+     * in the Store's {@link org.wordpress.android.fluxc.annotations.HandlesActions} annotation.
      */
     public abstract void onAction(Action action);
     public abstract void onRegister();
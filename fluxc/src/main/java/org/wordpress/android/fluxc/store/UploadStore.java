@@ -3,12 +3,11 @@ package org.wordpress.android.fluxc.store;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
-import org.greenrobot.eventbus.Subscribe;
-import org.greenrobot.eventbus.ThreadMode;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.Payload;
 import org.wordpress.android.fluxc.action.MediaAction;
 import org.wordpress.android.fluxc.action.UploadAction;
+import org.wordpress.android.fluxc.annotations.HandlesActions;
 import org.wordpress.android.fluxc.annotations.action.Action;
 import org.wordpress.android.fluxc.annotations.action.IAction;
 import org.wordpress.android.fluxc.generated.MediaActionBuilder;
@@ -20,6 +19,7 @@ import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.PostUploadModel;
 import org.wordpress.android.fluxc.network.BaseRequest.BaseNetworkError;
 import org.wordpress.android.fluxc.persistence.MediaSqlUtils;
+import org.wordpress.android.fluxc.persistence.MediaUploadProgressCache;
 import org.wordpress.android.fluxc.persistence.UploadSqlUtils;
 import org.wordpress.android.fluxc.store.MediaStore.CancelMediaPayload;
 import org.wordpress.android.fluxc.store.MediaStore.MediaError;
@@ -40,6 +40,7 @@ import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+@HandlesActions({UploadAction.class, MediaAction.class})
 @Singleton
 public class UploadStore extends Store {
     public static class ClearMediaPayload extends Payload<BaseNetworkError> {
@@ -77,6 +78,9 @@ public class UploadStore extends Store {
         }
     }
 
+    // Progress events are frequent, their progress is only saved to the DB from time to time
+    private final MediaUploadProgressCache mProgressCache = new MediaUploadProgressCache();
+
     @Inject
     public UploadStore(Dispatcher dispatcher) {
         super(dispatcher);
@@ -88,7 +92,6 @@ public class UploadStore extends Store {
     }
 
     // Ensure that events reach the UploadStore before their main stores (MediaStore, PostStore)
-    @Subscribe(threadMode = ThreadMode.ASYNC, priority = 1)
     @Override
     public void onAction(Action action) {
         IAction actionType = action.getType();
@@ -240,6 +243,10 @@ public class UploadStore extends Store {
     }
 
     public float getUploadProgressForMedia(MediaModel mediaModel) {
+        Float progress = mProgressCache.getProgress(mediaModel.getId());
+        if (progress != null) {
+            return progress;
+        }
         MediaUploadModel mediaUploadModel = UploadSqlUtils.getMediaUploadModelForLocalId(mediaModel.getId());
         if (mediaUploadModel != null) {
             return mediaUploadModel.getProgress();
@@ -255,6 +262,11 @@ public class UploadStore extends Store {
             mediaUploadModel.setMediaError(new MediaError(MediaErrorType.MALFORMED_MEDIA_ARG, errorMessage));
         }
         UploadSqlUtils.insertOrUpdateMedia(mediaUploadModel);
+        if (mediaUploadModel.getUploadState() == MediaUploadModel.UPLOADING) {
+            mProgressCache.startTracking(mediaUploadModel.getId(), mediaUploadModel.getProgress());
+        } else {
+            mProgressCache.stopTracking(mediaUploadModel.getId());
+        }
 
         // If we have a FAILED or CANCELLED post associated with this media, we've already started making changes to
         // this post and don't need a reference to the old PostUploadModel anymore
@@ -274,16 +286,30 @@ public class UploadStore extends Store {
             return;
         }
 
-        MediaUploadModel mediaUploadModel = UploadSqlUtils.getMediaUploadModelForLocalId(payload.media.getId());
-        if (mediaUploadModel == null) {
-            if (!payload.isError() && !payload.canceled && !payload.completed) {
-                // This is a progress event, and the upload seems to have already been cancelled
-                // We don't want to store a new MediaUploadModel in this case, just move on
-                return;
+        int localMediaId = payload.media.getId();
+        if (!payload.isError() && !payload.canceled && !payload.completed) {
+            // This is a progress event, only the progress is updated, since that's all the new information this
+            // event gives us. It's kept in memory, and saved to the DB from time to time.
+            if (!mProgressCache.updateProgress(localMediaId, payload.progress)) {
+                MediaUploadModel mediaUploadModel = UploadSqlUtils.getMediaUploadModelForLocalId(localMediaId);
+                if (mediaUploadModel == null) {
+                    // This is a progress event, and the upload seems to have already been cancelled
+                    // We don't want to store a new MediaUploadModel in this case, just move on
+                    return;
+                }
+                mProgressCache.startTracking(localMediaId, mediaUploadModel.getProgress());
+                mProgressCache.updateProgress(localMediaId, payload.progress);
             }
-            mediaUploadModel = new MediaUploadModel(payload.media.getId());
+            return;
         }
 
+        MediaUploadModel mediaUploadModel = UploadSqlUtils.getMediaUploadModelForLocalId(localMediaId);
+        if (mediaUploadModel == null) {
+            mediaUploadModel = new MediaUploadModel(localMediaId);
+        }
+        mProgressCache.applyProgress(mediaUploadModel);
+        mProgressCache.stopTracking(localMediaId);
+
         if (payload.isError() || payload.canceled) {
             mediaUploadModel.setUploadState(MediaUploadModel.FAILED);
             if (payload.isError()) {
@@ -296,18 +322,9 @@ public class UploadStore extends Store {
             return;
         }
 
-        if (payload.completed) {
-            mediaUploadModel.setUploadState(MediaUploadModel.COMPLETED);
-            mediaUploadModel.setProgress(1F);
-            UploadSqlUtils.insertOrUpdateMedia(mediaUploadModel);
-        } else {
-            if (mediaUploadModel.getProgress() < payload.progress) {
-                mediaUploadModel.setProgress(payload.progress);
-                // To avoid conflicts with another action handler updating the state of the MediaUploadModel,
-                // update the progress value only, since that's all the new information this event gives us
-                UploadSqlUtils.updateMediaProgressOnly(mediaUploadModel);
-            }
-        }
+        mediaUploadModel.setUploadState(MediaUploadModel.COMPLETED);
+        mediaUploadModel.setProgress(1F);
+        UploadSqlUtils.insertOrUpdateMedia(mediaUploadModel);
     }
 
     private void handleCancelMedia(@NonNull CancelMediaPayload payload) {
@@ -323,9 +340,13 @@ public class UploadStore extends Store {
             if (mediaUploadModel == null) {
                 mediaUploadModel = new MediaUploadModel(payload.media.getId());
             }
+            mProgressCache.applyProgress(mediaUploadModel);
+            mProgressCache.stopTracking(payload.media.getId());
 
             mediaUploadModel.setUploadState(MediaUploadModel.FAILED);
             UploadSqlUtils.insertOrUpdateMedia(mediaUploadModel);
+        } else {
+            mProgressCache.stopTracking(payload.media.getId());
         }
 
         if (payload.media.getLocalPostId() > 0) {
@@ -347,6 +368,7 @@ public class UploadStore extends Store {
                     mediaUploadModel.setUploadState(MediaUploadModel.FAILED);
                     mediaUploadModel.setMediaError(new MediaError(MediaErrorType.GENERIC_ERROR));
                     mediaUploadModel.setProgress(0);
+                    mProgressCache.stopTracking(mediaUploadModel.getId());
                     UploadSqlUtils.insertOrUpdateMedia(mediaUploadModel);
                     // Also cancel the associated post
                     if (payload.getLocalPostId() > 0) {
@@ -386,6 +408,7 @@ public class UploadStore extends Store {
 
         if (postUploadModel != null) {
             // Delete all MediaUploadModels associated with this post since we're finished with it
+            mProgressCache.stopTracking(postUploadModel.getAssociatedMediaIdSet());
             UploadSqlUtils.deleteMediaUploadModelsWithLocalIds(postUploadModel.getAssociatedMediaIdSet());
 
             // Delete the PostUploadModel itself
@@ -419,6 +442,7 @@ public class UploadStore extends Store {
         for (MediaModel mediaModel : payload.media) {
             localMediaIds.add(mediaModel.getId());
         }
+        mProgressCache.stopTracking(localMediaIds);
         UploadSqlUtils.deleteMediaUploadModelsWithLocalIds(localMediaIds);
 
         emitChange(new OnUploadChanged(UploadAction.CLEAR_MEDIA_FOR_POST));
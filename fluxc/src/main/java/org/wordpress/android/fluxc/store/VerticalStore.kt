@@ -2,13 +2,12 @@ package org.wordpress.android.fluxc.store
 
 import kotlinx.coroutines.GlobalScope
 import kotlinx.coroutines.launch
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.VerticalAction
 import org.wordpress.android.fluxc.action.VerticalAction.FETCH_SEGMENT_PROMPT
 import org.wordpress.android.fluxc.action.VerticalAction.FETCH_VERTICALS
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.vertical.SegmentPromptModel
 import org.wordpress.android.fluxc.model.vertical.VerticalModel
@@ -21,13 +20,13 @@ import kotlin.coroutines.CoroutineContext
 
 private const val DEFAULT_FETCH_VERTICAL_LIMIT = 5
 
+@HandlesActions(VerticalAction::class)
 @Singleton
 class VerticalStore @Inject constructor(
     private val verticalRestClient: VerticalRestClient,
     private val coroutineContext: CoroutineContext,
     dispatcher: Dispatcher
 ) : Store(dispatcher) {
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? VerticalAction ?: return
 
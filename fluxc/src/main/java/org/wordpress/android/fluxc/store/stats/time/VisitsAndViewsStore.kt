@@ -4,6 +4,7 @@ import kotlinx.coroutines.withContext
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.stats.time.TimeStatsMapper
 import org.wordpress.android.fluxc.model.stats.time.VisitsAndViewsModel
+import org.wordpress.android.fluxc.model.stats.time.VisitsAndViewsModel.PeriodData
 import org.wordpress.android.fluxc.network.rest.wpcom.stats.time.VisitAndViewsRestClient
 import org.wordpress.android.fluxc.network.utils.StatsGranularity
 import org.wordpress.android.fluxc.persistence.TimeStatsSqlUtils
@@ -34,8 +35,8 @@ class VisitsAndViewsStore
         return@withContext when {
             payload.isError -> OnStatsFetched(payload.error)
             payload.response != null -> {
-                sqlUtils.insert(site, payload.response, granularity, date)
                 val overviewResponse = timeStatsMapper.map(payload.response)
+                sqlUtils.insert(site, overviewResponse, granularity, date)
                 if (overviewResponse.period.isBlank() || overviewResponse.dates.isEmpty())
                     OnStatsFetched(StatsError(INVALID_RESPONSE, "Overview: Required data 'period' or 'dates' missing"))
                 else
@@ -46,6 +47,13 @@ class VisitsAndViewsStore
     }
 
     fun getVisits(site: SiteModel, date: Date, granularity: StatsGranularity): VisitsAndViewsModel? {
-        return sqlUtils.selectVisitsAndViews(site, granularity, date)?.let { timeStatsMapper.map(it) }
+        return sqlUtils.selectVisitsAndViews(site, granularity, date)
+    }
+
+    /**
+     * Returns the stored visits and views for every period between [startDate] and [endDate], across all the fetches.
+     */
+    fun getVisits(site: SiteModel, startDate: Date, endDate: Date, granularity: StatsGranularity): List<PeriodData> {
+        return sqlUtils.selectVisitsAndViews(site, granularity, startDate, endDate)
     }
 }
@@ -4,7 +4,10 @@ import android.content.Context
 import com.android.volley.RequestQueue
 import dagger.Module
 import dagger.Provides
+import dagger.multibindings.IntoSet
 import org.wordpress.android.fluxc.Dispatcher
+import org.wordpress.android.fluxc.annotations.ActionRoutingIndex
+import org.wordpress.android.fluxc.generated.WooCommerceIndex
 import org.wordpress.android.fluxc.network.UserAgent
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AccessToken
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.WooCommerceRestClient
@@ -15,6 +18,10 @@ import javax.inject.Singleton
 
 @Module
 class ReleaseWCNetworkModule {
+    @Provides
+    @IntoSet
+    fun provideWooCommerceIndex(): ActionRoutingIndex = WooCommerceIndex()
+
     @Singleton
     @Provides
     fun provideWooCommerceRestClient(
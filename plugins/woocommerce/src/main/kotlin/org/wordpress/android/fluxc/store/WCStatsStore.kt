@@ -1,10 +1,9 @@
 package org.wordpress.android.fluxc.store
 
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.WCStatsAction
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.model.WCOrderStatsModel
@@ -23,6 +22,7 @@ import java.util.Locale
 import javax.inject.Inject
 import javax.inject.Singleton
 
+@HandlesActions(WCStatsAction::class)
 @Singleton
 class WCStatsStore @Inject constructor(
     dispatcher: Dispatcher,
@@ -147,7 +147,6 @@ class WCStatsStore @Inject constructor(
 
     override fun onRegister() = AppLog.d(T.API, "WCStatsStore onRegister")
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? WCStatsAction ?: return
         when (actionType) {
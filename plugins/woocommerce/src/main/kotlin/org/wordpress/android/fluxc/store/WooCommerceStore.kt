@@ -1,11 +1,10 @@
 package org.wordpress.android.fluxc.store
 
 import com.wellsql.generated.SiteModelTable
-import org.greenrobot.eventbus.Subscribe
-import org.greenrobot.eventbus.ThreadMode
 import org.wordpress.android.fluxc.Dispatcher
 import org.wordpress.android.fluxc.Payload
 import org.wordpress.android.fluxc.action.WCCoreAction
+import org.wordpress.android.fluxc.annotations.HandlesActions
 import org.wordpress.android.fluxc.annotations.action.Action
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.network.rest.wpcom.wc.WooCommerceRestClient
@@ -17,6 +16,7 @@ import java.util.Locale
 import javax.inject.Inject
 import javax.inject.Singleton
 
+@HandlesActions(WCCoreAction::class)
 @Singleton
 class WooCommerceStore @Inject constructor(dispatcher: Dispatcher, private val wcCoreRestClient: WooCommerceRestClient)
     : Store(dispatcher) {
@@ -50,7 +50,6 @@ class WooCommerceStore @Inject constructor(dispatcher: Dispatcher, private val w
 
     override fun onRegister() = AppLog.d(T.API, "WooCommerceStore onRegister")
 
-    @Subscribe(threadMode = ThreadMode.ASYNC)
     override fun onAction(action: Action<*>) {
         val actionType = action.type as? WCCoreAction ?: return
         when (actionType) {